@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -292,6 +292,8 @@ public class AutocodeConcurrentApp {
 //				"main/boofcv-ip/src/main/java/boofcv/alg/transform/ii/impl/",
 //				"main/boofcv-ip/src/main/java/boofcv/alg/transform/pyramid/impl/",
 //				"main/boofcv-ip/src/main/java/boofcv/alg/transform/census/impl/",
+//				"main/boofcv-ip/src/main/java/boofcv/alg/transform/wavelet/impl/",
+//				"main/boofcv-ip/src/main/java/boofcv/alg/denoise/wavelet/",
 //				"main/boofcv-feature/src/main/java/boofcv/alg/feature/detect/edge/impl",
 //				"main/boofcv-feature/src/main/java/boofcv/alg/feature/detect/intensity/impl",
 //				"main/boofcv-feature/src/main/java/boofcv/alg/feature/associate",
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.feature.BriefFeatureQueue;
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scoring binary descriptors one pair at a time against scoring packed descriptors in a batch
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkAssociateHamming {
+
+	@Param({"256","512"})
+	int numBits;
+
+	@Param({"2000"})
+	int numFeatures;
+
+	FastQueue<TupleDesc_B> listA;
+	FastQueue<TupleDesc_B> listB;
+	PackedTupleArray_B packedA = new PackedTupleArray_B();
+	PackedTupleArray_B packedB = new PackedTupleArray_B();
+	double[] scores;
+
+	ScoreAssociateHamming_B hamming = new ScoreAssociateHamming_B();
+
+	// Hides the type of score so that the per-object path is used
+	ScoreAssociation<TupleDesc_B> individual = new ScoreAssociation<TupleDesc_B>() {
+		@Override public double score(TupleDesc_B a, TupleDesc_B b) { return hamming.score(a,b); }
+		@Override public MatchScoreType getScoreType() { return hamming.getScoreType(); }
+	};
+
+	AssociateGreedy<TupleDesc_B> greedyIndividual;
+	AssociateGreedy<TupleDesc_B> greedyPacked;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		listA = createSet(rand);
+		listB = createSet(rand);
+		packedA.setTo(listA);
+		packedB.setTo(listB);
+		scores = new double[numFeatures];
+
+		greedyIndividual = new AssociateGreedy<>(individual,false);
+		greedyPacked = new AssociateGreedy<>(hamming,false);
+	}
+
+	@Benchmark
+	public double scoreIndividual() {
+		double total = 0;
+		for (int i = 0; i < listA.size; i++) {
+			TupleDesc_B a = listA.data[i];
+			for (int j = 0; j < listB.size; j++) {
+				total += hamming.score(a,listB.data[j]);
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double scoreBatch() {
+		double total = 0;
+		for (int i = 0; i < packedA.size; i++) {
+			hamming.scoreBatch(packedA,i,packedB,scores,0);
+			total += scores[i];
+		}
+		return total;
+	}
+
+	@Benchmark
+	public void greedyIndividual() {
+		greedyIndividual.associate(listA,listB);
+	}
+
+	@Benchmark
+	public void greedyPacked() {
+		greedyPacked.associate(listA,listB);
+	}
+
+	FastQueue<TupleDesc_B> createSet( Random rand ) {
+		FastQueue<TupleDesc_B> ret = new BriefFeatureQueue(numBits);
+		for (int i = 0; i < numFeatures; i++) {
+			TupleDesc_B t = ret.grow();
+			for (int j = 0; j < t.data.length; j++) {
+				t.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.interest.ConfigFastCorner;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares processing the image in strips against computing each step across the entire image
+ * with {@link GeneralFeatureDetector}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkStripFeatureDetector {
+	@Param({"true","false"})
+	public boolean concurrent=false;
+
+	@Param({"640","2000"})
+	public int size=2000;
+
+	GrayU8 image = new GrayU8(1,1);
+
+	EasyGeneralFeatureDetector<GrayU8,GrayS16> harris;
+	EasyGeneralFeatureDetector<GrayU8,GrayS16> shiTomasi;
+	EasyGeneralFeatureDetector<GrayU8,GrayS16> fast;
+
+	StripGeneralFeatureDetector<GrayU8,GrayS16> stripHarris;
+	StripGeneralFeatureDetector<GrayU8,GrayS16> stripShiTomasi;
+	StripGeneralFeatureDetector<GrayU8,GrayS16> stripFast;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		Random rand = new Random(234);
+		GrayU8 noise = new GrayU8(size, size);
+		ImageMiscOps.fillUniform(noise, rand, 0, 256);
+		image = BlurImageOps.gaussian(noise, null, -1, 2, null);
+
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1, 2, 1.0f);
+		ConfigFastCorner configFast = new ConfigFastCorner(10, 9);
+
+		harris = new EasyGeneralFeatureDetector<>(
+				FactoryDetectPoint.createHarris(config, null, GrayS16.class), GrayU8.class, GrayS16.class);
+		shiTomasi = new EasyGeneralFeatureDetector<>(
+				FactoryDetectPoint.createShiTomasi(config, null, GrayS16.class), GrayU8.class, GrayS16.class);
+		fast = new EasyGeneralFeatureDetector<>(
+				FactoryDetectPoint.createFast(configFast, config, GrayU8.class), GrayU8.class, GrayS16.class);
+
+		stripHarris = FactoryDetectPoint.createStripHarris(config, null, GrayU8.class, GrayS16.class);
+		stripShiTomasi = FactoryDetectPoint.createStripShiTomasi(config, null, GrayU8.class, GrayS16.class);
+		stripFast = FactoryDetectPoint.createStripFast(configFast, config, GrayU8.class);
+	}
+
+	@Benchmark
+	public void Harris() {
+		harris.detect(image, null);
+	}
+
+	@Benchmark
+	public void Harris_Strip() {
+		stripHarris.process(image);
+	}
+
+	@Benchmark
+	public void ShiTomasi() {
+		shiTomasi.detect(image, null);
+	}
+
+	@Benchmark
+	public void ShiTomasi_Strip() {
+		stripShiTomasi.process(image);
+	}
+
+	@Benchmark
+	public void Fast() {
+		fast.detect(image, null);
+	}
+
+	@Benchmark
+	public void Fast_Strip() {
+		stripFast.process(image);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkStripFeatureDetector.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.disparity.*;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression benchmark for dense stereo. Covers all the SGM error types and the block matching row scores
+ * which are not covered elsewhere (NCC and census). When run from main() the results are saved in JSON format
+ * so that they can be compared between releases.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkStereoDisparity {
+	@Param({"320","640"})
+	public int width;
+
+	@Param({"64","128"})
+	public int disparityRange;
+
+	@Param({"1","4"})
+	public int threads;
+
+	GrayU8 left = new GrayU8(1,1);
+	GrayU8 right = new GrayU8(1,1);
+
+	StereoDisparity<GrayU8, GrayF32> sgmCensus;
+	StereoDisparity<GrayU8, GrayF32> sgmHmi;
+	StereoDisparity<GrayU8, GrayF32> sgmAbsDiff;
+	StereoDisparity<GrayU8, GrayF32> bmCensus;
+	StereoDisparity<GrayU8, GrayF32> bmNcc;
+
+	@Setup
+	public void setup() {
+		// The number of threads needs to be set before the algorithms are created so that the factory
+		// will select the single or multi-threaded implementation
+		BoofConcurrency.setMaxThreads(threads);
+
+		int height = width*3/4;
+		renderStereoPair(width, height);
+
+		sgmCensus = createSgm(DisparitySgmError.CENSUS);
+		sgmHmi = createSgm(DisparitySgmError.MUTUAL_INFORMATION);
+		sgmAbsDiff = createSgm(DisparitySgmError.ABSOLUTE_DIFFERENCE);
+		bmCensus = createBlockMatch(DisparityError.CENSUS);
+		bmNcc = createBlockMatch(DisparityError.NCC);
+	}
+
+	@TearDown
+	public void teardown() {
+		BoofConcurrency.setMaxThreads(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a textured image pair where the disparity changes along the y-axis
+	 */
+	private void renderStereoPair( int width , int height ) {
+		Random rand = new Random(234);
+		left.reshape(width, height);
+		right.reshape(width, height);
+		ImageMiscOps.fillUniform(left, rand, 0, 255);
+
+		for (int y = 0; y < height; y++) {
+			int d = disparityRange/4 + (disparityRange/2)*y/height;
+			for (int x = d; x < width; x++) {
+				right.unsafe_set(x-d, y, left.unsafe_get(x, y));
+			}
+		}
+	}
+
+	private StereoDisparity<GrayU8, GrayF32> createSgm( DisparitySgmError errorType ) {
+		ConfigDisparitySGM config = new ConfigDisparitySGM();
+		config.errorType = errorType;
+		config.disparityRange = disparityRange;
+		return FactoryStereoDisparity.sgm(config, GrayU8.class, GrayF32.class);
+	}
+
+	private StereoDisparity<GrayU8, GrayF32> createBlockMatch( DisparityError errorType ) {
+		ConfigDisparityBM config = new ConfigDisparityBM();
+		config.errorType = errorType;
+		config.disparityRange = disparityRange;
+		return FactoryStereoDisparity.blockMatch(config, GrayU8.class, GrayF32.class);
+	}
+
+	@Benchmark
+	public void SGM_Census() {
+		sgmCensus.process(left, right);
+	}
+
+	@Benchmark
+	public void SGM_HMI() {
+		sgmHmi.process(left, right);
+	}
+
+	@Benchmark
+	public void SGM_AbsoluteDifference() {
+		sgmAbsDiff.process(left, right);
+	}
+
+	@Benchmark
+	public void BM_Census() {
+		bmCensus.process(left, right);
+	}
+
+	@Benchmark
+	public void BM_NCC() {
+		bmNcc.process(left, right);
+	}
+
+	/**
+	 * Runs the benchmark and saves the results to a JSON file.
+	 *
+	 * @param args (Optional) path to the output file. Default is "benchmark_stereo_disparity.json"
+	 */
+	public static void main(String[] args) throws RunnerException {
+		String output = args.length > 0 ? args[0] : "benchmark_stereo_disparity.json";
+
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkStereoDisparity.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.result(output)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares path by path cost aggregation against aggregation with opposite paths fused together
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSgmCostAggregation {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"32","64","128"})
+	public int disparityRange;
+
+	@Param({"4","8"})
+	public int paths;
+
+	public int width = 640;
+	public int height = 480;
+
+	Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,1,1,1);
+
+	SgmCostAggregation standard;
+	SgmCostAggregation fused;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		costYXD.reshape(disparityRange,width,height);
+		GImageMiscOps.fillUniform(costYXD,rand,0,SgmDisparityCost.MAX_COST);
+
+		standard = concurrent ? new SgmCostAggregation_MT() : new SgmCostAggregation();
+		fused = concurrent ? new SgmCostAggregation_MT() : new SgmCostAggregation();
+		standard.setPathsConsidered(paths);
+		fused.setPathsConsidered(paths);
+		fused.setFuseOpposite(true);
+	}
+
+	@Benchmark
+	public void Standard() {
+		standard.process(costYXD);
+	}
+
+	@Benchmark
+	public void FuseOpposite() {
+		fused.process(costYXD);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSgmCostAggregation.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.abst.feature.associate;
+
+import boofcv.struct.feature.PackedTupleArray;
+
+/**
+ * Extension of {@link ScoreAssociation} which can score one descriptor against an entire set of packed
+ * descriptors at once. Packed descriptors are stored in a single array, which is much more cache friendly
+ * than a list of descriptor objects.
+ *
+ * @param <Desc> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public interface ScoreAssociateBatch<Desc> extends ScoreAssociation<Desc> {
+
+	/**
+	 * Creates a new instance of packed storage which is compatible with this score
+	 */
+	PackedTupleArray<Desc> createPacked();
+
+	/**
+	 * Scores one descriptor against every descriptor in a set. Results must be identical to calling
+	 * {@link #score} for each pair.
+	 *
+	 * @param query Set containing the query descriptor
+	 * @param indexQuery Index of the query descriptor
+	 * @param set All the descriptors in this set will be compared against the query
+	 * @param scores (Output) Score for each descriptor in the set
+	 * @param offset Index in 'scores' that the first score is written to
+	 */
+	void scoreBatch( PackedTupleArray<Desc> query , int indexQuery , PackedTupleArray<Desc> set ,
+					 double[] scores , int offset );
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_F64;
+
+/**
+ * Variant of {@link ScoreAssociateEuclideanSq_F64} which can also score descriptors in a batch. Associators
+ * which recognize {@link ScoreAssociateBatch} will copy the descriptors into packed storage first, which
+ * only pays off when the sets are large or are already packed.
+ *
+ * @see DescriptorDistance#euclideanSq(PackedTupleArray_F64, int, PackedTupleArray_F64, double[], int)
+ *
+ * @author Peter Abeles
+ */
+public class ScoreAssociateEuclideanSqBatch_F64 extends ScoreAssociateEuclideanSq_F64
+		implements ScoreAssociateBatch<TupleDesc_F64> {
+
+	@Override
+	public PackedTupleArray<TupleDesc_F64> createPacked() {
+		return new PackedTupleArray_F64();
+	}
+
+	@Override
+	public void scoreBatch( PackedTupleArray<TupleDesc_F64> query , int indexQuery ,
+							PackedTupleArray<TupleDesc_F64> set , double[] scores , int offset ) {
+		DescriptorDistance.euclideanSq((PackedTupleArray_F64)query,indexQuery,(PackedTupleArray_F64)set,scores,offset);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,8 @@ package boofcv.abst.feature.associate;
 
 import boofcv.alg.descriptor.DescriptorDistance;
 import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.PackedTupleArray_B;
 import boofcv.struct.feature.TupleDesc_B;
 
 /**
@@ -28,7 +30,7 @@ import boofcv.struct.feature.TupleDesc_B;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateHamming_B implements ScoreAssociation<TupleDesc_B>{
+public class ScoreAssociateHamming_B implements ScoreAssociateBatch<TupleDesc_B> {
 
 	@Override
 	public double score(TupleDesc_B a, TupleDesc_B b) {
@@ -39,4 +41,18 @@ public class ScoreAssociateHamming_B implements ScoreAssociation<TupleDesc_B>{
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
 	}
+
+	@Override
+	public PackedTupleArray<TupleDesc_B> createPacked() {
+		return new PackedTupleArray_B();
+	}
+
+	/**
+	 * @see DescriptorDistance#hamming(PackedTupleArray_B, int, PackedTupleArray_B, double[], int)
+	 */
+	@Override
+	public void scoreBatch( PackedTupleArray<TupleDesc_B> query , int indexQuery ,
+							PackedTupleArray<TupleDesc_B> set , double[] scores , int offset ) {
+		DescriptorDistance.hamming((PackedTupleArray_B)query,indexQuery,(PackedTupleArray_B)set,scores,offset);
+	}
 }
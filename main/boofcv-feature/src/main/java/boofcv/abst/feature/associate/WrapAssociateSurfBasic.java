@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -74,7 +74,7 @@ public class WrapAssociateSurfBasic implements AssociateDescription<BrightFeatur
 
 	@Override
 	public void setMaxScoreThreshold(double score) {
-		alg.getAssoc().setMaxScoreThreshold(score);
+		alg.setMaxScoreThreshold(score);
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -50,6 +50,12 @@ public class ConfigSiftScaleSpace implements Configuration {
 	 */
 	public int firstOctave = 0, lastOctave = 5;
 
+	/**
+	 * If true then a recursive Gaussian is used to blur the images. Its cost is independent of sigma, making it
+	 * faster for larger sigmas, but it is only an approximation of a Gaussian.
+	 */
+	public boolean recursiveBlur = false;
+
 	/**
 	 * Creates a configuration similar to how it was originally described in the paper
 	 */
@@ -290,6 +290,31 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		currPyr.update(image);
 
 		// track features
+		trackActiveFeatures();
+
+		if( toleranceFB >= 0 ) {
+			// If there are no tracks it must have been reset or this is the first frame
+			if( activeTracks ) {
+				backwardsTrackValidate();
+			} else {
+				this.prevPyr.update(image);
+			}
+		}
+
+		// If configured to, drop features which are close by each other
+		if( pruneClose != null ) {
+			pruneClose.init(input.width,input.height);
+			pruneClose.process(active,closeDropped);
+			// TODO
+			active.removeAll(closeDropped);
+			dropped.addAll(closeDropped);
+		}
+	}
+
+	/**
+	 * Tracks all the active features into the current image. Features which could not be tracked are dropped.
+	 */
+	protected void trackActiveFeatures() {
 		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
 		for (int i = active.size()-1; i >= 0; i--) {
 			PyramidKltFeature t = active.get(i);
@@ -299,7 +324,7 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 
 			if( ret == KltTrackFault.SUCCESS ) {
 				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
+				if( input.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
 					PointTrack p = t.getCookie();
 					p.set(t.x,t.y);
 					success = true;
@@ -312,24 +337,6 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 				unused.add( t );
 			}
 		}
-
-		if( toleranceFB >= 0 ) {
-			// If there are no tracks it must have been reset or this is the first frame
-			if( activeTracks ) {
-				backwardsTrackValidate();
-			} else {
-				this.prevPyr.update(image);
-			}
-		}
-
-		// If configured to, drop features which are close by each other
-		if( pruneClose != null ) {
-			pruneClose.init(input.width,input.height);
-			pruneClose.process(active,closeDropped);
-			// TODO
-			active.removeAll(closeDropped);
-			dropped.addAll(closeDropped);
-		}
 	}
 
 	/**
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.tracker.klt.*;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+
+/**
+ * Concurrent version of {@link PointTrackerKltPyramid}. Active tracks are split into blocks and each thread
+ * has its own {@link PyramidKltTracker}. Tracks are only added or removed from the lists after all threads
+ * have finished, in the same order as the single threaded version, so the output is identical.
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramid_MT<I extends ImageGray<I>,D extends ImageGray<D>>
+		extends PointTrackerKltPyramid<I,D>
+{
+	// Each thread gets its own tracker since the tracker has an internal state
+	FastQueue<PyramidKltTracker<I,D>> workspace;
+
+	// Indicates if the track at the same index in the active list was successfully tracked
+	GrowQueue_B success = new GrowQueue_B();
+
+	public PointTrackerKltPyramid_MT(KltConfig config,
+									 double toleranceFB,
+									 int templateRadius,
+									 boolean performPruneClose, PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 ImageGradient<I, D> gradient,
+									 InterpolateRectangle<I> interpInput,
+									 InterpolateRectangle<D> interpDeriv,
+									 Class<D> derivType) {
+		super(config, toleranceFB, templateRadius, performPruneClose, pyramid, detector,
+				gradient, interpInput, interpDeriv, derivType);
+
+		workspace = new FastQueue<>((Class<PyramidKltTracker<I,D>>)(Class<?>)PyramidKltTracker.class,
+				()->new PyramidKltTracker<>(new KltTracker<>(interpInput.copy(),interpDeriv.copy(),config)));
+	}
+
+	@Override
+	protected void trackActiveFeatures() {
+		success.resize(active.size());
+
+		BoofConcurrency.loopBlocks(0,active.size(),workspace,(tracker,idx0,idx1)->{
+			tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
+			for (int i = idx0; i < idx1; i++) {
+				PyramidKltFeature t = active.get(i);
+				KltTrackFault ret = tracker.track(t);
+
+				boolean success = false;
+
+				if( ret == KltTrackFault.SUCCESS ) {
+					// discard a track if its center drifts outside the image.
+					if( input.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
+						PointTrack p = t.getCookie();
+						p.set(t.x,t.y);
+						success = true;
+					}
+				}
+				this.success.data[i] = success;
+			}
+		});
+
+		removeFailed();
+	}
+
+	@Override
+	protected void backwardsTrackValidate() {
+		double tol2 = toleranceFB * toleranceFB;
+
+		success.resize(active.size());
+
+		BoofConcurrency.loopBlocks(0,active.size(),workspace,(tracker,idx0,idx1)->{
+			tracker.setImage(prevPyr.basePyramid,prevPyr.derivX,prevPyr.derivY);
+			for (int i = idx0; i < idx1; i++) {
+				PyramidKltFeature t = active.get(i);
+				PointTrackMod p = t.getCookie();
+
+				KltTrackFault ret = tracker.track(t);
+
+				if( ret != KltTrackFault.SUCCESS || p.prev.distance2(t.x,t.y) > tol2 ) {
+					success.data[i] = false;
+				} else {
+					// the new previous will be the current location
+					p.prev.set(p.x,p.y);
+					// Revert the update by KLT
+					t.x = (float)p.x;
+					t.y = (float)p.y;
+					success.data[i] = true;
+				}
+			}
+		});
+
+		removeFailed();
+	}
+
+	/**
+	 * Drops tracks which failed. Traversed in reverse order to match the single threaded implementation
+	 */
+	private void removeFailed() {
+		for (int i = active.size()-1; i >= 0; i--) {
+			if( success.data[i] )
+				continue;
+			PyramidKltFeature t = active.remove(i);
+			dropped.add( t );
+			unused.add( t );
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -81,6 +81,64 @@ public class DescriptorDistance {
 		return total;
 	}
 
+	/**
+	 * Computes the Euclidean distance squared between one descriptor and every descriptor in a set.
+	 *
+	 * @param query Set containing the query descriptor
+	 * @param indexQuery Index of the query descriptor
+	 * @param set All the descriptors in this set will be compared against the query
+	 * @param scores (Output) Euclidean distance squared to each descriptor in the set
+	 * @param offset Index in 'scores' that the first distance is written to
+	 */
+	public static void euclideanSq( PackedTupleArray_F64 query, int indexQuery,
+									PackedTupleArray_F64 set , double[] scores , int offset ) {
+		final int N = query.dof;
+		if( set.dof != N )
+			throw new IllegalArgumentException("Descriptors must have the same length");
+
+		final double[] dataQ = query.data;
+		final double[] dataS = set.data;
+		final int offsetQ = indexQuery*N;
+
+		for( int i = 0, idx = 0; i < set.size; i++ ) {
+			double total = 0;
+			for( int j = 0; j < N; j++, idx++ ) {
+				double d = dataQ[offsetQ+j]-dataS[idx];
+				total += d*d;
+			}
+			scores[offset+i] = total;
+		}
+	}
+
+	/**
+	 * Computes the Euclidean distance squared between one descriptor and every descriptor in a set.
+	 *
+	 * @param query Set containing the query descriptor
+	 * @param indexQuery Index of the query descriptor
+	 * @param set All the descriptors in this set will be compared against the query
+	 * @param scores (Output) Euclidean distance squared to each descriptor in the set
+	 * @param offset Index in 'scores' that the first distance is written to
+	 */
+	public static void euclideanSq( PackedTupleArray_F32 query, int indexQuery,
+									PackedTupleArray_F32 set , double[] scores , int offset ) {
+		final int N = query.dof;
+		if( set.dof != N )
+			throw new IllegalArgumentException("Descriptors must have the same length");
+
+		final float[] dataQ = query.data;
+		final float[] dataS = set.data;
+		final int offsetQ = indexQuery*N;
+
+		for( int i = 0, idx = 0; i < set.size; i++ ) {
+			float total = 0;
+			for( int j = 0; j < N; j++, idx++ ) {
+				double d = dataQ[offsetQ+j]-dataS[idx];
+				total += d*d;
+			}
+			scores[offset+i] = total;
+		}
+	}
+
 	/**
 	 * Correlation score
 	 *
@@ -202,6 +260,59 @@ public class DescriptorDistance {
 		return score;
 	}
 
+	/**
+	 * Computes the hamming distance between two packed binary descriptors
+	 *
+	 * @param a Set containing the first descriptor
+	 * @param indexA Index of the first descriptor
+	 * @param b Set containing the second descriptor
+	 * @param indexB Index of the second descriptor
+	 * @return The hamming distance
+	 */
+	public static int hamming( PackedTupleArray_B a, int indexA, PackedTupleArray_B b , int indexB ) {
+		final int N = a.numWords;
+		final long[] dataA = a.data;
+		final long[] dataB = b.data;
+		final int offsetA = indexA*N;
+		final int offsetB = indexB*N;
+
+		int score = 0;
+		for( int i = 0; i < N; i++ ) {
+			score += Long.bitCount(dataA[offsetA+i] ^ dataB[offsetB+i]);
+		}
+		return score;
+	}
+
+	/**
+	 * Computes the hamming distance between one descriptor and every descriptor in a set. The inner loop
+	 * is a simple counted loop over contiguous memory with {@link Long#bitCount}, which the JIT replaces with
+	 * a popcount instruction when available.
+	 *
+	 * @param query Set containing the query descriptor
+	 * @param indexQuery Index of the query descriptor
+	 * @param set All the descriptors in this set will be compared against the query
+	 * @param scores (Output) Hamming distance to each descriptor in the set
+	 * @param offset Index in 'scores' that the first distance is written to
+	 */
+	public static void hamming( PackedTupleArray_B query, int indexQuery,
+								PackedTupleArray_B set , double[] scores , int offset ) {
+		final int N = query.numWords;
+		if( set.numWords != N )
+			throw new IllegalArgumentException("Descriptors must have the same number of bits");
+
+		final long[] dataQ = query.data;
+		final long[] dataS = set.data;
+		final int offsetQ = indexQuery*N;
+
+		for( int i = 0, idx = 0; i < set.size; i++ ) {
+			int score = 0;
+			for( int j = 0; j < N; j++, idx++ ) {
+				score += Long.bitCount(dataQ[offsetQ+j] ^ dataS[idx]);
+			}
+			scores[offset+i] = score;
+		}
+	}
+
 	/**
 	 * <p>Computes the hamming distance.  A bit = 0 is a match and 1 is not match<p>
 	 *
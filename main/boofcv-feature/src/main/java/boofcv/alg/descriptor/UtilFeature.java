@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.descriptor;
 
 import boofcv.abst.feature.describe.DescriptorInfo;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.struct.feature.PackedTupleArray;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
@@ -37,7 +38,7 @@ public class UtilFeature {
 	 * {@link DetectDescribePoint}.  The queue will have declareInstance set to true, otherwise
 	 * why would you be using this function?
 	 */
-	public static <TD extends TupleDesc>
+	public static <TD extends TupleDesc<TD>>
 	FastQueue<TD> createQueue(final DescriptorInfo<TD> detDesc , int initialMax ) {
 		return new FastQueue<TD>(initialMax,detDesc.getDescriptionType(),true) {
 			@Override
@@ -56,6 +57,27 @@ public class UtilFeature {
 		};
 	}
 
+	/**
+	 * Copies all the descriptors found by the {@link DetectDescribePoint} into packed storage. No memory is
+	 * allocated once the packed storage has grown large enough.
+	 *
+	 * @param detDesc (Input) Detector which has already processed an image
+	 * @param packed (Output) Storage for the descriptors. Previous contents are discarded.
+	 */
+	public static <TD extends TupleDesc<TD>>
+	void copyDescriptions( DetectDescribePoint<?,? extends TD> detDesc , PackedTupleArray<TD> packed ) {
+		int N = detDesc.getNumberOfFeatures();
+		if( N == 0 ) {
+			packed.reset();
+			return;
+		}
+		packed.reset(detDesc.getDescription(0).size());
+		packed.reserve(N);
+		for (int i = 0; i < N; i++) {
+			packed.append(detDesc.getDescription(i));
+		}
+	}
+
 	/**
 	 * Concats the list of tuples together into one big feature.  The combined feature must be large
 	 * enough to store all the inputs.
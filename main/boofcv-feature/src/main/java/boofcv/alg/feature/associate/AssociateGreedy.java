@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,7 +20,6 @@ package boofcv.alg.feature.associate;
 
 import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.struct.feature.TupleDesc_F64;
-import org.ddogleg.struct.FastQueue;
 
 //CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 
@@ -55,35 +54,27 @@ public class AssociateGreedy<D> extends AssociateGreedyBase<D> {
 		super(score,backwardsValidation);
 	}
 
-	/**
-	 * Associates the two sets objects against each other by minimizing fit score.
-	 *
-	 * @param src Source list.
-	 * @param dst Destination list.
-	 */
 	@Override
-	public void associate( FastQueue<D> src , FastQueue<D> dst )
+	protected void associate( int sizeSrc , int sizeDst )
 	{
 		fitQuality.reset();
 		pairs.reset();
 		workBuffer.reset();
 
-		pairs.resize(src.size);
-		fitQuality.resize(src.size);
-		workBuffer.resize(src.size*dst.size);
+		pairs.resize(sizeSrc);
+		fitQuality.resize(sizeSrc);
+		workBuffer.resize(sizeSrc*sizeDst);
 
-		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, src.size, i -> {
-		for( int i = 0; i < src.size; i++ ) {
-			D a = src.data[i];
+		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, sizeSrc, i -> {
+		for( int i = 0; i < sizeSrc; i++ ) {
 			double bestScore = maxFitError;
 			int bestIndex = -1;
 
-			int workIdx = i*dst.size;
-			for( int j = 0; j < dst.size; j++ ) {
-				D b = dst.data[j];
+			scoreRow(i,sizeDst);
 
-				double fit = score.score(a,b);
-				workBuffer.set(workIdx+j,fit);
+			int workIdx = i*sizeDst;
+			for( int j = 0; j < sizeDst; j++ ) {
+				double fit = workBuffer.data[workIdx+j];
 
 				if( fit <= bestScore ) {
 					bestIndex = j;
@@ -96,16 +87,16 @@ public class AssociateGreedy<D> extends AssociateGreedyBase<D> {
 		//CONCURRENT_ABOVE });
 
 		if( backwardsValidation ) {
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, src.size, i -> {
-			for( int i = 0; i < src.size; i++ ) {
+			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, sizeSrc, i -> {
+			for( int i = 0; i < sizeSrc; i++ ) {
 				int match = pairs.data[i];
 				if( match == -1 )
 					//CONCURRENT_BELOW return;
 					continue;
 
-				double scoreToBeat = workBuffer.data[i*dst.size+match];
+				double scoreToBeat = workBuffer.data[i*sizeDst+match];
 
-				for( int j = 0; j < src.size; j++ , match += dst.size ) {
+				for( int j = 0; j < sizeSrc; j++ , match += sizeDst ) {
 					if( workBuffer.data[match] <= scoreToBeat && j != i) {
 						pairs.data[i] = -1;
 						fitQuality.data[i] = Double.MAX_VALUE;
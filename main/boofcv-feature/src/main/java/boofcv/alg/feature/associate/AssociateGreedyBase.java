@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,7 +18,9 @@
 
 package boofcv.alg.feature.associate;
 
+import boofcv.abst.feature.associate.ScoreAssociateBatch;
 import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.feature.PackedTupleArray;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
 import org.ddogleg.struct.GrowQueue_F64;
@@ -38,6 +40,12 @@ import org.ddogleg.struct.GrowQueue_I32;
  * associated with feature in src.
  * </p>
  *
+ * <p>
+ * If the score implements {@link ScoreAssociateBatch} then descriptors are copied into a
+ * {@link PackedTupleArray} and each source descriptor is scored against all destination descriptors in a
+ * single batch. The results are identical. Packed descriptors can also be passed in directly.
+ * </p>
+ *
  * @param <D> Feature description type.
  *
  * @author Peter Abeles
@@ -57,6 +65,16 @@ public abstract class AssociateGreedyBase<D> {
 	// if true backwardsValidation is done
 	boolean backwardsValidation;
 
+	// If not null then descriptors are packed and scored in batches
+	ScoreAssociateBatch<D> scoreBatch;
+	// Storage for packed descriptors when the input is a list
+	PackedTupleArray<D> workSrc, workDst;
+
+	// The descriptors being associated. If batch is true then the packed arrays are used, otherwise the lists
+	FastQueue<D> listSrc, listDst;
+	PackedTupleArray<D> packedSrc, packedDst;
+	boolean batch;
+
 	/**
 	 * Configure association
 	 *
@@ -67,15 +85,74 @@ public abstract class AssociateGreedyBase<D> {
 							   boolean backwardsValidation) {
 		this.score = score;
 		this.backwardsValidation = backwardsValidation;
+		if( score instanceof ScoreAssociateBatch ) {
+			this.scoreBatch = (ScoreAssociateBatch<D>)score;
+			this.workSrc = scoreBatch.createPacked();
+			this.workDst = scoreBatch.createPacked();
+		}
 	}
 
 	/**
-	 * Associates the two sets objects against each other by minimizing fit score.
+	 * Associates the two sets objects against each other by minimizing fit score. If the score supports it,
+	 * descriptors are first copied into packed arrays.
 	 *
 	 * @param src Source list.
 	 * @param dst Destination list.
 	 */
-	public abstract void associate( FastQueue<D> src , FastQueue<D> dst );
+	public void associate( FastQueue<D> src , FastQueue<D> dst ) {
+		listSrc = src;
+		listDst = dst;
+		batch = scoreBatch != null && src.size > 0 && dst.size > 0;
+		if( batch ) {
+			workSrc.setTo(src);
+			workDst.setTo(dst);
+			packedSrc = workSrc;
+			packedDst = workDst;
+		}
+		associate(src.size,dst.size);
+	}
+
+	/**
+	 * Associates the two sets objects against each other by minimizing fit score. Descriptors are
+	 * scored directly from the packed arrays without being copied. The score must implement
+	 * {@link ScoreAssociateBatch}.
+	 *
+	 * @param src Source descriptors.
+	 * @param dst Destination descriptors.
+	 */
+	public void associate( PackedTupleArray<D> src , PackedTupleArray<D> dst ) {
+		if( scoreBatch == null )
+			throw new IllegalArgumentException("Score must implement ScoreAssociateBatch to use packed descriptors");
+		listSrc = listDst = null;
+		batch = true;
+		packedSrc = src;
+		packedDst = dst;
+		associate(src.size(),dst.size());
+	}
+
+	/**
+	 * Performs association using the lists or packed arrays which have already been specified
+	 *
+	 * @param sizeSrc Number of source descriptors
+	 * @param sizeDst Number of destination descriptors
+	 */
+	protected abstract void associate( int sizeSrc , int sizeDst );
+
+	/**
+	 * Computes the score between the source at index 'indexSrc' and every destination descriptor.
+	 * Scores are written to workBuffer starting at indexSrc*sizeDst.
+	 */
+	protected void scoreRow( int indexSrc , int sizeDst ) {
+		int workIdx = indexSrc*sizeDst;
+		if( batch ) {
+			scoreBatch.scoreBatch(packedSrc,indexSrc,packedDst,workBuffer.data,workIdx);
+		} else {
+			D a = listSrc.data[indexSrc];
+			for( int j = 0; j < sizeDst; j++ ) {
+				workBuffer.data[workIdx+j] = score.score(a,listDst.data[j]);
+			}
+		}
+	}
 
 	/**
 	 * Returns a list of association pairs.  Each element in the returned list corresponds
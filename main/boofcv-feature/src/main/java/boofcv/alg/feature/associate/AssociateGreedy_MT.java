@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,7 +21,6 @@ package boofcv.alg.feature.associate;
 import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.feature.TupleDesc_F64;
-import org.ddogleg.struct.FastQueue;
 
 /**
  * <p>
@@ -54,34 +53,26 @@ public class AssociateGreedy_MT<D> extends AssociateGreedyBase<D> {
 		super(score,backwardsValidation);
 	}
 
-	/**
-	 * Associates the two sets objects against each other by minimizing fit score.
-	 *
-	 * @param src Source list.
-	 * @param dst Destination list.
-	 */
 	@Override
-	public void associate( FastQueue<D> src , FastQueue<D> dst )
+	protected void associate( int sizeSrc , int sizeDst )
 	{
 		fitQuality.reset();
 		pairs.reset();
 		workBuffer.reset();
 
-		pairs.resize(src.size);
-		fitQuality.resize(src.size);
-		workBuffer.resize(src.size*dst.size);
+		pairs.resize(sizeSrc);
+		fitQuality.resize(sizeSrc);
+		workBuffer.resize(sizeSrc*sizeDst);
 
-		BoofConcurrency.loopFor(0, src.size, i -> {
-			D a = src.data[i];
+		BoofConcurrency.loopFor(0, sizeSrc, i -> {
 			double bestScore = maxFitError;
 			int bestIndex = -1;
 
-			int workIdx = i*dst.size;
-			for( int j = 0; j < dst.size; j++ ) {
-				D b = dst.data[j];
+			scoreRow(i,sizeDst);
 
-				double fit = score.score(a,b);
-				workBuffer.set(workIdx+j,fit);
+			int workIdx = i*sizeDst;
+			for( int j = 0; j < sizeDst; j++ ) {
+				double fit = workBuffer.data[workIdx+j];
 
 				if( fit <= bestScore ) {
 					bestIndex = j;
@@ -93,14 +84,14 @@ public class AssociateGreedy_MT<D> extends AssociateGreedyBase<D> {
 		});
 
 		if( backwardsValidation ) {
-			BoofConcurrency.loopFor(0, src.size, i -> {
+			BoofConcurrency.loopFor(0, sizeSrc, i -> {
 				int match = pairs.data[i];
 				if( match == -1 )
 					return;
 
-				double scoreToBeat = workBuffer.data[i*dst.size+match];
+				double scoreToBeat = workBuffer.data[i*sizeDst+match];
 
-				for( int j = 0; j < src.size; j++ , match += dst.size ) {
+				for( int j = 0; j < sizeSrc; j++ , match += sizeDst ) {
 					if( workBuffer.data[match] <= scoreToBeat && j != i) {
 						pairs.data[i] = -1;
 						fitQuality.data[i] = Double.MAX_VALUE;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -78,6 +78,13 @@ public class AssociateMaxDistanceNaive<D> extends BaseAssociateLocation2DFilter<
 
 	@Override
 	protected double computeDistanceToSource(Point2D_F64 p) {
-		return p.distance2(src);
+		return computeDistance(src,p);
+	}
+
+	/**
+	 * Distance between the two points. Doesn't modify the internal state so it can be called from multiple threads.
+	 */
+	protected double computeDistance(Point2D_F64 src, Point2D_F64 dst) {
+		return dst.distance2(src);
 	}
 }
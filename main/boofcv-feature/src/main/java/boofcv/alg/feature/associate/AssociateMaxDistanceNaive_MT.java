@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.AssociatedIndex;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Concurrent version of {@link AssociateMaxDistanceNaive}. The best match for each source feature is found in
+ * parallel and saved in an array. The list of matches and unassociated features are then constructed in a single
+ * thread in the same order as the single threaded version, so the output is identical.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"ForLoopReplaceableByForEach","Duplicates"})
+public class AssociateMaxDistanceNaive_MT<D> extends AssociateMaxDistanceNaive<D> {
+
+	// index of the best match in the destination list for each source feature. -1 if no match
+	GrowQueue_I32 bestIndexes = new GrowQueue_I32();
+	// score of the best match for each source feature
+	GrowQueue_F64 bestScores = new GrowQueue_F64();
+
+	public AssociateMaxDistanceNaive_MT(ScoreAssociation<D> scoreAssociation,
+										boolean backwardsValidation,
+										double maxError) {
+		super(scoreAssociation, backwardsValidation, maxError);
+	}
+
+	@Override
+	public void associate() {
+		unassociatedSrc.reset();
+		matched.reset();
+
+		bestIndexes.resize(locationSrc.size);
+		bestScores.resize(locationSrc.size);
+
+		BoofConcurrency.loopFor(0, locationSrc.size, i -> {
+			Point2D_F64 p_s = locationSrc.get(i);
+			D d_s = descSrc.get(i);
+
+			double bestScore = maxError;
+			int bestIndex = -1;
+
+			// find the best match in destination list
+			for( int j = 0; j < locationDst.size; j++ ) {
+				// compute distance between the two features
+				double distance = computeDistance(p_s,locationDst.get(j));
+				if( distance > maxDistance )
+					continue;
+
+				double score = scoreAssociation.score(d_s,descDst.get(j));
+				if( score < bestScore ) {
+					bestScore = score;
+					bestIndex = j;
+				}
+			}
+
+			if( bestIndex != -1 && backwardsValidation && !backwardsValidation(i, bestIndex) )
+				bestIndex = -1;
+
+			bestIndexes.data[i] = bestIndex;
+			bestScores.data[i] = bestScore;
+		});
+
+		for (int i = 0; i < locationSrc.size; i++) {
+			int bestIndex = bestIndexes.data[i];
+			if( bestIndex == -1 ) {
+				unassociatedSrc.add(i);
+				continue;
+			}
+
+			AssociatedIndex m = matched.grow();
+			m.src = i;
+			m.dst = bestIndex;
+			m.fitScore = bestScores.data[i];
+		}
+	}
+
+	/**
+	 * Thread safe version of backwards validation which doesn't modify the active source
+	 */
+	private boolean backwardsValidation(int indexSrc, int bestIndex) {
+		double bestScoreV = maxError;
+		int bestIndexV = -1;
+
+		D d_forward = descDst.get(bestIndex);
+		Point2D_F64 p_forward = locationDst.get(bestIndex);
+
+		for( int j = 0; j < locationSrc.size; j++ ) {
+
+			// compute distance between the two features
+			double distance = computeDistance(p_forward,locationSrc.get(j));
+			if( distance > maxDistance )
+				continue;
+
+			double score = scoreAssociation.score(d_forward,descSrc.get(j));
+			if( score < bestScoreV ) {
+				bestScoreV = score;
+				bestIndexV = j;
+			}
+		}
+
+		return bestIndexV == indexSrc;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -92,33 +92,38 @@ public class AssociateSurfBasic {
 			return;
 
 		// find and add the matches
-		assoc.setSource((FastQueue)srcPositive);
-		assoc.setDestination((FastQueue) dstPositive);
+		associate(assoc,srcPositive,dstPositive);
+		addResults(assoc,srcPositive,dstPositive);
+		associate(assoc,srcNegative,dstNegative);
+		addResults(assoc,srcNegative,dstNegative);
+	}
+
+	/**
+	 * Associates features which have the same laplacian sign
+	 */
+	protected static void associate( AssociateDescription<TupleDesc_F64> assoc ,
+									 FastQueue<Helper> src , FastQueue<Helper> dst ) {
+		assoc.setSource((FastQueue)src);
+		assoc.setDestination((FastQueue)dst);
 		assoc.associate();
+	}
+
+	/**
+	 * Adds the results from associating features with the same laplacian sign to the output lists. Indexes
+	 * are converted back into indexes in the original input lists.
+	 */
+	protected void addResults( AssociateDescription<TupleDesc_F64> assoc ,
+							   FastQueue<Helper> src , FastQueue<Helper> dst ) {
 		FastQueue<AssociatedIndex> m = assoc.getMatches();
 		for( int i = 0; i < m.size; i++ ) {
 			AssociatedIndex a = m.data[i];
-			int globalSrcIndex = srcPositive.data[a.src].index;
-			int globalDstIndex = dstPositive.data[a.dst].index;
+			int globalSrcIndex = src.data[a.src].index;
+			int globalDstIndex = dst.data[a.dst].index;
 			matches.grow().setAssociation(globalSrcIndex,globalDstIndex,a.fitScore);
 		}
 		GrowQueue_I32 un = assoc.getUnassociatedSource();
 		for( int i = 0; i < un.size; i++ ) {
-			unassociatedSrc.add(srcPositive.data[un.get(i)].index);
-		}
-		assoc.setSource((FastQueue)srcNegative);
-		assoc.setDestination((FastQueue) dstNegative);
-		assoc.associate();
-		m = assoc.getMatches();
-		for( int i = 0; i < m.size; i++ ) {
-			AssociatedIndex a = m.data[i];
-			int globalSrcIndex = srcNegative.data[a.src].index;
-			int globalDstIndex = dstNegative.data[a.dst].index;
-			matches.grow().setAssociation(globalSrcIndex,globalDstIndex,a.fitScore);
-		}
-		un = assoc.getUnassociatedSource();
-		for( int i = 0; i < un.size; i++ ) {
-			unassociatedSrc.add(srcNegative.data[un.get(i)].index);
+			unassociatedSrc.add(src.data[un.get(i)].index);
 		}
 	}
 
@@ -161,6 +166,10 @@ public class AssociateSurfBasic {
 		return assoc;
 	}
 
+	public void setMaxScoreThreshold( double score ) {
+		assoc.setMaxScoreThreshold(score);
+	}
+
 	public static class Helper extends TupleDesc_F64
 	{
 		public int index;
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_F64;
+
+/**
+ * Concurrent version of {@link AssociateSurfBasic}. Features with a positive and negative laplacian are
+ * associated at the same time in different threads. Each set requires its own association algorithm since
+ * they have an internal state. Results are combined in the same order as the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateSurfBasic_MT extends AssociateSurfBasic {
+
+	// association algorithm for features with a negative laplacian
+	AssociateDescription<TupleDesc_F64> assocNegative;
+
+	/**
+	 * Specifies the association algorithms
+	 *
+	 * @param assocPositive Used to associate features with a positive laplacian
+	 * @param assocNegative Used to associate features with a negative laplacian. Must be a different instance.
+	 */
+	public AssociateSurfBasic_MT(AssociateDescription<TupleDesc_F64> assocPositive,
+								 AssociateDescription<TupleDesc_F64> assocNegative ) {
+		super(assocPositive);
+		if( assocPositive == assocNegative )
+			throw new IllegalArgumentException("Association algorithms must be different instances");
+		this.assocNegative = assocNegative;
+	}
+
+	@Override
+	public void associate()
+	{
+		// initialize data structures
+		matches.reset();
+		unassociatedSrc.reset();
+
+		if( srcPositive.size == 0 && srcNegative.size == 0 )
+			return;
+		if( dstPositive.size == 0 && dstNegative.size == 0 )
+			return;
+
+		BoofConcurrency.loopFor(0,2,i->{
+			if( i == 0 )
+				associate(assoc,srcPositive,dstPositive);
+			else
+				associate(assocNegative,srcNegative,dstNegative);
+		});
+
+		addResults(assoc,srcPositive,dstPositive);
+		addResults(assocNegative,srcNegative,dstNegative);
+	}
+
+	@Override
+	public void setMaxScoreThreshold( double score ) {
+		super.setMaxScoreThreshold(score);
+		assocNegative.setMaxScoreThreshold(score);
+	}
+
+	public AssociateDescription<TupleDesc_F64> getAssocNegative() {
+		return assocNegative;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -38,7 +38,7 @@ import org.ddogleg.struct.GrowQueue_I32;
  */
 public abstract class BaseAssociateLocation2DFilter<D> implements AssociateDescription2D<D> {
 	// computes association score
-	private ScoreAssociation<D> scoreAssociation;
+	ScoreAssociation<D> scoreAssociation;
 
 	// maximum allowed distance from the epipolar line
 	protected double maxDistance = Double.MAX_VALUE;
@@ -47,22 +47,22 @@ public abstract class BaseAssociateLocation2DFilter<D> implements AssociateDescr
 	protected double maxError = Double.MAX_VALUE;
 
 	// input lists
-	private FastQueue<Point2D_F64> locationSrc;
-	private FastQueue<D> descSrc;
-	private FastQueue<Point2D_F64> locationDst;
-	private FastQueue<D> descDst;
+	FastQueue<Point2D_F64> locationSrc;
+	FastQueue<D> descSrc;
+	FastQueue<Point2D_F64> locationDst;
+	FastQueue<D> descDst;
 
 	// list of source features not associated
-	private GrowQueue_I32 unassociatedSrc = new GrowQueue_I32();
+	GrowQueue_I32 unassociatedSrc = new GrowQueue_I32();
 
 	// list of features that have been matched with each other
-	private FastQueue<AssociatedIndex> matched = new FastQueue<>(10, AssociatedIndex.class, true);
+	FastQueue<AssociatedIndex> matched = new FastQueue<>(10, AssociatedIndex.class, true);
 
 	// creates a list of unassociated features from the list of matches
 	private FindUnassociated unassociated = new FindUnassociated();
 
 	// is backwards validation performed during association?
-	private boolean backwardsValidation = true;
+	boolean backwardsValidation = true;
 
 	/**
 	 * Specifies score mechanism
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftDetector_MT;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Concurrent version of {@link CompleteSift}. Processing of each octave is done in two steps. First the image
+ * gradient is computed and features are detected inside each scale in parallel. Then the orientation and
+ * descriptor of every detected feature is computed in parallel. Each thread has its own orientation and
+ * descriptor algorithm. Results are combined in the same order as the single threaded version so the output
+ * is identical.
+ *
+ * @author Peter Abeles
+ */
+public class CompleteSift_MT extends CompleteSift {
+
+	// Detects features inside each scale of the octave
+	SiftDetector_MT.ScaleDetector[] scaleDetectors;
+
+	// image gradient for each scale in the octave
+	GrayF32[] scaleDerivX, scaleDerivY;
+	List<ImageGradient<GrayF32,GrayF32>> gradients = new ArrayList<>();
+
+	// which scale each detection in the current octave came from
+	GrowQueue_I32 detectionScales = new GrowQueue_I32();
+
+	// Storage for each block of features which are described in parallel
+	FastQueue<DescribeBlock> blocks;
+	List<DescribeBlock> sortedBlocks = new ArrayList<>();
+
+	/**
+	 * Configures SIFT
+	 *
+	 * @param scaleSpace Scale-space that features are computed inside of
+	 * @param edgeR Edge threshold.  See {@link CompleteSift#CompleteSift}
+	 * @param factoryExtractor Creates new instances of the algorithm which finds minimums and maximums
+	 * @param factoryOrientation Creates new instances of the orientation estimation algorithm
+	 * @param factoryDescribe Creates new instances of the SIFT descriptor
+	 */
+	public CompleteSift_MT(SiftScaleSpace scaleSpace, double edgeR,
+						   FastQueue.Factory<NonMaxLimiter> factoryExtractor,
+						   FastQueue.Factory<OrientationHistogramSift<GrayF32>> factoryOrientation,
+						   FastQueue.Factory<DescribePointSift<GrayF32>> factoryDescribe) {
+		super(scaleSpace, edgeR, factoryExtractor.newInstance(),
+				factoryOrientation.newInstance(), factoryDescribe.newInstance());
+
+		int numScales = scaleSpace.getNumScales();
+		scaleDetectors = new SiftDetector_MT.ScaleDetector[numScales];
+		scaleDerivX = new GrayF32[numScales];
+		scaleDerivY = new GrayF32[numScales];
+		for (int i = 0; i < numScales; i++) {
+			scaleDetectors[i] = new SiftDetector_MT.ScaleDetector(scaleSpace,edgeR,factoryExtractor.newInstance());
+			scaleDerivX[i] = new GrayF32(1,1);
+			scaleDerivY[i] = new GrayF32(1,1);
+			gradients.add(FactoryDerivative.three(GrayF32.class,null));
+		}
+
+		final int dof = describe.getDescriptorLength();
+		blocks = new FastQueue<>(DescribeBlock.class,
+				()->new DescribeBlock(factoryOrientation.newInstance(),factoryDescribe.newInstance(),dof));
+	}
+
+	@Override
+	public void process(GrayF32 input) {
+		features.reset();
+		locations.reset();
+		orientations.reset();
+
+		scaleSpace.initialize(input);
+		detections.reset();
+
+		do {
+			// scale from octave to input image
+			pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
+
+			// compute the gradient and detect features inside each scale
+			BoofConcurrency.loopFor(0, scaleDetectors.length, i -> {
+				GrayF32 image = scaleSpace.getImageScale(i+1);
+				scaleDerivX[i].reshape(image.width,image.height);
+				scaleDerivY[i].reshape(image.width,image.height);
+				gradients.get(i).process(image,scaleDerivX[i],scaleDerivY[i]);
+
+				scaleDetectors[i].detectScale(i+1, pixelScaleToInput);
+			});
+
+			// add detections in the same order as the single threaded version
+			int firstDetection = detections.size;
+			detectionScales.reset();
+			for (int i = 0; i < scaleDetectors.length; i++) {
+				FastQueue<ScalePoint> found = scaleDetectors[i].getDetections();
+				for (int j = 0; j < found.size; j++) {
+					detections.grow().set(found.get(j));
+					detectionScales.add(i);
+				}
+			}
+
+			describeDetections(firstDetection);
+		} while( scaleSpace.computeNextOctave() );
+	}
+
+	/**
+	 * Computes the orientations and descriptions of all the features detected in the current octave
+	 *
+	 * @param firstDetection Index of the first detection in this octave
+	 */
+	void describeDetections( int firstDetection ) {
+		if( firstDetection == detections.size )
+			return;
+
+		BoofConcurrency.loopBlocks(firstDetection, detections.size, blocks, (block, idx0, idx1) -> {
+			block.reset(idx0);
+			for (int index = idx0; index < idx1; index++) {
+				int scale = detectionScales.get(index - firstDetection);
+				block.orientation.setImageGradient(scaleDerivX[scale], scaleDerivY[scale]);
+				block.describe.setImageGradient(scaleDerivX[scale], scaleDerivY[scale]);
+				block.process(index, detections.get(index), pixelScaleToInput);
+			}
+		});
+
+		// Blocks aren't stored in the order they were processed. Sort them so that the features have the same order
+		sortedBlocks.clear();
+		for (int i = 0; i < blocks.size; i++) {
+			sortedBlocks.add(blocks.get(i));
+		}
+		sortedBlocks.sort(Comparator.comparingInt(b -> b.firstIndex));
+
+		for (int i = 0; i < sortedBlocks.size(); i++) {
+			DescribeBlock block = sortedBlocks.get(i);
+			for (int j = 0; j < block.features.size; j++) {
+				features.grow().setTo(block.features.get(j));
+				orientations.add(block.angles.get(j));
+				locations.add(detections.get(block.indexes.get(j)));
+			}
+		}
+	}
+
+	/**
+	 * Computes the orientation and description of features in a contiguous block of detections
+	 */
+	static class DescribeBlock {
+		OrientationHistogramSift<GrayF32> orientation;
+		DescribePointSift<GrayF32> describe;
+
+		// index of the first detection in this block
+		int firstIndex;
+		// found features, their orientation, and index of the detection they came from
+		FastQueue<BrightFeature> features;
+		GrowQueue_F64 angles = new GrowQueue_F64();
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+
+		DescribeBlock(OrientationHistogramSift<GrayF32> orientation, DescribePointSift<GrayF32> describe, int dof) {
+			this.orientation = orientation;
+			this.describe = describe;
+			this.features = new FastQueue<>(BrightFeature.class, ()->new BrightFeature(dof));
+		}
+
+		void reset( int firstIndex ) {
+			this.firstIndex = firstIndex;
+			features.reset();
+			angles.reset();
+			indexes.reset();
+		}
+
+		/**
+		 * Same as {@link CompleteSift#handleDetection} but the results are saved locally
+		 */
+		void process( int index , ScalePoint p , double pixelScaleToInput ) {
+			// adjust the image for the down sampling in each octave
+			double localX = p.x / pixelScaleToInput;
+			double localY = p.y / pixelScaleToInput;
+			double localSigma = p.scale / pixelScaleToInput;
+
+			// find potential orientations first
+			orientation.process(localX,localY,localSigma);
+
+			// describe each feature
+			GrowQueue_F64 found = orientation.getOrientations();
+			for (int i = 0; i < found.size; i++) {
+				BrightFeature feature = features.grow();
+				feature.white = p.white;
+				describe.process(localX,localY,localSigma,found.get(i),feature);
+
+				angles.add(found.get(i));
+				indexes.add(index);
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,7 @@ import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayF32;
 import georegression.struct.point.Point2D_I16;
 import org.ddogleg.sorting.QuickSelect;
+import org.ddogleg.struct.GrowQueue_F32;
 
 
 /**
@@ -52,19 +53,9 @@ public class SelectNBestFeatures {
 		bestCorners.reset();
 
 		if (origCorners.size <= target) {
-			// make a copy of the results with no pruning since it already
-			// has the desired number, or less
-			for (int i = 0; i < origCorners.size; i++) {
-				Point2D_I16 pt = origCorners.data[i];
-				bestCorners.add(pt.x, pt.y);
-			}
+			copyAll(origCorners);
 		} else {
-
-			// grow internal data structures
-			if( origCorners.size > indexes.length ) {
-				indexes = new int[origCorners.size];
-				inten = new float[origCorners.size];
-			}
+			declareStorage(origCorners.size);
 
 			// extract the intensities for each corner
 			Point2D_I16[] points = origCorners.data;
@@ -83,12 +74,59 @@ public class SelectNBestFeatures {
 				}
 			}
 
-			QuickSelect.selectIndex(inten,target,origCorners.size,indexes);
+			selectBest(origCorners);
+		}
+	}
+
+	/**
+	 * Same as {@link #process(GrayF32, QueueCorner, boolean)} but the intensity of each corner is provided
+	 * directly instead of being looked up in an intensity image.
+	 *
+	 * @param origCorners List of corners
+	 * @param intensity Intensity of each corner. Same order as origCorners.
+	 * @param positive true to select the most positive and false to select the most negative
+	 */
+	public void process(QueueCorner origCorners, GrowQueue_F32 intensity, boolean positive ) {
+		if( origCorners.size != intensity.size )
+			throw new IllegalArgumentException("Number of corners and intensities don't match");
+		bestCorners.reset();
+
+		if (origCorners.size <= target) {
+			copyAll(origCorners);
+		} else {
+			declareStorage(origCorners.size);
 
-			for (int i = 0; i < target; i++) {
-				Point2D_I16 pt = origCorners.data[indexes[i]];
-				bestCorners.add(pt.x, pt.y);
+			for (int i = 0; i < origCorners.size; i++) {
+				inten[i] = positive ? -intensity.data[i] : intensity.data[i];
 			}
+
+			selectBest(origCorners);
+		}
+	}
+
+	/**
+	 * make a copy of the results with no pruning since it already has the desired number, or less
+	 */
+	private void copyAll(QueueCorner origCorners) {
+		for (int i = 0; i < origCorners.size; i++) {
+			Point2D_I16 pt = origCorners.data[i];
+			bestCorners.add(pt.x, pt.y);
+		}
+	}
+
+	private void declareStorage( int numCorners ) {
+		if( numCorners > indexes.length ) {
+			indexes = new int[numCorners];
+			inten = new float[numCorners];
+		}
+	}
+
+	private void selectBest(QueueCorner origCorners) {
+		QuickSelect.selectIndex(inten,target,origCorners.size,indexes);
+
+		for (int i = 0; i < target; i++) {
+			Point2D_I16 pt = origCorners.data[indexes[i]];
+			bestCorners.add(pt.x, pt.y);
 		}
 	}
 
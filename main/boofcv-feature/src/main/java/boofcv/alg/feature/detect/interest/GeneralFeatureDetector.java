@@ -271,4 +271,11 @@ public class GeneralFeatureDetector<I extends ImageGray<I>, D extends ImageGray<
 	public int getSearchRadius() {
 		return extractor.getSearchRadius();
 	}
+
+	/**
+	 * Number of pixels along the image border which non-maximum suppression will not return features inside of
+	 */
+	public int getIgnoreBorder() {
+		return extractor.getIgnoreBorder();
+	}
 }
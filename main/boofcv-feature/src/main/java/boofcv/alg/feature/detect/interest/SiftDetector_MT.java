@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent version of {@link SiftDetector}. Once the DoG images for an octave have been computed, features
+ * are detected inside each scale in parallel. Each scale has its own {@link ScaleDetector} since the
+ * non-maximum suppression and sparse derivative operators have an internal state. Detections are then added
+ * in order of scale, the same as the single threaded version, so the output is identical.
+ *
+ * @author Peter Abeles
+ */
+public class SiftDetector_MT extends SiftDetector {
+
+	// Detects features inside a single scale. One for each scale in an octave
+	protected ScaleDetector[] scaleDetectors;
+
+	/**
+	 * Configures SIFT detector
+	 *
+	 * @param scaleSpace Provides the scale space
+	 * @param edgeR Threshold used to remove edge responses.  Larger values means its less strict.  Try 10
+	 * @param factoryExtractor Creates a new spatial feature detector. One is needed for each scale.
+	 */
+	public SiftDetector_MT(SiftScaleSpace scaleSpace,
+						   double edgeR,
+						   FastQueue.Factory<NonMaxLimiter> factoryExtractor) {
+		super(scaleSpace, edgeR, factoryExtractor.newInstance());
+
+		scaleDetectors = new ScaleDetector[scaleSpace.getNumScales()];
+		for (int i = 0; i < scaleDetectors.length; i++) {
+			scaleDetectors[i] = new ScaleDetector(scaleSpace,edgeR,factoryExtractor.newInstance());
+		}
+	}
+
+	@Override
+	public void process( GrayF32 input ) {
+		scaleSpace.initialize(input);
+		detections.reset();
+
+		do {
+			detectOctave();
+
+			// add the detections in the same order as the single threaded version
+			for (int i = 0; i < scaleDetectors.length; i++) {
+				FastQueue<ScalePoint> found = scaleDetectors[i].getDetections();
+				for (int j = 0; j < found.size; j++) {
+					ScalePoint p = detections.grow();
+					p.set(found.get(j));
+					handleDetection(p);
+				}
+			}
+		} while( scaleSpace.computeNextOctave() );
+	}
+
+	/**
+	 * Detects features inside each scale of the current octave in parallel
+	 */
+	protected void detectOctave() {
+		// scale from octave to input image
+		pixelScaleToInput = scaleSpace.pixelScaleCurrentToInput();
+
+		BoofConcurrency.loopFor(0, scaleDetectors.length, i ->
+				scaleDetectors[i].detectScale(i+1, pixelScaleToInput));
+	}
+
+	public ScaleDetector getScaleDetector( int scaleIndex ) {
+		return scaleDetectors[scaleIndex-1];
+	}
+
+	/**
+	 * Detects features inside a single scale of the octave. The found features are saved and not passed on.
+	 */
+	public static class ScaleDetector extends SiftDetector {
+		public ScaleDetector(SiftScaleSpace scaleSpace, double edgeR, NonMaxLimiter extractor) {
+			super(scaleSpace, edgeR, extractor);
+		}
+
+		/**
+		 * Detects features inside the specified scale of the current octave. Previous detections are discarded.
+		 *
+		 * @param scaleIndex Index of the DoG image features are detected inside of. 1 to numScales, inclusive.
+		 * @param pixelScaleToInput Scale factor from the current octave to the input image
+		 */
+		public void detectScale( int scaleIndex , double pixelScaleToInput ) {
+			this.pixelScaleToInput = pixelScaleToInput;
+			detections.reset();
+
+			sigmaLower  = scaleSpace.computeSigmaScale( scaleIndex - 1);
+			sigmaTarget = scaleSpace.computeSigmaScale( scaleIndex    );
+			sigmaUpper  = scaleSpace.computeSigmaScale( scaleIndex + 1);
+
+			dogLower  = scaleSpace.getDifferenceOfGaussian(scaleIndex-1);
+			dogTarget = scaleSpace.getDifferenceOfGaussian(scaleIndex  );
+			dogUpper  = scaleSpace.getDifferenceOfGaussian(scaleIndex+1);
+
+			detectFeatures(scaleIndex);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.detect.interest;
 
+import boofcv.alg.filter.blur.BlurImageOps;
 import boofcv.alg.filter.convolve.GConvolveImageOps;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.misc.PixelMath;
@@ -73,6 +74,11 @@ public class SiftScaleSpace {
 	// precomputed kernels
 	Kernel1D_F32 kernelSigma0;
 	Kernel1D_F32 kernelSigmaToK[];
+	// sigma of each precomputed kernel
+	double sigmaToK[];
+
+	// If true then a recursive Gaussian, whose cost is independent of sigma, is used instead of convolution
+	boolean recursiveBlur = false;
 
 	// the input image
 	GrayF32 input;
@@ -131,6 +137,7 @@ public class SiftScaleSpace {
 		kernelSigma0 = (Kernel1D_F32) FactoryKernelGaussian.gaussian(kernelType, sigma0, -1);
 
 		kernelSigmaToK = new Kernel1D_F32[numScales+2];
+		sigmaToK = new double[numScales+2];
 		for (int i = 1; i < numScales + 3; i++) {
 			double before = computeSigmaScale(0, i - 1);
 
@@ -138,6 +145,7 @@ public class SiftScaleSpace {
 			// k*sigma_{i-1} = conv( sigma_(i-1) , sigma)
 			double sigma = before*Math.sqrt(levelK-1.0);
 			kernelSigmaToK[i-1] = (Kernel1D_F32)FactoryKernelGaussian.gaussian(kernelType, sigma, -1);
+			sigmaToK[i-1] = sigma;
 		}
 
 //		for (int octave = firstOctave; octave <= lastOctave; octave++) {
@@ -174,15 +182,15 @@ public class SiftScaleSpace {
 		if( firstOctave < 0 ) {
 			PyramidOps.scaleImageUp(input,tempImage1,-2*firstOctave,interp);
 			tempImage0.reshape(tempImage1.width, tempImage1.height);
-			applyGaussian(tempImage1, tempImage0, kernelSigma0);
+			applyGaussian(tempImage1, tempImage0, kernelSigma0, sigma0);
 		} else {
 			tempImage0.reshape(input.width, input.height);
-			applyGaussian(input, tempImage0, kernelSigma0);
+			applyGaussian(input, tempImage0, kernelSigma0, sigma0);
 			
 			for (int i = 0; i < firstOctave; i++) {
 				tempImage1.reshape(tempImage0.width, tempImage0.height);
 				// first image in the next octave will have 2x the blur as the first image in the prior octave
-				applyGaussian(tempImage0, tempImage1, kernelSigma0);
+				applyGaussian(tempImage0, tempImage1, kernelSigma0, sigma0);
 				// next octave has half the spacial resolution
 				PyramidOps.scaleDown2(tempImage1, tempImage0);
 			}
@@ -214,11 +222,11 @@ public class SiftScaleSpace {
 	/**
 	 * Computes all the scale images in an octave.  This includes DoG images.
 	 */
-	private void computeOctaveScales() {
+	protected void computeOctaveScales() {
 		octaveImages[0] = tempImage0;
 		for (int i = 1; i < numScales+3; i++) {
 			octaveImages[i].reshape(tempImage0.width, tempImage0.height);
-			applyGaussian(octaveImages[i - 1], octaveImages[i], kernelSigmaToK[i-1]);
+			applyGaussian(octaveImages[i - 1], octaveImages[i], kernelSigmaToK[i-1], sigmaToK[i-1]);
 		}
 
 		for (int i = 1; i < numScales+3; i++) {
@@ -236,14 +244,34 @@ public class SiftScaleSpace {
 	}
 
 	/**
-	 * Applies the separable kernel to the input image and stores the results in the output image.
+	 * Applies the separable kernel to the input image and stores the results in the output image. If recursive
+	 * blur is enabled then the kernel is ignored and a recursive Gaussian with the same sigma is used instead.
+	 * Sigmas which are too small for the recursive filter always use the kernel.
 	 */
-	void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel) {
+	void applyGaussian(GrayF32 input, GrayF32 output, Kernel1D kernel, double sigma) {
+		if( recursiveBlur && sigma >= 0.5 ) {
+			BlurImageOps.gaussianRecursive(input, output, sigma);
+			return;
+		}
 		tempBlur.reshape(input.width, input.height);
 		GConvolveImageOps.horizontalNormalized(kernel, input, tempBlur);
 		GConvolveImageOps.verticalNormalized(kernel, tempBlur,output);
 	}
 
+	public boolean isRecursiveBlur() {
+		return recursiveBlur;
+	}
+
+	/**
+	 * Specifies if a recursive Gaussian is used to blur the images. Much faster for large sigmas but only an
+	 * approximation of a Gaussian.
+	 *
+	 * @see BlurImageOps#gaussianRecursive(GrayF32, GrayF32, double)
+	 */
+	public void setRecursiveBlur(boolean recursiveBlur) {
+		this.recursiveBlur = recursiveBlur;
+	}
+
 	public int getNumScales() {
 		return numScales;
 	}
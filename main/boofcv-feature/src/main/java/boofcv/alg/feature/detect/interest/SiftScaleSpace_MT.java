@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.alg.misc.impl.ImplPixelMath;
+import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * Concurrent version of {@link SiftScaleSpace}. Each scale image is blurred from the one before it so they must
+ * be computed in sequence, but the convolution itself is done in parallel across rows. Once all the scale images
+ * in an octave are known, the Difference-of-Gaussian images are computed in parallel with one scale per thread.
+ * Output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class SiftScaleSpace_MT extends SiftScaleSpace {
+
+	/**
+	 * @see SiftScaleSpace#SiftScaleSpace(int, int, int, double)
+	 */
+	public SiftScaleSpace_MT(int firstOctave, int lastOctave, int numScales, double sigma0) {
+		super(firstOctave, lastOctave, numScales, sigma0);
+	}
+
+	@Override
+	protected void computeOctaveScales() {
+		octaveImages[0] = tempImage0;
+		for (int i = 1; i < numScales+3; i++) {
+			octaveImages[i].reshape(tempImage0.width, tempImage0.height);
+			applyGaussian(octaveImages[i - 1], octaveImages[i], kernelSigmaToK[i-1], sigmaToK[i-1]);
+		}
+
+		BoofConcurrency.loopFor(1, numScales+3, i -> {
+			differenceOfGaussian[i-1].reshape(tempImage0.width, tempImage0.height);
+			ImplPixelMath.subtract(octaveImages[i],octaveImages[i - 1],differenceOfGaussian[i-1]);
+		});
+	}
+}
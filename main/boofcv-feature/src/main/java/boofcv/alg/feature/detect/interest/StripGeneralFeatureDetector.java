@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.extract.SelectNBestFeatures;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Computes the same features as {@link GeneralFeatureDetector} but processes the image in horizontal strips.
+ * Image gradient, feature intensity, and non-maximum suppression are all computed for one strip before moving
+ * on to the next one. Strips are sized so that the intermediate images fit inside the cache, instead of
+ * streaming full resolution gradient and intensity images through memory between each step.
+ * </p>
+ *
+ * <p>
+ * Each strip is expanded by {@link #getHalo() halo} rows above and below so that the intensity and
+ * non-maximum suppression of every pixel inside the strip is computed from the same neighborhood as it would
+ * be with the entire image. Features inside the halo are discarded since they belong to a different strip.
+ * Features are found in strip order, top to bottom. If a maximum number of features is specified then the
+ * N most intense features across all strips are returned.
+ * </p>
+ *
+ * <p>
+ * Only detectors which use the image gradient or no derivatives at all, e.g. Harris, Shi-Tomasi, and FAST,
+ * are supported.
+ * </p>
+ *
+ * @param <I> Input image type.
+ * @param <D> Image derivative type.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("unchecked")
+public class StripGeneralFeatureDetector<I extends ImageGray<I>, D extends ImageGray<D>> {
+
+	// creates the algorithms used to process a single strip
+	protected FastQueue.Factory<GeneralFeatureDetector<I,D>> factoryDetector;
+	protected @Nullable FastQueue.Factory<ImageGradient<I,D>> factoryGradient;
+	protected Class<D> derivType;
+	// radius of the kernel used to compute the gradient
+	protected int gradientRadius;
+
+	// used to process strips when single threaded
+	protected Worker worker;
+
+	// number of rows above and below a strip which are processed but features are not returned from
+	protected int halo;
+	// number of rows in a strip. If <= 0 then it's selected automatically
+	protected int stripHeight = 0;
+	// number of rows in a strip that was used the last time an image was processed
+	protected int actualStripHeight;
+	// approximate number of bytes used to store all images in a strip when selected automatically
+	protected int targetStripBytes = 1024*1024;
+
+	// feature extraction threshold
+	protected float threshold;
+	// maximum number of features it will detect across the image
+	protected int maxFeatures;
+
+	// Corners which should be excluded.
+	protected @Nullable QueueCorner excludeMaximum;
+	protected @Nullable QueueCorner excludeMinimum;
+
+	// found features in each strip
+	protected FastQueue<StripFeatures> strips = new FastQueue<>(StripFeatures.class, StripFeatures::new);
+
+	// features found across all strips and their intensity
+	protected StripFeatures found = new StripFeatures();
+
+	// selects the features with the largest intensity
+	protected SelectNBestFeatures selectBest = new SelectNBestFeatures(10);
+
+	/**
+	 * Configures the detector
+	 *
+	 * @param factoryDetector Creates a new detector for processing a strip. All must have the same configuration.
+	 * @param factoryGradient Creates a new image gradient. Can be null if the detector doesn't need the gradient.
+	 * @param gradientRadius Radius of the kernel used to compute the image gradient. 1 for Sobel.
+	 * @param derivType Type of derivative image
+	 */
+	public StripGeneralFeatureDetector( FastQueue.Factory<GeneralFeatureDetector<I,D>> factoryDetector,
+										@Nullable FastQueue.Factory<ImageGradient<I,D>> factoryGradient,
+										int gradientRadius, Class<D> derivType ) {
+		this.factoryDetector = factoryDetector;
+		this.factoryGradient = factoryGradient;
+		this.derivType = derivType;
+		this.gradientRadius = gradientRadius;
+
+		worker = createWorker();
+		GeneralFeatureDetector<I,D> detector = worker.detector;
+		if( detector.getRequiresHessian() )
+			throw new IllegalArgumentException("Detectors which require the image hessian are not supported");
+		if( detector.getRequiresGradient() && factoryGradient == null )
+			throw new IllegalArgumentException("The detector requires the gradient but no gradient was provided");
+
+		// Rows inside the strip need to have a valid intensity up to the search radius away and the
+		// intensity needs the gradient, which needs the input image. The extractor's border is at least as
+		// large as the intensity's border
+		int radiusGradient = detector.getRequiresGradient() ? gradientRadius : 0;
+		halo = Math.max(detector.getIgnoreBorder(),
+				radiusGradient + detector.getIgnoreBorder() + detector.getSearchRadius());
+		threshold = detector.getThreshold();
+	}
+
+	/**
+	 * Detects features inside the image.
+	 *
+	 * @param image Image being processed.
+	 */
+	public void process( I image ) {
+		int numStrips = 0;
+		if( image.height > 0 ) {
+			actualStripHeight = selectStripHeight(image);
+			numStrips = (image.height + actualStripHeight - 1)/actualStripHeight;
+		}
+		strips.resize(numStrips);
+
+		processStrips(image, numStrips);
+
+		// combine the results from all the strips
+		found.reset();
+		for (int i = 0; i < numStrips; i++) {
+			found.append(strips.get(i));
+		}
+
+		// optionally select the most intense features only
+		if( maxFeatures > 0 ) {
+			selectBest(found.minimums, found.intensityMin, excludeMinimum, false);
+			selectBest(found.maximums, found.intensityMax, excludeMaximum, true);
+		}
+	}
+
+	/**
+	 * Processes all the strips. Results are saved in {@link #strips}.
+	 */
+	protected void processStrips( I image, int numStrips ) {
+		for (int i = 0; i < numStrips; i++) {
+			processStrip(worker, image, i);
+		}
+	}
+
+	/**
+	 * Finds features inside a single strip and saves the results into {@link #strips}
+	 */
+	protected void processStrip( Worker worker, I image, int stripIndex ) {
+		int y0 = stripIndex*actualStripHeight;
+		int y1 = Math.min(image.height, y0 + actualStripHeight);
+
+		// rows which are processed
+		int top = Math.max(0, y0 - halo);
+		int bottom = Math.min(image.height, y1 + halo);
+
+		I input = worker.input = image.subimage(0, top, image.width, bottom, worker.input);
+		GeneralFeatureDetector<I,D> detector = worker.detector;
+		detector.setThreshold(threshold);
+
+		if( worker.gradient != null ) {
+			computeGradient(worker, input, top == 0, bottom == image.height);
+		}
+
+		detector.setExcludeMinimum(excludeInStrip(excludeMinimum, top, bottom, worker.excludeMinimum));
+		detector.setExcludeMaximum(excludeInStrip(excludeMaximum, top, bottom, worker.excludeMaximum));
+
+		detector.process(input, worker.derivX, worker.derivY, null, null, null);
+
+		// save features which are inside the strip and not the halo
+		GrayF32 intensity = detector.getIntensity();
+		StripFeatures results = strips.get(stripIndex);
+		results.reset();
+		copyInside(detector.getMinimums(), intensity, top, y0, y1, results.minimums, results.intensityMin);
+		copyInside(detector.getMaximums(), intensity, top, y0, y1, results.maximums, results.intensityMax);
+	}
+
+	/**
+	 * Computes the gradient inside the strip. Processing the border is expensive and the strip's top and bottom
+	 * rows are almost always inside the halo, so the inner image is computed while skipping the border. The border
+	 * is then only computed where it's along the actual image border, using thin regions along the outside.
+	 */
+	protected void computeGradient( Worker worker, I input, boolean imageTop, boolean imageBottom ) {
+		worker.derivX.reshape(input.width, input.height);
+		worker.derivY.reshape(input.width, input.height);
+
+		// the thin region needs to be wide enough for its inner pixels to not be influenced by its border
+		int thin = 2*gradientRadius + 1;
+		if( worker.gradientInner == null || input.width < 2*thin || input.height < 2*thin ) {
+			worker.gradient.process(input, worker.derivX, worker.derivY);
+			return;
+		}
+
+		worker.gradientInner.process(input, worker.derivX, worker.derivY);
+		gradientBorder(worker, input, 0, 0, thin, input.height, 0, 0, gradientRadius, input.height);
+		gradientBorder(worker, input, input.width - thin, 0, input.width, input.height,
+				thin - gradientRadius, 0, gradientRadius, input.height);
+		if( imageTop )
+			gradientBorder(worker, input, 0, 0, input.width, thin, 0, 0, input.width, gradientRadius);
+		if( imageBottom )
+			gradientBorder(worker, input, 0, input.height - thin, input.width, input.height,
+					0, thin - gradientRadius, input.width, gradientRadius);
+	}
+
+	/**
+	 * Computes the gradient inside the region (x0,y0)-(x1,y1) while processing the image border, then copies
+	 * the specified pixels into the strip's gradient
+	 */
+	private void gradientBorder( Worker worker, I input, int x0, int y0, int x1, int y1,
+								 int srcX, int srcY, int width, int height ) {
+		I region = worker.region = input.subimage(x0, y0, x1, y1, worker.region);
+		worker.regionX.reshape(region.width, region.height);
+		worker.regionY.reshape(region.width, region.height);
+		worker.gradient.process(region, worker.regionX, worker.regionY);
+		GImageMiscOps.copy(srcX, srcY, x0 + srcX, y0 + srcY, width, height, worker.regionX, worker.derivX);
+		GImageMiscOps.copy(srcX, srcY, x0 + srcX, y0 + srcY, width, height, worker.regionY, worker.derivY);
+	}
+
+	/**
+	 * Creates a list of excluded points which are inside the processed rows in strip coordinates
+	 */
+	private static @Nullable QueueCorner excludeInStrip( @Nullable QueueCorner exclude, int top, int bottom,
+														 QueueCorner output ) {
+		if( exclude == null )
+			return null;
+		output.reset();
+		for (int i = 0; i < exclude.size; i++) {
+			Point2D_I16 p = exclude.get(i);
+			if( p.y >= top && p.y < bottom )
+				output.add(p.x, p.y - top);
+		}
+		return output;
+	}
+
+	private static void copyInside( QueueCorner stripFound, GrayF32 intensity, int top, int y0, int y1,
+									QueueCorner output, GrowQueue_F32 outputIntensity ) {
+		for (int i = 0; i < stripFound.size; i++) {
+			Point2D_I16 p = stripFound.get(i);
+			int y = p.y + top;
+			if( y < y0 || y >= y1 )
+				continue;
+			output.add(p.x, y);
+			outputIntensity.add(intensity.unsafe_get(p.x, p.y));
+		}
+	}
+
+	private void selectBest( QueueCorner corners, GrowQueue_F32 intensity,
+							 @Nullable QueueCorner exclude, boolean positive ) {
+		int numSelect = exclude == null ? maxFeatures : maxFeatures - exclude.size;
+		if( numSelect <= 0 ) {
+			corners.reset();
+			intensity.reset();
+			return;
+		}
+		if( corners.size <= numSelect )
+			return;
+
+		selectBest.setN(numSelect);
+		selectBest.process(corners, intensity, positive);
+		QueueCorner best = selectBest.getBestCorners();
+		corners.reset();
+		for( int i = 0; i < best.size; i++ ) {
+			corners.grow().set(best.get(i));
+		}
+		// intensity is no longer needed and isn't kept in sync
+		intensity.reset();
+	}
+
+	/**
+	 * Selects the number of rows in each strip. When selected automatically the rows are picked so that the
+	 * input, gradient, and intensity images of a strip fit inside the target number of bytes. Strips are always
+	 * much taller than the halo, otherwise the redundant work done inside the halo would dominate.
+	 */
+	protected int selectStripHeight( I image ) {
+		if( stripHeight > 0 )
+			return stripHeight;
+
+		int bytesPerPixel = image.getImageType().getDataType().getNumBits()/8 + 4;
+		if( worker.gradient != null )
+			bytesPerPixel += 2*ImageDataType.classToType(derivType).getNumBits()/8;
+		int rows = targetStripBytes/Math.max(1, image.width*bytesPerPixel);
+		return Math.max(Math.max(1, 16*halo), rows);
+	}
+
+	protected Worker createWorker() {
+		GeneralFeatureDetector<I,D> detector = factoryDetector.newInstance();
+		// features are selected after all the strips have been combined
+		detector.setMaxFeatures(0);
+		ImageGradient<I,D> gradient = null;
+		ImageGradient<I,D> gradientInner = null;
+		if( detector.getRequiresGradient() && factoryGradient != null ) {
+			gradient = factoryGradient.newInstance();
+			if( gradient.getBorderType() != BorderType.SKIP ) {
+				gradientInner = factoryGradient.newInstance();
+				gradientInner.setBorderType(BorderType.SKIP);
+			}
+		}
+		return new Worker(detector, gradient, gradientInner);
+	}
+
+	/**
+	 * Turns on select best features and sets the number it should return.  If a list of excluded features
+	 * is passed in, then the maximum number of returned features is 'numFeatures' minus the number of
+	 * excluded features.
+	 *
+	 * @param numFeatures Return at most this many features, which are the best.
+	 */
+	public void setMaxFeatures( int numFeatures ) {
+		this.maxFeatures = numFeatures;
+	}
+
+	public int getMaxFeatures() {
+		return maxFeatures;
+	}
+
+	/**
+	 * Changes feature extraction threshold.
+	 *
+	 * @param threshold The new feature extraction threshold.
+	 */
+	public void setThreshold( float threshold ) {
+		this.threshold = threshold;
+	}
+
+	public float getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Specify points which are excluded when detecting maximums
+	 *
+	 * @param exclude List of points being excluded
+	 */
+	public void setExcludeMaximum( @Nullable QueueCorner exclude ) {
+		this.excludeMaximum = exclude;
+	}
+
+	/**
+	 * Specify points which are excluded when detecting minimums
+	 *
+	 * @param exclude List of points being excluded
+	 */
+	public void setExcludeMinimum( @Nullable QueueCorner exclude ) {
+		this.excludeMinimum = exclude;
+	}
+
+	/**
+	 * Returns a list of all the found maximums.
+	 */
+	public QueueCorner getMaximums() {
+		return found.maximums;
+	}
+
+	/**
+	 * Returns a list of all the found minimums.
+	 */
+	public QueueCorner getMinimums() {
+		return found.minimums;
+	}
+
+	/**
+	 * Specifies the number of rows in each strip.
+	 *
+	 * @param stripHeight Number of rows. If &le; 0 it will be selected automatically.
+	 */
+	public void setStripHeight( int stripHeight ) {
+		this.stripHeight = stripHeight;
+	}
+
+	public int getStripHeight() {
+		return stripHeight;
+	}
+
+	/**
+	 * Approximate number of bytes used by the images of a single strip when the strip height is selected
+	 * automatically. Should be about the size of the L2 cache.
+	 */
+	public void setTargetStripBytes( int targetStripBytes ) {
+		this.targetStripBytes = targetStripBytes;
+	}
+
+	public int getTargetStripBytes() {
+		return targetStripBytes;
+	}
+
+	/**
+	 * Number of rows above and below each strip which are processed but features are not returned from
+	 */
+	public int getHalo() {
+		return halo;
+	}
+
+	/**
+	 * true if it will detector local minimums
+	 */
+	public boolean isDetectMinimums() {
+		return worker.detector.isDetectMinimums();
+	}
+
+	/**
+	 * true if it will detector local maximums
+	 */
+	public boolean isDetectMaximums() {
+		return worker.detector.isDetectMaximums();
+	}
+
+	/**
+	 * Features found inside a strip and their intensity
+	 */
+	protected static class StripFeatures {
+		public QueueCorner minimums = new QueueCorner();
+		public QueueCorner maximums = new QueueCorner();
+		public GrowQueue_F32 intensityMin = new GrowQueue_F32();
+		public GrowQueue_F32 intensityMax = new GrowQueue_F32();
+
+		public void reset() {
+			minimums.reset();
+			maximums.reset();
+			intensityMin.reset();
+			intensityMax.reset();
+		}
+
+		public void append( StripFeatures src ) {
+			for (int i = 0; i < src.minimums.size; i++) {
+				minimums.add(src.minimums.get(i));
+			}
+			for (int i = 0; i < src.maximums.size; i++) {
+				maximums.add(src.maximums.get(i));
+			}
+			intensityMin.addAll(src.intensityMin);
+			intensityMax.addAll(src.intensityMax);
+		}
+	}
+
+	/**
+	 * Algorithms and storage used to process a strip by a single thread
+	 */
+	protected class Worker {
+		public GeneralFeatureDetector<I,D> detector;
+		// computes the gradient along the image border
+		public @Nullable ImageGradient<I,D> gradient;
+		// computes the gradient while skipping the image border
+		public @Nullable ImageGradient<I,D> gradientInner;
+		public @Nullable I input;
+		public D derivX, derivY;
+		// storage for computing the gradient along the image border
+		public @Nullable I region;
+		public D regionX, regionY;
+		public QueueCorner excludeMinimum = new QueueCorner();
+		public QueueCorner excludeMaximum = new QueueCorner();
+
+		public Worker( GeneralFeatureDetector<I,D> detector,
+					   @Nullable ImageGradient<I,D> gradient, @Nullable ImageGradient<I,D> gradientInner ) {
+			this.detector = detector;
+			this.gradient = gradient;
+			this.gradientInner = gradientInner;
+			if( gradient != null ) {
+				derivX = GeneralizedImageOps.createSingleBand(derivType, 1, 1);
+				derivY = GeneralizedImageOps.createSingleBand(derivType, 1, 1);
+				regionX = GeneralizedImageOps.createSingleBand(derivType, 1, 1);
+				regionY = GeneralizedImageOps.createSingleBand(derivType, 1, 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent version of {@link StripGeneralFeatureDetector}. Strips are processed in parallel with each thread
+ * having its own detector and storage. Each thread processes a contiguous set of strips one at a time so that
+ * the intermediate images stay inside its cache. Results are combined in strip order, so the output is identical
+ * to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("unchecked")
+public class StripGeneralFeatureDetector_MT<I extends ImageGray<I>, D extends ImageGray<D>>
+		extends StripGeneralFeatureDetector<I,D> {
+
+	// algorithms and storage for each thread
+	FastQueue<Worker> workers = new FastQueue<>((Class<Worker>)(Class<?>)Worker.class, this::createWorker);
+
+	public StripGeneralFeatureDetector_MT( FastQueue.Factory<GeneralFeatureDetector<I,D>> factoryDetector,
+										   @Nullable FastQueue.Factory<ImageGradient<I,D>> factoryGradient,
+										   int gradientRadius, Class<D> derivType ) {
+		super(factoryDetector, factoryGradient, gradientRadius, derivType);
+	}
+
+	@Override
+	protected void processStrips( I image, int numStrips ) {
+		BoofConcurrency.loopBlocks(0, numStrips, workers, (worker, idx0, idx1) -> {
+			for (int i = idx0; i < idx1; i++) {
+				processStrip(worker, image, i);
+			}
+		});
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,8 +19,6 @@
 package boofcv.alg.feature.disparity.sgm;
 
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.concurrency.BoofConcurrency;
-import boofcv.concurrency.IntRangeObjectConsumer;
 import boofcv.struct.image.GrayU16;
 import boofcv.struct.image.Planar;
 import org.ddogleg.struct.FastQueue;
@@ -64,8 +62,6 @@ public class SgmCostAggregation {
 	// Lr(x,d) = Lr.get(d,x)
 	// Lr(y,x,d) = Lr.getBand(y).get(d,x)
 
-	// TODO compute forward then reverse. In forward save read cost. In reverse add results to local cache before
-	//      adding to aggregated. This could reduce cache misses
 	protected SgmHelper helper = new SgmHelper();
 
 	// Contains aggregated cost. The image is being used to store a tensor.
@@ -88,10 +84,18 @@ public class SgmCostAggregation {
 	// Cost applied to small and large changes in the neighborhood
 	int penalty1 =200, penalty2 =2000;
 
-	// Book keeping for concurrency
+	/**
+	 * If true then opposite directions which go through the same pixels are scored together. Results are identical
+	 * but the cost and aggregated tensors are traversed half as often.
+	 */
+	boolean fuseOpposite = false;
+	// true if the path in the opposite direction is also being scored
+	boolean scoreOpposite;
+
+	// Paths which are scored in the current direction
 	FastQueue<Trajectory> trajectories = new FastQueue<>(Trajectory.class,Trajectory::new);
+	// Book keeping for concurrency
 	FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class, WorkSpace::new);
-	ComputeBlock computeBlock = new ComputeBlock();
 
 	/**
 	 * Configures the minimum disparity. The range is specified implicitly by the cost tensor.
@@ -111,6 +115,11 @@ public class SgmCostAggregation {
 	public void process( Planar<GrayU16> costYXD ) {
 		init(costYXD);
 
+		if( fuseOpposite ) {
+			processFused();
+			return;
+		}
+
 		if( pathsConsidered >= 1 ) {
 			scoreDirection(1, 0);
 		}
@@ -128,17 +137,45 @@ public class SgmCostAggregation {
 			scoreDirection(1, -1);
 		}
 		if( pathsConsidered >= 16 ) {
-			scoreDirection(1, 2);
-			scoreDirection(2, 1);
-			scoreDirection(2, -1);
-			scoreDirection(1, -2);
-			scoreDirection(-1, -2);
-			scoreDirection(-2, -1);
-			scoreDirection(-2, 1);
-			scoreDirection(-1, 2);
+			scoreDirectionsSixteen();
 		}
 	}
 
+	/**
+	 * Same as the standard processing order but opposite directions which follow the same pixels are scored
+	 * together.
+	 */
+	void processFused() {
+		if( pathsConsidered == 1 ) {
+			scoreDirection(1, 0);
+		} else {
+			scoreDirectionPair(1, 0);
+		}
+		if( pathsConsidered >= 4 ) {
+			scoreDirectionPair(0, 1);
+		}
+		if( pathsConsidered >= 8 ) {
+			scoreDirectionPair(1, 1);
+			scoreDirectionPair(-1, 1);
+		}
+		if( pathsConsidered >= 16 ) {
+			// Paths with a step of two pixels don't cover the same pixels as the path going in the opposite
+			// direction so they can't be fused
+			scoreDirectionsSixteen();
+		}
+	}
+
+	private void scoreDirectionsSixteen() {
+		scoreDirection(1, 2);
+		scoreDirection(2, 1);
+		scoreDirection(2, -1);
+		scoreDirection(1, -2);
+		scoreDirection(-1, -2);
+		scoreDirection(-2, -1);
+		scoreDirection(-2, 1);
+		scoreDirection(-1, 2);
+	}
+
 	/**
 	 * Initializes data structures
 	 */
@@ -160,11 +197,27 @@ public class SgmCostAggregation {
 
 	/**
 	 * Scores all possible paths for this given direction and add it to the aggregated cost.
-	 *
-	 * Concurrency note: It's safe to write to the aggregated score without synchronization since only one
-	 * path in the block below will touch a pixel.
 	 */
 	void scoreDirection(int dx , int dy ) {
+		scoreOpposite = false;
+		createTrajectories(dx, dy);
+		scoreTrajectories();
+	}
+
+	/**
+	 * Scores all possible paths for the given direction and the opposite direction at the same time. Only valid
+	 * when the step is at most one pixel along each axis.
+	 */
+	void scoreDirectionPair(int dx , int dy ) {
+		scoreOpposite = true;
+		createTrajectories(dx, dy);
+		scoreTrajectories();
+	}
+
+	/**
+	 * Creates the list of paths which are to be scored for this direction
+	 */
+	void createTrajectories(int dx , int dy ) {
 
 		// Create a list of paths it will score
 		trajectories.reset();
@@ -192,29 +245,28 @@ public class SgmCostAggregation {
 				trajectories.grow().set(x,lengthY-1,dx,dy);
 			}
 		}
+	}
 
-		if( BoofConcurrency.USE_CONCURRENT ) {
-			BoofConcurrency.loopBlocks(0,trajectories.size,1,workspace,computeBlock);
-		} else {
-			WorkSpace w= workspace.get(0);
-			w.checkSize();
-			for (int i = 0; i < trajectories.size; i++) {
-				Trajectory t = trajectories.get(i);
-				scorePath(t.x0, t.y0, t.dx, t.dy, w.workCostLr);
-			}
+	/**
+	 * Scores all the paths in the trajectories list. Paths are independent of each other and no two paths
+	 * will write to the same element in 'aggregated'.
+	 */
+	protected void scoreTrajectories() {
+		WorkSpace w = workspace.get(0);
+		w.checkSize();
+		for (int i = 0; i < trajectories.size; i++) {
+			scoreTrajectory(trajectories.get(i), w);
 		}
 	}
 
-	private class ComputeBlock implements IntRangeObjectConsumer<WorkSpace> {
-		@Override
-		public void accept(WorkSpace workspace, int minInclusive, int maxExclusive) {
-			workspace.checkSize();
-
-			for (int i = minInclusive; i < maxExclusive; i++) {
-				Trajectory t = trajectories.get(i);
-				scorePath(t.x0,t.y0,t.dx,t.dy,workspace.workCostLr);
-			}
-		}
+	/**
+	 * Scores a single path and if configured to, the path going in the opposite direction.
+	 */
+	protected void scoreTrajectory( Trajectory t , WorkSpace w ) {
+		if( scoreOpposite )
+			scorePathFused(t.x0, t.y0, t.dx, t.dy, w);
+		else
+			scorePath(t.x0, t.y0, t.dx, t.dy, w.workCostLr);
 	}
 
 	/**
@@ -237,26 +289,10 @@ public class SgmCostAggregation {
 
 		// there is no previous disparity score so simply fill the cost for d=0
 		{
-			int minCost = Integer.MAX_VALUE;
 			final GrayU16 costXD = costYXD.getBand(y0);
 			final int idxCost = costXD.getIndex(0,x0);   // C(0,0)
 			final int localRangeD = helper.localDisparityRangeLeft(x0+disparityMin);
-			for (int d = 0; d < localRangeD; d++) {
-				int v = costXD.data[idxCost + d]&0xFFFF; // Lr(0,d) = C(0,d)
-				workCostLr[d] = (short)v;
-				minCost = Math.min(minCost,v);
-			}
-			// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
-			for (int d = 0; d < localRangeD; d++) {
-				workCostLr[d] = (short)((workCostLr[d]&0xFFFF)-minCost);
-			}
-			// In the for loop below it needs the previous cost at index localRangeD[i]-1.
-			// If we are on the left side of the image then localRangeD[i] < localRangeD[i+1]!
-			// That's a problem because if we read localRangeD[i+1]-1 it will be unassigned and have
-			// an unknown value! We get around that by just copying the cost at the end.
-			if( localRangeD != helper.disparityRange) {
-				workCostLr[localRangeD] = workCostLr[localRangeD-1];
-			}
+			scorePathFirst(costXD.data, idxCost, localRangeD, workCostLr);
 		}
 
 		// Compute the cost of rest of the path recursively
@@ -269,32 +305,114 @@ public class SgmCostAggregation {
 			final int localRangeD = helper.localDisparityRangeLeft(x+disparityMin);
 
 			// Index for the previous cost in this path
-			int idxLrPrev = (i-1)*lengthD;
+			scorePathNext(costXD.data, idxCost, (i-1)*lengthD, localRangeD, workCostLr);
+		}
 
-			// Score the inner portion of disparity first to avoid bounds checks
-			computeCostInnerD(costXD.data, idxCost, idxLrPrev, localRangeD, workCostLr);
+		saveWorkToAggregated(x0,y0,dx,dy,lengthPath, workCostLr);
+	}
 
-			// Now handle the borders at d=0 and d=N-1
-			computeCostBorderD(idxCost,idxLrPrev,0,costXD, localRangeD, workCostLr);
-			computeCostBorderD(idxCost,idxLrPrev,localRangeD-1,costXD, localRangeD, workCostLr);
+	/**
+	 * Scores the path specified by (x0,y0,dx,dy) and the path which goes in the opposite direction along the same
+	 * pixels. The cost along the path is read from 'costYXD' once and saved in a local cache for the reverse
+	 * pass. Lr from the reverse pass is added to Lr from the forward pass and then to 'aggregated' in a single
+	 * step. This halves the number of times the cost and aggregated tensors are traversed.
+	 *
+	 * Results are identical to calling {@link #scorePath} once for each direction.
+	 */
+	void scorePathFused(int x0 , int y0 , int dx , int dy , WorkSpace work ) {
+		final short[] workCost = work.workCost;
+		final short[] workCostLr = work.workCostLr;
+		final short[] workCostLrRev = work.workCostLrRev;
+		final int lengthPath = computePathLength(x0, y0, dx, dy);
+
+		// Copy cost along the path into the local cache. Row major (path element 'i', depth 'd')
+		for (int i = 0, x = x0, y = y0; i < lengthPath; i++, x += dx, y += dy) {
+			final GrayU16 costXD = costYXD.getBand(y);
+			final int localRangeD = helper.localDisparityRangeLeft(x+disparityMin);
+			System.arraycopy(costXD.data, costXD.getIndex(0,x), workCost, i*lengthD, localRangeD);
+		}
 
-			// see comments above for what's going on here
-			if( localRangeD != helper.disparityRange) {
-				workCostLr[idxLrPrev+lengthD+localRangeD] = workCostLr[idxLrPrev+lengthD+localRangeD-1];
-			}
+		// Forward pass. Lr is saved for every element along the path
+		scorePathFirst(workCost, 0, helper.localDisparityRangeLeft(x0+disparityMin), workCostLr);
+		for (int i = 1, x = x0 + dx; i < lengthPath; i++, x += dx) {
+			final int localRangeD = helper.localDisparityRangeLeft(x+disparityMin);
+			scorePathNext(workCost, i*lengthD, (i-1)*lengthD, localRangeD, workCostLr);
+		}
 
-			// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
-			int minCost = Integer.MAX_VALUE;
-			int idxLr = i*lengthD;
-			for (int d = 0; d < localRangeD; d++) {
-				minCost = Math.min(minCost,workCostLr[idxLr+d]&0xFFFF);
-			}
-			for (int d = 0; d < localRangeD; d++) {
-				workCostLr[idxLr+d] = (short)((workCostLr[idxLr+d]&0xFFFF)- minCost);
-			}
+		// Reverse pass. Only the previous Lr is saved and both directions are added to aggregated at once
+		int i = lengthPath-1;
+		int x = x0 + i*dx, y = y0 + i*dy;
+		int localRangeD = helper.localDisparityRangeLeft(x+disparityMin);
+		scorePathFirst(workCost, i*lengthD, localRangeD, workCostLrRev);
+		saveFusedToAggregated(x, y, i*lengthD, 0, localRangeD, workCostLr, workCostLrRev);
+
+		for (i--, x -= dx, y -= dy; i >= 0; i--, x -= dx, y -= dy) {
+			localRangeD = helper.localDisparityRangeLeft(x+disparityMin);
+			scorePathNext(workCost, i*lengthD, 0, localRangeD, workCostLrRev);
+			saveFusedToAggregated(x, y, i*lengthD, lengthD, localRangeD, workCostLr, workCostLrRev);
+			// the current Lr becomes the previous Lr
+			System.arraycopy(workCostLrRev, lengthD, workCostLrRev, 0, lengthD);
 		}
+	}
 
-		saveWorkToAggregated(x0,y0,dx,dy,lengthPath, workCostLr);
+	/**
+	 * Initializes Lr at the first element in a path. There is no previous disparity score so simply fill the cost.
+	 *
+	 * @param costXD Array containing C(p,d)
+	 * @param idxCost Index of C(p,0)
+	 * @param workCostLr Storage for Lr. Results are written starting at index 0
+	 */
+	void scorePathFirst( final short[] costXD, final int idxCost, final int localRangeD, final short[] workCostLr ) {
+		int minCost = Integer.MAX_VALUE;
+		for (int d = 0; d < localRangeD; d++) {
+			int v = costXD[idxCost + d]&0xFFFF; // Lr(0,d) = C(0,d)
+			workCostLr[d] = (short)v;
+			minCost = Math.min(minCost,v);
+		}
+		// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
+		for (int d = 0; d < localRangeD; d++) {
+			workCostLr[d] = (short)((workCostLr[d]&0xFFFF)-minCost);
+		}
+		// In scorePathNext() it needs the previous cost at index localRangeD[i]-1.
+		// If we are on the left side of the image then localRangeD[i] < localRangeD[i+1]!
+		// That's a problem because if we read localRangeD[i+1]-1 it will be unassigned and have
+		// an unknown value! We get around that by just copying the cost at the end.
+		if( localRangeD != helper.disparityRange) {
+			workCostLr[localRangeD] = workCostLr[localRangeD-1];
+		}
+	}
+
+	/**
+	 * Computes Lr for the next element in a path given Lr at the previous element.
+	 *
+	 * @param costXD Array containing C(p,d)
+	 * @param idxCost Index of C(p,0)
+	 * @param idxLrPrev Index of Lr(p-r,0). Results are written to the next row, i.e. idxLrPrev+lengthD
+	 * @param workCostLr Storage for Lr
+	 */
+	void scorePathNext( final short[] costXD, final int idxCost, final int idxLrPrev, final int localRangeD,
+						final short[] workCostLr ) {
+		// Score the inner portion of disparity first to avoid bounds checks
+		computeCostInnerD(costXD, idxCost, idxLrPrev, localRangeD, workCostLr);
+
+		// Now handle the borders at d=0 and d=N-1
+		computeCostBorderD(idxCost,idxLrPrev,0,costXD, localRangeD, workCostLr);
+		computeCostBorderD(idxCost,idxLrPrev,localRangeD-1,costXD, localRangeD, workCostLr);
+
+		// see comments in scorePathFirst() for what's going on here
+		int idxLr = idxLrPrev+lengthD;
+		if( localRangeD != helper.disparityRange) {
+			workCostLr[idxLr+localRangeD] = workCostLr[idxLr+localRangeD-1];
+		}
+
+		// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
+		int minCost = Integer.MAX_VALUE;
+		for (int d = 0; d < localRangeD; d++) {
+			minCost = Math.min(minCost,workCostLr[idxLr+d]&0xFFFF);
+		}
+		for (int d = 0; d < localRangeD; d++) {
+			workCostLr[idxLr+d] = (short)((workCostLr[idxLr+d]&0xFFFF)- minCost);
+		}
 	}
 
 	/**
@@ -315,6 +433,22 @@ public class SgmCostAggregation {
 		}
 	}
 
+	/**
+	 * Adds Lr from a forward and reverse path at a single pixel onto the aggregated cost Tensor
+	 *
+	 * @param idxFwd Index of Lr(p,0) in the forward work array
+	 * @param idxRev Index of Lr(p,0) in the reverse work array
+	 */
+	void saveFusedToAggregated( int x , int y , int idxFwd , int idxRev , int localLengthD,
+								short[] workCostLr , short[] workCostLrRev ) {
+		GrayU16 aggrXD = aggregated.getBand(y);
+		int idxAggr = aggrXD.getIndex(0,x);  // A(d=0,x)
+		for (int d = 0; d < localLengthD; d++, idxAggr++, idxFwd++, idxRev++) {
+			aggrXD.data[idxAggr] = (short)((aggrXD.data[idxAggr]&0xFFFF) +
+					(workCostLr[idxFwd]&0xFFFF) + (workCostLrRev[idxRev]&0xFFFF));
+		}
+	}
+
 	/**
 	 * Computes the cost according to equation (12) in the paper in the inner portion where border checks are not
 	 * needed.
@@ -374,7 +508,14 @@ public class SgmCostAggregation {
 	 * @param costXD cost in X-D plane
 	 */
 	void computeCostBorderD(int idxCost , int idxLrPrev , int d , GrayU16 costXD , int localRangeD , short[] workCostLr) {
-		int cost = costXD.data[idxCost+d] & 0xFFFF;  // C(p,d)
+		computeCostBorderD(idxCost, idxLrPrev, d, costXD.data, localRangeD, workCostLr);
+	}
+
+	/**
+	 * Same as {@link #computeCostBorderD(int, int, int, GrayU16, int, short[])} but with the cost stored in an array
+	 */
+	void computeCostBorderD(int idxCost , int idxLrPrev , int d , short[] costXD , int localRangeD , short[] workCostLr) {
+		int cost = costXD[idxCost+d] & 0xFFFF;  // C(p,d)
 
 		// Sample previously computed aggregate costs with bounds checking
 		int a = workCostLr[idxLrPrev+d]&0xFFFF; // Lr(p-r,d)
@@ -434,11 +575,22 @@ public class SgmCostAggregation {
 		// After computed it is then added to 'aggregated' once done.
 		// This is actually why a work space is required and aggregated isn't used directly
 		short[] workCostLr = new short[0];
+		// Local cache for cost along a path when fused. Same format as workCostLr
+		short[] workCost = new short[0];
+		// Lr for the reverse direction when fused. Only the previous and current element are saved
+		short[] workCostLrRev = new short[0];
 
 		public void checkSize() {
 			int N = Math.max(lengthX,lengthY)*lengthD;
 			if( workCostLr.length != N )
 				this.workCostLr = new short[ N ];
+			if( fuseOpposite ) {
+				// the path length and disparity range can change while N stays the same, so check both
+				if( workCost.length != N )
+					this.workCost = new short[ N ];
+				if( workCostLrRev.length != 2*lengthD )
+					this.workCostLrRev = new short[ 2*lengthD ];
+			}
 			// Uncomment the line below to make sure no invalid values are being written over. When the unit tests
 			// are run they will fail if everything isn't problem handled correctly
 //			Arrays.fill(workCostLr,(short)5000);
@@ -450,7 +602,7 @@ public class SgmCostAggregation {
 	 * (x0,y0) is the initial coordinate
 	 * (dx,dy) is the direction
 	 */
-	private static class Trajectory {
+	static class Trajectory {
 		public int x0,y0,dx,dy;
 
 		public void set(int x0, int y0, int dx , int dy ) {
@@ -461,6 +613,21 @@ public class SgmCostAggregation {
 		}
 	}
 
+	/**
+	 * Number of bytes allocated for the aggregated cost tensor and the workspace of every thread
+	 */
+	public long getMemoryBytes() {
+		long total = 0;
+		for (int i = 0; i < aggregated.getNumBands(); i++) {
+			total += 2L*aggregated.getBand(i).data.length;
+		}
+		for (int i = 0; i < workspace.size; i++) {
+			WorkSpace w = workspace.get(i);
+			total += 2L*(w.workCostLr.length + w.workCost.length + w.workCostLrRev.length);
+		}
+		return total;
+	}
+
 	public Planar<GrayU16> getAggregated() {
 		return aggregated;
 	}
@@ -481,6 +648,14 @@ public class SgmCostAggregation {
 		this.penalty2 = penalty2;
 	}
 
+	public boolean isFuseOpposite() {
+		return fuseOpposite;
+	}
+
+	public void setFuseOpposite(boolean fuseOpposite) {
+		this.fuseOpposite = fuseOpposite;
+	}
+
 	public int getPathsConsidered() {
 		return pathsConsidered;
 	}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+
+/**
+ * Concurrent version of {@link SgmCostAggregation}. Directions are processed one at a time, but all the paths
+ * inside a direction are scored in parallel. Each thread has its own workspace for storing Lr.
+ *
+ * Concurrency note: It's safe to write to the aggregated score without synchronization since only one
+ * path in a direction will touch a pixel.
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregation_MT extends SgmCostAggregation {
+
+	ComputeBlock computeBlock = new ComputeBlock();
+
+	@Override
+	protected void scoreTrajectories() {
+		BoofConcurrency.loopBlocks(0,trajectories.size,1,workspace,computeBlock);
+	}
+
+	private class ComputeBlock implements IntRangeObjectConsumer<WorkSpace> {
+		@Override
+		public void accept(WorkSpace workspace, int minInclusive, int maxExclusive) {
+			workspace.checkSize();
+
+			for (int i = minInclusive; i < maxExclusive; i++) {
+				scoreTrajectory(trajectories.get(i), workspace);
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.disparity.sgm;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.*;
 
 /**
@@ -39,7 +40,8 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 
 	// These perform different steps in the SGM algorithm
 	protected SgmDisparityCost<C> sgmCost;
-	protected SgmCostAggregation aggregation = new SgmCostAggregation();
+	protected SgmCostAggregation aggregation = BoofConcurrency.USE_CONCURRENT ?
+			new SgmCostAggregation_MT() : new SgmCostAggregation();
 	protected SgmDisparitySelector selector;
 	protected SgmHelper helper = new SgmHelper();
 
@@ -92,6 +94,19 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 		}
 	}
 
+	/**
+	 * Returns the number of bytes used to store the cost and aggregated tensors plus the aggregation workspace.
+	 * These dominate memory usage and grow with the image size times the disparity range.
+	 * Only accurate after {@link #process} has been called.
+	 */
+	public long getPeakMemoryBytes() {
+		long total = aggregation.getMemoryBytes();
+		for (int i = 0; i < costYXD.getNumBands(); i++) {
+			total += 2L*costYXD.getBand(i).data.length;
+		}
+		return total;
+	}
+
 	public GrayU8 getDisparity() {
 		return disparity;
 	}
@@ -104,6 +119,10 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 		return aggregation;
 	}
 
+	public void setAggregation(SgmCostAggregation aggregation) {
+		this.aggregation = aggregation;
+	}
+
 	public Planar<GrayU16> getCostYXD() {
 		return costYXD;
 	}
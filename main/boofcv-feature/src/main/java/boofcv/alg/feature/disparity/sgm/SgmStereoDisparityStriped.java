@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+
+/**
+ * <p>
+ * Memory bounded variant of SGM. Instead of computing the cost and aggregated tensors for the entire image at once,
+ * which requires H*W*D elements each, the image is broken up into horizontal stripes. Each stripe is extended by
+ * 'overlap' rows above and below and then processed by the provided SGM algorithm. Only disparity values
+ * inside the stripe are saved. The extra rows are recomputed by neighboring stripes. Memory is then bounded by
+ * (stripeHeight+2*overlap)*W*D instead of H*W*D.
+ * </p>
+ *
+ * <p>
+ * Paths along the x-axis are not affected. Paths with a vertical component are truncated at the border
+ * of the extended stripe, so results are an approximation of the full image solution. Since the influence of a pixel
+ * along a path decays with distance, an overlap of 16 to 32 pixels is typically enough for more than 99% of the
+ * pixels to have the same disparity as the full image solution.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmStereoDisparityStriped<T extends ImageBase<T>, C extends ImageBase<C>>
+	extends SgmStereoDisparity<T,C>
+{
+	// SGM algorithm which is applied to each stripe
+	SgmStereoDisparity<T,C> alg;
+
+	// Number of rows in a stripe which are saved
+	int stripeHeight;
+	// Number of rows added above and below a stripe
+	int overlap;
+
+	// If true then the sub-pixel disparity will be computed while processing each stripe
+	boolean computeSubpixel = false;
+
+	// storage for the input images inside the extended stripe
+	T stripeLeft, stripeRight;
+	// storage for sub-pixel disparity inside the stripe and for the whole image
+	GrayF32 stripeSubpixel = new GrayF32(1,1);
+	GrayF32 disparitySubpixel = new GrayF32(1,1);
+
+	/**
+	 * Specifies configuration
+	 *
+	 * @param alg The SGM algorithm which is applied to each stripe
+	 * @param stripeHeight Number of rows in a stripe. &ge; 1
+	 * @param overlap Number of rows above and below a stripe which are also processed. &ge; 0
+	 */
+	public SgmStereoDisparityStriped( SgmStereoDisparity<T,C> alg, int stripeHeight , int overlap ) {
+		super(alg.getSgmCost(), alg.getSelector());
+		if( stripeHeight < 1 )
+			throw new IllegalArgumentException("stripeHeight must be at least 1");
+		if( overlap < 0 )
+			throw new IllegalArgumentException("overlap must be >= 0");
+		this.alg = alg;
+		this.aggregation = alg.getAggregation();
+		this.stripeHeight = stripeHeight;
+		this.overlap = overlap;
+	}
+
+	@Override
+	public void process( T left , T right ) {
+		InputSanityCheck.checkSameShape(left,right);
+		if( stripeLeft == null ) {
+			stripeLeft = left.createNew(1,1);
+			stripeRight = right.createNew(1,1);
+		}
+
+		disparity.reshape(left.width,left.height);
+		if( computeSubpixel )
+			disparitySubpixel.reshape(left.width,left.height);
+
+		alg.setDisparityMin(disparityMin);
+		alg.setDisparityRange(disparityRange);
+
+		for (int y0 = 0; y0 < left.height; y0 += stripeHeight) {
+			int y1 = Math.min(left.height, y0 + stripeHeight);
+
+			// extended stripe
+			int ya = Math.max(0, y0 - overlap);
+			int yb = Math.min(left.height, y1 + overlap);
+
+			stripeLeft.setTo(left.subimage(0,ya,left.width,yb));
+			stripeRight.setTo(right.subimage(0,ya,right.width,yb));
+
+			alg.process(stripeLeft,stripeRight);
+
+			// Only save the results inside the stripe
+			ImageMiscOps.copy(0,y0-ya,0,y0,left.width,y1-y0,alg.getDisparity(),disparity);
+			if( computeSubpixel ) {
+				alg.subpixel(alg.getDisparity(),stripeSubpixel);
+				ImageMiscOps.copy(0,y0-ya,0,y0,left.width,y1-y0,stripeSubpixel,disparitySubpixel);
+			}
+		}
+	}
+
+	/**
+	 * Returns the sub-pixel disparity. The aggregated cost is only available for one stripe at a time, so
+	 * {@link #setComputeSubpixel(boolean)} must be enabled before calling {@link #process}. The 'src' image
+	 * is ignored.
+	 */
+	@Override
+	public void subpixel( GrayU8 src , GrayF32 dst ) {
+		if( !computeSubpixel )
+			throw new IllegalArgumentException("Sub-pixel must be enabled before process() is called");
+		dst.setTo(disparitySubpixel);
+	}
+
+	/**
+	 * Size of the tensors for a single stripe plus the images used to store the stripes
+	 */
+	@Override
+	public long getPeakMemoryBytes() {
+		long total = alg.getPeakMemoryBytes();
+		if( stripeLeft != null ) {
+			int bytesPerPixel = stripeLeft.getImageType().getNumBands()*
+					stripeLeft.getImageType().getDataType().getNumBits()/8;
+			total += 2L*stripeLeft.width*stripeLeft.height*bytesPerPixel;
+		}
+		return total;
+	}
+
+	public SgmStereoDisparity<T, C> getAlgorithm() {
+		return alg;
+	}
+
+	public int getStripeHeight() {
+		return stripeHeight;
+	}
+
+	public int getOverlap() {
+		return overlap;
+	}
+
+	public boolean isComputeSubpixel() {
+		return computeSubpixel;
+	}
+
+	public void setComputeSubpixel(boolean computeSubpixel) {
+		this.computeSubpixel = computeSubpixel;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -54,7 +54,7 @@ import java.util.Arrays;
 public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramidBase<T> {
 
 	// regularization term
-	private static final double EPSILON = 0.001;
+	protected static final double EPSILON = 0.001;
 
 	// brightness error weighting factor
 	protected float alpha;
@@ -62,15 +62,15 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	protected float gamma;
 
 	// relaxation parameter for SOR  0 < w < 2.  Recommended default is 1.9
-	private float SOR_RELAXATION;
+	protected float SOR_RELAXATION;
 
 	// number of iterations for inner and outer loops
-	private int numOuter;
-	private int numInner;
+	protected int numOuter;
+	protected int numInner;
 	// maximum number of iterations for SOR
-	private int maxIterationsSor;
+	protected int maxIterationsSor;
 	// convergence tolerance for SOR
-	private float convergeTolerance;
+	protected float convergeTolerance;
 
 	// derivative of first image
 	private GrayF32 deriv1X = new GrayF32(1,1);
@@ -83,7 +83,7 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	private GrayF32 deriv2YY = new GrayF32(1,1);
 	private GrayF32 deriv2XY = new GrayF32(1,1);
 
-	private ImageGradient<GrayF32, GrayF32> gradient = FactoryDerivative.three(GrayF32.class, GrayF32.class);
+	protected ImageGradient<GrayF32, GrayF32> gradient = FactoryDerivative.three(GrayF32.class, GrayF32.class);
 	private ImageHessian<GrayF32> hessian = FactoryDerivative.hessianThree(GrayF32.class);
 
 	// flow estimation at the start of the iteration
@@ -327,7 +327,7 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	 * @param ipy (x,y+1)
 	 * @param imy (x,y-1)
 	 */
-	private float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y,
+	protected float iterationSor(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y,
 							   int i, int ipx, int imx, int ipy, int imy) {
 		float w = SOR_RELAXATION;
 
@@ -374,7 +374,7 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	/**
 	 * Equation 5.  Psi_s
 	 */
-	private void computePsiSmooth(GrayF32 ux , GrayF32 uy , GrayF32 vx , GrayF32 vy ,
+	protected void computePsiSmooth(GrayF32 ux , GrayF32 uy , GrayF32 vx , GrayF32 vy ,
 								  GrayF32 psiSmooth ) {
 		int N = derivFlowUX.width * derivFlowUX.height;
 
@@ -425,7 +425,7 @@ public class BroxWarpingSpacial<T extends ImageGray<T>> extends DenseFlowPyramid
 	/**
 	 * Computes the divergence for u,v, and d. Equation 8 and Equation 10.
 	 */
-	private void computeDivUVD(GrayF32 u , GrayF32 v , GrayF32 psi ,
+	protected void computeDivUVD(GrayF32 u , GrayF32 v , GrayF32 psi ,
 							   GrayF32 divU , GrayF32 divV , GrayF32 divD ) {
 
 		final int stride = psi.stride;
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent version of {@link BroxWarpingSpacial}. The SOR update of a pixel only depends on its 4-connect
+ * neighbors, so a red-black ordering is used. All the red pixels are updated in parallel, then all the black pixels.
+ * Image warping and the computation of Psi-data and Psi-gradient are done in parallel across rows.
+ * </p>
+ *
+ * <p>
+ * Since the order pixels are updated in is different from the single threaded version the results are not
+ * identical, but both converge to the same solution. Results do not depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class BroxWarpingSpacial_MT<T extends ImageGray<T>> extends BroxWarpingSpacial<T> {
+
+	// interpolation algorithm for each thread
+	FastQueue<InterpolatePixelS<GrayF32>> interpolators;
+
+	// sum of the change in flow for each row
+	GrowQueue_F32 rowError = new GrowQueue_F32();
+
+	/**
+	 * @see BroxWarpingSpacial#BroxWarpingSpacial(ConfigBroxWarping, InterpolatePixelS)
+	 */
+	public BroxWarpingSpacial_MT(ConfigBroxWarping config, InterpolatePixelS<GrayF32> interp) {
+		super(config, interp);
+		interpolators = new FastQueue<>((Class<InterpolatePixelS<GrayF32>>)(Class<?>)InterpolatePixelS.class,()->{
+			// the border has an internal state and can't be shared between threads
+			InterpolatePixelS<GrayF32> copy = interp.copy();
+			copy.setBorder(FactoryImageBorder.single(BorderType.EXTENDED, GrayF32.class));
+			return copy;
+		});
+	}
+
+	@Override
+	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX , GrayF32 flowY , GrayF32 after) {
+		BoofConcurrency.loopBlocks(0, before.height, interpolators, (interp, y0, y1) -> {
+			interp.setImage(before);
+
+			for( int y = y0; y < y1; y++ ) {
+				int pixelIndex = y*before.width;
+				for (int x = 0; x < before.width; x++, pixelIndex++ ) {
+					float u = flowX.data[pixelIndex];
+					float v = flowY.data[pixelIndex];
+
+					float wx = x + u;
+					float wy = y + v;
+
+					after.data[pixelIndex] = interp.get(wx, wy);
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void processLayer(GrayF32 image1 , GrayF32 image2 ,
+								GrayF32 deriv1X , GrayF32 deriv1Y,
+								GrayF32 deriv2X , GrayF32 deriv2Y,
+								GrayF32 deriv2XX , GrayF32 deriv2YY, GrayF32 deriv2XY) {
+
+		final int width = image1.width;
+		final int height = image1.height;
+		final int N = width*height;
+
+		rowError.resize(height);
+
+		// outer Taylor expansion iterations
+		for( int indexOuter = 0; indexOuter < numOuter; indexOuter++ ) {
+
+			// warp the image and the first + second derivatives
+			warpImageTaylor(image2, flowU, flowV, warpImage2);
+
+			warpImageTaylor(deriv2X, flowU, flowV, warpDeriv2X);
+			warpImageTaylor(deriv2Y, flowU, flowV, warpDeriv2Y);
+
+			warpImageTaylor(deriv2XX, flowU, flowV, warpDeriv2XX);
+			warpImageTaylor(deriv2YY, flowU, flowV, warpDeriv2YY);
+			warpImageTaylor(deriv2XY, flowU, flowV, warpDeriv2XY);
+
+			gradient.process(flowU,derivFlowUX,derivFlowUY);
+			gradient.process(flowV,derivFlowVX,derivFlowVY);
+
+			computePsiSmooth(derivFlowUX,derivFlowUY,derivFlowVX,derivFlowVY,psiSmooth);
+
+			computeDivUVD(flowU, flowV,psiSmooth,divU,divV,divD);
+
+			// initialize the motion increments to zero
+			Arrays.fill(du.data,0,N,0);
+			Arrays.fill(dv.data,0,N,0);
+
+			for( int indexInner = 0; indexInner < numInner; indexInner++ ) {
+
+				computePsiDataPsiGradient(image1, image2,
+						deriv1X, deriv1Y,
+						deriv2X, deriv2Y, deriv2XX, deriv2YY, deriv2XY,
+						du, dv, psiData, psiGradient);
+
+				float error;
+				int iter = 0;
+
+				do {
+					// inner SOR iteration. Red pixels are updated first then black pixels
+					Arrays.fill(rowError.data,0,height,0);
+
+					for (int color = 0; color < 2; color++) {
+						final int offset = color;
+						BoofConcurrency.loopBlocks(0, height, (y0, y1) -> {
+							for (int y = y0; y < y1; y++) {
+								rowError.data[y] += iterationSorRow(image1, deriv1X, deriv1Y, y, (y+offset)%2);
+							}
+						});
+					}
+
+					// sum up the error in a fixed order so that the results don't depend on the number of threads
+					error = 0;
+					for (int y = 0; y < height; y++) {
+						error += rowError.data[y];
+					}
+				} while (error > convergeTolerance * width * height && ++iter < maxIterationsSor);
+			}
+
+			// update the flow with the motion increments
+			PixelMath.add(flowU,du, flowU);
+			PixelMath.add(flowV,dv, flowV);
+		}
+	}
+
+	/**
+	 * Performs a SOR iteration on every other pixel in a row. Border pixels are handled the same as in
+	 * the single threaded version.
+	 *
+	 * @param y The row
+	 * @param x0 The first pixel in the row which is updated. 0 or 1
+	 * @return sum of the squared change in flow
+	 */
+	float iterationSorRow(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y, int y, int x0) {
+		final int width = image1.width;
+		final int stride = image1.stride;
+		float error = 0;
+
+		if( y == 0 || y == image1.height-1 ) {
+			for (int x = x0; x < width; x += 2) {
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x, y), s(x + 1, y), s(x - 1, y), s(x, y - 1), s(x, y + 1));
+			}
+			return error;
+		}
+
+		for (int x = x0; x < width; x += 2) {
+			if( x == 0 || x == width-1 ) {
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x, y), s(x - 1, y), s(x + 1, y), s(x, y - 1), s(x, y + 1));
+			} else {
+				int i = y*width + x;
+				error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
+			}
+		}
+		return error;
+	}
+
+	/**
+	 * Concurrent version of {@link BroxWarpingSpacial#computePsiDataPsiGradient}
+	 */
+	@Override
+	protected void computePsiDataPsiGradient(GrayF32 image1, GrayF32 image2,
+											 GrayF32 deriv1x, GrayF32 deriv1y,
+											 GrayF32 deriv2x, GrayF32 deriv2y,
+											 GrayF32 deriv2xx, GrayF32 deriv2yy, GrayF32 deriv2xy,
+											 GrayF32 du, GrayF32 dv,
+											 GrayF32 psiData, GrayF32 psiGradient ) {
+		final int width = image1.width;
+
+		BoofConcurrency.loopBlocks(0, image1.height, (y0,y1)->{
+			for( int i = y0*width; i < y1*width; i++ ) {
+
+				float du_ = du.data[i];
+				float dv_ = dv.data[i];
+
+				// compute Psi-data
+				float taylor2 = image2.data[i] + deriv2x.data[i]*du_ + deriv2y.data[i]*dv_;
+				float v = taylor2 - image1.data[i];
+
+				psiData.data[i] = (float)(1.0/(2.0*Math.sqrt(v*v + EPSILON*EPSILON)));
+
+				// compute Psi-gradient
+				float dIx = deriv2x.data[i] + deriv2xx.data[i]*du_ + deriv2xy.data[i]*dv_ - deriv1x.data[i];
+				float dIy = deriv2y.data[i] + deriv2xy.data[i]*du_ + deriv2yy.data[i]*dv_ - deriv1y.data[i];
+				float dI2 = dIx*dIx +  dIy*dIy;
+
+				psiGradient.data[i] = (float)(1.0/(2.0*Math.sqrt(dI2 + EPSILON*EPSILON)));
+			}
+		});
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent version of {@link DenseOpticalFlowBlockPyramid}. The exhaustive search for each pixel's flow is
+ * independent of the other pixels and is done in parallel across rows. Each thread has its own instance of the
+ * single threaded algorithm since the template is part of its state. Once the flow and score for every pixel in the
+ * layer is known, the neighbors are checked in a single thread in the same order as the single threaded version.
+ * Checking the neighbors is much less expensive than the search and the output is identical.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DenseOpticalFlowBlockPyramid_MT<T extends ImageGray<T>> extends DenseOpticalFlowBlockPyramid<T> {
+
+	// score for a pixel which was skipped because it had no hint from the previous layer
+	private static final float SKIPPED = -1;
+
+	// instance of the single threaded algorithm for each thread
+	FastQueue<DenseOpticalFlowBlockPyramid<T>> workers;
+	// used to extract templates and compute the error in this thread
+	DenseOpticalFlowBlockPyramid<T> alg;
+
+	// Flow and score found for each pixel in the current layer before neighbors are checked
+	ImageFlow candidates = new ImageFlow(1,1);
+	float[] candidateScores = new float[0];
+
+	/**
+	 * Specifies how to create the single threaded algorithm
+	 *
+	 * @param factory Creates new instances of the single threaded algorithm. All must have the same configuration.
+	 */
+	public DenseOpticalFlowBlockPyramid_MT( FastQueue.Factory<DenseOpticalFlowBlockPyramid<T>> factory ) {
+		this(factory.newInstance(), factory);
+	}
+
+	private DenseOpticalFlowBlockPyramid_MT( DenseOpticalFlowBlockPyramid<T> alg ,
+											 FastQueue.Factory<DenseOpticalFlowBlockPyramid<T>> factory ) {
+		super(alg.searchRadius, alg.regionRadius, 0, (Class<T>)alg.template.getClass());
+		this.maxError = alg.maxError;
+		this.alg = alg;
+		// share the template so that extracting and scoring through this class behaves the same as 'alg'
+		this.template = alg.template;
+		this.workers = new FastQueue<>(
+				(Class<DenseOpticalFlowBlockPyramid<T>>)(Class<?>)DenseOpticalFlowBlockPyramid.class, factory);
+	}
+
+	@Override
+	public void process( ImagePyramid<T> pyramidPrev , ImagePyramid<T> pyramidCurr ) {
+
+		InputSanityCheck.checkSameShape(pyramidPrev, pyramidCurr);
+
+		int numLayers = pyramidPrev.getNumLayers();
+
+		for( int i = numLayers-1; i >= 0; i-- ) {
+
+			T prev = pyramidPrev.getLayer(i);
+			T curr = pyramidCurr.getLayer(i);
+
+			flowCurrLayer.reshape(prev.width, prev.height);
+			candidates.reshape(prev.width, prev.height);
+
+			int N = prev.width*prev.height;
+			if( scores.length < N )
+				scores = new float[N];
+			if( candidateScores.length < N )
+				candidateScores = new float[N];
+			// mark all the scores as being very large so that if it has not been processed its score
+			// will be set inside of checkNeighbors.
+			Arrays.fill(scores,0,N,Float.MAX_VALUE);
+
+			int x1 = prev.width-regionRadius;
+			int y1 = prev.height-regionRadius;
+
+			// the top most layer in the pyramid has no hint
+			final boolean topLayer = i == numLayers-1;
+			final double scale = topLayer ? 1.0 : pyramidPrev.getScale(i+1)/pyramidPrev.getScale(i);
+
+			findCandidates(prev, curr, topLayer, scale);
+
+			// Check the neighbors in the same order as the single threaded algorithm
+			for( int y = regionRadius; y < y1; y++ ) {
+				int index = y*prev.width + regionRadius;
+				for( int x = regionRadius; x < x1; x++, index++ ) {
+					float score = candidateScores[index];
+					if( score == SKIPPED )
+						continue;
+
+					ImageFlow.D found = candidates.data[index];
+					if( found.isValid() )
+						checkNeighbors(x,y,found, flowCurrLayer,score);
+					else
+						flowCurrLayer.unsafe_get(x,y).markInvalid();
+				}
+			}
+
+			// swap the flow images
+			ImageFlow tmp = flowPrevLayer;
+			flowPrevLayer = flowCurrLayer;
+			flowCurrLayer = tmp;
+		}
+	}
+
+	/**
+	 * Finds the flow and score for every pixel in the layer in parallel. Neighbors are not checked.
+	 */
+	void findCandidates( T prev , T curr , boolean topLayer , double scale ) {
+		final int x1 = prev.width-regionRadius;
+		final int y1 = prev.height-regionRadius;
+		if( y1 <= regionRadius )
+			return;
+
+		BoofConcurrency.loopBlocks(regionRadius, y1, workers, (worker, row0, row1) -> {
+			for( int y = row0; y < row1; y++ ) {
+				int index = y*prev.width + regionRadius;
+				for( int x = regionRadius; x < x1; x++, index++ ) {
+					ImageFlow.D found = candidates.data[index];
+
+					if( topLayer ) {
+						worker.extractTemplate(x,y,prev);
+						candidateScores[index] = worker.findFlow(x,y,curr,found);
+						continue;
+					}
+
+					// grab the flow in higher level pyramid
+					ImageFlow.D p = flowPrevLayer.get((int)(x/scale),(int)(y/scale));
+					if( !p.isValid() ) {
+						candidateScores[index] = SKIPPED;
+						continue;
+					}
+
+					// get the template around the current point in this layer
+					worker.extractTemplate(x,y,prev);
+
+					// add the flow from the higher layer (adjusting for scale and rounding) as the start of
+					// this search
+					int deltaX = (int)(p.x*scale+0.5);
+					int deltaY = (int)(p.y*scale+0.5);
+
+					candidateScores[index] = worker.findFlow(x + deltaX,y + deltaY,curr,found);
+
+					// find flow only does it relative to the starting point
+					found.x += deltaX;
+					found.y += deltaY;
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void extractTemplate(int cx, int cy, T prev) {
+		alg.extractTemplate(cx, cy, prev);
+	}
+
+	@Override
+	protected float computeError(int cx, int cy, T curr) {
+		return alg.computeError(cx, cy, curr);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.tracker.klt.KltTrackFault;
+import boofcv.alg.tracker.klt.PyramidKltFeature;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+
+/**
+ * Concurrent version of {@link DenseOpticalFlowKlt}. The template around each pixel is tracked in parallel
+ * across rows with each thread having its own tracker. The flow is then assigned to neighboring pixels in a
+ * single thread in the same order as the single threaded version, so the output is identical.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("unchecked")
+public class DenseOpticalFlowKlt_MT<I extends ImageGray<I>, D extends ImageGray<D>>
+		extends DenseOpticalFlowKlt<I,D> {
+
+	// tracker and feature for each thread
+	FastQueue<Worker> workers;
+
+	// flow and error of the template centered at each pixel. Flow is invalid if tracking failed
+	ImageFlow tracks = new ImageFlow(1,1);
+	float[] trackErrors = new float[1];
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param factoryTracker Creates a new tracker. All must have the same configuration.
+	 * @param numLayers Number of layers in the pyramid
+	 * @param radius Radius of the square template
+	 */
+	public DenseOpticalFlowKlt_MT(FastQueue.Factory<PyramidKltTracker<I, D>> factoryTracker,
+								  int numLayers, int radius) {
+		super(factoryTracker.newInstance(), numLayers, radius);
+		workers = new FastQueue<>((Class<Worker>)(Class<?>)Worker.class,
+				()->new Worker(factoryTracker.newInstance(),new PyramidKltFeature(numLayers,radius)));
+	}
+
+	@Override
+	public void process( ImagePyramid<I> prev, D[] prevDerivX, D[] prevDerivY,
+						 ImagePyramid<I> curr , ImageFlow output ) {
+
+		this.width = output.width;
+		this.height = output.height;
+
+		// initialize and set the score for each pixel to be very high
+		int N = width*height;
+		if( scores.length < N)
+			scores = new float[N];
+		if( trackErrors.length < N )
+			trackErrors = new float[N];
+		Arrays.fill(scores,0,N,Float.MAX_VALUE);
+
+		for (int i = 0; i < N; i++) {
+			output.data[i].markInvalid();
+		}
+
+		tracks.reshape(width,height);
+
+		BoofConcurrency.loopBlocks(0, height, workers, (worker, y0, y1) -> {
+			PyramidKltTracker<I,D> tracker = worker.tracker;
+			PyramidKltFeature feature = worker.feature;
+
+			for( int y = y0; y < y1; y++ ) {
+				int index = y*width;
+				for( int x = 0; x < width; x++, index++ ) {
+					ImageFlow.D track = tracks.data[index];
+					track.markInvalid();
+
+					tracker.setImage(prev,prevDerivX,prevDerivY);
+					feature.setPosition(x,y);
+
+					if( !tracker.setDescription(feature) )
+						continue;
+
+					// derivX and derivY are not used, but can't be null for setImage()
+					tracker.setImage(curr);
+					KltTrackFault fault = tracker.track(feature);
+					if( fault == KltTrackFault.SUCCESS ) {
+						trackErrors[index] = tracker.getError();
+						track.set(feature.x-x,feature.y-y);
+					}
+				}
+			}
+		});
+
+		for( int y = 0; y < height; y++ ) {
+			int index = y*width;
+			for( int x = 0; x < width; x++, index++ ) {
+				ImageFlow.D track = tracks.data[index];
+				if( !track.isValid() )
+					continue;
+
+				float score = trackErrors[index];
+				// bias the result to prefer the central template
+				scores[index] = score*MAGIC_ADJUSTMENT;
+				output.data[index].set(track.x,track.y);
+				// see if this flow should be assigned to any of its neighbors
+				checkNeighbors(x, y, score, track.x, track.y, output);
+			}
+		}
+	}
+
+	/**
+	 * Tracker and feature used by a single thread
+	 */
+	class Worker {
+		PyramidKltTracker<I,D> tracker;
+		PyramidKltFeature feature;
+
+		public Worker(PyramidKltTracker<I, D> tracker, PyramidKltFeature feature) {
+			this.tracker = tracker;
+			this.feature = feature;
+		}
+	}
+}
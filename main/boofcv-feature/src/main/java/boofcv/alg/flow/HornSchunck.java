@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -123,11 +123,20 @@ public abstract class HornSchunck<T extends ImageBase<T>, D extends ImageBase<D>
 	 * Computes average flow using an 8-connect neighborhood for the inner image
 	 */
 	protected static void innerAverageFlow( ImageFlow flow , ImageFlow averageFlow ) {
+		innerAverageFlow(flow, averageFlow, 1, flow.height-1);
+	}
+
+	/**
+	 * Computes average flow using an 8-connect neighborhood for the inner image, but only inside the specified rows.
+	 *
+	 * @param y0 First row, inclusive. Must be &ge; 1
+	 * @param y1 Last row, exclusive. Must be &le; height-1
+	 */
+	protected static void innerAverageFlow( ImageFlow flow , ImageFlow averageFlow , int y0 , int y1 ) {
 
 		int endX = flow.width-1;
-		int endY = flow.height-1;
 
-		for( int y = 1; y < endY; y++ ) {
+		for( int y = y0; y < y1; y++ ) {
 			int index = flow.width*y + 1;
 			for( int x = 1; x < endX; x++ , index++) {
 				ImageFlow.D average = averageFlow.data[index];
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.flow.ConfigHornSchunckPyramid;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent version of {@link HornSchunckPyramid}. The SOR update of a pixel depends on all 8 of its neighbors,
+ * so pixels are split into four colors using the parity of their x and y coordinates. No two pixels of the
+ * same color are neighbors and each color is updated with rows being processed in parallel. Image warping is
+ * also done in parallel, with each thread having its own interpolation algorithm.
+ * </p>
+ *
+ * <p>
+ * Since the order pixels are updated in is different from the single threaded version the results are not
+ * identical, but both converge to the same solution. Results do not depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class HornSchunckPyramid_MT<T extends ImageGray<T>> extends HornSchunckPyramid<T> {
+
+	// interpolation algorithm for each thread
+	FastQueue<InterpolatePixelS<GrayF32>> interpolators;
+
+	// sum of the change in flow for each row
+	GrowQueue_F32 rowError = new GrowQueue_F32();
+
+	/**
+	 * @see HornSchunckPyramid#HornSchunckPyramid(ConfigHornSchunckPyramid, InterpolatePixelS)
+	 */
+	public HornSchunckPyramid_MT(ConfigHornSchunckPyramid config, InterpolatePixelS<GrayF32> interp) {
+		super(config, interp);
+		interpolators = new FastQueue<>((Class<InterpolatePixelS<GrayF32>>)(Class<?>)InterpolatePixelS.class,()->{
+			// the border has an internal state and can't be shared between threads
+			InterpolatePixelS<GrayF32> copy = interp.copy();
+			copy.setBorder(FactoryImageBorder.single(BorderType.EXTENDED, GrayF32.class));
+			return copy;
+		});
+	}
+
+	@Override
+	protected void warpImageTaylor(GrayF32 before, GrayF32 flowX , GrayF32 flowY , GrayF32 after) {
+		BoofConcurrency.loopBlocks(0, before.height, interpolators, (interp, y0, y1) -> {
+			interp.setImage(before);
+
+			for( int y = y0; y < y1; y++ ) {
+				int pixelIndex = y*before.width;
+				for (int x = 0; x < before.width; x++, pixelIndex++ ) {
+					float u = flowX.data[pixelIndex];
+					float v = flowY.data[pixelIndex];
+
+					float wx = x + u;
+					float wy = y + v;
+
+					if( wx < 0 || wx > before.width-1 || wy < 0 || wy > before.height-1 ) {
+						// setting outside pixels to zero seems to produce smoother results than extending the image
+						after.data[pixelIndex] = 0;
+					} else {
+						after.data[pixelIndex] = interp.get(wx, wy);
+					}
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void processLayer(GrayF32 image1 , GrayF32 image2 , GrayF32 derivX2 , GrayF32 derivY2) {
+		final int width = image1.width;
+		final int height = image1.height;
+
+		rowError.resize(height);
+
+		// outer Taylor expansion iterations
+		for( int warp = 0; warp < numWarps; warp++ ) {
+
+			initFlowX.setTo(flowX);
+			initFlowY.setTo(flowY);
+
+			warpImageTaylor(derivX2, initFlowX, initFlowY, warpDeriv2X);
+			warpImageTaylor(derivY2, initFlowX, initFlowY, warpDeriv2Y);
+			warpImageTaylor(image2, initFlowX, initFlowY, warpImage2);
+
+			float error;
+			int iter = 0;
+
+			do {
+				// inner SOR iteration.
+				Arrays.fill(rowError.data,0,height,0);
+
+				for (int color = 0; color < 4; color++) {
+					final int offsetX = color%2;
+					final int offsetY = color/2;
+					int numRows = (height - offsetY + 1)/2;
+
+					BoofConcurrency.loopBlocks(0, numRows, (row0, row1) -> {
+						for (int row = row0; row < row1; row++) {
+							int y = offsetY + 2*row;
+							boolean borderRow = y == 0 || y == height-1;
+							float sum = 0;
+							for (int x = offsetX; x < width; x += 2) {
+								int pixelIndex = y*width + x;
+								if( borderRow || x == 0 || x == width-1 )
+									sum += iterationSorSafe(image1,x,y,pixelIndex);
+								else
+									sum += iterationSor(image1,x,y,pixelIndex);
+							}
+							rowError.data[y] += sum;
+						}
+					});
+				}
+
+				// sum up the error in a fixed order so that the results don't depend on the number of threads
+				error = 0;
+				for (int y = 0; y < height; y++) {
+					error += rowError.data[y];
+				}
+			} while( error > convergeTolerance*width*height && ++iter < maxInnerIterations);
+		}
+	}
+
+	/**
+	 * SOR iteration for inner pixels
+	 */
+	private float iterationSor(GrayF32 image1, int x, int y, int pixelIndex) {
+		float w = SOR_RELAXATION;
+
+		float uf;
+		float vf;
+		float ui = initFlowX.data[pixelIndex];
+		float vi = initFlowY.data[pixelIndex];
+
+		float u = flowX.data[pixelIndex];
+		float v = flowY.data[pixelIndex];
+
+		float I1 = image1.data[pixelIndex];
+		float I2 = warpImage2.data[pixelIndex];
+
+		float I2x = warpDeriv2X.data[pixelIndex];
+		float I2y = warpDeriv2Y.data[pixelIndex];
+
+		float AU = A(x,y,flowX);
+		float AV = A(x,y,flowY);
+
+		flowX.data[pixelIndex] = uf = (1-w)*u + w*((I1-I2+I2x*ui - I2y*(v-vi))*I2x + alpha2*AU)/(I2x*I2x + alpha2);
+		flowY.data[pixelIndex] = vf = (1-w)*v + w*((I1-I2+I2y*vi - I2x*(uf-ui))*I2y + alpha2*AV)/(I2y*I2y + alpha2);
+
+		return (uf - u)*(uf - u) + (vf - v)*(vf - v);
+	}
+}
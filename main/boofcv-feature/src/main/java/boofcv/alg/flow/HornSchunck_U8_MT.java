@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayS16;
+
+/**
+ * Concurrent version of {@link HornSchunck_U8}. Each iteration is a Jacobi update, i.e. the average flow is
+ * computed entirely from the previous iteration's flow, so rows can be processed in parallel and the results
+ * are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunck_U8_MT extends HornSchunck_U8 {
+
+	public HornSchunck_U8_MT(float alpha, int numIterations) {
+		super(alpha, numIterations);
+	}
+
+	@Override
+	protected void findFlow(GrayS16 derivX , GrayS16 derivY ,
+							GrayS16 derivT , ImageFlow output) {
+
+		final int width = output.width;
+
+		for( int iter = 0; iter < numIterations; iter++ ) {
+
+			borderAverageFlow(output,averageFlow);
+			if( output.height > 2 )
+				BoofConcurrency.loopBlocks(1, output.height-1, (y0,y1)->innerAverageFlow(output,averageFlow,y0,y1));
+
+			BoofConcurrency.loopBlocks(0, output.height, (y0,y1)->{
+				for( int i = y0*width; i < y1*width; i++ ) {
+					float dx = derivX.data[i];
+					float dy = derivY.data[i];
+					float dt = derivT.data[i];
+
+					ImageFlow.D aveFlow = averageFlow.data[i];
+
+					float u = aveFlow.x;
+					float v = aveFlow.y;
+
+					ImageFlow.D flow = output.data[i];
+					float r = (dx*u + dy*v + dt)/(alpha2 + dx*dx + dy*dy);
+					flow.x = u - dx*r;
+					flow.y = v - dy*r;
+				}
+			});
+		}
+	}
+}
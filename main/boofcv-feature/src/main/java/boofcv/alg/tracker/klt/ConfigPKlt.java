@@ -49,6 +49,12 @@ public class ConfigPKlt implements Configuration
 	 */
 	public boolean pruneClose=false;
 
+	/**
+	 * If true and {@link boofcv.concurrency.BoofConcurrency#USE_CONCURRENT} is true then active tracks will be
+	 * tracked using multiple threads. Results are identical to the single threaded tracker.
+	 */
+	public boolean concurrent=false;
+
 	public ConfigPKlt() {
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -65,6 +65,70 @@ public class FactoryAssociation {
 	}
 
 
+	/**
+	 * Association for SURF features which only considers features with the same laplacian sign. Features with
+	 * different signs are associated with a greedy algorithm.
+	 * See {@link AssociateSurfBasic} for details.
+	 *
+	 * @param score Computes the fit score between two features.
+	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.
+	 * @return AssociateSurfBasic
+	 */
+	public static AssociateSurfBasic surfBasic( ScoreAssociation<TupleDesc_F64> score ,
+												double maxError ,
+												boolean backwardsValidation )
+	{
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new AssociateSurfBasic_MT(
+					greedy(score, maxError, backwardsValidation),
+					greedy(score, maxError, backwardsValidation));
+		} else {
+			return new AssociateSurfBasic(greedy(score, maxError, backwardsValidation));
+		}
+	}
+
+	/**
+	 * Association where features are only considered if they are within a maximum distance of each other
+	 * in the image. See {@link AssociateMaxDistanceNaive} for details.
+	 *
+	 * @param score Computes the fit score between two features.
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.
+	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
+	 * @param <D> Data structure being associated
+	 * @return AssociateMaxDistanceNaive
+	 */
+	public static <D> AssociateMaxDistanceNaive<D>
+	maxDistanceNaive( ScoreAssociation<D> score ,
+					  boolean backwardsValidation ,
+					  double maxError )
+	{
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new AssociateMaxDistanceNaive_MT<>(score, backwardsValidation, maxError);
+		} else {
+			return new AssociateMaxDistanceNaive<>(score, backwardsValidation, maxError);
+		}
+	}
+
+	/**
+	 * Associates features across three views by associating each pair of views with a greedy algorithm.
+	 * Backwards validation is always used since unique associations are required.
+	 * See {@link AssociateThreeByPairs} for details.
+	 *
+	 * @param score Computes the fit score between two features.
+	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
+	 * @param type Type of descriptor
+	 * @param <D> Data structure being associated
+	 * @return AssociateThreeByPairs
+	 */
+	public static <D> AssociateThreeByPairs<D>
+	threeByPairs( ScoreAssociation<D> score ,
+				  double maxError ,
+				  Class<D> type )
+	{
+		return new AssociateThreeByPairs<>(greedy(score, maxError, true), type);
+	}
+
 	/**
 	 * Approximate association using a K-D tree degree of moderate size (10-15) that uses a best-bin-first search
 	 * order.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,7 +24,6 @@ import boofcv.abst.feature.describe.ConfigSurfDescribe;
 import boofcv.abst.feature.describe.DescribeRegionPoint;
 import boofcv.abst.feature.detdesc.*;
 import boofcv.abst.feature.detect.extract.NonMaxLimiter;
-import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.feature.detect.interest.ConfigFastHessian;
 import boofcv.abst.feature.detect.interest.ConfigSiftDetector;
 import boofcv.abst.feature.detect.interest.InterestPointDetector;
@@ -34,10 +33,12 @@ import boofcv.alg.feature.describe.DescribePointSurf;
 import boofcv.alg.feature.describe.DescribePointSurfMod;
 import boofcv.alg.feature.describe.DescribePointSurfPlanar;
 import boofcv.alg.feature.detdesc.CompleteSift;
+import boofcv.alg.feature.detdesc.CompleteSift_MT;
 import boofcv.alg.feature.detdesc.DetectDescribeSurfPlanar;
 import boofcv.alg.feature.detdesc.DetectDescribeSurfPlanar_MT;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace_MT;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.alg.transform.ii.GIntegralImageOps;
 import boofcv.concurrency.BoofConcurrency;
@@ -51,6 +52,7 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageMultiBand;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
 
@@ -80,18 +82,28 @@ public class FactoryDetectDescribe {
 		ConfigSiftOrientation configOri = config.orientation;
 		ConfigSiftDescribe configDesc = config.describe;
 
-		SiftScaleSpace scaleSpace = new SiftScaleSpace(
-				configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
-		OrientationHistogramSift<GrayF32> orientation = new OrientationHistogramSift<>(
-				configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
-		DescribePointSift<GrayF32> describe = new DescribePointSift<>(
-				configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
+		FastQueue.Factory<OrientationHistogramSift<GrayF32>> factoryOrientation = ()->
+				new OrientationHistogramSift<>(configOri.histogramSize,configOri.sigmaEnlarge,GrayF32.class);
+		FastQueue.Factory<DescribePointSift<GrayF32>> factoryDescribe = ()->
+				new DescribePointSift<>(configDesc.widthSubregion,configDesc.widthGrid, configDesc.numHistogramBins,
 				configDesc.sigmaToPixels, configDesc.weightingSigmaFraction,
 				configDesc.maxDescriptorElementValue,GrayF32.class);
+		FastQueue.Factory<NonMaxLimiter> factoryNonMax = ()->
+				new NonMaxLimiter(FactoryFeatureExtractor.nonmax(configDetector.extract),configDetector.maxFeaturesPerScale);
 
-		NonMaxSuppression nns = FactoryFeatureExtractor.nonmax(configDetector.extract);
-		NonMaxLimiter nonMax = new NonMaxLimiter(nns,configDetector.maxFeaturesPerScale);
-		CompleteSift dds = new CompleteSift(scaleSpace,configDetector.edgeR,nonMax,orientation,describe);
+		CompleteSift dds;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			SiftScaleSpace scaleSpace = new SiftScaleSpace_MT(
+					configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
+			scaleSpace.setRecursiveBlur(configSS.recursiveBlur);
+			dds = new CompleteSift_MT(scaleSpace,configDetector.edgeR,factoryNonMax,factoryOrientation,factoryDescribe);
+		} else {
+			SiftScaleSpace scaleSpace = new SiftScaleSpace(
+					configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
+			scaleSpace.setRecursiveBlur(configSS.recursiveBlur);
+			dds = new CompleteSift(scaleSpace,configDetector.edgeR,factoryNonMax.newInstance(),
+					factoryOrientation.newInstance(),factoryDescribe.newInstance());
+		}
 		return new DetectDescribe_CompleteSift<>(dds);
 	}
 
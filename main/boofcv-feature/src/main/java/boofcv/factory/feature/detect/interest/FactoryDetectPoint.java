@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,16 +22,23 @@ import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.feature.detect.intensity.*;
 import boofcv.abst.feature.detect.interest.*;
 import boofcv.abst.filter.blur.BlurStorageFilter;
+import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.intensity.FastCornerDetector;
 import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.feature.detect.interest.StripGeneralFeatureDetector;
+import boofcv.alg.feature.detect.interest.StripGeneralFeatureDetector_MT;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.intensity.FactoryIntensityPoint;
 import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
 
@@ -159,6 +166,87 @@ public class FactoryDetectPoint {
 		return new WrapFastToPointDetector<>(alg);
 	}
 
+	/**
+	 * Detects Harris corners by processing the image in horizontal strips which fit inside the cache. Returns the
+	 * same features as {@link #createHarris} with the image gradient computed using a Sobel kernel.
+	 *
+	 * @param configDetector Configuration for feature detector.
+	 * @param configCorner   Configuration for corner intensity computation. If null radius will match detector radius
+	 * @param imageType       Type of input image.
+	 * @param derivType       Type of derivative image.
+	 * @see StripGeneralFeatureDetector
+	 */
+	public static <T extends ImageGray<T>, D extends ImageGray<D>>
+	StripGeneralFeatureDetector<T, D> createStripHarris( @Nullable ConfigGeneralDetector configDetector,
+														 @Nullable ConfigHarrisCorner configCorner,
+														 Class<T> imageType, Class<D> derivType ) {
+		return createStrip(()->createHarris(configDetector, configCorner, derivType),
+				imageType, derivType, configDetector);
+	}
+
+	/**
+	 * Detects Shi-Tomasi corners by processing the image in horizontal strips which fit inside the cache. Returns
+	 * the same features as {@link #createShiTomasi} with the image gradient computed using a Sobel kernel.
+	 *
+	 * @param configDetector Configuration for feature detector.
+	 * @param configCorner   Configuration for corner intensity computation. If null radius will match detector radius
+	 * @param imageType       Type of input image.
+	 * @param derivType       Type of derivative image.
+	 * @see StripGeneralFeatureDetector
+	 */
+	public static <T extends ImageGray<T>, D extends ImageGray<D>>
+	StripGeneralFeatureDetector<T, D> createStripShiTomasi( @Nullable ConfigGeneralDetector configDetector,
+															@Nullable ConfigShiTomasi configCorner,
+															Class<T> imageType, Class<D> derivType ) {
+		return createStrip(()->createShiTomasi(configDetector, configCorner, derivType),
+				imageType, derivType, configDetector);
+	}
+
+	/**
+	 * Detects Fast corners by processing the image in horizontal strips which fit inside the cache. Returns the
+	 * same features as {@link #createFast(ConfigFastCorner, ConfigGeneralDetector, Class)}, except
+	 * {@link ConfigFastCorner#maxFeatures} is applied to each strip individually.
+	 *
+	 * @param configFast Configuration for FAST feature detector
+	 * @param configDetector Configuration for feature extractor.
+	 * @param imageType Type of input image.
+	 * @see StripGeneralFeatureDetector
+	 */
+	public static <T extends ImageGray<T>, D extends ImageGray<D>>
+	StripGeneralFeatureDetector<T, D> createStripFast( @Nullable ConfigFastCorner configFast ,
+													   ConfigGeneralDetector configDetector , Class<T> imageType) {
+		Class<D> derivType = GImageDerivativeOps.getDerivativeType(imageType);
+		return createStrip(()->createFast(configFast, configDetector, imageType),
+				null, derivType, configDetector);
+	}
+
+	/**
+	 * Creates a {@link StripGeneralFeatureDetector}.
+	 *
+	 * @param factory Creates the detector used to process each strip
+	 * @param imageType Type of input image. If null then the image gradient is not computed.
+	 * @param derivType Type of derivative image.
+	 * @param config Configuration for feature detector. Used to specify the maximum number of features.
+	 */
+	public static <T extends ImageGray<T>, D extends ImageGray<D>>
+	StripGeneralFeatureDetector<T, D> createStrip( FastQueue.Factory<GeneralFeatureDetector<T,D>> factory,
+												   @Nullable Class<T> imageType, Class<D> derivType,
+												   @Nullable ConfigGeneralDetector config ) {
+		FastQueue.Factory<ImageGradient<T,D>> factoryGradient = null;
+		if( imageType != null )
+			factoryGradient = ()->FactoryDerivative.sobel(imageType, derivType);
+
+		// Sobel kernel has a radius of 1
+		StripGeneralFeatureDetector<T,D> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new StripGeneralFeatureDetector_MT<>(factory, factoryGradient, 1, derivType);
+		else
+			alg = new StripGeneralFeatureDetector<>(factory, factoryGradient, 1, derivType);
+		if( config != null )
+			alg.setMaxFeatures(config.maxFeatures);
+		return alg;
+	}
+
 	/**
 	 * Creates a median filter corner detector.
 	 *
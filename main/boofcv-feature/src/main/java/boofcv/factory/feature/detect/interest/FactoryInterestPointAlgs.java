@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -33,10 +33,12 @@ import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
 import boofcv.alg.feature.detect.interest.*;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
 import boofcv.factory.filter.derivative.FactoryDerivativeSparse;
 import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
 
@@ -190,13 +192,21 @@ public class FactoryInterestPointAlgs {
 		if( configSS == null )
 			configSS = new ConfigSiftScaleSpace();
 
-		if( configDetector == null )
-			configDetector = new ConfigSiftDetector();
-
-		NonMaxLimiter nonmax = FactoryFeatureExtractor.nonmaxLimiter(
-				configDetector.extract,configDetector.maxFeaturesPerScale);
-		SiftScaleSpace ss = new SiftScaleSpace(configSS.firstOctave,configSS.lastOctave,
-				configSS.numScales,configSS.sigma0);
-		return new SiftDetector(ss,configDetector.edgeR,nonmax);
+		final ConfigSiftDetector configDet = configDetector == null ? new ConfigSiftDetector() : configDetector;
+
+		FastQueue.Factory<NonMaxLimiter> factoryNonMax = ()->FactoryFeatureExtractor.nonmaxLimiter(
+				configDet.extract,configDet.maxFeaturesPerScale);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			SiftScaleSpace ss = new SiftScaleSpace_MT(configSS.firstOctave,configSS.lastOctave,
+					configSS.numScales,configSS.sigma0);
+			ss.setRecursiveBlur(configSS.recursiveBlur);
+			return new SiftDetector_MT(ss,configDet.edgeR,factoryNonMax);
+		} else {
+			SiftScaleSpace ss = new SiftScaleSpace(configSS.firstOctave,configSS.lastOctave,
+					configSS.numScales,configSS.sigma0);
+			ss.setRecursiveBlur(configSS.recursiveBlur);
+			return new SiftDetector(ss,configDet.edgeR,factoryNonMax.newInstance());
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -72,6 +72,22 @@ public class ConfigDisparitySGM implements Configuration {
 	 * Number of paths it should consider. 4 or 8 is most common. More paths slower it will run.
 	 */
 	public Paths paths = Paths.P8;
+	/**
+	 * If true then opposite paths which pass through the same pixels are aggregated together. This reduces the
+	 * number of times the cost tensor is traversed and produces identical results.
+	 */
+	public boolean fuseOppositePaths = false;
+	/**
+	 * If &gt; 0 then the image is processed in horizontal stripes with this many rows, bounding memory usage
+	 * by the stripe's size instead of the entire image. Results will differ slightly from the full image.
+	 * Disable with a value &le; 0.
+	 */
+	public int stripeHeight = 0;
+	/**
+	 * Number of rows above and below each stripe which are also processed. Larger values produce results
+	 * closer to the full image solution. Only used if {@link #stripeHeight} is enabled.
+	 */
+	public int stripeOverlap = 24;
 	/**
 	 * Which error model should it use
 	 */
@@ -127,6 +143,8 @@ public class ConfigDisparitySGM implements Configuration {
 			throw new IllegalArgumentException("Invalid value for penaltySmallChange.");
 		if( disparityMin < 0 )
 			throw new IllegalArgumentException("Minimum disparity must be >= 0");
+		if( stripeHeight > 0 && stripeOverlap < 0 )
+			throw new IllegalArgumentException("Stripe overlap must be >= 0");
 		configBlockMatch.checkValidity();
 	}
 
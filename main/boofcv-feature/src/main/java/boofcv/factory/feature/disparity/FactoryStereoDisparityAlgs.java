@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -60,7 +60,7 @@ public class FactoryStereoDisparityAlgs {
 		selector.setMaxError(maxError);
 		selector.setTextureThreshold(config.texture);
 
-		SgmStereoDisparity sgm;
+		SgmStereoDisparity<?,?> sgm;
 
 		// There's currently no block variant of MI
 		if( !config.useBlocks )
@@ -68,15 +68,34 @@ public class FactoryStereoDisparityAlgs {
 		else
 			sgm = createSgmBlockCost(config, selector, GrayU8.class);
 
+		sgm.setAggregation(BoofConcurrency.USE_CONCURRENT ?
+				new SgmCostAggregation_MT() : new SgmCostAggregation());
 		sgm.setDisparityMin(config.disparityMin);
 		sgm.setDisparityRange(config.disparityRange);
 		sgm.getAggregation().setPathsConsidered(config.paths.getCount());
+		sgm.getAggregation().setFuseOpposite(config.fuseOppositePaths);
 		sgm.getAggregation().setPenalty1(config.penaltySmallChange);
 		sgm.getAggregation().setPenalty2(config.penaltyLargeChange);
 
+		if( config.stripeHeight > 0 )
+			sgm = createSgmStriped(sgm, config);
+
 		return sgm;
 	}
 
+	/**
+	 * Wraps the SGM algorithm so that the image is processed in horizontal stripes
+	 */
+	private static <T extends ImageBase<T>, C extends ImageBase<C>>
+	SgmStereoDisparityStriped<T,C> createSgmStriped( SgmStereoDisparity<T,C> sgm, ConfigDisparitySGM config ) {
+		SgmStereoDisparityStriped<T,C> striped =
+				new SgmStereoDisparityStriped<>(sgm,config.stripeHeight,config.stripeOverlap);
+		striped.setDisparityMin(config.disparityMin);
+		striped.setDisparityRange(config.disparityRange);
+		striped.setComputeSubpixel(config.subpixel);
+		return striped;
+	}
+
 	private static SgmStereoDisparity createSgmNativeCost( ConfigDisparitySGM config, SgmDisparitySelector selector) {
 		SgmStereoDisparity sgm;
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -76,6 +76,7 @@ public class FactoryOrientation {
 
 		SiftScaleSpace ss = new SiftScaleSpace(
 				configSS.firstOctave,configSS.lastOctave,configSS.numScales,configSS.sigma0);
+		ss.setRecursiveBlur(configSS.recursiveBlur);
 		return new OrientationSiftToImage<>(ori, ss, imageType);
 	}
 }
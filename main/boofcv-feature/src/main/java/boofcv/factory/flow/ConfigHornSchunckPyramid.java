@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -67,6 +67,13 @@ public class ConfigHornSchunckPyramid implements Configuration {
 	 */
 	public InterpolationType interpolation = InterpolationType.BILINEAR;
 
+	/**
+	 * If true and concurrency is turned on, a multi-threaded implementation is used. It replaces the sequential
+	 * SOR sweep with a four color sweep, which converges to a slightly different solution. Off by default
+	 * so that the output does not depend on {@link boofcv.concurrency.BoofConcurrency#USE_CONCURRENT}.
+	 */
+	public boolean concurrentSor = false;
+
 
 	@Override
 	public void checkValidity() {}
@@ -50,6 +50,7 @@ import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.combined.CombinedTrackerScalePoint;
 import boofcv.alg.tracker.klt.ConfigPKlt;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
@@ -140,9 +141,15 @@ public class FactoryPointTracker {
 
 		PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(config.pyramidScaling,-1,2,true, ImageType.single(imageType));
 
-		return new PointTrackerKltPyramid<>(config.config, config.toleranceFB,
-				config.templateRadius, config.pruneClose, pyramid, detector,
-				gradient, interpInput, interpDeriv, derivType);
+		if( config.concurrent && BoofConcurrency.USE_CONCURRENT ) {
+			return new PointTrackerKltPyramid_MT<>(config.config, config.toleranceFB,
+					config.templateRadius, config.pruneClose, pyramid, detector,
+					gradient, interpInput, interpDeriv, derivType);
+		} else {
+			return new PointTrackerKltPyramid<>(config.config, config.toleranceFB,
+					config.templateRadius, config.pruneClose, pyramid, detector,
+					gradient, interpInput, interpDeriv, derivType);
+		}
 	}
 
 	/**
@@ -167,7 +174,7 @@ public class FactoryPointTracker {
 										  Class<I> imageType)
 	{
 		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class, true);
-		AssociateSurfBasic assoc = new AssociateSurfBasic(FactoryAssociation.greedy(score, 5, true));
+		AssociateSurfBasic assoc = FactoryAssociation.surfBasic(score, 5, true);
 
 		AssociateDescription2D<BrightFeature> generalAssoc =
 				new AssociateDescTo2D<>(new WrapAssociateSurfBasic(assoc));
@@ -202,7 +209,7 @@ public class FactoryPointTracker {
 											Class<I> imageType)
 	{
 		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class, true);
-		AssociateSurfBasic assoc = new AssociateSurfBasic(FactoryAssociation.greedy(score, 5, true));
+		AssociateSurfBasic assoc = FactoryAssociation.surfBasic(score, 5, true);
 
 		AssociateDescription2D<BrightFeature> generalAssoc =
 				new AssociateDescTo2D<>(new WrapAssociateSurfBasic(assoc));
@@ -394,7 +401,7 @@ public class FactoryPointTracker {
 										  Class<I> imageType) {
 
 		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.defaultScore(TupleDesc_F64.class);
-		AssociateSurfBasic assoc = new AssociateSurfBasic(FactoryAssociation.greedy(score, 100000, true));
+		AssociateSurfBasic assoc = FactoryAssociation.surfBasic(score, 100000, true);
 
 		AssociateDescription<BrightFeature> generalAssoc = new WrapAssociateSurfBasic(assoc);
 
@@ -439,7 +446,7 @@ public class FactoryPointTracker {
 				= FactoryDescribeRegionPoint.surfStable(configDescribe, imageType);
 
 		ScoreAssociation<TupleDesc_F64> score = FactoryAssociation.scoreEuclidean(TupleDesc_F64.class, true);
-		AssociateSurfBasic assoc = new AssociateSurfBasic(FactoryAssociation.greedy(score, 100000, true));
+		AssociateSurfBasic assoc = FactoryAssociation.surfBasic(score, 100000, true);
 
 		AssociateDescription<BrightFeature> generalAssoc = new WrapAssociateSurfBasic(assoc);
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Stores a set of descriptors of the same length inside a single primitive array. This avoids creating an
+ * object for each descriptor and keeps descriptors next to each other in memory.
+ *
+ * @param <D> Type of descriptor being stored
+ *
+ * @author Peter Abeles
+ */
+public interface PackedTupleArray<D> {
+	/**
+	 * Removes all descriptors and changes the descriptor length
+	 *
+	 * @param length Number of elements in a descriptor. Same as {@link TupleDesc#size()}
+	 */
+	void reset( int length );
+
+	/**
+	 * Removes all descriptors but keeps the descriptor length and storage
+	 */
+	void reset();
+
+	/**
+	 * Ensures there is enough storage for the specified number of descriptors. Existing data is saved.
+	 */
+	void reserve( int numDescriptors );
+
+	/**
+	 * Copies the descriptor and adds it to the end of the array
+	 */
+	void append( D desc );
+
+	/**
+	 * Copies the descriptor at the specified index into 'dst'
+	 */
+	void get( int index , D dst );
+
+	/**
+	 * Discards the previous contents and copies all the descriptors in the list. The descriptor length
+	 * is set by the first element.
+	 */
+	void setTo( FastQueue<D> list );
+
+	/**
+	 * Number of descriptors stored
+	 */
+	int size();
+}
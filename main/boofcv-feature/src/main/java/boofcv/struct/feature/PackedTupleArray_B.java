@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Stores a set of binary descriptors in a single contiguous long[] array. Each descriptor uses
+ * {@link #numWords} 64-bit words and the descriptor at index 'i' starts at i*numWords. Compared to a list of
+ * {@link TupleDesc_B} this avoids a pointer lookup per descriptor and allows the hamming distance to be
+ * computed 64-bits at a time.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_B implements PackedTupleArray<TupleDesc_B> {
+	/** Storage for all the descriptors */
+	public long[] data = new long[0];
+	/** Number of bits in each descriptor */
+	public int numBits;
+	/** Number of 64-bit words in each descriptor */
+	public int numWords;
+	/** Number of descriptors */
+	public int size;
+
+	public PackedTupleArray_B( int numBits ) {
+		reset(numBits);
+	}
+
+	public PackedTupleArray_B() {
+	}
+
+	@Override
+	public void reset( int numBits ) {
+		this.numBits = numBits;
+		this.numWords = numBits/64 + (numBits%64 == 0 ? 0 : 1);
+		this.size = 0;
+	}
+
+	@Override
+	public void reset() {
+		this.size = 0;
+	}
+
+	@Override
+	public void reserve( int numDescriptors ) {
+		int length = numDescriptors*numWords;
+		if( data.length < length ) {
+			long[] tmp = new long[length];
+			System.arraycopy(data,0,tmp,0,size*numWords);
+			data = tmp;
+		}
+	}
+
+	@Override
+	public void append( TupleDesc_B desc ) {
+		if( desc.numBits != numBits )
+			throw new IllegalArgumentException("Expected "+numBits+" bits not "+desc.numBits);
+		if( data.length < (size+1)*numWords )
+			reserve(Math.max(10,size*2));
+
+		int idx = size*numWords;
+		final int[] src = desc.data;
+		final int numInts = Math.min(src.length,numWords*2);
+		for (int i = 0; i < numWords; i++) {
+			int j = i*2;
+			long lower = j < numInts ? src[j] & 0xFFFFFFFFL : 0;
+			long upper = j+1 < numInts ? ((long)src[j+1]) << 32 : 0;
+			data[idx+i] = lower | upper;
+		}
+		size++;
+	}
+
+	@Override
+	public void setTo( FastQueue<TupleDesc_B> list ) {
+		if( list.size == 0 ) {
+			reset();
+			return;
+		}
+		reset(list.get(0).numBits);
+		reserve(list.size);
+		for (int i = 0; i < list.size; i++) {
+			append(list.get(i));
+		}
+	}
+
+	@Override
+	public void get( int index , TupleDesc_B dst ) {
+		if( dst.numBits != numBits )
+			throw new IllegalArgumentException("Expected "+numBits+" bits not "+dst.numBits);
+		int idx = index*numWords;
+		final int[] out = dst.data;
+		final int numInts = Math.min(out.length,numWords*2);
+		for (int j = 0; j < numInts; j++) {
+			long value = data[idx + j/2];
+			out[j] = (int)(j%2 == 0 ? value : value >>> 32);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+}
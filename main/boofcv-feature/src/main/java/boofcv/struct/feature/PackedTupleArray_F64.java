@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Stores a set of {@link TupleDesc_F64} in a single contiguous double[] array. Each descriptor has {@link #dof}
+ * elements and the descriptor at index 'i' starts at i*dof.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_F64 implements PackedTupleArray<TupleDesc_F64> {
+	/** Storage for all the descriptors */
+	public double[] data = new double[0];
+	/** Number of elements in each descriptor */
+	public int dof;
+	/** Number of descriptors */
+	public int size;
+
+	public PackedTupleArray_F64( int dof ) {
+		reset(dof);
+	}
+
+	public PackedTupleArray_F64() {
+	}
+
+	@Override
+	public void reset( int dof ) {
+		this.dof = dof;
+		this.size = 0;
+	}
+
+	@Override
+	public void reset() {
+		this.size = 0;
+	}
+
+	@Override
+	public void reserve( int numDescriptors ) {
+		int length = numDescriptors*dof;
+		if( data.length < length ) {
+			double[] tmp = new double[length];
+			System.arraycopy(data,0,tmp,0,size*dof);
+			data = tmp;
+		}
+	}
+
+	@Override
+	public void append( TupleDesc_F64 desc ) {
+		if( desc.value.length != dof )
+			throw new IllegalArgumentException("Expected "+dof+" elements not "+desc.value.length);
+		if( data.length < (size+1)*dof )
+			reserve(Math.max(10,size*2));
+
+		System.arraycopy(desc.value,0,data,size*dof,dof);
+		size++;
+	}
+
+	@Override
+	public void get( int index , TupleDesc_F64 dst ) {
+		if( dst.value.length != dof )
+			throw new IllegalArgumentException("Expected "+dof+" elements not "+dst.value.length);
+		System.arraycopy(data,index*dof,dst.value,0,dof);
+	}
+
+	@Override
+	public void setTo( FastQueue<TupleDesc_F64> list ) {
+		if( list.size == 0 ) {
+			reset();
+			return;
+		}
+		reset(list.get(0).value.length);
+		reserve(list.size);
+		for (int i = 0; i < list.size; i++) {
+			append(list.get(i));
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.TupleDesc_F32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestScoreAssociateEuclideanSqBatch_F32 extends StandardScoreAssociationChecks<TupleDesc_F32> {
+
+	public TestScoreAssociateEuclideanSqBatch_F32() {
+		super(MatchScoreType.NORM_ERROR);
+	}
+
+	@Override
+	public ScoreAssociation<TupleDesc_F32> createScore() {
+		return new ScoreAssociateEuclideanSqBatch_F32();
+	}
+
+	@Override
+	public TupleDesc_F32 createDescription() {
+		TupleDesc_F32 a = new TupleDesc_F32(5);
+		for( int i = 0; i < a.size(); i++ )
+			a.value[i] = rand.nextFloat()*2;
+
+		return a;
+	}
+
+	/**
+	 * Batch scores must be identical to scoring each pair individually
+	 */
+	@Test
+	public void scoreBatch() {
+		ScoreAssociateEuclideanSqBatch_F32 alg = new ScoreAssociateEuclideanSqBatch_F32();
+
+		PackedTupleArray<TupleDesc_F32> query = alg.createPacked();
+		PackedTupleArray<TupleDesc_F32> set = alg.createPacked();
+		query.reset(5);
+		set.reset(5);
+		for (int i = 0; i < 3; i++) {
+			query.append(createDescription());
+		}
+		for (int i = 0; i < 10; i++) {
+			set.append(createDescription());
+		}
+
+		TupleDesc_F32 a = createDescription();
+		TupleDesc_F32 b = createDescription();
+		double[] scores = new double[set.size()+2];
+		alg.scoreBatch(query,1,set,scores,2);
+
+		query.get(1,a);
+		for (int i = 0; i < set.size(); i++) {
+			set.get(i,b);
+			assertEquals(alg.score(a,b),scores[i+2],1e-4);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestScoreAssociateEuclideanSqBatch_F64 extends StandardScoreAssociationChecks<TupleDesc_F64> {
+
+	public TestScoreAssociateEuclideanSqBatch_F64() {
+		super(MatchScoreType.NORM_ERROR);
+	}
+
+	@Override
+	public ScoreAssociation<TupleDesc_F64> createScore() {
+		return new ScoreAssociateEuclideanSqBatch_F64();
+	}
+
+	@Override
+	public TupleDesc_F64 createDescription() {
+		TupleDesc_F64 a = new TupleDesc_F64(5);
+		for( int i = 0; i < a.size(); i++ )
+			a.value[i] = rand.nextDouble()*2;
+
+		return a;
+	}
+
+	/**
+	 * Batch scores must be identical to scoring each pair individually
+	 */
+	@Test
+	public void scoreBatch() {
+		ScoreAssociateEuclideanSqBatch_F64 alg = new ScoreAssociateEuclideanSqBatch_F64();
+
+		PackedTupleArray<TupleDesc_F64> query = alg.createPacked();
+		PackedTupleArray<TupleDesc_F64> set = alg.createPacked();
+		query.reset(5);
+		set.reset(5);
+		for (int i = 0; i < 3; i++) {
+			query.append(createDescription());
+		}
+		for (int i = 0; i < 10; i++) {
+			set.append(createDescription());
+		}
+
+		TupleDesc_F64 a = createDescription();
+		TupleDesc_F64 b = createDescription();
+		double[] scores = new double[set.size()+2];
+		alg.scoreBatch(query,1,set,scores,2);
+
+		query.get(1,a);
+		for (int i = 0; i < set.size(); i++) {
+			set.get(i,b);
+			assertEquals(alg.score(a,b),scores[i+2],1e-8);
+		}
+	}
+}
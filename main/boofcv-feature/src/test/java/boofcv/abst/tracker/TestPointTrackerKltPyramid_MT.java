@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.tracker;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.tracker.klt.ConfigPKlt;
+import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPointTrackerKltPyramid_MT extends StandardPointTracker<GrayF32> {
+
+	public TestPointTrackerKltPyramid_MT() {
+		super(false, true);
+	}
+
+	@Override
+	public PointTracker<GrayF32> createTracker() {
+		return create(-1);
+	}
+
+	private PointTracker<GrayF32> create( double toleranceFB ) {
+		ConfigPKlt config = new ConfigPKlt();
+		config.toleranceFB = toleranceFB;
+		config.concurrent = true;
+		return FactoryPointTracker.klt(config, new ConfigGeneralDetector(200, 3, 1000, 0, true),
+				GrayF32.class, GrayF32.class);
+	}
+
+	@Test
+	void createdByFactory() {
+		assertTrue(createTracker() instanceof PointTrackerKltPyramid_MT);
+	}
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		compareToSingleThread(-1);
+		compareToSingleThread(0.1);
+	}
+
+	void compareToSingleThread( double toleranceFB ) {
+		ConfigPKlt config = new ConfigPKlt();
+		config.toleranceFB = toleranceFB;
+		PointTracker<GrayF32> single = FactoryPointTracker.klt(config,
+				new ConfigGeneralDetector(200, 3, 1000, 0, true), GrayF32.class, GrayF32.class);
+		PointTracker<GrayF32> concurrent = create(toleranceFB);
+
+		GrayF32 shifted = image.createSameShape();
+		new FDistort(image,shifted).affine(1,0,0,1,1.5,0.5).borderExt().apply();
+
+		single.process(image);
+		concurrent.process(image);
+		single.spawnTracks();
+		concurrent.spawnTracks();
+
+		for (int frame = 0; frame < 4; frame++) {
+			GrayF32 input = frame%2 == 0 ? shifted : image;
+			single.process(input);
+			concurrent.process(input);
+
+			compare(single.getActiveTracks(null), concurrent.getActiveTracks(null));
+			compare(single.getDroppedTracks(null), concurrent.getDroppedTracks(null));
+		}
+	}
+
+	private void compare( List<PointTrack> expected , List<PointTrack> found ) {
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			PointTrack a = expected.get(i);
+			PointTrack b = found.get(i);
+			assertEquals(a.featureId, b.featureId);
+			assertEquals(a.x, b.x);
+			assertEquals(a.y, b.y);
+		}
+	}
+}
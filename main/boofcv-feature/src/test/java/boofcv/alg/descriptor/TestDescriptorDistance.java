@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,6 +19,7 @@
 package boofcv.alg.descriptor;
 
 import boofcv.struct.feature.*;
+import org.ddogleg.struct.FastQueue;
 import org.junit.jupiter.api.Test;
 
 import java.util.Random;
@@ -177,6 +178,106 @@ public class TestDescriptorDistance {
 		}
 	}
 
+	@Test
+	public void hamming_packed() {
+		// include a descriptor length which isn't divisible by 64
+		for( int numBits : new int[]{96,512} ) {
+			BriefFeatureQueue list = createBinary(numBits,5);
+			PackedTupleArray_B packed = new PackedTupleArray_B();
+			packed.setTo(list);
+
+			for (int i = 0; i < list.size; i++) {
+				for (int j = 0; j < list.size; j++) {
+					assertEquals(hamming(list.get(i),list.get(j)),DescriptorDistance.hamming(packed,i,packed,j));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void hamming_batch() {
+		for( int numBits : new int[]{96,512} ) {
+			BriefFeatureQueue listA = createBinary(numBits,3);
+			BriefFeatureQueue listB = createBinary(numBits,7);
+			PackedTupleArray_B packedA = new PackedTupleArray_B();
+			PackedTupleArray_B packedB = new PackedTupleArray_B();
+			packedA.setTo(listA);
+			packedB.setTo(listB);
+
+			int offset = 2;
+			double[] scores = new double[offset+listB.size];
+			for (int i = 0; i < listA.size; i++) {
+				DescriptorDistance.hamming(packedA,i,packedB,scores,offset);
+				for (int j = 0; j < listB.size; j++) {
+					assertEquals(hamming(listA.get(i),listB.get(j)),scores[offset+j]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void euclideanSq_batch_F64() {
+		FastQueue<TupleDesc_F64> listA = new FastQueue<>(TupleDesc_F64.class, ()->new TupleDesc_F64(10));
+		FastQueue<TupleDesc_F64> listB = new FastQueue<>(TupleDesc_F64.class, ()->new TupleDesc_F64(10));
+		listA.resize(3);
+		listB.resize(6);
+		for( TupleDesc_F64 d : listA.toList() ) {
+			for (int j = 0; j < 10; j++) d.value[j] = rand.nextGaussian();
+		}
+		for( TupleDesc_F64 d : listB.toList() ) {
+			for (int j = 0; j < 10; j++) d.value[j] = rand.nextGaussian();
+		}
+		PackedTupleArray_F64 packedA = new PackedTupleArray_F64();
+		PackedTupleArray_F64 packedB = new PackedTupleArray_F64();
+		packedA.setTo(listA);
+		packedB.setTo(listB);
+
+		double[] scores = new double[1+listB.size];
+		for (int i = 0; i < listA.size; i++) {
+			DescriptorDistance.euclideanSq(packedA,i,packedB,scores,1);
+			for (int j = 0; j < listB.size; j++) {
+				assertEquals(DescriptorDistance.euclideanSq(listA.get(i),listB.get(j)),scores[1+j]);
+			}
+		}
+	}
+
+	@Test
+	public void euclideanSq_batch_F32() {
+		FastQueue<TupleDesc_F32> listA = new FastQueue<>(TupleDesc_F32.class, ()->new TupleDesc_F32(10));
+		FastQueue<TupleDesc_F32> listB = new FastQueue<>(TupleDesc_F32.class, ()->new TupleDesc_F32(10));
+		listA.resize(3);
+		listB.resize(6);
+		for( TupleDesc_F32 d : listA.toList() ) {
+			for (int j = 0; j < 10; j++) d.value[j] = (float)rand.nextGaussian();
+		}
+		for( TupleDesc_F32 d : listB.toList() ) {
+			for (int j = 0; j < 10; j++) d.value[j] = (float)rand.nextGaussian();
+		}
+		PackedTupleArray_F32 packedA = new PackedTupleArray_F32();
+		PackedTupleArray_F32 packedB = new PackedTupleArray_F32();
+		packedA.setTo(listA);
+		packedB.setTo(listB);
+
+		double[] scores = new double[1+listB.size];
+		for (int i = 0; i < listA.size; i++) {
+			DescriptorDistance.euclideanSq(packedA,i,packedB,scores,1);
+			for (int j = 0; j < listB.size; j++) {
+				assertEquals(DescriptorDistance.euclideanSq(listA.get(i),listB.get(j)),scores[1+j]);
+			}
+		}
+	}
+
+	private BriefFeatureQueue createBinary( int numBits , int count ) {
+		BriefFeatureQueue ret = new BriefFeatureQueue(numBits);
+		for (int i = 0; i < count; i++) {
+			TupleDesc_B d = ret.grow();
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+
 	@Test
 	public void hamming_int() {
 		assertEquals(0,DescriptorDistance.hamming(0));
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,13 +18,21 @@
 
 package boofcv.alg.descriptor;
 
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.PackedTupleArray_F64;
 import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -49,6 +57,29 @@ public class TestUtilFeature {
 		assertEquals(13,combined.getDouble(67),1e-8);
 	}
 
+	@Test
+	public void copyDescriptions() {
+		GrayF32 image = new GrayF32(100,80);
+		ImageMiscOps.fillUniform(image,new Random(234),0,255);
+
+		DetectDescribePoint<GrayF32,BrightFeature> detDesc =
+				FactoryDetectDescribe.surfStable(null,null,null,GrayF32.class);
+		detDesc.detect(image);
+		assertTrue(detDesc.getNumberOfFeatures() > 0);
+
+		PackedTupleArray_F64 packed = new PackedTupleArray_F64();
+		UtilFeature.copyDescriptions(detDesc,packed);
+		assertEquals(detDesc.getNumberOfFeatures(), packed.size());
+
+		TupleDesc_F64 found = new TupleDesc_F64(packed.dof);
+		for (int i = 0; i < packed.size(); i++) {
+			packed.get(i,found);
+			for (int j = 0; j < found.size(); j++) {
+				assertEquals(detDesc.getDescription(i).value[j], found.value[j]);
+			}
+		}
+	}
+
 	@Test
 	public void normalizeL2_F64() {
 		TupleDesc_F64 feature = new TupleDesc_F64(64);
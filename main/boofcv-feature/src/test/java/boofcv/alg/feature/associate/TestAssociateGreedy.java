@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,13 +18,23 @@
 
 package boofcv.alg.feature.associate;
 
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSqBatch_F64;
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
 import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
 import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.feature.BriefFeatureQueue;
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 /**
@@ -101,6 +111,93 @@ public class TestAssociateGreedy {
 		assertEquals(2,fitScore[3],1e-5);
 	}
 
+	/**
+	 * Binary descriptors are scored in a batch. Make sure the results are identical to scoring each pair
+	 */
+	@Test
+	public void binaryBatch() {
+		Random rand = new Random(234);
+		FastQueue<TupleDesc_B> a = createBinary(rand,200);
+		FastQueue<TupleDesc_B> b = createBinary(rand,150);
+
+		// This will not be recognized as a hamming score and each pair will be scored individually
+		ScoreAssociation<TupleDesc_B> individual = new ScoreAssociation<TupleDesc_B>() {
+			ScoreAssociateHamming_B hamming = new ScoreAssociateHamming_B();
+			@Override public double score(TupleDesc_B a, TupleDesc_B b) { return hamming.score(a,b); }
+			@Override public MatchScoreType getScoreType() { return hamming.getScoreType(); }
+		};
+
+		for( boolean backwards : new boolean[]{false,true}) {
+			AssociateGreedy<TupleDesc_B> expected = new AssociateGreedy<>(individual, backwards);
+			AssociateGreedy<TupleDesc_B> found = new AssociateGreedy<>(new ScoreAssociateHamming_B(), backwards);
+			expected.setMaxFitError(60);
+			found.setMaxFitError(60);
+			expected.associate(a,b);
+			found.associate(a,b);
+
+			for (int i = 0; i < a.size; i++) {
+				assertEquals(expected.getPairs()[i], found.getPairs()[i]);
+				assertEquals(expected.getFitQuality()[i], found.getFitQuality()[i]);
+			}
+		}
+	}
+
+	/**
+	 * Same results when packed descriptors are passed in directly and for floating point descriptors
+	 */
+	@Test
+	public void packedInput() {
+		FastQueue<TupleDesc_F64> a = TestAssociateGreedy_MT.createData(200);
+		FastQueue<TupleDesc_F64> b = TestAssociateGreedy_MT.createData(150);
+
+		ScoreAssociation<TupleDesc_F64> individual = new ScoreAssociation<TupleDesc_F64>() {
+			ScoreAssociateEuclideanSq_F64 euclidean = new ScoreAssociateEuclideanSq_F64();
+			@Override public double score(TupleDesc_F64 a, TupleDesc_F64 b) { return euclidean.score(a,b); }
+			@Override public MatchScoreType getScoreType() { return euclidean.getScoreType(); }
+		};
+
+		PackedTupleArray_F64 packedA = new PackedTupleArray_F64();
+		PackedTupleArray_F64 packedB = new PackedTupleArray_F64();
+		packedA.setTo(a);
+		packedB.setTo(b);
+
+		for( boolean backwards : new boolean[]{false,true}) {
+			AssociateGreedy<TupleDesc_F64> expected = new AssociateGreedy<>(individual, backwards);
+			AssociateGreedy<TupleDesc_F64> found = new AssociateGreedy<>(new ScoreAssociateEuclideanSqBatch_F64(), backwards);
+			expected.setMaxFitError(0.5);
+			found.setMaxFitError(0.5);
+			expected.associate(a,b);
+
+			// check both ways of passing in data
+			for (int trial = 0; trial < 2; trial++) {
+				if( trial == 0 )
+					found.associate(a,b);
+				else
+					found.associate(packedA,packedB);
+
+				for (int i = 0; i < a.size; i++) {
+					assertEquals(expected.getPairs()[i], found.getPairs()[i]);
+					assertEquals(expected.getFitQuality()[i], found.getFitQuality()[i]);
+				}
+			}
+		}
+
+		// packed input is not supported if the score can't handle it
+		AssociateGreedy<TupleDesc_F64> alg = new AssociateGreedy<>(individual, false);
+		assertThrows(IllegalArgumentException.class,()->alg.associate(packedA,packedB));
+	}
+
+	static FastQueue<TupleDesc_B> createBinary( Random rand , int count ) {
+		FastQueue<TupleDesc_B> ret = new BriefFeatureQueue(128);
+		for (int i = 0; i < count; i++) {
+			TupleDesc_B d = ret.grow();
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+
 	private FastQueue<TupleDesc_F64> createData( double ...values )
 	{
 		FastQueue<TupleDesc_F64> ret = new FastQueue<>(10,TupleDesc_F64.class, ()-> new TupleDesc_F64(1));
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,6 +19,8 @@
 package boofcv.alg.feature.associate;
 
 import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.ddogleg.struct.FastQueue;
 import org.junit.jupiter.api.Test;
@@ -58,6 +60,27 @@ class TestAssociateGreedy_MT {
 		}
 	}
 
+	@Test
+	void compareBinary() {
+		Random rand = new Random(234);
+		FastQueue<TupleDesc_B> a = TestAssociateGreedy.createBinary(rand,200);
+		FastQueue<TupleDesc_B> b = TestAssociateGreedy.createBinary(rand,200);
+
+		for( boolean backwards : new boolean[]{false,true}) {
+			AssociateGreedy<TupleDesc_B> sequentialAlg = new AssociateGreedy<>(new ScoreAssociateHamming_B(), backwards);
+			AssociateGreedy_MT<TupleDesc_B> parallelAlg = new AssociateGreedy_MT<>(new ScoreAssociateHamming_B(), backwards);
+			sequentialAlg.setMaxFitError(60);
+			parallelAlg.setMaxFitError(60);
+			sequentialAlg.associate(a,b);
+			parallelAlg.associate(a,b);
+
+			for (int i = 0; i < a.size; i++) {
+				assertEquals(sequentialAlg.getPairs()[i], parallelAlg.getPairs()[i]);
+				assertEquals(sequentialAlg.getFitQuality()[i], parallelAlg.getFitQuality()[i]);
+			}
+		}
+	}
+
 	public static FastQueue<TupleDesc_F64> createData( int count )
 	{
 		Random rand = new Random(234);
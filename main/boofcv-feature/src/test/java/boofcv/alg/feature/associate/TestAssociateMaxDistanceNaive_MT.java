@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateMaxDistanceNaive_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingle() {
+		compareToSingle(false);
+		compareToSingle(true);
+	}
+
+	void compareToSingle( boolean backwards ) {
+		FastQueue<Point2D_F64> locSrc = createPoints(300);
+		FastQueue<Point2D_F64> locDst = createPoints(250);
+		FastQueue<TupleDesc_F64> descSrc = TestAssociateGreedy_MT.createData(300);
+		FastQueue<TupleDesc_F64> descDst = TestAssociateGreedy_MT.createData(250);
+
+		AssociateMaxDistanceNaive<TupleDesc_F64> single =
+				new AssociateMaxDistanceNaive<>(new ScoreAssociateEuclideanSq_F64(),backwards,0.5);
+		AssociateMaxDistanceNaive_MT<TupleDesc_F64> concurrent =
+				new AssociateMaxDistanceNaive_MT<>(new ScoreAssociateEuclideanSq_F64(),backwards,0.5);
+
+		for( AssociateMaxDistanceNaive<TupleDesc_F64> alg : new AssociateMaxDistanceNaive[]{single,concurrent}) {
+			alg.setMaxDistance(20);
+			alg.setSource(locSrc,descSrc);
+			alg.setDestination(locDst,descDst);
+			alg.associate();
+		}
+
+		FastQueue<AssociatedIndex> expected = single.getMatches();
+		FastQueue<AssociatedIndex> found = concurrent.getMatches();
+		assertTrue(expected.size > 20);
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i).src, found.get(i).src);
+			assertEquals(expected.get(i).dst, found.get(i).dst);
+			assertEquals(expected.get(i).fitScore, found.get(i).fitScore);
+		}
+
+		assertEquals(single.getUnassociatedSource().size, concurrent.getUnassociatedSource().size);
+		for (int i = 0; i < single.getUnassociatedSource().size; i++) {
+			assertEquals(single.getUnassociatedSource().get(i), concurrent.getUnassociatedSource().get(i));
+		}
+	}
+
+	FastQueue<Point2D_F64> createPoints( int count ) {
+		FastQueue<Point2D_F64> ret = new FastQueue<>(Point2D_F64.class, true);
+		for (int i = 0; i < count; i++) {
+			ret.grow().set(rand.nextDouble()*100, rand.nextDouble()*100);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.BrightFeature;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateSurfBasic_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingle() {
+		FastQueue<BrightFeature> src = createData(300);
+		FastQueue<BrightFeature> dst = createData(250);
+
+		ScoreAssociateEuclideanSq_F64 score = new ScoreAssociateEuclideanSq_F64();
+		AssociateSurfBasic single = new AssociateSurfBasic(FactoryAssociation.greedy(score, 0.5, true));
+		AssociateSurfBasic_MT concurrent = new AssociateSurfBasic_MT(
+				FactoryAssociation.greedy(score, 0.5, true), FactoryAssociation.greedy(score, 0.5, true));
+
+		for( AssociateSurfBasic alg : new AssociateSurfBasic[]{single,concurrent}) {
+			alg.setSrc(src);
+			alg.setDst(dst);
+			alg.associate();
+		}
+
+		FastQueue<AssociatedIndex> expected = single.getMatches();
+		FastQueue<AssociatedIndex> found = concurrent.getMatches();
+		assertTrue(expected.size > 20);
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i).src, found.get(i).src);
+			assertEquals(expected.get(i).dst, found.get(i).dst);
+			assertEquals(expected.get(i).fitScore, found.get(i).fitScore);
+		}
+
+		assertEquals(single.getUnassociatedSrc().size, concurrent.getUnassociatedSrc().size);
+		for (int i = 0; i < single.getUnassociatedSrc().size; i++) {
+			assertEquals(single.getUnassociatedSrc().get(i), concurrent.getUnassociatedSrc().get(i));
+		}
+	}
+
+	@Test
+	void setMaxScoreThreshold() {
+		ScoreAssociateEuclideanSq_F64 score = new ScoreAssociateEuclideanSq_F64();
+		AssociateSurfBasic_MT alg = new AssociateSurfBasic_MT(
+				FactoryAssociation.greedy(score, 0.5, true), FactoryAssociation.greedy(score, 0.5, true));
+
+		FastQueue<BrightFeature> src = createData(50);
+		alg.setSrc(src);
+		alg.setDst(src);
+		alg.setMaxScoreThreshold(-1);
+		alg.associate();
+		assertEquals(0, alg.getMatches().size);
+	}
+
+	FastQueue<BrightFeature> createData( int count ) {
+		FastQueue<BrightFeature> ret = new FastQueue<>(BrightFeature.class, ()->new BrightFeature(4));
+		for (int i = 0; i < count; i++) {
+			BrightFeature f = ret.grow();
+			f.white = rand.nextBoolean();
+			for (int j = 0; j < f.size(); j++) {
+				f.value[j] = rand.nextDouble()*2;
+			}
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace_MT;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCompleteSift_MT {
+
+	Random rand = new Random(234);
+
+	FastQueue.Factory<NonMaxLimiter> factoryNonMax = ()->
+			FactoryFeatureExtractor.nonmaxLimiter(new ConfigExtract(1,0,1,true,true,true),300);
+	FastQueue.Factory<OrientationHistogramSift<GrayF32>> factoryOri = ()->
+			new OrientationHistogramSift<>(36,1.5,GrayF32.class);
+	FastQueue.Factory<DescribePointSift<GrayF32>> factoryDesc = ()->
+			new DescribePointSift<>(4,4,8,1.5,0.5,0.2,GrayF32.class);
+
+	/**
+	 * Compare against the single threaded version. Results should be identical
+	 */
+	@Test
+	void compareToSingle() {
+		GrayF32 image = new GrayF32(300,290);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+
+		CompleteSift single = new CompleteSift(new SiftScaleSpace(-1,4,3,1.6),10,
+				factoryNonMax.newInstance(),factoryOri.newInstance(),factoryDesc.newInstance());
+		CompleteSift_MT multi = new CompleteSift_MT(new SiftScaleSpace_MT(-1,4,3,1.6),10,
+				factoryNonMax,factoryOri,factoryDesc);
+
+		// process twice to make sure the state is correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			single.process(image);
+			multi.process(image);
+
+			assertEquals(single.getDescriptorLength(), multi.getDescriptorLength());
+			int N = single.getDescriptions().size;
+			assertTrue(N > 10);
+			assertEquals(N, multi.getDescriptions().size);
+			assertEquals(N, multi.getLocations().size);
+			assertEquals(N, multi.getOrientations().size);
+
+			for (int i = 0; i < N; i++) {
+				ScalePoint e = single.getLocations().get(i);
+				ScalePoint f = multi.getLocations().get(i);
+				assertEquals(e.x, f.x);
+				assertEquals(e.y, f.y);
+				assertEquals(e.scale, f.scale);
+				assertEquals(single.getOrientations().get(i), multi.getOrientations().get(i));
+
+				BrightFeature descE = single.getDescriptions().get(i);
+				BrightFeature descF = multi.getDescriptions().get(i);
+				assertEquals(descE.white, descF.white);
+				assertArrayEquals(descE.value, descF.value);
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.feature.detect.extract;
 
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.GrowQueue_F32;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -94,5 +95,39 @@ public class TestSelectNBestFeatures {
 		assertEquals(4,found.size);
 	}
 
+	/**
+	 * Intensity is passed in as a list and should produce the same results as the image
+	 */
+	@Test
+	public void intensityList() {
+		GrayF32 intensity = new GrayF32(10,20);
+		intensity.set(5,10,-3);
+		intensity.set(4,10,-3.5f);
+		intensity.set(5,11,0);
+		intensity.set(8,8,10);
 
+		QueueCorner corners = new QueueCorner();
+		corners.add(5,10);
+		corners.add(4,10);
+		corners.add(5,11);
+		corners.add(8,8);
+
+		GrowQueue_F32 values = new GrowQueue_F32();
+		for (int i = 0; i < corners.size; i++) {
+			values.add(intensity.get(corners.get(i).x, corners.get(i).y));
+		}
+
+		SelectNBestFeatures expected = new SelectNBestFeatures(3);
+		SelectNBestFeatures alg = new SelectNBestFeatures(3);
+		for( boolean positive : new boolean[]{true,false}) {
+			expected.process(intensity,corners,positive);
+			alg.process(corners,values,positive);
+
+			QueueCorner found = alg.getBestCorners();
+			assertEquals(3,found.size);
+			for (int i = 0; i < found.size; i++) {
+				assertEquals(expected.getBestCorners().get(i), found.get(i));
+			}
+		}
+	}
 }
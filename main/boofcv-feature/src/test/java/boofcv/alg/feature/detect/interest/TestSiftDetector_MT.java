@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSiftDetector_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against the single threaded version. Results should be identical
+	 */
+	@Test
+	void compareToSingle() {
+		GrayF32 input = new GrayF32(200,180);
+		GImageMiscOps.fillUniform(input,rand,0,200);
+		GrayF32 blurred = BlurImageOps.gaussian(input,null,-1,2,null);
+
+		FastQueue.Factory<NonMaxLimiter> factory = ()->
+				FactoryFeatureExtractor.nonmaxLimiter(new ConfigExtract(1,0,1,true,true,true),300);
+
+		SiftDetector single = new SiftDetector(new SiftScaleSpace(-1,4,3,1.6),10,factory.newInstance());
+		SiftDetector_MT multi = new SiftDetector_MT(new SiftScaleSpace_MT(-1,4,3,1.6),10,factory);
+
+		// process twice to make sure the state is correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			single.process(blurred);
+			multi.process(blurred);
+
+			FastQueue<ScalePoint> expected = single.getDetections();
+			FastQueue<ScalePoint> found = multi.getDetections();
+
+			assertTrue(expected.size > 10);
+			assertEquals(expected.size, found.size);
+			for (int i = 0; i < expected.size; i++) {
+				ScalePoint e = expected.get(i);
+				ScalePoint f = found.get(i);
+				assertEquals(e.x, f.x);
+				assertEquals(e.y, f.y);
+				assertEquals(e.scale, f.scale);
+				assertEquals(e.white, f.white);
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -94,6 +94,31 @@ public class TestSiftScaleSpace {
 		}
 	}
 
+	/**
+	 * The recursive Gaussian should produce a similar scale-space as convolution
+	 */
+	@Test
+	public void checkScaleBlur_recursive() {
+		GrayF32 original = new GrayF32(300,340);
+		GImageMiscOps.fillUniform(original,rand,0,100);
+
+		SiftScaleSpace expected = new SiftScaleSpace(0,3,2,1.6);
+		SiftScaleSpace alg = new SiftScaleSpace(0,3,2,1.6);
+		alg.setRecursiveBlur(true);
+
+		expected.initialize(original);
+		alg.initialize(original);
+
+		do {
+			for (int i = 0; i < alg.getNumScaleImages(); i++) {
+				double averageError = compareImage(expected.getImageScale(i), alg.getImageScale(i), 0);
+				assertTrue(averageError<2," scale "+i+" error = "+averageError);
+			}
+			expected.computeNextOctave();
+		} while( alg.computeNextOctave() );
+		assertEquals(4, alg.getCurrentOctave());
+	}
+
 	@Test
 	public void computeSigmaScale() {
 		SiftScaleSpace alg = new SiftScaleSpace(-1,4,3,1.6);
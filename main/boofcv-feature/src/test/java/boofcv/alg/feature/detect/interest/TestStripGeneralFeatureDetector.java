@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.interest.ConfigFastCorner;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestStripGeneralFeatureDetector {
+
+	Random rand = new Random(234);
+
+	GrayU8 image = createImage(rand, 150, 130);
+
+	/**
+	 * Features should be identical to processing the entire image for different strip sizes
+	 */
+	@Test
+	void compareToGeneral_Harris() {
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1, 2, 1.0f);
+		FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory =
+				()->FactoryDetectPoint.createHarris(config, null, GrayS16.class);
+		compareToGeneral(factory, true);
+	}
+
+	@Test
+	void compareToGeneral_ShiTomasi() {
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1, 3, 1.0f, 2, true);
+		FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory =
+				()->FactoryDetectPoint.createShiTomasi(config, null, GrayS16.class);
+		compareToGeneral(factory, true);
+	}
+
+	@Test
+	void compareToGeneral_Fast() {
+		ConfigFastCorner configFast = new ConfigFastCorner(10, 9);
+		configFast.maxFeatures = 1.0;
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1, 2, 1.0f);
+		FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory =
+				()->FactoryDetectPoint.createFast(configFast, config, GrayU8.class);
+		compareToGeneral(factory, false);
+	}
+
+	void compareToGeneral( FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory, boolean gradient ) {
+		EasyGeneralFeatureDetector<GrayU8,GrayS16> expected =
+				new EasyGeneralFeatureDetector<>(factory.newInstance(), GrayU8.class, GrayS16.class);
+		expected.detect(image, null);
+
+		StripGeneralFeatureDetector<GrayU8,GrayS16> alg = create(factory, gradient);
+
+		for( int stripHeight : new int[]{0,1,7,20,500} ) {
+			alg.setStripHeight(stripHeight);
+			// process twice to make sure the state is correctly reset
+			for (int trial = 0; trial < 2; trial++) {
+				alg.process(image);
+				if( alg.isDetectMinimums() )
+					assertSame(expected.getMinimums(), alg.getMinimums());
+				if( alg.isDetectMaximums() )
+					assertSame(expected.getMaximums(), alg.getMaximums());
+			}
+		}
+		assertTrue(expected.getMaximums().size > 20);
+	}
+
+	/**
+	 * The N best features should be selected across all the strips
+	 */
+	@Test
+	void maxFeatures() {
+		ConfigGeneralDetector config = new ConfigGeneralDetector(30, 2, 1.0f);
+		FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory =
+				()->FactoryDetectPoint.createShiTomasi(config, null, GrayS16.class);
+
+		EasyGeneralFeatureDetector<GrayU8,GrayS16> expected =
+				new EasyGeneralFeatureDetector<>(factory.newInstance(), GrayU8.class, GrayS16.class);
+		expected.detect(image, null);
+		assertEquals(30, expected.getMaximums().size);
+
+		StripGeneralFeatureDetector<GrayU8,GrayS16> alg = create(factory, true);
+		alg.setMaxFeatures(30);
+		alg.setStripHeight(10);
+		alg.process(image);
+		assertSame(expected.getMaximums(), alg.getMaximums());
+	}
+
+	/**
+	 * Excluded features should not be returned and should not suppress their neighbors in a different strip
+	 */
+	@Test
+	void excludeMaximum() {
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1, 2, 1.0f);
+		FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory =
+				()->FactoryDetectPoint.createHarris(config, null, GrayS16.class);
+
+		StripGeneralFeatureDetector<GrayU8,GrayS16> alg = create(factory, true);
+		alg.setStripHeight(10);
+		alg.process(image);
+
+		QueueCorner exclude = new QueueCorner();
+		QueueCorner all = alg.getMaximums();
+		for (int i = 0; i < all.size; i += 3) {
+			exclude.add(all.get(i));
+		}
+
+		GeneralFeatureDetector<GrayU8,GrayS16> detector = factory.newInstance();
+		EasyGeneralFeatureDetector<GrayU8,GrayS16> expected =
+				new EasyGeneralFeatureDetector<>(detector, GrayU8.class, GrayS16.class);
+		expected.detect(image, exclude);
+
+		alg.setExcludeMaximum(exclude);
+		alg.process(image);
+		assertSame(expected.getMaximums(), alg.getMaximums());
+		for (int i = 0; i < exclude.size; i++) {
+			assertFalse(contains(alg.getMaximums(), exclude.get(i)));
+		}
+	}
+
+	@Test
+	void threshold() {
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1, 2, 1.0f);
+		FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory =
+				()->FactoryDetectPoint.createHarris(config, null, GrayS16.class);
+
+		StripGeneralFeatureDetector<GrayU8,GrayS16> alg = create(factory, true);
+		assertEquals(1.0f, alg.getThreshold());
+		alg.process(image);
+		int before = alg.getMaximums().size;
+		alg.setThreshold(Float.MAX_VALUE);
+		alg.process(image);
+		assertTrue(before > 0);
+		assertEquals(0, alg.getMaximums().size);
+	}
+
+	/**
+	 * Halo needs to include the gradient, intensity, and search radius
+	 */
+	@Test
+	void halo() {
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1, 3, 1.0f, 2, true);
+		FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory =
+				()->FactoryDetectPoint.createShiTomasi(config, null, GrayS16.class);
+		StripGeneralFeatureDetector<GrayU8,GrayS16> alg = create(factory, true);
+
+		// gradient + extractor border (ignore border + intensity radius) + search radius
+		assertEquals(1 + (2 + 3) + 3, alg.getHalo());
+	}
+
+	@Test
+	void hessianNotSupported() {
+		FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory = ()->
+				FactoryDetectPoint.createHessianDeriv(HessianBlobIntensity.Type.DETERMINANT, null, GrayS16.class);
+		assertThrows(IllegalArgumentException.class, ()->create(factory, true));
+	}
+
+	StripGeneralFeatureDetector<GrayU8,GrayS16> create( FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory,
+														boolean gradient ) {
+		return new StripGeneralFeatureDetector<>(factory,
+				gradient ? ()->FactoryDerivative.sobel(GrayU8.class, GrayS16.class) : null, 1, GrayS16.class);
+	}
+
+	/**
+	 * Creates a blurred random image so that there are a reasonable number of corners
+	 */
+	static GrayU8 createImage( Random rand, int width, int height ) {
+		GrayU8 noise = new GrayU8(width, height);
+		ImageMiscOps.fillUniform(noise, rand, 0, 256);
+		GrayU8 image = BlurImageOps.gaussian(noise, null, -1, 2, null);
+		// stretch the contrast after blurring
+		for (int i = 0; i < image.data.length; i++) {
+			image.data[i] = (byte)Math.max(0,Math.min(255,((image.data[i]&0xFF)-128)*4+128));
+		}
+		return image;
+	}
+
+	/**
+	 * Compares two lists of points while ignoring their order
+	 */
+	static void assertSame( QueueCorner expected, QueueCorner found ) {
+		assertEquals(expected.size, found.size);
+		List<Point2D_I16> a = sorted(expected);
+		List<Point2D_I16> b = sorted(found);
+		for (int i = 0; i < a.size(); i++) {
+			assertEquals(a.get(i).x, b.get(i).x);
+			assertEquals(a.get(i).y, b.get(i).y);
+		}
+	}
+
+	private static List<Point2D_I16> sorted( QueueCorner corners ) {
+		List<Point2D_I16> list = new ArrayList<>(corners.toList());
+		list.sort(Comparator.comparingInt((Point2D_I16 p)->p.y).thenComparingInt(p->p.x));
+		return list;
+	}
+
+	private static boolean contains( QueueCorner corners, Point2D_I16 p ) {
+		for (int i = 0; i < corners.size; i++) {
+			if( corners.get(i).x == p.x && corners.get(i).y == p.y )
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.interest.ConfigFastCorner;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestStripGeneralFeatureDetector_MT {
+
+	Random rand = new Random(234);
+
+	GrayU8 image = TestStripGeneralFeatureDetector.createImage(rand, 200, 180);
+
+	/**
+	 * Compare against the single threaded version. Results should be identical, including the order
+	 */
+	@Test
+	void compareToSingle_Harris() {
+		ConfigGeneralDetector config = new ConfigGeneralDetector(50, 2, 1.0f);
+		compareToSingle(()->FactoryDetectPoint.createHarris(config, null, GrayS16.class), true);
+	}
+
+	@Test
+	void compareToSingle_Fast() {
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1, 2, 1.0f);
+		compareToSingle(()->FactoryDetectPoint.createFast(new ConfigFastCorner(10, 9), config, GrayU8.class), false);
+	}
+
+	void compareToSingle( FastQueue.Factory<GeneralFeatureDetector<GrayU8,GrayS16>> factory, boolean gradient ) {
+		FastQueue.Factory<ImageGradient<GrayU8,GrayS16>> factoryGradient =
+				gradient ? ()->FactoryDerivative.sobel(GrayU8.class, GrayS16.class) : null;
+
+		StripGeneralFeatureDetector<GrayU8,GrayS16> single =
+				new StripGeneralFeatureDetector<>(factory, factoryGradient, 1, GrayS16.class);
+		StripGeneralFeatureDetector_MT<GrayU8,GrayS16> multi =
+				new StripGeneralFeatureDetector_MT<>(factory, factoryGradient, 1, GrayS16.class);
+
+		for( int stripHeight : new int[]{0,5,17} ) {
+			single.setStripHeight(stripHeight);
+			multi.setStripHeight(stripHeight);
+
+			// process twice to make sure the state is correctly reset
+			for (int trial = 0; trial < 2; trial++) {
+				single.process(image);
+				multi.process(image);
+
+				assertIdentical(single.getMinimums(), multi.getMinimums());
+				assertIdentical(single.getMaximums(), multi.getMaximums());
+				assertTrue(single.getMaximums().size > 10);
+			}
+		}
+	}
+
+	private static void assertIdentical( QueueCorner expected, QueueCorner found ) {
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i).x, found.get(i).x);
+			assertEquals(expected.get(i).y, found.get(i).y);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -131,6 +131,57 @@ class TestSgmCostAggregation {
 		}
 	}
 
+	/**
+	 * Fusing opposite paths should produce identical results to scoring each direction individually
+	 */
+	@Test
+	void process_fuseOpposite() {
+		// Make the cost tensor smaller than the image so that the disparity range will vary along the path
+		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,12,width,height);
+		GImageMiscOps.fillUniform(costYXD,rand,0,100);
+
+		for( int disparityMin : new int[]{0,4}) {
+			for (int paths : new int[]{1, 2, 4, 8, 16}) {
+				SgmCostAggregation expected = new SgmCostAggregation();
+				SgmCostAggregation found = new SgmCostAggregation();
+				expected.configure(disparityMin);
+				found.configure(disparityMin);
+				expected.setPathsConsidered(paths);
+				found.setPathsConsidered(paths);
+				found.setFuseOpposite(true);
+
+				expected.process(costYXD);
+				found.process(costYXD);
+
+				BoofTesting.assertEquals(expected.getAggregated(), found.getAggregated(), 0.0);
+			}
+		}
+	}
+
+	/**
+	 * Reuse the same instance with fused paths on inputs that have the same work space size but a different
+	 * disparity range
+	 */
+	@Test
+	void process_fuseOpposite_reuse() {
+		SgmCostAggregation found = new SgmCostAggregation();
+		found.setPathsConsidered(8);
+		found.setFuseOpposite(true);
+
+		// lengthX*lengthD is 1000 for both
+		for( int[] shape : new int[][]{{100,10},{50,20}} ) {
+			Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,shape[1],shape[0],15);
+			GImageMiscOps.fillUniform(costYXD,rand,0,100);
+
+			SgmCostAggregation expected = new SgmCostAggregation();
+			expected.setPathsConsidered(8);
+			expected.process(costYXD);
+			found.process(costYXD);
+
+			BoofTesting.assertEquals(expected.getAggregated(), found.getAggregated(), 0.0);
+		}
+	}
+
 	/**
 	 * See if it properly handles and respects the requested disparity search bounds?
 	 */
@@ -190,31 +241,6 @@ class TestSgmCostAggregation {
 		return correct/(double)total;
 	}
 
-	/**
-	 * Compare concurrent to non-concurrent results
-	 */
-	@Test
-	void compareConcurrent() {
-		// larger image to give the threads more time to mess stuff up
-		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,120,60,20);
-		GImageMiscOps.fillUniform(costYXD,rand,0,100);
-
-		Planar<GrayU16> expected;
-		BoofConcurrency.USE_CONCURRENT = false;
-		{
-			SgmCostAggregation alg = new SgmCostAggregation();
-			alg.process(costYXD);
-			expected = alg.getAggregated();
-		}
-
-		BoofConcurrency.USE_CONCURRENT = true;
-		{
-			SgmCostAggregation alg = new SgmCostAggregation();
-			alg.process(costYXD);
-			BoofTesting.assertEquals(expected,alg.getAggregated(),0.0);
-		}
-	}
-
 	/**
 	 * Makes sure all possible paths are scored once and only once
 	 */
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmCostAggregation_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare concurrent to single threaded results
+	 */
+	@Test
+	void compareToSingle() {
+		// larger image to give the threads more time to mess stuff up
+		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,120,60,20);
+		GImageMiscOps.fillUniform(costYXD,rand,0,100);
+
+		for( boolean fuse : new boolean[]{false,true}) {
+			for (int paths : new int[]{1, 2, 4, 8, 16}) {
+				SgmCostAggregation single = new SgmCostAggregation();
+				SgmCostAggregation multi = new SgmCostAggregation_MT();
+				single.setPathsConsidered(paths);
+				multi.setPathsConsidered(paths);
+				single.setFuseOpposite(fuse);
+				multi.setFuseOpposite(fuse);
+
+				single.process(costYXD);
+				multi.process(costYXD);
+
+				BoofTesting.assertEquals(single.getAggregated(), multi.getAggregated(), 0.0);
+			}
+		}
+	}
+}
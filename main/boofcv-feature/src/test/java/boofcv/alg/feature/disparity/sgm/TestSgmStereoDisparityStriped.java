@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.abst.filter.FilterImageInterface;
+import boofcv.alg.feature.disparity.sgm.cost.SgmCostAbsoluteDifference;
+import boofcv.alg.feature.disparity.sgm.cost.SgmCostHamming;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.disparity.ConfigDisparitySGM;
+import boofcv.factory.feature.disparity.DisparitySgmError;
+import boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs;
+import boofcv.factory.transform.census.FactoryCensusTransform;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static boofcv.factory.transform.census.CensusVariants.BLOCK_3_3;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmStereoDisparityStriped
+{
+	Random rand = new Random(234);
+
+	// Images with a disparity which varies across the image
+	int width = 120, height = 150;
+	GrayU8 left = new GrayU8(width,height);
+	GrayU8 right = new GrayU8(width,height);
+
+	@Nested
+	public class Census extends GenericSgmStereoDisparityChecks<GrayU8,GrayU8>
+	{
+		protected Census() {
+			super(ImageType.SB_U8);
+		}
+
+		@Override
+		public SgmStereoDisparity<GrayU8, GrayU8> createAlgorithm() {
+			return new SgmStereoDisparityStriped<>(createCensus(),7,5);
+		}
+	}
+
+	/**
+	 * Compare the results against processing the whole image at once. Only a small fraction should be different
+	 */
+	@Test
+	void compareToFull_Census() {
+		compareToFull(createCensus(), createCensus());
+	}
+
+	@Test
+	void compareToFull_Error() {
+		compareToFull(createError(), createError());
+	}
+
+	void compareToFull( SgmStereoDisparity<GrayU8,?> full , SgmStereoDisparity<GrayU8,?> inner ) {
+		renderSlantedPlane();
+
+		SgmStereoDisparityStriped<GrayU8,?> striped = new SgmStereoDisparityStriped<>(inner,32,24);
+		striped.setComputeSubpixel(true);
+		for( SgmStereoDisparity<GrayU8,?> alg : Arrays.asList(full,striped)) {
+			alg.setDisparityMin(2);
+			alg.setDisparityRange(30);
+			alg.process(left,right);
+		}
+
+		GrayU8 expected = full.getDisparity();
+		GrayU8 found = striped.getDisparity();
+		assertEquals(expected.width, found.width);
+		assertEquals(expected.height, found.height);
+
+		GrayF32 expectedSub = new GrayF32(1,1);
+		GrayF32 foundSub = new GrayF32(1,1);
+		full.subpixel(expected,expectedSub);
+		striped.subpixel(found,foundSub);
+
+		int different = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if( expected.get(x,y) != found.get(x,y) ) {
+					different++;
+				} else {
+					assertEquals(expectedSub.get(x,y), foundSub.get(x,y), 0.5f);
+				}
+			}
+		}
+		assertTrue(different <= 0.01*width*height, "different "+different);
+
+		// memory should be bounded by the stripe and not the image size
+		assertTrue(striped.getPeakMemoryBytes() < full.getPeakMemoryBytes()*0.7);
+	}
+
+	/**
+	 * If sub-pixel wasn't requested before process it should fail instead of returning garbage
+	 */
+	@Test
+	void subpixel_notEnabled() {
+		renderSlantedPlane();
+		SgmStereoDisparityStriped<GrayU8,?> striped = new SgmStereoDisparityStriped<>(createCensus(),32,24);
+		striped.setDisparityRange(30);
+		striped.process(left,right);
+		assertThrows(IllegalArgumentException.class,()->striped.subpixel(striped.getDisparity(),new GrayF32(1,1)));
+	}
+
+	@Test
+	void createdByFactory() {
+		ConfigDisparitySGM config = new ConfigDisparitySGM();
+		assertFalse(FactoryStereoDisparityAlgs.createSgm(config) instanceof SgmStereoDisparityStriped);
+
+		config.stripeHeight = 40;
+		config.stripeOverlap = 10;
+		config.errorType = DisparitySgmError.ABSOLUTE_DIFFERENCE;
+		SgmStereoDisparity<?,?> alg = FactoryStereoDisparityAlgs.createSgm(config);
+		assertTrue(alg instanceof SgmStereoDisparityStriped);
+		SgmStereoDisparityStriped<?,?> striped = (SgmStereoDisparityStriped<?,?>)alg;
+		assertEquals(40, striped.getStripeHeight());
+		assertEquals(10, striped.getOverlap());
+		assertEquals(config.disparityRange, striped.getDisparityRange());
+		assertTrue(striped.isComputeSubpixel());
+	}
+
+	/**
+	 * Renders a textured plane which is slanted so that the disparity changes along the y-axis
+	 */
+	void renderSlantedPlane() {
+		GrayU8 texture = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(texture,rand,0,255);
+		BlurImageOps.gaussian(texture,left,-1,1,null);
+
+		for (int y = 0; y < height; y++) {
+			int d = 5 + 20*y/height;
+			for (int x = d; x < width; x++) {
+				right.set(x-d,y,left.get(x,y));
+			}
+		}
+	}
+
+	SgmStereoDisparity<GrayU8,GrayU8> createCensus() {
+		FilterImageInterface<GrayU8,GrayU8> censusTran = FactoryCensusTransform.variant(BLOCK_3_3, GrayU8.class);
+		SgmCostHamming<GrayU8> cost = new SgmCostHamming.U8();
+		return new SgmStereoDisparityCensus<>(censusTran,cost,new SgmDisparitySelector());
+	}
+
+	SgmStereoDisparity<GrayU8,GrayU8> createError() {
+		return new SgmStereoDisparityError<>(new SgmCostAbsoluteDifference.U8(),new SgmDisparitySelector());
+	}
+}
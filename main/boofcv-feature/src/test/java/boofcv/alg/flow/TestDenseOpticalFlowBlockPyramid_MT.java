@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDenseOpticalFlowBlockPyramid_MT extends ChecksDenseOpticalFlowBlockPyramid<GrayU8> {
+
+	public TestDenseOpticalFlowBlockPyramid_MT() {
+		super(GrayU8.class);
+	}
+
+	@Override
+	public DenseOpticalFlowBlockPyramid<GrayU8> createAlg(int searchRadius, int regionRadius, int maxPerPixelError) {
+		return new DenseOpticalFlowBlockPyramid_MT<>(
+				()->new DenseOpticalFlowBlockPyramid.U8(searchRadius,regionRadius,maxPerPixelError));
+	}
+
+	/**
+	 * Neighbors are assigned in the same order as the single threaded version so the output should be identical
+	 */
+	@Test
+	void compareToSingleThread() {
+		ImagePyramid<GrayU8> prev = FactoryPyramid.discreteGaussian(
+				new int[]{1,2,4},0,2,false, ImageType.single(GrayU8.class));
+		ImagePyramid<GrayU8> curr = FactoryPyramid.discreteGaussian(
+				new int[]{1,2,4},0,2,false, ImageType.single(GrayU8.class));
+
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		prev.process(image);
+		GImageMiscOps.addUniform(image,rand,-10,10);
+		curr.process(image);
+
+		DenseOpticalFlowBlockPyramid<GrayU8> single = new DenseOpticalFlowBlockPyramid.U8(2,3,10);
+		DenseOpticalFlowBlockPyramid<GrayU8> concurrent = createAlg(2,3,10);
+
+		single.process(prev,curr);
+		concurrent.process(prev,curr);
+
+		ImageFlow expected = single.getOpticalFlow();
+		ImageFlow found = concurrent.getOpticalFlow();
+
+		for (int i = 0; i < expected.data.length; i++) {
+			ImageFlow.D e = expected.data[i];
+			ImageFlow.D f = found.data[i];
+			assertEquals(e.isValid(), f.isValid());
+			if( e.isValid() ) {
+				assertEquals(e.x, f.x);
+				assertEquals(e.y, f.y);
+			}
+		}
+	}
+}
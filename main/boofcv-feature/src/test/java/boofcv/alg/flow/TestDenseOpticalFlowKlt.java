@@ -68,7 +68,7 @@ class TestDenseOpticalFlowKlt {
 		prevDerivY = PyramidOps.declareOutput(prev,ImageType.SB_F32);
 	}
 
-	private void processInputImage() {
+	void processInputImage() {
 		prev.process(image0);
 		curr.process(image1);
 
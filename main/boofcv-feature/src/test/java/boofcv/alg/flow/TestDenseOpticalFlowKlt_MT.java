@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.factory.tracker.FactoryTrackerAlg;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDenseOpticalFlowKlt_MT extends TestDenseOpticalFlowKlt {
+
+	@Override
+	protected DenseOpticalFlowKlt<GrayF32,GrayF32> createAlg() {
+		return new DenseOpticalFlowKlt_MT<>(
+				()->FactoryTrackerAlg.kltPyramid(config.config, GrayF32.class, GrayF32.class),
+				config.pyramidScaling.length, 3);
+	}
+
+	/**
+	 * Neighbors are assigned in the same order as the single threaded version so the output should be identical
+	 */
+	@Test
+	void compareToSingleThread() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(image0,rand,0,200);
+		ImageMiscOps.fillUniform(image1,rand,0,200);
+		ImageMiscOps.fillRectangle(image0,50,10,12,4,4);
+		ImageMiscOps.fillRectangle(image1,50,11,13,4,4);
+		processInputImage();
+
+		PyramidKltTracker<GrayF32, GrayF32> tracker =
+				FactoryTrackerAlg.kltPyramid(config.config, GrayF32.class, GrayF32.class);
+		DenseOpticalFlowKlt<GrayF32,GrayF32> single =
+				new DenseOpticalFlowKlt<>(tracker, config.pyramidScaling.length, 3);
+		DenseOpticalFlowKlt<GrayF32,GrayF32> concurrent = createAlg();
+
+		ImageFlow expected = new ImageFlow(image0.width,image0.height);
+		ImageFlow found = new ImageFlow(image0.width,image0.height);
+
+		single.process(prev,prevDerivX,prevDerivY,curr,expected);
+		concurrent.process(prev,prevDerivX,prevDerivY,curr,found);
+
+		for (int i = 0; i < expected.data.length; i++) {
+			ImageFlow.D e = expected.data[i];
+			ImageFlow.D f = found.data[i];
+			assertEquals(e.isValid(), f.isValid());
+			if( e.isValid() ) {
+				assertEquals(e.x, f.x);
+				assertEquals(e.y, f.y);
+			}
+		}
+	}
+}
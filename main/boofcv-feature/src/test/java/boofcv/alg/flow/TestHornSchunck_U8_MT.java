@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHornSchunck_U8_MT extends ChecksHornSchunck<GrayU8,GrayS16> {
+
+	public TestHornSchunck_U8_MT() {
+		super(GrayU8.class, GrayS16.class);
+	}
+
+	@Override
+	public HornSchunck<GrayU8, GrayS16> createAlg() {
+		return new HornSchunck_U8_MT(0.2f,1);
+	}
+
+	/**
+	 * Jacobi iterations are independent of processing order so the results should be identical
+	 */
+	@Test
+	void compareToSingleThread() {
+		GrayU8 image1 = new GrayU8(width,height);
+		GrayU8 image2 = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(image1, rand, 0, 200);
+		GImageMiscOps.fillUniform(image2, rand, 0, 200);
+
+		ImageFlow expected = new ImageFlow(width,height);
+		ImageFlow found = new ImageFlow(width,height);
+
+		new HornSchunck_U8(0.2f,20).process(image1,image2,expected);
+		new HornSchunck_U8_MT(0.2f,20).process(image1,image2,found);
+
+		for (int i = 0; i < expected.data.length; i++) {
+			assertEquals(expected.data[i].x, found.data[i].x);
+			assertEquals(expected.data[i].y, found.data[i].y);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPackedTupleArray_B {
+
+	Random rand = new Random(234);
+
+	@Test
+	void reset() {
+		PackedTupleArray_B alg = new PackedTupleArray_B(64);
+		assertEquals(1, alg.numWords);
+		alg.reset(65);
+		assertEquals(2, alg.numWords);
+		alg.reset(512);
+		assertEquals(8, alg.numWords);
+		assertEquals(0, alg.size);
+	}
+
+	/**
+	 * Add then get and see if the descriptors are the same. Tests number of bits which don't evenly divide
+	 */
+	@Test
+	void append_get() {
+		for( int numBits : new int[]{32,40,64,96,512} ) {
+			BriefFeatureQueue list = new BriefFeatureQueue(numBits);
+			for (int i = 0; i < 25; i++) {
+				TupleDesc_B d = list.grow();
+				for (int j = 0; j < d.data.length; j++) {
+					d.data[j] = rand.nextInt();
+				}
+			}
+
+			PackedTupleArray_B alg = new PackedTupleArray_B(numBits);
+			for (int i = 0; i < list.size; i++) {
+				alg.append(list.get(i));
+			}
+			assertEquals(list.size, alg.size);
+
+			TupleDesc_B found = new TupleDesc_B(numBits);
+			for (int i = 0; i < list.size; i++) {
+				alg.get(i, found);
+				for (int j = 0; j < found.data.length; j++) {
+					assertEquals(list.get(i).data[j], found.data[j]);
+				}
+			}
+		}
+	}
+
+	@Test
+	void setTo() {
+		BriefFeatureQueue list = new BriefFeatureQueue(128);
+		for (int i = 0; i < 5; i++) {
+			list.grow().data[3] = i;
+		}
+
+		PackedTupleArray_B alg = new PackedTupleArray_B(64);
+		alg.setTo(list);
+		assertEquals(128, alg.numBits);
+		assertEquals(5, alg.size);
+
+		TupleDesc_B found = new TupleDesc_B(128);
+		alg.get(3, found);
+		assertEquals(3, found.data[3]);
+	}
+
+	@Test
+	void append_wrongSize() {
+		PackedTupleArray_B alg = new PackedTupleArray_B(64);
+		assertThrows(IllegalArgumentException.class, ()->alg.append(new TupleDesc_B(128)));
+	}
+}
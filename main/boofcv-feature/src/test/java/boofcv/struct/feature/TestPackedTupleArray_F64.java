@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPackedTupleArray_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	void append_get() {
+		FastQueue<TupleDesc_F64> list = createList(5,25);
+
+		PackedTupleArray_F64 alg = new PackedTupleArray_F64(5);
+		for (int i = 0; i < list.size; i++) {
+			alg.append(list.get(i));
+		}
+		assertEquals(list.size, alg.size());
+
+		TupleDesc_F64 found = new TupleDesc_F64(5);
+		for (int i = 0; i < list.size; i++) {
+			alg.get(i, found);
+			for (int j = 0; j < 5; j++) {
+				assertEquals(list.get(i).value[j], found.value[j]);
+			}
+		}
+	}
+
+	@Test
+	void setTo() {
+		FastQueue<TupleDesc_F64> list = createList(7,4);
+
+		PackedTupleArray_F64 alg = new PackedTupleArray_F64(2);
+		alg.setTo(list);
+		assertEquals(7, alg.dof);
+		assertEquals(4, alg.size);
+		for (int i = 0; i < 7; i++) {
+			assertEquals(list.get(2).value[i], alg.data[2*7+i]);
+		}
+
+		// empty list should remove everything
+		alg.setTo(createList(7,0));
+		assertEquals(0, alg.size);
+	}
+
+	@Test
+	void append_wrongSize() {
+		PackedTupleArray_F64 alg = new PackedTupleArray_F64(5);
+		assertThrows(IllegalArgumentException.class, ()->alg.append(new TupleDesc_F64(6)));
+	}
+
+	FastQueue<TupleDesc_F64> createList( int dof , int count ) {
+		FastQueue<TupleDesc_F64> list = new FastQueue<>(TupleDesc_F64.class, ()->new TupleDesc_F64(dof));
+		for (int i = 0; i < count; i++) {
+			TupleDesc_F64 d = list.grow();
+			for (int j = 0; j < dof; j++) {
+				d.value[j] = (double)rand.nextGaussian();
+			}
+		}
+		return list;
+	}
+}
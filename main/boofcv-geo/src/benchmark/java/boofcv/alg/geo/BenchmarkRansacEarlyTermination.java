@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo;
+
+import boofcv.alg.geo.robust.ModelMatcherMultiview;
+import boofcv.factory.geo.*;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.geo.AssociatedPair;
+import boofcv.struct.geo.Point2D3D;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares RANSAC with and without SPRT verification and adaptive termination
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkRansacEarlyTermination {
+
+	public static final int NUM_POINTS = 1000;
+
+	@Param({"NONE","SPRT","ADAPTIVE","SPRT_ADAPTIVE"})
+	public String mode;
+
+	@Param({"0.2","0.6"})
+	public double fractionOutliers;
+
+	List<AssociatedPair> pairsPixels, pairsPixelsPlanar, pairsNorm;
+	List<Point2D3D> observationsPose;
+
+	ModelMatcher<Homography2D_F64,AssociatedPair> homography;
+	ModelMatcher<DMatrixRMaj,AssociatedPair> fundamental;
+	ModelMatcherMultiview<DMatrixRMaj,AssociatedPair> essential;
+	ModelMatcherMultiview<Se3_F64,Point2D3D> pnp;
+
+	@Setup
+	public void setup() {
+		ArtificialStereoScene scene = new ArtificialStereoScene();
+		pairsPixelsPlanar = addOutliers(scene, createHomographyPairs(scene.rand), true);
+
+		scene.init(NUM_POINTS, true, false);
+		scene.addPixelNoise(0.5);
+		pairsPixels = addOutliers(scene, scene.pairs, true);
+
+		scene.init(NUM_POINTS, false, false);
+		scene.addPixelNoise(0.5);
+		pairsNorm = addOutliers(scene, scene.pairs, false);
+		observationsPose = new ArrayList<>();
+		for( int i = 0; i < NUM_POINTS; i++ ) {
+			Point2D3D p = scene.observationPose.get(i);
+			observationsPose.add(new Point2D3D(pairsNorm.get(i).p2, p.location));
+		}
+
+		ConfigRansac configRansac = new ConfigRansac(2000, 2.0);
+		configRansac.sprt = mode.startsWith("SPRT");
+		configRansac.terminationConfidence = mode.endsWith("ADAPTIVE") ? 0.99 : 0.0;
+
+		CameraPinhole intrinsic = new CameraPinhole(705, 704, 0.001, 326, 224, 640, 480);
+
+		homography = FactoryMultiViewRobust.homographyRansac(null, configRansac);
+		fundamental = FactoryMultiViewRobust.fundamentalRansac(new ConfigFundamental(), configRansac);
+		essential = FactoryMultiViewRobust.essentialRansac(null, configRansac);
+		essential.setIntrinsic(0, intrinsic);
+		essential.setIntrinsic(1, intrinsic);
+		pnp = FactoryMultiViewRobust.pnpRansac(null, configRansac);
+		pnp.setIntrinsic(0, intrinsic);
+	}
+
+	/**
+	 * Observations of points on a plane. Both views are in pixels.
+	 */
+	private List<AssociatedPair> createHomographyPairs( Random rand ) {
+		Homography2D_F64 H = new Homography2D_F64(1.2,0.1,20, -0.05,0.9,-15, 0.0001,0.0002,1);
+
+		List<AssociatedPair> pairs = new ArrayList<>();
+		for( int i = 0; i < NUM_POINTS; i++ ) {
+			AssociatedPair p = new AssociatedPair();
+			p.p1.set(rand.nextDouble()*640, rand.nextDouble()*480);
+			HomographyPointOps_F64.transform(H, p.p1, p.p2);
+			p.p2.x += rand.nextGaussian()*0.5;
+			p.p2.y += rand.nextGaussian()*0.5;
+			pairs.add(p);
+		}
+		return pairs;
+	}
+
+	/**
+	 * Replaces the second view's observation with a random location for a fraction of the points
+	 */
+	private List<AssociatedPair> addOutliers( ArtificialStereoScene scene , List<AssociatedPair> pairs ,
+											  boolean isPixels ) {
+		List<AssociatedPair> output = new ArrayList<>();
+		for( AssociatedPair p : pairs ) {
+			AssociatedPair c = p.copy();
+			if( scene.rand.nextDouble() < fractionOutliers ) {
+				c.p2.set(scene.rand.nextDouble()*640, scene.rand.nextDouble()*480);
+				if( !isPixels )
+					PerspectiveOps.convertPixelToNorm(scene.K, c.p2, c.p2);
+			}
+			output.add(c);
+		}
+		return output;
+	}
+
+	@Benchmark
+	public void homography() {
+		homography.process(pairsPixelsPlanar);
+	}
+
+	@Benchmark
+	public void fundamental() {
+		fundamental.process(pairsPixels);
+	}
+
+	@Benchmark
+	public void essential() {
+		essential.process(pairsNorm);
+	}
+
+	@Benchmark
+	public void pnp() {
+		pnp.process(observationsPose);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkRansacEarlyTermination.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
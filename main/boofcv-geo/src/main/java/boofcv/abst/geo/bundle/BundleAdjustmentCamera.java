@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,8 +24,16 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 /**
+ * <p>
  * Generalized camera model for bundle adjustment. By implementing this function you can swap in and out
  * arbitrary camera models.
+ * </p>
+ *
+ * <p>
+ * Thread safety: Concurrent implementations of the residual and Jacobian functions share a single instance
+ * between threads. {@link #setIntrinsic} is only called from a single thread, but {@link #project} and
+ * {@link #jacobian} can be invoked by multiple threads at the same time. They must not modify any fields.
+ * </p>
  *
  * @author Peter Abeles
  */
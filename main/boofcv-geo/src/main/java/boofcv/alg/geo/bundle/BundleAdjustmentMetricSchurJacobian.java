@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -31,6 +31,7 @@ import georegression.transform.se.SePointOps_F64;
 import org.ejml.data.DMatrix;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.ReshapeMatrix;
+import org.ddogleg.struct.GrowQueue_I32;
 import org.ejml.dense.row.CommonOps_DDRM;
 
 /**
@@ -229,6 +230,15 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 	 * @param rightView Storage for right Jacobian
 	 */
 	public void internalProcess( double[] input, DMatrix leftPoint, DMatrix rightView) {
+		reshapeJacobian(leftPoint,rightView);
+		setSharedParameters(input);
+		computeViews(input,leftPoint,rightView,0,structure.views.size,0);
+	}
+
+	/**
+	 * Reshapes the left and right Jacobians to their expected shape and zeros them
+	 */
+	protected void reshapeJacobian( DMatrix leftPoint, DMatrix rightView ) {
 		int numRows = getNumOfOutputsM();
 		// number of parameters on left. All points
 		int numPointParam = structure.points.size*lengthPoint + numRigidUnknown*lengthSE3;
@@ -239,7 +249,12 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		((ReshapeMatrix)rightView).reshape(numRows,numViewParam);
 		leftPoint.zero();
 		rightView.zero();
+	}
 
+	/**
+	 * Decodes parameters which are shared by multiple views, i.e. rigid bodies and camera intrinsics
+	 */
+	protected void setSharedParameters( double[] input ) {
 		// parse parameters for rigid bodies. the translation + rotation is the same for all views
 		for (int rigidIndex = 0; rigidIndex < structure.rigids.size; rigidIndex++) {
 			if( !structure.rigids.get(rigidIndex).known ) {
@@ -247,9 +262,25 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 			}
 		}
 
-		int observationIndex = 0;
-		// first decode the transformation
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+		for (int cameraIndex = 0; cameraIndex < structure.cameras.size; cameraIndex++) {
+			SceneStructureMetric.Camera camera = structure.cameras.data[cameraIndex];
+			if( !camera.known ) {
+				camera.model.setIntrinsic(input,indexLastView+cameraParameterIndexes[cameraIndex]);
+			}
+		}
+	}
+
+	/**
+	 * Computes the Jacobian for all observations in a range of views. Only the rows belonging to those
+	 * observations are modified. {@link #setSharedParameters} must be called first.
+	 *
+	 * @param viewIdx0 First view, inclusive
+	 * @param viewIdx1 Last view, exclusive
+	 * @param observationIndex Index of the first observation in viewIdx0
+	 */
+	protected void computeViews( double[] input, DMatrix leftPoint, DMatrix rightView,
+								 int viewIdx0, int viewIdx1, int observationIndex ) {
+		for( int viewIndex = viewIdx0; viewIndex < viewIdx1; viewIndex++ ) {
 			SceneStructureMetric.View view = structure.views.data[viewIndex];
 			SceneStructureMetric.Camera camera = structure.cameras.data[view.camera];
 
@@ -267,9 +298,6 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 				worldToView.set(view.worldToView);
 			}
 			int cameraParamStartIndex = cameraParameterIndexes[view.camera];
-			if( !camera.known ) {
-				camera.model.setIntrinsic(input,indexLastView+cameraParamStartIndex);
-			}
 
 			observationIndex = computeGeneralPoints(leftPoint,rightView, input, observationIndex, viewIndex, view, camera, cameraParamStartIndex);
 			if( observations.hasRigid() )
@@ -277,6 +305,59 @@ public abstract class BundleAdjustmentMetricSchurJacobian<M extends DMatrix>
 		}
 	}
 
+	/**
+	 * Computes the number of columns in each parameter block of the left and right Jacobians, in column order.
+	 * Left has a block for each point followed by each unknown rigid body. Right has a block for each unknown
+	 * view followed by each unknown camera.
+	 */
+	protected void computeColumnBlocks( GrowQueue_I32 left , GrowQueue_I32 right ) {
+		left.reset();
+		for (int i = 0; i < structure.points.size; i++) {
+			left.add(lengthPoint);
+		}
+		for (int i = 0; i < structure.rigids.size; i++) {
+			if( !structure.rigids.get(i).known )
+				left.add(lengthSE3);
+		}
+
+		right.reset();
+		for (int i = 0; i < structure.views.size; i++) {
+			if( !structure.views.data[i].known )
+				right.add(lengthSE3);
+		}
+		for (int i = 0; i < structure.cameras.size; i++) {
+			SceneStructureMetric.Camera camera = structure.cameras.data[i];
+			if( !camera.known )
+				right.add(camera.model.getIntrinsicCount());
+		}
+	}
+
+	/**
+	 * Configures this instance so that it can compute the Jacobian for a subset of the views in 'src'. The
+	 * configuration is shared by reference, but work space is not, which allows multiple instances to
+	 * process different views at the same time.
+	 */
+	protected void shareConfiguration( BundleAdjustmentMetricSchurJacobian<?> src ) {
+		this.structure = src.structure;
+		this.observations = src.observations;
+		this.numViewsUnknown = src.numViewsUnknown;
+		this.numRigidUnknown = src.numRigidUnknown;
+		this.numParameters = src.numParameters;
+		this.lengthPoint = src.lengthPoint;
+		this.jacRigidS03 = src.jacRigidS03;
+		this.lengthSE3 = src.lengthSE3;
+		this.indexFirstRigid = src.indexFirstRigid;
+		this.indexFirstView = src.indexFirstView;
+		this.indexLastView = src.indexLastView;
+		this.rigidParameterIndexes = src.rigidParameterIndexes;
+		this.viewParameterIndexes = src.viewParameterIndexes;
+		this.cameraParameterIndexes = src.cameraParameterIndexes;
+		if( calibGradX == null || calibGradX.length != src.calibGradX.length ) {
+			calibGradX = new double[src.calibGradX.length];
+			calibGradY = new double[src.calibGradY.length];
+		}
+	}
+
 	private int computeRigidPoints(DMatrix leftPoint, DMatrix rightView,
 								   int observationIndex, int viewIndex,
 								   SceneStructureMetric.View view,
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.BundleAdjustmentSchur_Block;
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.alg.geo.bundle.block.BlockSparseJacobian;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ejml.data.DMatrix;
+
+/**
+ * Computes the Jacobian for {@link BundleAdjustmentSchur_Block} using block sparse matrices. Each row block
+ * is one observation and each column block is a point, rigid body, view, or camera. Parameterization is done
+ * using the format in {@link CodecSceneStructureMetric}.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricSchurJacobian_Block
+		extends BundleAdjustmentMetricSchurJacobian<BlockSparseJacobian>
+{
+	// number of columns in each column block
+	GrowQueue_I32 leftBlocks = new GrowQueue_I32();
+	GrowQueue_I32 rightBlocks = new GrowQueue_I32();
+
+	@Override
+	public void configure(SceneStructureMetric structure, SceneObservations observations) {
+		super.configure(structure, observations);
+		computeColumnBlocks(leftBlocks,rightBlocks);
+	}
+
+	@Override
+	public void process(double[] input, BlockSparseJacobian left, BlockSparseJacobian right) {
+		left.setBlocks(2,leftBlocks);
+		right.setBlocks(2,rightBlocks);
+		internalProcess(input,left,right);
+	}
+
+	@Override
+	protected void set(DMatrix matrix, int row, int col, double value) {
+		((BlockSparseJacobian)matrix).unsafe_set(row,col,value);
+	}
+}
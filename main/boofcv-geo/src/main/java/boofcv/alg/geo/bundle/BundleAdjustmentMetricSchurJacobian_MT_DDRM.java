@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixRMaj;
+
+/**
+ * Concurrent implementation of {@link BundleAdjustmentMetricSchurJacobian_DDRM}. Views are split into
+ * blocks with about the same number of observations and each thread writes the Jacobian rows for a block
+ * directly into the dense matrices. Blocks do not share any rows so the output is identical to the single
+ * threaded implementation.
+ *
+ * Camera models must not modify their internal state when project() or jacobian() are called.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricSchurJacobian_MT_DDRM extends BundleAdjustmentMetricSchurJacobian_DDRM {
+
+	// Maximum number of threads. If &le; 0 then BoofConcurrency decides
+	int maxThreads;
+
+	// Splits the views into blocks which are processed by different threads
+	BundleViewPartition partition = new BundleViewPartition();
+
+	// Each worker computes the Jacobian for one block
+	FastQueue<BundleAdjustmentMetricSchurJacobian_DDRM> workers = new FastQueue<>(0,
+			BundleAdjustmentMetricSchurJacobian_DDRM.class, BundleAdjustmentMetricSchurJacobian_DDRM::new);
+
+	/**
+	 * @param maxThreads Maximum number of threads. If &le; 0 then the number of threads is set by {@link BoofConcurrency}.
+	 */
+	public BundleAdjustmentMetricSchurJacobian_MT_DDRM( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+
+	public BundleAdjustmentMetricSchurJacobian_MT_DDRM() {
+		this(0);
+	}
+
+	@Override
+	public void configure(SceneStructureMetric structure, SceneObservations observations) {
+		super.configure(structure, observations);
+		partition.configure(observations);
+	}
+
+	@Override
+	public void process(double[] input, DMatrixRMaj left, DMatrixRMaj right) {
+		partition.split(maxThreads > 0 ? maxThreads : BoofConcurrency.getMaxThreads());
+		if( partition.getBlockCount() == 1 ) {
+			super.process(input,left,right);
+			return;
+		}
+
+		reshapeJacobian(left,right);
+		setSharedParameters(input);
+
+		workers.resize(partition.getBlockCount());
+		BoofConcurrency.loopFor(0,workers.size,block->{
+			BundleAdjustmentMetricSchurJacobian_DDRM worker = workers.get(block);
+			int viewIdx0 = partition.getViewStart(block);
+			worker.shareConfiguration(this);
+			worker.computeViews(input,left,right,
+					viewIdx0,partition.getViewEnd(block),partition.getFirstObservation(viewIdx0));
+		});
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	public void setMaxThreads( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.ops.ConvertDMatrixStruct;
+
+/**
+ * Concurrent implementation of {@link BundleAdjustmentMetricSchurJacobian_DSCC}. Views are split into
+ * blocks with about the same number of observations and each thread computes the Jacobian rows for a
+ * block in its own triplet matrix. The triplets are then concatenated in the order of the views, which
+ * makes the output identical to the single threaded implementation no matter how many threads are used.
+ *
+ * Camera models must not modify their internal state when project() or jacobian() are called.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentMetricSchurJacobian_MT_DSCC extends BundleAdjustmentMetricSchurJacobian_DSCC {
+
+	// Maximum number of threads. If &le; 0 then BoofConcurrency decides
+	int maxThreads;
+
+	// Splits the views into blocks which are processed by different threads
+	BundleViewPartition partition = new BundleViewPartition();
+
+	// Each worker computes the Jacobian for one block
+	FastQueue<BundleAdjustmentMetricSchurJacobian_DSCC> workers = new FastQueue<>(0,
+			BundleAdjustmentMetricSchurJacobian_DSCC.class, BundleAdjustmentMetricSchurJacobian_DSCC::new);
+
+	/**
+	 * @param maxThreads Maximum number of threads. If &le; 0 then the number of threads is set by {@link BoofConcurrency}.
+	 */
+	public BundleAdjustmentMetricSchurJacobian_MT_DSCC( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+
+	public BundleAdjustmentMetricSchurJacobian_MT_DSCC() {
+		this(0);
+	}
+
+	@Override
+	public void configure(SceneStructureMetric structure, SceneObservations observations) {
+		super.configure(structure, observations);
+		partition.configure(observations);
+	}
+
+	@Override
+	public void process(double[] input, DMatrixSparseCSC left, DMatrixSparseCSC right) {
+		partition.split(maxThreads > 0 ? maxThreads : BoofConcurrency.getMaxThreads());
+		if( partition.getBlockCount() == 1 ) {
+			super.process(input,left,right);
+			return;
+		}
+
+		reshapeJacobian(leftTriplet,rightTriplet);
+		setSharedParameters(input);
+
+		workers.resize(partition.getBlockCount());
+		BoofConcurrency.loopFor(0,workers.size,block->{
+			BundleAdjustmentMetricSchurJacobian_DSCC worker = workers.get(block);
+			int viewIdx0 = partition.getViewStart(block);
+			worker.shareConfiguration(this);
+			worker.reshapeJacobian(worker.leftTriplet,worker.rightTriplet);
+			worker.computeViews(input,worker.leftTriplet,worker.rightTriplet,
+					viewIdx0,partition.getViewEnd(block),partition.getFirstObservation(viewIdx0));
+		});
+
+		// Assemble in the order of the views so that the output doesn't depend on the number of threads
+		for (int block = 0; block < workers.size; block++) {
+			BundleViewPartition.append(workers.get(block).leftTriplet,leftTriplet);
+			BundleViewPartition.append(workers.get(block).rightTriplet,rightTriplet);
+		}
+
+		ConvertDMatrixStruct.convert(leftTriplet,left);
+		ConvertDMatrixStruct.convert(rightTriplet,right);
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	public void setMaxThreads( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+}
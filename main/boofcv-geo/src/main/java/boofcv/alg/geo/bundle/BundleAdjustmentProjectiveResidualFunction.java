@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -44,7 +44,7 @@ import georegression.struct.point.Point4D_F64;
 public class BundleAdjustmentProjectiveResidualFunction
 	implements BundleAdjustmentSchur_DSCC.FunctionResiduals<SceneStructureProjective>
 {
-	private SceneStructureProjective structure;
+	SceneStructureProjective structure;
 	private SceneObservations observations;
 
 	// number of parameters being optimised
@@ -58,7 +58,7 @@ public class BundleAdjustmentProjectiveResidualFunction
 	private PointIndex2D_F64 observedPixel = new PointIndex2D_F64();
 
 	// Used to write the "unknown" paramters into the scene
-	private CodecSceneStructureProjective codec = new CodecSceneStructureProjective();
+	CodecSceneStructureProjective codec = new CodecSceneStructureProjective();
 
 	// Point in world frame
 	private Point3D_F64 p3 = new Point3D_F64();
@@ -97,18 +97,40 @@ public class BundleAdjustmentProjectiveResidualFunction
 		// write the current parameters into the scene's structure
 		codec.decode(input,structure);
 
+		projectViews(output,0,structure.views.size,0);
+	}
+
+	/**
+	 * Computes the residuals for all observations in a range of views. Only the elements belonging to those
+	 * observations are modified. The scene's structure must already be updated with the current parameters.
+	 *
+	 * @param viewIdx0 First view, inclusive
+	 * @param viewIdx1 Last view, exclusive
+	 * @param observationIndex Index of the first observation in viewIdx0
+	 */
+	protected void projectViews( double[] output, int viewIdx0, int viewIdx1, int observationIndex ) {
 		if( structure.homogenous )
-			project4(output);
+			project4(output,viewIdx0,viewIdx1,observationIndex);
 		else
-			project3(output);
+			project3(output,viewIdx0,viewIdx1,observationIndex);
+	}
+
+	/**
+	 * Configures this instance so that it can compute the residuals for a subset of the views in 'src'.
+	 * Work space is not shared, which allows multiple instances to process different views at the same time.
+	 */
+	protected void shareConfiguration( BundleAdjustmentProjectiveResidualFunction src ) {
+		this.structure = src.structure;
+		this.observations = src.observations;
+		this.numObservations = src.numObservations;
+		this.numParameters = src.numParameters;
 	}
 
 	/**
 	 * projection from 3D coordinates
 	 */
-	private void project3(double[] output) {
-		int observationIndex = 0;
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+	private void project3(double[] output, int viewIdx0, int viewIdx1, int observationIndex) {
+		for( int viewIndex = viewIdx0; viewIndex < viewIdx1; viewIndex++ ) {
 			SceneStructureProjective.View view = structure.views.data[viewIndex];
 			SceneObservations.View obsView = observations.views.data[viewIndex];
 			SceneStructureCommon.Camera camera = structure.cameras.get(view.camera);
@@ -136,9 +158,8 @@ public class BundleAdjustmentProjectiveResidualFunction
 	/**
 	 * projection from homogenous coordinates
 	 */
-	private void project4(double[] output) {
-		int observationIndex = 0;
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+	private void project4(double[] output, int viewIdx0, int viewIdx1, int observationIndex) {
+		for( int viewIndex = viewIdx0; viewIndex < viewIdx1; viewIndex++ ) {
 			SceneStructureProjective.View view = structure.views.data[viewIndex];
 			SceneObservations.View obsView = observations.views.data[viewIndex];
 			SceneStructureCommon.Camera camera = structure.cameras.get(view.camera);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link BundleAdjustmentProjectiveResidualFunction}. Parameters are decoded into
+ * the scene in the calling thread, then views are split into blocks with about the same number of observations
+ * and the residuals for each block are computed in a different thread. Output is identical to the single
+ * threaded implementation.
+ *
+ * Camera models must not modify their internal state when project() is called.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentProjectiveResidualFunction_MT extends BundleAdjustmentProjectiveResidualFunction {
+
+	// Maximum number of threads. If &le; 0 then BoofConcurrency decides
+	int maxThreads;
+
+	// Splits the views into blocks which are processed by different threads
+	BundleViewPartition partition = new BundleViewPartition();
+
+	// Each worker computes the residuals for one block
+	FastQueue<BundleAdjustmentProjectiveResidualFunction> workers = new FastQueue<>(0,
+			BundleAdjustmentProjectiveResidualFunction.class, BundleAdjustmentProjectiveResidualFunction::new);
+
+	/**
+	 * @param maxThreads Maximum number of threads. If &le; 0 then the number of threads is set by {@link BoofConcurrency}.
+	 */
+	public BundleAdjustmentProjectiveResidualFunction_MT( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+
+	public BundleAdjustmentProjectiveResidualFunction_MT() {
+		this(0);
+	}
+
+	@Override
+	public void configure(SceneStructureProjective structure, SceneObservations observations) {
+		super.configure(structure, observations);
+		partition.configure(observations);
+	}
+
+	@Override
+	public void process(double[] input, double[] output) {
+		partition.split(maxThreads > 0 ? maxThreads : BoofConcurrency.getMaxThreads());
+		if( partition.getBlockCount() == 1 ) {
+			super.process(input,output);
+			return;
+		}
+
+		// write the current parameters into the scene's structure
+		codec.decode(input,structure);
+
+		workers.resize(partition.getBlockCount());
+		BoofConcurrency.loopFor(0,workers.size,block->{
+			BundleAdjustmentProjectiveResidualFunction worker = workers.get(block);
+			int viewIdx0 = partition.getViewStart(block);
+			worker.shareConfiguration(this);
+			worker.projectViews(output,viewIdx0,partition.getViewEnd(block),partition.getFirstObservation(viewIdx0));
+		});
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	public void setMaxThreads( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+}
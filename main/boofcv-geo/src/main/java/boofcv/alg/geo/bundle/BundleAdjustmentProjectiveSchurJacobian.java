@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,6 +25,7 @@ import boofcv.abst.geo.bundle.SceneStructureProjective;
 import boofcv.alg.geo.PerspectiveOps;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.point.Point4D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
 import org.ejml.data.DMatrix;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.ReshapeMatrix;
@@ -145,6 +146,14 @@ public abstract class BundleAdjustmentProjectiveSchurJacobian<M extends DMatrix>
 	 * @param rightView Storage for right Jacobian
 	 */
 	public void processInternal( double[] input, DMatrix leftPoint, DMatrix rightView) {
+		reshapeJacobian(leftPoint,rightView);
+		computeViews(input,leftPoint,rightView,0,structure.views.size,0);
+	}
+
+	/**
+	 * Reshapes the left and right Jacobians to their expected shape and zeros them
+	 */
+	protected void reshapeJacobian( DMatrix leftPoint, DMatrix rightView ) {
 		int numRows = getNumOfOutputsM();
 		int numPointParam = structure.points.size*lengthPoint;
 		int numViewParam = numParameters-numPointParam; // view + camera
@@ -153,10 +162,64 @@ public abstract class BundleAdjustmentProjectiveSchurJacobian<M extends DMatrix>
 		((ReshapeMatrix)rightView).reshape(numRows,numViewParam);
 		leftPoint.zero();
 		rightView.zero();
+	}
+
+	/**
+	 * Computes the number of columns in each parameter block of the left and right Jacobians, in column order.
+	 * Left has a block for each point. Right has a block for each unknown view followed by each unknown camera.
+	 */
+	protected void computeColumnBlocks( GrowQueue_I32 left , GrowQueue_I32 right ) {
+		left.reset();
+		for (int i = 0; i < structure.points.size; i++) {
+			left.add(lengthPoint);
+		}
+
+		right.reset();
+		for (int i = 0; i < structure.views.size; i++) {
+			if( !structure.views.data[i].known )
+				right.add(12);
+		}
+		for (int i = 0; i < structure.cameras.size; i++) {
+			SceneStructureCommon.Camera camera = structure.cameras.data[i];
+			if( !camera.known )
+				right.add(camera.model.getIntrinsicCount());
+		}
+	}
+
+	/**
+	 * Configures this instance so that it can compute the Jacobian for a subset of the views in 'src'. The
+	 * configuration is shared by reference, but work space is not, which allows multiple instances to
+	 * process different views at the same time.
+	 */
+	protected void shareConfiguration( BundleAdjustmentProjectiveSchurJacobian<?> src ) {
+		this.structure = src.structure;
+		this.observations = src.observations;
+		this.numViewsUnknown = src.numViewsUnknown;
+		this.numParameters = src.numParameters;
+		this.lengthPoint = src.lengthPoint;
+		this.worldPt.w = 1;
+		this.indexFirstView = src.indexFirstView;
+		this.indexLastView = src.indexLastView;
+		this.viewParameterIndexes = src.viewParameterIndexes;
+		this.cameraParameterIndexes = src.cameraParameterIndexes;
+		if( intrGradX == null || intrGradX.length != src.intrGradX.length ) {
+			intrGradX = new double[src.intrGradX.length];
+			intrGradY = new double[src.intrGradY.length];
+		}
+	}
 
-		int observationIndex = 0;
+	/**
+	 * Computes the Jacobian for all observations in a range of views. Only the rows belonging to those
+	 * observations are modified.
+	 *
+	 * @param viewIdx0 First view, inclusive
+	 * @param viewIdx1 Last view, exclusive
+	 * @param observationIndex Index of the first observation in viewIdx0
+	 */
+	protected void computeViews( double[] input, DMatrix leftPoint, DMatrix rightView,
+								 int viewIdx0, int viewIdx1, int observationIndex ) {
 		// first decode the transformation
-		for( int viewIndex = 0; viewIndex < structure.views.size; viewIndex++ ) {
+		for( int viewIndex = viewIdx0; viewIndex < viewIdx1; viewIndex++ ) {
 			SceneStructureProjective.View view = structure.views.data[viewIndex];
 			SceneStructureCommon.Camera camera = structure.cameras.data[view.camera];
 			int cameraParamStartIndex = cameraParameterIndexes[view.camera];
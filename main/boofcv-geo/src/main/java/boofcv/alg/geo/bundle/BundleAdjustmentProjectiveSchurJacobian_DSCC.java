@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -34,8 +34,8 @@ public class BundleAdjustmentProjectiveSchurJacobian_DSCC
 		extends BundleAdjustmentProjectiveSchurJacobian<DMatrixSparseCSC>
 {
 	// reference to output Jacobian matrix
-	private DMatrixSparseTriplet leftTriplet = new DMatrixSparseTriplet();
-	private DMatrixSparseTriplet rightTriplet = new DMatrixSparseTriplet();
+	DMatrixSparseTriplet leftTriplet = new DMatrixSparseTriplet();
+	DMatrixSparseTriplet rightTriplet = new DMatrixSparseTriplet();
 
 	@Override
 	public void process(double[] input, DMatrixSparseCSC left, DMatrixSparseCSC right) {
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ejml.data.DMatrixSparseTriplet;
+
+/**
+ * Splits the views in a scene into contiguous blocks which have approximately the same number of observations.
+ * Observations are ordered by view in the residuals and Jacobian, so each block owns a contiguous set of rows. Used
+ * by concurrent implementations to assign each block to a different thread.
+ *
+ * @author Peter Abeles
+ */
+public class BundleViewPartition {
+	// Index of the first observation in each view. The last element is the total number of observations.
+	int[] firstObservation = new int[1];
+	// Number of views in the scene
+	int numViews;
+
+	// First view in each block. The last element is the number of views.
+	GrowQueue_I32 blocks = new GrowQueue_I32();
+
+	/**
+	 * Computes the index of the first observation in each view
+	 */
+	public void configure( SceneObservations observations ) {
+		numViews = observations.views.size;
+		if( firstObservation.length < numViews+1 )
+			firstObservation = new int[numViews+1];
+
+		firstObservation[0] = 0;
+		for (int viewIndex = 0; viewIndex < numViews; viewIndex++) {
+			int count = observations.views.data[viewIndex].size();
+			if( observations.hasRigid() )
+				count += observations.viewsRigid.data[viewIndex].size();
+			firstObservation[viewIndex+1] = firstObservation[viewIndex] + count;
+		}
+	}
+
+	/**
+	 * Splits the views into the requested number of blocks. Fewer blocks are created if there are not enough
+	 * views. Each block will contain at least one view.
+	 *
+	 * @param numBlocks Desired number of blocks
+	 */
+	public void split( int numBlocks ) {
+		numBlocks = Math.max(1,Math.min(numBlocks,numViews));
+		long total = firstObservation[numViews];
+
+		blocks.reset();
+		blocks.add(0);
+		int viewIndex = 0;
+		for (int block = 1; block < numBlocks; block++) {
+			long target = total*block/numBlocks;
+			// every block needs at least one view and enough must be left over for the remaining blocks
+			viewIndex = Math.max(viewIndex,blocks.get(block-1)+1);
+			int maxView = numViews-(numBlocks-block);
+			while( viewIndex < maxView && firstObservation[viewIndex] < target )
+				viewIndex++;
+			blocks.add(viewIndex);
+		}
+		blocks.add(numViews);
+	}
+
+	/**
+	 * Number of blocks created by the last call to {@link #split}
+	 */
+	public int getBlockCount() {
+		return blocks.size-1;
+	}
+
+	/**
+	 * Index of the first view in the block
+	 */
+	public int getViewStart( int block ) {
+		return blocks.get(block);
+	}
+
+	/**
+	 * Index of one past the last view in the block
+	 */
+	public int getViewEnd( int block ) {
+		return blocks.get(block+1);
+	}
+
+	/**
+	 * Index of the first observation in the view
+	 */
+	public int getFirstObservation( int viewIndex ) {
+		return firstObservation[viewIndex];
+	}
+
+	/**
+	 * Adds all the elements in src to the end of dst. Used to assemble the Jacobian from the triplets
+	 * computed for each block.
+	 */
+	public static void append( DMatrixSparseTriplet src , DMatrixSparseTriplet dst ) {
+		int length = dst.nz_length + src.nz_length;
+		if( dst.nz_value.data.length < length )
+			dst.nz_value.growInternal(length-dst.nz_value.data.length);
+		if( dst.nz_rowcol.data.length < length*2 )
+			dst.nz_rowcol.growInternal(length*2-dst.nz_rowcol.data.length);
+		System.arraycopy(src.nz_rowcol.data,0,dst.nz_rowcol.data,dst.nz_length*2,src.nz_length*2);
+		System.arraycopy(src.nz_value.data,0,dst.nz_value.data,dst.nz_length,src.nz_length);
+		dst.nz_length = length;
+	}
+}
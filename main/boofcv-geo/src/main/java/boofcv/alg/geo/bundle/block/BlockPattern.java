@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle.block;
+
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+
+/**
+ * Specifies which blocks are non-zero in a block sparse matrix and where their values are stored. Blocks are
+ * stored in compressed row format with sorted column indexes. Each block is a dense row-major matrix.
+ *
+ * @author Peter Abeles
+ */
+class BlockPattern {
+	int numRows, numCols;
+
+	// index of the first block in each row. Has one more element than the number of rows
+	final GrowQueue_I32 rowStart = new GrowQueue_I32();
+	// column of each block
+	final GrowQueue_I32 cols = new GrowQueue_I32();
+	// index of each block's first element in the value array
+	final GrowQueue_I32 offsets = new GrowQueue_I32();
+	// total number of elements in all the blocks
+	int totalValues;
+
+	/**
+	 * Declares the pattern from a list of block coordinates. Duplicates are allowed.
+	 *
+	 * @param keys Coordinate of each block encoded as row*numCols + col. Modified.
+	 * @param count Number of elements in keys
+	 * @param rowWidths Size of each row block
+	 * @param colWidths Size of each column block
+	 */
+	void declare( long[] keys , int count , int numRows , int numCols , int[] rowWidths , int[] colWidths ) {
+		this.numRows = numRows;
+		this.numCols = numCols;
+		Arrays.sort(keys,0,count);
+
+		rowStart.resize(numRows+1);
+		rowStart.fill(0);
+		cols.reset();
+		long previous = -1;
+		for (int i = 0; i < count; i++) {
+			if( keys[i] == previous )
+				continue;
+			previous = keys[i];
+			rowStart.data[(int)(keys[i]/numCols)+1]++;
+			cols.add((int)(keys[i]%numCols));
+		}
+		for (int row = 0; row < numRows; row++) {
+			rowStart.data[row+1] += rowStart.data[row];
+		}
+		computeOffsets(rowWidths,colWidths);
+	}
+
+	/**
+	 * Adds the blocks which are filled in when an upper triangular Cholesky decomposition is computed.
+	 * Must be upper triangular with every diagonal block present.
+	 *
+	 * @param widths Size of each row and column block
+	 */
+	void addCholeskyFill( int[] widths ) {
+		GrowQueue_I32[] rows = new GrowQueue_I32[numRows];
+		for (int row = 0; row < numRows; row++) {
+			int begin = rowStart.data[row];
+			int end = rowStart.data[row+1];
+			rows[row] = new GrowQueue_I32(end-begin);
+			rows[row].setTo(cols.data,begin,end-begin);
+		}
+
+		// The structure of a row is its own structure plus the structure of every row which has it as a parent.
+		// A row's parent is its first off diagonal block
+		GrowQueue_I32 merged = new GrowQueue_I32();
+		for (int row = 0; row < numRows; row++) {
+			GrowQueue_I32 child = rows[row];
+			if( child.size < 2 )
+				continue;
+			int parent = child.data[1];
+			GrowQueue_I32 target = rows[parent];
+
+			merged.reset();
+			int i = 1, j = 0;
+			while( i < child.size || j < target.size ) {
+				if( j >= target.size || (i < child.size && child.data[i] < target.data[j]) ) {
+					merged.add(child.data[i++]);
+				} else if( i >= child.size || target.data[j] < child.data[i] ) {
+					merged.add(target.data[j++]);
+				} else {
+					merged.add(target.data[j++]);
+					i++;
+				}
+			}
+			target.setTo(merged);
+		}
+
+		cols.reset();
+		for (int row = 0; row < numRows; row++) {
+			rowStart.data[row] = cols.size;
+			cols.addAll(rows[row]);
+		}
+		rowStart.data[numRows] = cols.size;
+		computeOffsets(widths,widths);
+	}
+
+	private void computeOffsets( int[] rowWidths , int[] colWidths ) {
+		offsets.resize(cols.size);
+		totalValues = 0;
+		for (int row = 0; row < numRows; row++) {
+			for (int block = rowStart.data[row]; block < rowStart.data[row+1]; block++) {
+				offsets.data[block] = totalValues;
+				totalValues += rowWidths[row]*colWidths[cols.data[block]];
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the block at the specified coordinate or -1 if there is none
+	 */
+	int find( int row , int col ) {
+		int index = Arrays.binarySearch(cols.data,rowStart.data[row],rowStart.data[row+1],col);
+		return index < 0 ? -1 : index;
+	}
+
+	int getBlockCount() {
+		return cols.size;
+	}
+}
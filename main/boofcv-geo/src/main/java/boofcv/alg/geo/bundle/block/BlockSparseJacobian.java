@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle.block;
+
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ejml.data.DMatrix;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.Matrix;
+import org.ejml.data.MatrixType;
+import org.ejml.data.ReshapeMatrix;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Sparse matrix which is composed of small dense blocks and is designed to store the Jacobians in bundle adjustment.
+ * Rows are grouped into blocks with the same number of rows, e.g. the x and y residuals of one observation.
+ * Columns are grouped into blocks which correspond to a set of parameters, e.g. a 3D point, a view's location,
+ * or a camera's intrinsic parameters. Only the blocks which have been assigned a value are stored and each one
+ * is saved as a dense row-major array. This requires much less index data than a compressed column matrix and
+ * allows the math to be done with small dense kernels, see {@link DenseBlockMath}.
+ * </p>
+ *
+ * <p>
+ * Values must be assigned one row block at a time with increasing row blocks, which is the order the
+ * Jacobian is computed in. Within a row block elements can be assigned in any order. {@link #zero()} and
+ * {@link #reshape} discard all the blocks but keep the block layout.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BlockSparseJacobian implements DMatrix, ReshapeMatrix {
+	// serialization version
+	public static final long serialVersionUID = 1L;
+
+	// shape of the matrix
+	int numRows, numCols;
+
+	// number of rows in each row block
+	int blockRows = 1;
+	// first column in each column block. There's one more element than the number of column blocks
+	transient GrowQueue_I32 colBlockStart = new GrowQueue_I32();
+	// look up table from column to the column block it belongs in
+	int[] colToBlock = new int[0];
+
+	// index of the first block in each row block. Row blocks after the last one are empty
+	transient GrowQueue_I32 rowBlockStart = new GrowQueue_I32();
+	// column block of each stored block
+	transient GrowQueue_I32 blockCol = new GrowQueue_I32();
+	// index of the first element in 'values' for each stored block
+	transient GrowQueue_I32 blockOffset = new GrowQueue_I32();
+	// values of every block
+	transient GrowQueue_F64 values = new GrowQueue_F64();
+	// Location of the most recently assigned block. Rows and columns are inclusive then exclusive
+	int lastRow0, lastCol0, lastCol1, lastOffset;
+
+	public BlockSparseJacobian( int numRows , int numCols ) {
+		this.numRows = numRows;
+		this.numCols = numCols;
+		colBlockStart.add(0);
+	}
+
+	public BlockSparseJacobian() {
+		this(0,0);
+	}
+
+	/**
+	 * Specifies how the matrix is divided into blocks and discards all the blocks. The sum of
+	 * the column block widths must be the same as the number of columns.
+	 *
+	 * @param blockRows Number of rows in each row block
+	 * @param colBlockWidths Number of columns in each column block, in column order.
+	 */
+	public void setBlocks( int blockRows , GrowQueue_I32 colBlockWidths ) {
+		if( blockRows <= 0 )
+			throw new IllegalArgumentException("blockRows must be positive");
+		this.blockRows = blockRows;
+
+		colBlockStart.reset();
+		colBlockStart.add(0);
+		int total = 0;
+		for (int i = 0; i < colBlockWidths.size; i++) {
+			total += colBlockWidths.get(i);
+			colBlockStart.add(total);
+		}
+		if( colToBlock.length < total )
+			colToBlock = new int[total];
+		for (int block = 0; block < colBlockWidths.size; block++) {
+			for (int col = colBlockStart.get(block); col < colBlockStart.get(block+1); col++) {
+				colToBlock[col] = block;
+			}
+		}
+		zero();
+	}
+
+	@Override
+	public void reshape(int numRows, int numCols) {
+		this.numRows = numRows;
+		this.numCols = numCols;
+		zero();
+	}
+
+	@Override
+	public double get(int row, int col) {
+		if( row < 0 || row >= numRows || col < 0 || col >= numCols )
+			throw new IllegalArgumentException("Outside of matrix bounds");
+		return unsafe_get(row,col);
+	}
+
+	@Override
+	public double unsafe_get(int row, int col) {
+		int rowBlock = row/blockRows;
+		int colBlock = colToBlock[col];
+		int block = findBlock(rowBlock,colBlock);
+		if( block < 0 )
+			return 0;
+		int width = getBlockWidth(colBlock);
+		return values.data[blockOffset.data[block] + (row-rowBlock*blockRows)*width + col-colBlockStart.data[colBlock]];
+	}
+
+	@Override
+	public void set(int row, int col, double value) {
+		if( row < 0 || row >= numRows || col < 0 || col >= numCols )
+			throw new IllegalArgumentException("Outside of matrix bounds");
+		unsafe_set(row,col,value);
+	}
+
+	@Override
+	public void unsafe_set(int row, int col, double value) {
+		// elements are typically assigned one block at a time, so check the previous block first
+		if( col >= lastCol0 && col < lastCol1 && row >= lastRow0 && row < lastRow0+blockRows ) {
+			values.data[lastOffset + (row-lastRow0)*(lastCol1-lastCol0) + col-lastCol0] = value;
+			return;
+		}
+
+		int rowBlock = row/blockRows;
+		if( rowBlock < rowBlockStart.size-1 )
+			throw new IllegalArgumentException("Row blocks must be assigned in increasing order");
+		while( rowBlockStart.size <= rowBlock ) {
+			rowBlockStart.add(blockCol.size);
+		}
+
+		int colBlock = colToBlock[col];
+		int width = getBlockWidth(colBlock);
+		int block = findBlock(rowBlock,colBlock);
+		if( block < 0 ) {
+			block = blockCol.size;
+			blockCol.add(colBlock);
+			blockOffset.add(values.size);
+			int start = values.size;
+			int size = start+blockRows*width;
+			// extend() only allocates what's requested, so grow geometrically to avoid a copy for each block
+			if( values.data.length < size )
+				values.extend(Math.max(size,values.data.length*2));
+			values.size = size;
+			for (int i = start; i < size; i++) {
+				values.data[i] = 0;
+			}
+		}
+
+		lastRow0 = rowBlock*blockRows;
+		lastCol0 = colBlockStart.data[colBlock];
+		lastCol1 = lastCol0+width;
+		lastOffset = blockOffset.data[block];
+		values.data[lastOffset + (row-lastRow0)*width + col-lastCol0] = value;
+	}
+
+	/**
+	 * Returns the index of the block in the row block and column block or -1 if there is none
+	 */
+	int findBlock( int rowBlock , int colBlock ) {
+		int end = getRowBlockEnd(rowBlock);
+		for (int block = getRowBlockBegin(rowBlock); block < end; block++) {
+			if( blockCol.data[block] == colBlock )
+				return block;
+		}
+		return -1;
+	}
+
+	/**
+	 * Index of the first block in the row block
+	 */
+	public int getRowBlockBegin( int rowBlock ) {
+		return rowBlock < rowBlockStart.size ? rowBlockStart.data[rowBlock] : blockCol.size;
+	}
+
+	/**
+	 * Index of the block after the last block in the row block
+	 */
+	public int getRowBlockEnd( int rowBlock ) {
+		return rowBlock+1 < rowBlockStart.size ? rowBlockStart.data[rowBlock+1] : blockCol.size;
+	}
+
+	public int getRowBlockCount() {
+		return numRows/blockRows;
+	}
+
+	public int getColBlockCount() {
+		return colBlockStart.size-1;
+	}
+
+	/**
+	 * Number of columns in the column block
+	 */
+	public int getBlockWidth( int colBlock ) {
+		return colBlockStart.data[colBlock+1]-colBlockStart.data[colBlock];
+	}
+
+	/**
+	 * First column in the column block
+	 */
+	public int getColBlockStart( int colBlock ) {
+		return colBlockStart.data[colBlock];
+	}
+
+	/**
+	 * Column block which the stored block belongs to
+	 */
+	public int getBlockColumn( int block ) {
+		return blockCol.data[block];
+	}
+
+	/**
+	 * Index of the stored block's first element inside of {@link #getValues()}
+	 */
+	public int getBlockOffset( int block ) {
+		return blockOffset.data[block];
+	}
+
+	/**
+	 * Total number of stored blocks
+	 */
+	public int getBlockCount() {
+		return blockCol.size;
+	}
+
+	public int getBlockRows() {
+		return blockRows;
+	}
+
+	/**
+	 * Array containing the value of every block. See {@link #getBlockOffset(int)}.
+	 */
+	public double[] getValues() {
+		return values.data;
+	}
+
+	/**
+	 * Returns true if the two matrices have the same shape, block layout, and stored blocks. Values are ignored.
+	 */
+	public boolean isSameStructure( BlockSparseJacobian a ) {
+		if( numRows != a.numRows || numCols != a.numCols || blockRows != a.blockRows )
+			return false;
+		return isIdentical(colBlockStart,a.colBlockStart) && isIdentical(rowBlockStart,a.rowBlockStart) &&
+				isIdentical(blockCol,a.blockCol);
+	}
+
+	private static boolean isIdentical( GrowQueue_I32 a , GrowQueue_I32 b ) {
+		if( a.size != b.size )
+			return false;
+		for (int i = 0; i < a.size; i++) {
+			if( a.data[i] != b.data[i] )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Converts this matrix into a dense matrix
+	 *
+	 * @param dst (Optional) Storage for the dense matrix
+	 * @return The dense matrix
+	 */
+	public DMatrixRMaj toDense( @Nullable DMatrixRMaj dst ) {
+		if( dst == null )
+			dst = new DMatrixRMaj(numRows,numCols);
+		else
+			dst.reshape(numRows,numCols);
+		dst.zero();
+
+		int numRowBlocks = Math.min(rowBlockStart.size,getRowBlockCount());
+		for (int rowBlock = 0; rowBlock < numRowBlocks; rowBlock++) {
+			int end = getRowBlockEnd(rowBlock);
+			for (int block = getRowBlockBegin(rowBlock); block < end; block++) {
+				int colBlock = blockCol.data[block];
+				int col0 = colBlockStart.data[colBlock];
+				int width = getBlockWidth(colBlock);
+				int index = blockOffset.data[block];
+				for (int i = 0; i < blockRows; i++) {
+					for (int j = 0; j < width; j++) {
+						dst.unsafe_set(rowBlock*blockRows+i,col0+j,values.data[index++]);
+					}
+				}
+			}
+		}
+		return dst;
+	}
+
+	@Override
+	public int getNumElements() {
+		return values.size;
+	}
+
+	@Override
+	public int getNumRows() {
+		return numRows;
+	}
+
+	@Override
+	public int getNumCols() {
+		return numCols;
+	}
+
+	@Override
+	public void zero() {
+		lastCol0 = lastCol1 = 0;
+		rowBlockStart.reset();
+		blockCol.reset();
+		blockOffset.reset();
+		values.reset();
+	}
+
+	@Override
+	public <T extends Matrix> T copy() {
+		BlockSparseJacobian ret = new BlockSparseJacobian();
+		ret.set(this);
+		return (T)ret;
+	}
+
+	@Override
+	public <T extends Matrix> T createLike() {
+		BlockSparseJacobian ret = new BlockSparseJacobian(numRows,numCols);
+		ret.blockRows = blockRows;
+		ret.colBlockStart.setTo(colBlockStart);
+		ret.colToBlock = colToBlock.clone();
+		return (T)ret;
+	}
+
+	@Override
+	public void set(Matrix original) {
+		BlockSparseJacobian src = (BlockSparseJacobian)original;
+		numRows = src.numRows;
+		numCols = src.numCols;
+		blockRows = src.blockRows;
+		colBlockStart.setTo(src.colBlockStart);
+		colToBlock = src.colToBlock.clone();
+		rowBlockStart.setTo(src.rowBlockStart);
+		blockCol.setTo(src.blockCol);
+		blockOffset.setTo(src.blockOffset);
+		values.setTo(src.values);
+		lastCol0 = lastCol1 = 0;
+	}
+
+	@Override
+	public void print() {
+		toDense(null).print();
+	}
+
+	@Override
+	public void print(String format) {
+		toDense(null).print(format);
+	}
+
+	@Override
+	public MatrixType getType() {
+		return MatrixType.UNSPECIFIED;
+	}
+
+	// GrowQueue isn't serializable so the used part of each one is saved as an array
+	private void writeObject( ObjectOutputStream out ) throws IOException {
+		out.defaultWriteObject();
+		out.writeObject(Arrays.copyOf(colBlockStart.data,colBlockStart.size));
+		out.writeObject(Arrays.copyOf(rowBlockStart.data,rowBlockStart.size));
+		out.writeObject(Arrays.copyOf(blockCol.data,blockCol.size));
+		out.writeObject(Arrays.copyOf(blockOffset.data,blockOffset.size));
+		out.writeObject(Arrays.copyOf(values.data,values.size));
+	}
+
+	private void readObject( ObjectInputStream in ) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		colBlockStart = GrowQueue_I32.array((int[])in.readObject());
+		rowBlockStart = GrowQueue_I32.array((int[])in.readObject());
+		blockCol = GrowQueue_I32.array((int[])in.readObject());
+		blockOffset = GrowQueue_I32.array((int[])in.readObject());
+		values = GrowQueue_F64.array((double[])in.readObject());
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle.block;
+
+/**
+ * Small dense matrix operations on blocks stored inside of larger arrays. Every block is a row-major
+ * matrix which starts at the provided offset. These are the inner kernels used by
+ * {@link HessianSchurComplement_Block} and are written for the small blocks found in bundle adjustment, e.g.
+ * 2x3, 3x6, 6x6. Blocks which are written to must not overlap with blocks which are read from.
+ *
+ * @author Peter Abeles
+ */
+public class DenseBlockMath {
+	/**
+	 * C = C + alpha*A<sup>T</sup>*B
+	 *
+	 * @param rows Number of rows in A and B
+	 * @param colsA Number of columns in A and rows in C
+	 * @param colsB Number of columns in B and C
+	 */
+	public static void multAddTransA( double alpha , int rows , int colsA , int colsB ,
+									  double[] a , int offsetA , double[] b , int offsetB ,
+									  double[] c , int offsetC ) {
+		for (int k = 0; k < rows; k++) {
+			int indexA = offsetA + k*colsA;
+			int indexB = offsetB + k*colsB;
+			int indexC = offsetC;
+			for (int i = 0; i < colsA; i++) {
+				double valA = alpha*a[indexA+i];
+				for (int j = 0; j < colsB; j++) {
+					c[indexC++] += valA*b[indexB+j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * C = A*B
+	 *
+	 * @param rowsA Number of rows in A and C
+	 * @param colsA Number of columns in A and rows in B
+	 * @param colsB Number of columns in B and C
+	 */
+	public static void mult( int rowsA , int colsA , int colsB ,
+							 double[] a , int offsetA , double[] b , int offsetB ,
+							 double[] c , int offsetC ) {
+		for (int i = 0; i < rowsA; i++) {
+			int indexC = offsetC + i*colsB;
+			for (int j = 0; j < colsB; j++) {
+				c[indexC+j] = 0;
+			}
+			int indexA = offsetA + i*colsA;
+			for (int k = 0; k < colsA; k++) {
+				double valA = a[indexA+k];
+				int indexB = offsetB + k*colsB;
+				for (int j = 0; j < colsB; j++) {
+					c[indexC+j] += valA*b[indexB+j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * y = y + alpha*A*x
+	 */
+	public static void multAddVector( double alpha , int rows , int cols ,
+									  double[] a , int offsetA , double[] x , int offsetX ,
+									  double[] y , int offsetY ) {
+		for (int i = 0; i < rows; i++) {
+			int indexA = offsetA + i*cols;
+			double sum = 0;
+			for (int j = 0; j < cols; j++) {
+				sum += a[indexA+j]*x[offsetX+j];
+			}
+			y[offsetY+i] += alpha*sum;
+		}
+	}
+
+	/**
+	 * y = y + alpha*A<sup>T</sup>*x
+	 */
+	public static void multAddTransVector( double alpha , int rows , int cols ,
+										   double[] a , int offsetA , double[] x , int offsetX ,
+										   double[] y , int offsetY ) {
+		for (int i = 0; i < rows; i++) {
+			int indexA = offsetA + i*cols;
+			double valX = alpha*x[offsetX+i];
+			for (int j = 0; j < cols; j++) {
+				y[offsetY+j] += a[indexA+j]*valX;
+			}
+		}
+	}
+
+	/**
+	 * Computes x<sup>T</sup>*A*y
+	 */
+	public static double innerProduct( int rows , int cols , double[] x , int offsetX ,
+									   double[] a , int offsetA , double[] y , int offsetY ) {
+		double total = 0;
+		for (int i = 0; i < rows; i++) {
+			int indexA = offsetA + i*cols;
+			double sum = 0;
+			for (int j = 0; j < cols; j++) {
+				sum += a[indexA+j]*y[offsetY+j];
+			}
+			total += x[offsetX+i]*sum;
+		}
+		return total;
+	}
+
+	/**
+	 * In place Cholesky decomposition of a symmetric positive definite matrix, A = U<sup>T</sup>*U. The upper
+	 * triangle is replaced with U and the lower triangle is set to zero. Only the upper triangle is read.
+	 *
+	 * @param n Number of rows and columns in A
+	 * @return true if successful or false if A isn't positive definite
+	 */
+	public static boolean cholesky( int n , double[] a , int offset ) {
+		for (int i = 0; i < n; i++) {
+			int indexII = offset + i*n + i;
+			double sum = a[indexII];
+			for (int k = 0; k < i; k++) {
+				double u = a[offset + k*n + i];
+				sum -= u*u;
+			}
+			if( sum <= 0 || Double.isNaN(sum) )
+				return false;
+			double diag = Math.sqrt(sum);
+			a[indexII] = diag;
+
+			for (int j = i+1; j < n; j++) {
+				sum = a[offset + i*n + j];
+				for (int k = 0; k < i; k++) {
+					sum -= a[offset + k*n + i]*a[offset + k*n + j];
+				}
+				a[offset + i*n + j] = sum/diag;
+				a[offset + j*n + i] = 0;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Solves U<sup>T</sup>*X = B in place, where U is upper triangular. B is replaced with X.
+	 *
+	 * @param n Number of rows and columns in U and rows in B
+	 * @param cols Number of columns in B
+	 */
+	public static void solveTransUpper( int n , int cols , double[] u , int offsetU , double[] b , int offsetB ) {
+		for (int i = 0; i < n; i++) {
+			int indexB = offsetB + i*cols;
+			double diag = u[offsetU + i*n + i];
+			for (int j = 0; j < cols; j++) {
+				b[indexB+j] /= diag;
+			}
+			// subtract this row's contribution from the remaining rows
+			for (int k = i+1; k < n; k++) {
+				double valU = u[offsetU + i*n + k];
+				int indexK = offsetB + k*cols;
+				for (int j = 0; j < cols; j++) {
+					b[indexK+j] -= valU*b[indexB+j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Solves U*X = B in place, where U is upper triangular. B is replaced with X.
+	 *
+	 * @param n Number of rows and columns in U and rows in B
+	 * @param cols Number of columns in B
+	 */
+	public static void solveUpper( int n , int cols , double[] u , int offsetU , double[] b , int offsetB ) {
+		for (int i = n-1; i >= 0; i--) {
+			int indexB = offsetB + i*cols;
+			for (int k = i+1; k < n; k++) {
+				double valU = u[offsetU + i*n + k];
+				int indexK = offsetB + k*cols;
+				for (int j = 0; j < cols; j++) {
+					b[indexB+j] -= valU*b[indexK+j];
+				}
+			}
+			double diag = u[offsetU + i*n + i];
+			for (int j = 0; j < cols; j++) {
+				b[indexB+j] /= diag;
+			}
+		}
+	}
+
+	/**
+	 * Inverts a symmetric positive definite matrix using a Cholesky decomposition.
+	 *
+	 * @param n Number of rows and columns in A
+	 * @param a (Input) The matrix being inverted. Not modified.
+	 * @param inv (Output) The inverse.
+	 * @param work Work space with at least n*n elements
+	 * @return true if successful or false if A isn't positive definite
+	 */
+	public static boolean invertSPD( int n , double[] a , int offsetA , double[] inv , int offsetInv , double[] work ) {
+		System.arraycopy(a,offsetA,work,0,n*n);
+		if( !cholesky(n,work,0) )
+			return false;
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				inv[offsetInv + i*n + j] = i == j ? 1 : 0;
+			}
+		}
+		solveTransUpper(n,n,work,0,inv,offsetInv);
+		solveUpper(n,n,work,0,inv,offsetInv);
+		return true;
+	}
+}
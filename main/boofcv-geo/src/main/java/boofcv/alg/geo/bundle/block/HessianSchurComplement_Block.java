@@ -0,0 +1,761 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle.block;
+
+import org.ddogleg.optimization.math.HessianSchurComplement;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ejml.data.DMatrixRMaj;
+
+/**
+ * <p>
+ * Computes and solves the Schur complement of the Hessian using block sparse matrices. The Jacobian is
+ * split into a left side, with one parameter block per row block (e.g. points), and a right side (e.g. views and
+ * cameras). The approximate Hessian is then
+ * </p>
+ * <pre>
+ * [A B; B<sup>T</sup> D] = [L<sup>T</sup>L L<sup>T</sup>R; R<sup>T</sup>L R<sup>T</sup>R]
+ * </pre>
+ * <p>
+ * Since each row block references at most one left parameter block, A is block diagonal and is inverted one
+ * small block at a time. The reduced system S = D - B<sup>T</sup>A<sup>-1</sup>B is assembled block by block
+ * and then solved with either a block sparse Cholesky decomposition or with preconditioned conjugate
+ * gradient (PCG) using a block Jacobi preconditioner. All block operations are done with
+ * {@link DenseBlockMath}. The sparsity pattern is only recomputed when the structure of the Jacobian changes.
+ * </p>
+ *
+ * <p>
+ * The Cholesky decomposition is exact but the reduced system is factored in its natural order, so when views
+ * share points with many other views the fill-in can approach a dense matrix. PCG has no fill-in and only
+ * needs to store S, which makes it a better fit for very large problems, but its solution is approximate.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HessianSchurComplement_Block implements HessianSchurComplement<BlockSparseJacobian> {
+
+	/**
+	 * Approach used to solve the reduced system
+	 */
+	public enum Solver {
+		/** Block sparse Cholesky decomposition */
+		CHOLESKY,
+		/** Conjugate gradient with a block Jacobi preconditioner */
+		PCG
+	}
+
+	Solver solver;
+
+	// maximum number of iterations and relative tolerance for PCG
+	int maxIterations = 500;
+	double tolerance = 1e-10;
+
+	// copy of the Jacobian structure which the sparsity pattern was computed from
+	final BlockSparseJacobian structureLeft = new BlockSparseJacobian();
+	final BlockSparseJacobian structureRight = new BlockSparseJacobian();
+
+	// number of parameters on each side
+	int lengthLeft, lengthRight;
+	// size of each parameter block and the index of its first parameter
+	int[] widthLeft = new int[0], startLeft = new int[0];
+	int[] widthRight = new int[0], startRight = new int[0];
+
+	// for each row block, the index of its block in the left Jacobian or -1 if it has none
+	int[] rowToLeft = new int[0];
+
+	// block diagonal of A and its inverse. Both use offsetA
+	int[] offsetA = new int[0];
+	double[] valuesA = new double[0];
+	double[] valuesAinv = new double[0];
+
+	// B and W = inv(A)*B, which share the same pattern
+	final BlockPattern patternB = new BlockPattern();
+	double[] valuesB = new double[0];
+	double[] valuesW = new double[0];
+	// Block in B which each block in the right Jacobian is added to. -1 if its row block has no left block
+	int[] jacToB = new int[0];
+
+	// upper triangle of D
+	final BlockPattern patternD = new BlockPattern();
+	double[] valuesD = new double[0];
+	// Block in D which each pair of right Jacobian blocks in a row block is added to
+	final GrowQueue_I32 jacPairToD = new GrowQueue_I32();
+
+	// upper triangle of the reduced system S. Replaced by its Cholesky decomposition
+	final BlockPattern patternS = new BlockPattern();
+	double[] valuesS = new double[0];
+	// block in S of each block in D
+	int[] dToS = new int[0];
+	// block in S of each pair of blocks in a row of B
+	final GrowQueue_I32 pairToS = new GrowQueue_I32();
+
+	// inverse of the diagonal blocks in S. Block Jacobi preconditioner for PCG
+	int[] offsetM = new int[0];
+	double[] valuesM = new double[0];
+
+	// work space
+	long[] keys = new long[0];
+	double[] work = new double[0];
+	double[] y = new double[0];
+	double[] r = new double[0], z = new double[0], dir = new double[0], q = new double[0];
+
+	public HessianSchurComplement_Block( Solver solver ) {
+		this.solver = solver;
+	}
+
+	public HessianSchurComplement_Block() {
+		this(Solver.CHOLESKY);
+	}
+
+	@Override
+	public void init(int numParameters) {}
+
+	@Override
+	public void computeHessian(BlockSparseJacobian left, BlockSparseJacobian right) {
+		if( !left.isSameStructure(structureLeft) || !right.isSameStructure(structureRight) ) {
+			structureLeft.set(left);
+			structureRight.set(right);
+			declareStructure(left,right);
+		}
+
+		zero(valuesA,valuesA.length);
+		zero(valuesB,valuesB.length);
+		zero(valuesD,valuesD.length);
+
+		int blockRows = left.getBlockRows();
+		double[] L = left.getValues();
+		double[] R = right.getValues();
+
+		int pairIndex = 0;
+		for (int rowBlock = 0; rowBlock < rowToLeft.length; rowBlock++) {
+			int begin = right.getRowBlockBegin(rowBlock);
+			int end = right.getRowBlockEnd(rowBlock);
+
+			int blockL = rowToLeft[rowBlock];
+			if( blockL >= 0 ) {
+				int p = left.getBlockColumn(blockL);
+				int wp = widthLeft[p];
+				int offsetL = left.getBlockOffset(blockL);
+				DenseBlockMath.multAddTransA(1,blockRows,wp,wp,L,offsetL,L,offsetL,valuesA,offsetA[p]);
+
+				for (int blockR = begin; blockR < end; blockR++) {
+					int wc = widthRight[right.getBlockColumn(blockR)];
+					DenseBlockMath.multAddTransA(1,blockRows,wp,wc,L,offsetL,R,right.getBlockOffset(blockR),
+							valuesB,patternB.offsets.data[jacToB[blockR]]);
+				}
+			}
+
+			for (int blockA = begin; blockA < end; blockA++) {
+				for (int blockB = blockA; blockB < end; blockB++) {
+					int offsetD = patternD.offsets.data[jacPairToD.data[pairIndex++]];
+					int a = blockA, b = blockB;
+					if( right.getBlockColumn(a) > right.getBlockColumn(b) ) {
+						a = blockB; b = blockA;
+					}
+					DenseBlockMath.multAddTransA(1,blockRows,
+							widthRight[right.getBlockColumn(a)],widthRight[right.getBlockColumn(b)],
+							R,right.getBlockOffset(a),R,right.getBlockOffset(b),valuesD,offsetD);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the sparsity pattern of every matrix from the structure of the Jacobian and look up tables
+	 * which map blocks in one matrix to blocks in another.
+	 */
+	void declareStructure( BlockSparseJacobian left, BlockSparseJacobian right ) {
+		if( left.getNumRows() != right.getNumRows() || left.getBlockRows() != right.getBlockRows() )
+			throw new IllegalArgumentException("Left and right Jacobians must have the same rows and row blocks");
+
+		int numRowBlocks = left.getRowBlockCount();
+		int numLeft = left.getColBlockCount();
+		int numRight = right.getColBlockCount();
+		lengthLeft = left.getNumCols();
+		lengthRight = right.getNumCols();
+
+		widthLeft = new int[numLeft];
+		startLeft = new int[numLeft];
+		offsetA = new int[numLeft];
+		int totalA = 0;
+		for (int i = 0; i < numLeft; i++) {
+			widthLeft[i] = left.getBlockWidth(i);
+			startLeft[i] = left.getColBlockStart(i);
+			offsetA[i] = totalA;
+			totalA += square(widthLeft[i]);
+		}
+		widthRight = new int[numRight];
+		startRight = new int[numRight];
+		offsetM = new int[numRight];
+		int totalM = 0;
+		int largestWidth = 0;
+		for (int i = 0; i < numRight; i++) {
+			widthRight[i] = right.getBlockWidth(i);
+			startRight[i] = right.getColBlockStart(i);
+			offsetM[i] = totalM;
+			totalM += square(widthRight[i]);
+		}
+		for (int w : widthLeft) largestWidth = Math.max(largestWidth,w);
+		for (int w : widthRight) largestWidth = Math.max(largestWidth,w);
+
+		valuesA = new double[totalA];
+		valuesAinv = new double[totalA];
+		valuesM = new double[totalM];
+		work = new double[square(largestWidth)];
+
+		// Each row block can only reference one left block, otherwise A would not be block diagonal
+		rowToLeft = new int[numRowBlocks];
+		for (int rowBlock = 0; rowBlock < numRowBlocks; rowBlock++) {
+			int count = left.getRowBlockEnd(rowBlock)-left.getRowBlockBegin(rowBlock);
+			if( count > 1 )
+				throw new IllegalArgumentException("A row block in the left Jacobian has more than one block");
+			rowToLeft[rowBlock] = count == 1 ? left.getRowBlockBegin(rowBlock) : -1;
+		}
+
+		//------------- Pattern of B
+		int count = 0;
+		keys = growKeys(keys,right.getBlockCount());
+		for (int rowBlock = 0; rowBlock < numRowBlocks; rowBlock++) {
+			if( rowToLeft[rowBlock] < 0 )
+				continue;
+			long p = left.getBlockColumn(rowToLeft[rowBlock]);
+			int end = right.getRowBlockEnd(rowBlock);
+			for (int blockR = right.getRowBlockBegin(rowBlock); blockR < end; blockR++) {
+				keys[count++] = p*numRight + right.getBlockColumn(blockR);
+			}
+		}
+		patternB.declare(keys,count,numLeft,numRight,widthLeft,widthRight);
+		valuesB = new double[patternB.totalValues];
+		valuesW = new double[patternB.totalValues];
+
+		jacToB = new int[right.getBlockCount()];
+		for (int rowBlock = 0; rowBlock < numRowBlocks; rowBlock++) {
+			int p = rowToLeft[rowBlock] < 0 ? -1 : left.getBlockColumn(rowToLeft[rowBlock]);
+			int end = right.getRowBlockEnd(rowBlock);
+			for (int blockR = right.getRowBlockBegin(rowBlock); blockR < end; blockR++) {
+				jacToB[blockR] = p < 0 ? -1 : patternB.find(p,right.getBlockColumn(blockR));
+			}
+		}
+
+		//------------- Pattern of D. Every diagonal block is included, even if it's zero
+		count = countRightPairs(right,numRowBlocks);
+		keys = growKeys(keys,count+numRight);
+		count = 0;
+		for (int c = 0; c < numRight; c++) {
+			keys[count++] = (long)c*numRight + c;
+		}
+		count = addRightPairKeys(right,numRowBlocks,keys,count);
+		patternD.declare(keys,count,numRight,numRight,widthRight,widthRight);
+		valuesD = new double[patternD.totalValues];
+
+		jacPairToD.reset();
+		for (int rowBlock = 0; rowBlock < numRowBlocks; rowBlock++) {
+			int begin = right.getRowBlockBegin(rowBlock);
+			int end = right.getRowBlockEnd(rowBlock);
+			for (int blockA = begin; blockA < end; blockA++) {
+				for (int blockB = blockA; blockB < end; blockB++) {
+					int colA = right.getBlockColumn(blockA);
+					int colB = right.getBlockColumn(blockB);
+					jacPairToD.add(patternD.find(Math.min(colA,colB),Math.max(colA,colB)));
+				}
+			}
+		}
+
+		//------------- Pattern of S. D plus every pair of blocks in the same row of B
+		int countPairsB = 0;
+		for (int p = 0; p < numLeft; p++) {
+			int n = patternB.rowStart.data[p+1]-patternB.rowStart.data[p];
+			countPairsB += n*(n+1)/2;
+		}
+		keys = growKeys(keys,patternD.getBlockCount()+countPairsB);
+		count = 0;
+		for (int c = 0; c < numRight; c++) {
+			for (int block = patternD.rowStart.data[c]; block < patternD.rowStart.data[c+1]; block++) {
+				keys[count++] = (long)c*numRight + patternD.cols.data[block];
+			}
+		}
+		for (int p = 0; p < numLeft; p++) {
+			int end = patternB.rowStart.data[p+1];
+			for (int i = patternB.rowStart.data[p]; i < end; i++) {
+				for (int j = i; j < end; j++) {
+					keys[count++] = (long)patternB.cols.data[i]*numRight + patternB.cols.data[j];
+				}
+			}
+		}
+		patternS.declare(keys,count,numRight,numRight,widthRight,widthRight);
+		if( solver == Solver.CHOLESKY )
+			patternS.addCholeskyFill(widthRight);
+		valuesS = new double[patternS.totalValues];
+
+		dToS = new int[patternD.getBlockCount()];
+		for (int c = 0; c < numRight; c++) {
+			for (int block = patternD.rowStart.data[c]; block < patternD.rowStart.data[c+1]; block++) {
+				dToS[block] = patternS.find(c,patternD.cols.data[block]);
+			}
+		}
+		pairToS.reset();
+		for (int p = 0; p < numLeft; p++) {
+			int end = patternB.rowStart.data[p+1];
+			for (int i = patternB.rowStart.data[p]; i < end; i++) {
+				for (int j = i; j < end; j++) {
+					pairToS.add(patternS.find(patternB.cols.data[i],patternB.cols.data[j]));
+				}
+			}
+		}
+
+		y = new double[lengthRight];
+		if( solver == Solver.PCG ) {
+			r = new double[lengthRight];
+			z = new double[lengthRight];
+			dir = new double[lengthRight];
+			q = new double[lengthRight];
+		}
+	}
+
+	private static int countRightPairs( BlockSparseJacobian right , int numRowBlocks ) {
+		int total = 0;
+		for (int rowBlock = 0; rowBlock < numRowBlocks; rowBlock++) {
+			int n = right.getRowBlockEnd(rowBlock)-right.getRowBlockBegin(rowBlock);
+			total += n*(n+1)/2;
+		}
+		return total;
+	}
+
+	/**
+	 * Adds the D coordinate of every pair of blocks inside each row block
+	 */
+	private static int addRightPairKeys( BlockSparseJacobian right , int numRowBlocks , long[] keys , int count ) {
+		long numRight = right.getColBlockCount();
+		for (int rowBlock = 0; rowBlock < numRowBlocks; rowBlock++) {
+			int begin = right.getRowBlockBegin(rowBlock);
+			int end = right.getRowBlockEnd(rowBlock);
+			for (int blockA = begin; blockA < end; blockA++) {
+				for (int blockB = blockA; blockB < end; blockB++) {
+					int colA = right.getBlockColumn(blockA);
+					int colB = right.getBlockColumn(blockB);
+					keys[count++] = Math.min(colA,colB)*numRight + Math.max(colA,colB);
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void computeGradient(BlockSparseJacobian left, BlockSparseJacobian right,
+								DMatrixRMaj residuals, DMatrixRMaj gradient) {
+		gradient.reshape(left.getNumCols()+right.getNumCols(),1);
+		gradient.zero();
+		multTransA(left,residuals.data,gradient.data,0);
+		multTransA(right,residuals.data,gradient.data,left.getNumCols());
+	}
+
+	/**
+	 * output[offset:] += J<sup>T</sup>*x
+	 */
+	static void multTransA( BlockSparseJacobian J , double[] x , double[] output , int offset ) {
+		int blockRows = J.getBlockRows();
+		double[] values = J.getValues();
+		int numRowBlocks = J.getRowBlockCount();
+		for (int rowBlock = 0; rowBlock < numRowBlocks; rowBlock++) {
+			int end = J.getRowBlockEnd(rowBlock);
+			for (int block = J.getRowBlockBegin(rowBlock); block < end; block++) {
+				int colBlock = J.getBlockColumn(block);
+				DenseBlockMath.multAddTransVector(1,blockRows,J.getBlockWidth(colBlock),
+						values,J.getBlockOffset(block),x,rowBlock*blockRows,
+						output,offset+J.getColBlockStart(colBlock));
+			}
+		}
+	}
+
+	@Override
+	public double innerVectorHessian(DMatrixRMaj v) {
+		double[] x = v.data;
+		double sum = 0;
+		for (int p = 0; p < widthLeft.length; p++) {
+			int wp = widthLeft[p];
+			sum += DenseBlockMath.innerProduct(wp,wp,x,startLeft[p],valuesA,offsetA[p],x,startLeft[p]);
+
+			for (int block = patternB.rowStart.data[p]; block < patternB.rowStart.data[p+1]; block++) {
+				int c = patternB.cols.data[block];
+				sum += 2*DenseBlockMath.innerProduct(wp,widthRight[c],x,startLeft[p],
+						valuesB,patternB.offsets.data[block],x,lengthLeft+startRight[c]);
+			}
+		}
+		for (int c = 0; c < widthRight.length; c++) {
+			for (int block = patternD.rowStart.data[c]; block < patternD.rowStart.data[c+1]; block++) {
+				int d = patternD.cols.data[block];
+				double found = DenseBlockMath.innerProduct(widthRight[c],widthRight[d],x,lengthLeft+startRight[c],
+						valuesD,patternD.offsets.data[block],x,lengthLeft+startRight[d]);
+				sum += c == d ? found : 2*found;
+			}
+		}
+		return sum;
+	}
+
+	@Override
+	public void extractDiagonals(DMatrixRMaj diag) {
+		diag.reshape(lengthLeft+lengthRight,1);
+		for (int p = 0; p < widthLeft.length; p++) {
+			int wp = widthLeft[p];
+			for (int i = 0; i < wp; i++) {
+				diag.data[startLeft[p]+i] = valuesA[offsetA[p]+i*wp+i];
+			}
+		}
+		for (int c = 0; c < widthRight.length; c++) {
+			int wc = widthRight[c];
+			int offset = patternD.offsets.data[patternD.rowStart.data[c]];
+			for (int i = 0; i < wc; i++) {
+				diag.data[lengthLeft+startRight[c]+i] = valuesD[offset+i*wc+i];
+			}
+		}
+	}
+
+	@Override
+	public void setDiagonals(DMatrixRMaj diag) {
+		for (int p = 0; p < widthLeft.length; p++) {
+			int wp = widthLeft[p];
+			for (int i = 0; i < wp; i++) {
+				valuesA[offsetA[p]+i*wp+i] = diag.data[startLeft[p]+i];
+			}
+		}
+		for (int c = 0; c < widthRight.length; c++) {
+			int wc = widthRight[c];
+			int offset = patternD.offsets.data[patternD.rowStart.data[c]];
+			for (int i = 0; i < wc; i++) {
+				valuesD[offset+i*wc+i] = diag.data[lengthLeft+startRight[c]+i];
+			}
+		}
+	}
+
+	@Override
+	public void divideRowsCols(DMatrixRMaj scaling) {
+		double[] s = scaling.data;
+		for (int p = 0; p < widthLeft.length; p++) {
+			divideBlock(valuesA,offsetA[p],s,startLeft[p],widthLeft[p],s,startLeft[p],widthLeft[p]);
+			for (int block = patternB.rowStart.data[p]; block < patternB.rowStart.data[p+1]; block++) {
+				int c = patternB.cols.data[block];
+				divideBlock(valuesB,patternB.offsets.data[block],s,startLeft[p],widthLeft[p],
+						s,lengthLeft+startRight[c],widthRight[c]);
+			}
+		}
+		for (int c = 0; c < widthRight.length; c++) {
+			for (int block = patternD.rowStart.data[c]; block < patternD.rowStart.data[c+1]; block++) {
+				int d = patternD.cols.data[block];
+				divideBlock(valuesD,patternD.offsets.data[block],s,lengthLeft+startRight[c],widthRight[c],
+						s,lengthLeft+startRight[d],widthRight[d]);
+			}
+		}
+	}
+
+	private static void divideBlock( double[] values , int offset ,
+									 double[] s , int rowStart , int rows , double[] t , int colStart , int cols ) {
+		for (int i = 0; i < rows; i++) {
+			double si = s[rowStart+i];
+			for (int j = 0; j < cols; j++) {
+				values[offset++] /= si*t[colStart+j];
+			}
+		}
+	}
+
+	/**
+	 * Inverts A, computes the reduced system S, and then decomposes S or computes its preconditioner.
+	 *
+	 * @return true if successful or false if A or S is not positive definite
+	 */
+	@Override
+	public boolean initializeSolver() {
+		// Invert A and compute W = inv(A)*B
+		for (int p = 0; p < widthLeft.length; p++) {
+			int wp = widthLeft[p];
+			if( !DenseBlockMath.invertSPD(wp,valuesA,offsetA[p],valuesAinv,offsetA[p],work) )
+				return false;
+			for (int block = patternB.rowStart.data[p]; block < patternB.rowStart.data[p+1]; block++) {
+				int offset = patternB.offsets.data[block];
+				DenseBlockMath.mult(wp,wp,widthRight[patternB.cols.data[block]],
+						valuesAinv,offsetA[p],valuesB,offset,valuesW,offset);
+			}
+		}
+
+		// S = D - B'*inv(A)*B
+		zero(valuesS,patternS.totalValues);
+		for (int c = 0; c < widthRight.length; c++) {
+			for (int block = patternD.rowStart.data[c]; block < patternD.rowStart.data[c+1]; block++) {
+				int d = patternD.cols.data[block];
+				System.arraycopy(valuesD,patternD.offsets.data[block],
+						valuesS,patternS.offsets.data[dToS[block]],widthRight[c]*widthRight[d]);
+			}
+		}
+		int pairIndex = 0;
+		for (int p = 0; p < widthLeft.length; p++) {
+			int wp = widthLeft[p];
+			int end = patternB.rowStart.data[p+1];
+			for (int i = patternB.rowStart.data[p]; i < end; i++) {
+				int ci = patternB.cols.data[i];
+				for (int j = i; j < end; j++) {
+					int cj = patternB.cols.data[j];
+					DenseBlockMath.multAddTransA(-1,wp,widthRight[ci],widthRight[cj],
+							valuesB,patternB.offsets.data[i],valuesW,patternB.offsets.data[j],
+							valuesS,patternS.offsets.data[pairToS.data[pairIndex++]]);
+				}
+			}
+		}
+
+		if( solver == Solver.CHOLESKY ) {
+			return decomposeS();
+		} else {
+			for (int c = 0; c < widthRight.length; c++) {
+				int diagonal = patternS.offsets.data[patternS.rowStart.data[c]];
+				if( !DenseBlockMath.invertSPD(widthRight[c],valuesS,diagonal,valuesM,offsetM[c],work) )
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Block upper Cholesky decomposition of S, in place. S = U<sup>T</sup>*U
+	 */
+	boolean decomposeS() {
+		int[] rowStart = patternS.rowStart.data;
+		int[] cols = patternS.cols.data;
+		int[] offsets = patternS.offsets.data;
+
+		for (int k = 0; k < widthRight.length; k++) {
+			int wk = widthRight[k];
+			int diagonal = rowStart[k];
+			int end = rowStart[k+1];
+
+			if( !DenseBlockMath.cholesky(wk,valuesS,offsets[diagonal]) )
+				return false;
+			for (int block = diagonal+1; block < end; block++) {
+				DenseBlockMath.solveTransUpper(wk,widthRight[cols[block]],
+						valuesS,offsets[diagonal],valuesS,offsets[block]);
+			}
+			// update the remaining sub matrix
+			for (int blockI = diagonal+1; blockI < end; blockI++) {
+				int i = cols[blockI];
+				for (int blockJ = blockI; blockJ < end; blockJ++) {
+					int j = cols[blockJ];
+					DenseBlockMath.multAddTransA(-1,wk,widthRight[i],widthRight[j],
+							valuesS,offsets[blockI],valuesS,offsets[blockJ],
+							valuesS,offsets[patternS.find(i,j)]);
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean solve(DMatrixRMaj gradient, DMatrixRMaj step) {
+		double[] g = gradient.data;
+
+		// y = b2 - W'*b1
+		System.arraycopy(g,lengthLeft,y,0,lengthRight);
+		for (int p = 0; p < widthLeft.length; p++) {
+			for (int block = patternB.rowStart.data[p]; block < patternB.rowStart.data[p+1]; block++) {
+				int c = patternB.cols.data[block];
+				DenseBlockMath.multAddTransVector(-1,widthLeft[p],widthRight[c],
+						valuesW,patternB.offsets.data[block],g,startLeft[p],y,startRight[c]);
+			}
+		}
+
+		step.reshape(lengthLeft+lengthRight,1);
+		double[] x = step.data;
+
+		// x2 = inv(S)*y
+		if( solver == Solver.CHOLESKY ) {
+			solveCholesky(x,lengthLeft);
+		} else if( !solvePCG(x,lengthLeft) ) {
+			return false;
+		}
+
+		// x1 = inv(A)*b1 - W*x2
+		for (int p = 0; p < widthLeft.length; p++) {
+			int wp = widthLeft[p];
+			for (int i = 0; i < wp; i++) {
+				x[startLeft[p]+i] = 0;
+			}
+			DenseBlockMath.multAddVector(1,wp,wp,valuesAinv,offsetA[p],g,startLeft[p],x,startLeft[p]);
+			for (int block = patternB.rowStart.data[p]; block < patternB.rowStart.data[p+1]; block++) {
+				int c = patternB.cols.data[block];
+				DenseBlockMath.multAddVector(-1,wp,widthRight[c],valuesW,patternB.offsets.data[block],
+						x,lengthLeft+startRight[c],x,startLeft[p]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Solves S*x = y using the Cholesky decomposition. 'y' is modified.
+	 */
+	void solveCholesky( double[] x , int offsetX ) {
+		int[] rowStart = patternS.rowStart.data;
+		int[] cols = patternS.cols.data;
+		int[] offsets = patternS.offsets.data;
+		int N = widthRight.length;
+
+		// U'*y = b
+		for (int k = 0; k < N; k++) {
+			int wk = widthRight[k];
+			int diagonal = rowStart[k];
+			DenseBlockMath.solveTransUpper(wk,1,valuesS,offsets[diagonal],y,startRight[k]);
+			for (int block = diagonal+1; block < rowStart[k+1]; block++) {
+				int d = cols[block];
+				DenseBlockMath.multAddTransVector(-1,wk,widthRight[d],valuesS,offsets[block],
+						y,startRight[k],y,startRight[d]);
+			}
+		}
+
+		// U*x = y
+		System.arraycopy(y,0,x,offsetX,lengthRight);
+		for (int k = N-1; k >= 0; k--) {
+			int wk = widthRight[k];
+			int diagonal = rowStart[k];
+			for (int block = diagonal+1; block < rowStart[k+1]; block++) {
+				int d = cols[block];
+				DenseBlockMath.multAddVector(-1,wk,widthRight[d],valuesS,offsets[block],
+						x,offsetX+startRight[d],x,offsetX+startRight[k]);
+			}
+			DenseBlockMath.solveUpper(wk,1,valuesS,offsets[diagonal],x,offsetX+startRight[k]);
+		}
+	}
+
+	/**
+	 * Solves S*x = y using preconditioned conjugate gradient starting from zero
+	 *
+	 * @return true if successful or false if S was found to not be positive definite
+	 */
+	boolean solvePCG( double[] x , int offsetX ) {
+		for (int i = 0; i < lengthRight; i++) {
+			x[offsetX+i] = 0;
+		}
+		double normY = Math.sqrt(dot(y,y));
+		if( normY == 0 )
+			return true;
+
+		System.arraycopy(y,0,r,0,lengthRight);
+		precondition(r,z);
+		System.arraycopy(z,0,dir,0,lengthRight);
+		double rz = dot(r,z);
+
+		for (int iteration = 0; iteration < maxIterations; iteration++) {
+			multS(dir,q);
+			double pq = dot(dir,q);
+			if( pq <= 0 )
+				return iteration > 0;
+			double alpha = rz/pq;
+			for (int i = 0; i < lengthRight; i++) {
+				x[offsetX+i] += alpha*dir[i];
+				r[i] -= alpha*q[i];
+			}
+			if( Math.sqrt(dot(r,r)) <= tolerance*normY )
+				break;
+
+			precondition(r,z);
+			double rzNext = dot(r,z);
+			double beta = rzNext/rz;
+			rz = rzNext;
+			for (int i = 0; i < lengthRight; i++) {
+				dir[i] = z[i] + beta*dir[i];
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * output = S*v using the upper triangle of S
+	 */
+	void multS( double[] v , double[] output ) {
+		zero(output,lengthRight);
+		for (int c = 0; c < widthRight.length; c++) {
+			for (int block = patternS.rowStart.data[c]; block < patternS.rowStart.data[c+1]; block++) {
+				int d = patternS.cols.data[block];
+				int offset = patternS.offsets.data[block];
+				DenseBlockMath.multAddVector(1,widthRight[c],widthRight[d],valuesS,offset,v,startRight[d],output,startRight[c]);
+				if( c != d ) {
+					DenseBlockMath.multAddTransVector(1,widthRight[c],widthRight[d],valuesS,offset,
+							v,startRight[c],output,startRight[d]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * output = M*v, where M is the inverse of the block diagonal of S
+	 */
+	void precondition( double[] v , double[] output ) {
+		zero(output,lengthRight);
+		for (int c = 0; c < widthRight.length; c++) {
+			DenseBlockMath.multAddVector(1,widthRight[c],widthRight[c],valuesM,offsetM[c],
+					v,startRight[c],output,startRight[c]);
+		}
+	}
+
+	private double dot( double[] a , double[] b ) {
+		double sum = 0;
+		for (int i = 0; i < lengthRight; i++) {
+			sum += a[i]*b[i];
+		}
+		return sum;
+	}
+
+	private static void zero( double[] a , int length ) {
+		for (int i = 0; i < length; i++) {
+			a[i] = 0;
+		}
+	}
+
+	private static int square( int a ) {
+		return a*a;
+	}
+
+	private static long[] growKeys( long[] keys , int length ) {
+		return keys.length < length ? new long[length] : keys;
+	}
+
+	@Override
+	public BlockSparseJacobian createMatrix() {
+		return new BlockSparseJacobian();
+	}
+
+	public Solver getSolver() {
+		return solver;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	/**
+	 * Maximum number of PCG iterations
+	 */
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	/**
+	 * PCG stops once the norm of the residual divided by the norm of the right side is less than this value
+	 */
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle.block;
+
+import org.ddogleg.optimization.math.MatrixMath;
+import org.ejml.data.DMatrixRMaj;
+
+/**
+ * Implementation of {@link MatrixMath} for {@link BlockSparseJacobian}
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMath_Block implements MatrixMath<BlockSparseJacobian> {
+	@Override
+	public void divideColumns(DMatrixRMaj scale, BlockSparseJacobian A) {
+		double[] values = A.getValues();
+		for (int block = 0; block < A.getBlockCount(); block++) {
+			int colBlock = A.getBlockColumn(block);
+			int col0 = A.getColBlockStart(colBlock);
+			int width = A.getBlockWidth(colBlock);
+			int index = A.getBlockOffset(block);
+			for (int i = 0; i < A.getBlockRows(); i++) {
+				for (int j = 0; j < width; j++) {
+					values[index++] /= scale.data[col0+j];
+				}
+			}
+		}
+	}
+
+	@Override
+	public void multTransA(BlockSparseJacobian A, DMatrixRMaj B, DMatrixRMaj output) {
+		output.reshape(A.getNumCols(),1);
+		output.zero();
+		HessianSchurComplement_Block.multTransA(A,B.data,output.data,0);
+	}
+
+	@Override
+	public BlockSparseJacobian createMatrix() {
+		return new BlockSparseJacobian();
+	}
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.lmeds.LeastMedianOfSquares;
+import org.ddogleg.sorting.QuickSelect;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Concurrent version of {@link LeastMedianOfSquares}. Hypotheses are generated and scored in parallel, with each
+ * thread having its own instance of the model generator and distance function. Each iteration has its own random
+ * seed and ties in the median error are broken by selecting the earliest iteration, making the results independent
+ * of the number of threads. See {@link Ransac_MT}.
+ *
+ * @author Peter Abeles
+ */
+public class LeastMedianOfSquares_MT<Model,Point> extends LeastMedianOfSquares<Model,Point> {
+
+	// used to create models which are owned by the workers
+	protected ModelManager<Model> modelManager;
+	// used to find the inlier set in the main thread
+	protected DistanceFromModel<Model,Point> errorMetric;
+
+	// one worker for each block of iterations
+	protected FastQueue<Worker> workers;
+
+	// The maximum number of threads. If <= 0 then it's set by BoofConcurrency
+	protected int maxThreads;
+
+	// random number generator used to create the seed for each iteration
+	private Random rand;
+	// seed for each iteration
+	private long[] iterationSeeds = new long[0];
+
+	private int totalCycles;
+	private int sampleSize;
+	// if the best model has more than this error then it is considered a bad match
+	private double maxMedianError;
+	// fraction of points which are included in the inlier set
+	private double inlierFrac;
+	// the error fraction it's optimized against
+	private double errorFraction = 0.5;
+
+	// the best model found and its error
+	private Model bestParam;
+	private double bestMedian;
+
+	// points which are considered inliers and their index in the input list
+	private List<Point> inlierSet = new ArrayList<>();
+	private List<Point> matchSet = inlierSet;
+	private int[] matchToInput = new int[1];
+	private double[] errors = new double[1];
+
+	/**
+	 * Specifies the tuning parameters. See {@link LeastMedianOfSquares} for details.
+	 *
+	 * @param randSeed Seed for the random number generator
+	 * @param totalCycles How many cycles it will perform
+	 * @param maxMedianError If the best median error is larger than this it is considered a failure.
+	 * @param inlierFraction Data which is this fraction or lower is considered an inlier and used to recompute
+	 *                       model parameters at the end.  Set to 0 to turn off. Domain: 0 to 1.
+	 * @param modelManager Model manager
+	 * @param factoryGenerator Creates new instances of the model generator
+	 * @param factoryDistance Creates new instances of the distance function
+	 * @param maxThreads Maximum number of threads. If &le; 0 then the number of threads is set by {@link BoofConcurrency}.
+	 */
+	public LeastMedianOfSquares_MT( long randSeed , int totalCycles , double maxMedianError , double inlierFraction ,
+									ModelManager<Model> modelManager ,
+									FastQueue.Factory<? extends ModelGenerator<Model,Point>> factoryGenerator ,
+									FastQueue.Factory<? extends DistanceFromModel<Model,Point>> factoryDistance ,
+									int maxThreads )
+	{
+		this(randSeed, totalCycles, maxMedianError, inlierFraction, modelManager,
+				factoryGenerator, factoryDistance, factoryGenerator.newInstance(), factoryDistance.newInstance(),
+				maxThreads);
+	}
+
+	/**
+	 * Constructor which doesn't have a maximum median error and doesn't recompute the inlier set.
+	 */
+	public LeastMedianOfSquares_MT( long randSeed , int totalCycles ,
+									ModelManager<Model> modelManager ,
+									FastQueue.Factory<? extends ModelGenerator<Model,Point>> factoryGenerator ,
+									FastQueue.Factory<? extends DistanceFromModel<Model,Point>> factoryDistance ,
+									int maxThreads )
+	{
+		this(randSeed, totalCycles, Double.MAX_VALUE, 0, modelManager, factoryGenerator, factoryDistance, maxThreads);
+	}
+
+	private LeastMedianOfSquares_MT( long randSeed , int totalCycles , double maxMedianError , double inlierFraction ,
+									 ModelManager<Model> modelManager ,
+									 FastQueue.Factory<? extends ModelGenerator<Model,Point>> factoryGenerator ,
+									 FastQueue.Factory<? extends DistanceFromModel<Model,Point>> factoryDistance ,
+									 ModelGenerator<Model,Point> generator , DistanceFromModel<Model,Point> errorMetric ,
+									 int maxThreads )
+	{
+		super(randSeed, totalCycles, maxMedianError, inlierFraction, modelManager, generator, errorMetric);
+		this.rand = new Random(randSeed);
+		this.totalCycles = totalCycles;
+		this.maxMedianError = maxMedianError;
+		this.inlierFrac = inlierFraction;
+		this.modelManager = modelManager;
+		this.errorMetric = errorMetric;
+		this.sampleSize = generator.getMinimumPoints();
+		this.bestParam = modelManager.createModelInstance();
+		this.maxThreads = maxThreads;
+		this.workers = new FastQueue<>(0, (Class<Worker>)(Class<?>)Worker.class, () -> createWorker(
+				factoryGenerator.newInstance(), factoryDistance.newInstance()));
+	}
+
+	@Override
+	public boolean process( List<Point> dataSet ) {
+		if( dataSet.size() < sampleSize )
+			return false;
+
+		final int N = dataSet.size();
+		if( errors.length < N ) {
+			errors = new double[N];
+			matchToInput = new int[N];
+		}
+
+		// the seed for each iteration is drawn here so that the results don't depend on the number of threads
+		if( iterationSeeds.length < totalCycles )
+			iterationSeeds = new long[totalCycles];
+		for( int i = 0; i < totalCycles; i++ ) {
+			iterationSeeds[i] = rand.nextLong();
+		}
+
+		bestMedian = Double.MAX_VALUE;
+		if( totalCycles > 0 ) {
+			// limit the number of blocks, which is the number of threads, by making the blocks larger
+			int minBlock = maxThreads > 0 ? (totalCycles+maxThreads-1)/maxThreads : 1;
+
+			BoofConcurrency.loopBlocks(0, totalCycles, minBlock, workers, ( worker , idx0 , idx1 ) ->
+					worker.process(dataSet, idx0, idx1));
+
+			// select the hypothesis with the smallest median error, with ties going to the earliest iteration
+			Worker best = null;
+			for( int i = 0; i < workers.size; i++ ) {
+				Worker w = workers.get(i);
+				if( w.bestIteration < 0 )
+					continue;
+				if( best == null || w.bestMedian < best.bestMedian ||
+						(w.bestMedian == best.bestMedian && w.bestIteration < best.bestIteration) ) {
+					best = w;
+				}
+			}
+			if( best != null ) {
+				bestMedian = best.bestMedian;
+				modelManager.copyModel(best.bestModel, bestParam);
+			}
+		}
+
+		computeInlierSet(dataSet, N);
+
+		return bestMedian <= maxMedianError;
+	}
+
+	/**
+	 * Selects the points with the smallest errors as the inlier set, or all the points if turned off
+	 */
+	private void computeInlierSet( List<Point> dataSet , int N ) {
+		int numPts = (int)(N*inlierFrac);
+
+		if( inlierFrac > 0 && numPts > sampleSize ) {
+			inlierSet.clear();
+			errorMetric.setModel(bestParam);
+			errorMetric.computeDistance(dataSet, errors);
+
+			int[] indexes = new int[N];
+			QuickSelect.selectIndex(errors, numPts, N, indexes);
+			for( int i = 0; i < numPts; i++ ) {
+				int origIndex = indexes[i];
+				inlierSet.add(dataSet.get(origIndex));
+				matchToInput[i] = origIndex;
+			}
+			matchSet = inlierSet;
+		} else {
+			matchSet = dataSet;
+			for( int i = 0; i < N; i++ ) {
+				matchToInput[i] = i;
+			}
+		}
+	}
+
+	/**
+	 * Creates a new worker. Can be overridden to configure the generator or distance function.
+	 */
+	protected Worker createWorker( ModelGenerator<Model,Point> generator , DistanceFromModel<Model,Point> distance ) {
+		return new Worker(generator, distance);
+	}
+
+	@Override
+	public void setSampleSize( int sampleSize ) {
+		this.sampleSize = sampleSize;
+	}
+
+	@Override
+	public double getErrorFraction() {
+		return errorFraction;
+	}
+
+	@Override
+	public void setErrorFraction( double errorFraction ) {
+		this.errorFraction = errorFraction;
+	}
+
+	@Override
+	public Model getModelParameters() {
+		return bestParam;
+	}
+
+	@Override
+	public List<Point> getMatchSet() {
+		return matchSet;
+	}
+
+	@Override
+	public int getInputIndex( int matchIndex ) {
+		return matchToInput[matchIndex];
+	}
+
+	@Override
+	public double getFitQuality() {
+		return bestMedian;
+	}
+
+	@Override
+	public int getMinimumSize() {
+		return sampleSize;
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	public void setMaxThreads( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Generates and scores hypotheses for a block of iterations and remembers the best one
+	 */
+	protected class Worker {
+		public final ModelGenerator<Model,Point> generator;
+		public final DistanceFromModel<Model,Point> distance;
+
+		Random rand = new Random();
+		int[] sampleIndexes = new int[0];
+		List<Point> sample = new ArrayList<>();
+		double[] errors = new double[0];
+
+		Model candidate = modelManager.createModelInstance();
+		Model bestModel = modelManager.createModelInstance();
+		// median error and iteration of the best hypothesis. iteration is -1 if there is none
+		double bestMedian;
+		int bestIteration;
+
+		public Worker( ModelGenerator<Model,Point> generator , DistanceFromModel<Model,Point> distance ) {
+			this.generator = generator;
+			this.distance = distance;
+		}
+
+		void process( List<Point> dataSet , int iteration0 , int iteration1 ) {
+			bestMedian = Double.MAX_VALUE;
+			bestIteration = -1;
+
+			final int N = dataSet.size();
+			if( errors.length < N )
+				errors = new double[N];
+			if( sampleIndexes.length < sampleSize )
+				sampleIndexes = new int[sampleSize];
+
+			for( int iteration = iteration0; iteration < iteration1; iteration++ ) {
+				rand.setSeed(iterationSeeds[iteration]);
+				Ransac_MT.randomDrawUnique(dataSet, sampleSize, sampleIndexes, sample, rand);
+
+				if( !generator.generate(sample, candidate) )
+					continue;
+
+				distance.setModel(candidate);
+				distance.computeDistance(dataSet, errors);
+
+				double median = QuickSelect.select(errors, (int)(N*errorFraction+0.5), N);
+
+				// the earliest iteration wins ties, so only a strict improvement is saved
+				if( median < bestMedian ) {
+					bestMedian = median;
+					bestIteration = iteration;
+					Model tmp = bestModel;
+					bestModel = candidate;
+					candidate = tmp;
+				}
+			}
+		}
+	}
+}
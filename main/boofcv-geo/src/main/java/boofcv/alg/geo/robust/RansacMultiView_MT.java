@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.alg.geo.DistanceFromModelMultiView;
+import boofcv.struct.calib.CameraPinhole;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Concurrent version of {@link RansacMultiView}. See {@link Ransac_MT} for how it differs from the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class RansacMultiView_MT<Model,Point> extends Ransac_MT<Model,Point>
+		implements ModelMatcherMultiview<Model,Point>
+{
+	// intrinsic parameters for each view. Saved so that they can be passed to workers when they are created
+	private List<CameraPinhole> intrinsics = new ArrayList<>();
+
+	public RansacMultiView_MT( long randSeed ,
+							   ModelManager<Model> modelManager ,
+							   FastQueue.Factory<? extends ModelGenerator<Model,Point>> factoryGenerator ,
+							   FastQueue.Factory<? extends DistanceFromModelMultiView<Model,Point>> factoryDistance ,
+							   int maxIterations , double thresholdFit , int maxThreads )
+	{
+		super(randSeed, modelManager, factoryGenerator, factoryDistance, maxIterations, thresholdFit, maxThreads);
+	}
+
+	@Override
+	public void setIntrinsic( int view , CameraPinhole intrinsic ) {
+		while( intrinsics.size() <= view )
+			intrinsics.add(null);
+		intrinsics.set(view, new CameraPinhole(intrinsic));
+
+		((DistanceFromModelMultiView<Model,Point>)modelDistance).setIntrinsic(view, intrinsic);
+		for( int i = 0; i < workers.size; i++ ) {
+			((DistanceFromModelMultiView<Model,Point>)workers.get(i).distance).setIntrinsic(view, intrinsic);
+		}
+	}
+
+	@Override
+	protected Worker createWorker( ModelGenerator<Model,Point> generator , DistanceFromModel<Model,Point> distance ) {
+		DistanceFromModelMultiView<Model,Point> distanceMV = (DistanceFromModelMultiView<Model,Point>)distance;
+		for( int view = 0; view < intrinsics.size(); view++ ) {
+			if( intrinsics.get(view) != null )
+				distanceMV.setIntrinsic(view, intrinsics.get(view));
+		}
+		return super.createWorker(generator, distance);
+	}
+
+	@Override
+	public int getNumberOfViews() {
+		return ((DistanceFromModelMultiView<Model,Point>)modelDistance).getNumberOfViews();
+	}
+}
@@ -0,0 +1,571 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Concurrent version of {@link Ransac}. Hypotheses are generated and scored in parallel, with each thread having
+ * its own instance of the model generator and distance function. Each iteration has its own random seed, which is
+ * drawn from the seed passed in to the constructor, and the best hypothesis is the one with the most inliers. Ties
+ * are broken by selecting the earliest iteration. This makes the results independent of the number of threads,
+ * but they will not be the same as the results from {@link Ransac}.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link Ransac} the samples are drawn without modifying the order of the input list and scoring of a
+ * hypothesis stops once it's impossible for it to be better than the best hypothesis in the same block. If
+ * a hypothesis is found where every point is an inlier then iterations after it are skipped.
+ * </p>
+ *
+ * <p>
+ * Two optional features reduce the amount of work. When {@link #setSprt SPRT} is turned on, hypotheses are
+ * verified using Wald's Sequential Probability Ratio Test [1]. Points are checked in a random order and a
+ * hypothesis is rejected as soon as the likelihood ratio indicates it's a bad model. When a
+ * {@link #setTerminationConfidence termination confidence} is specified the number of iterations is adjusted
+ * using the inlier ratio of the best hypothesis. To keep results independent of the number of threads, these
+ * decisions are made between rounds of {@link #setIterationsPerRound iterations} and parameters are held
+ * constant within a round.
+ * </p>
+ *
+ * <p>
+ * [1] Chum, Ondrej, and Jiri Matas. "Optimal randomized RANSAC." IEEE Transactions on Pattern Analysis and
+ * Machine Intelligence 30.8 (2008): 1472-1482.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Ransac_MT<Model,Point> extends Ransac<Model,Point> {
+
+	// used to create models which are owned by the workers
+	protected ModelManager<Model> modelManager;
+
+	// one worker for each block of iterations
+	protected FastQueue<Worker> workers;
+
+	// The maximum number of threads. If <= 0 then it's set by BoofConcurrency
+	protected int maxThreads;
+
+	// seed for each iteration
+	protected long[] iterationSeeds = new long[0];
+
+	// iterations after this one are not processed because a perfect hypothesis has been found
+	protected AtomicInteger stopIteration = new AtomicInteger();
+
+	// If true then hypotheses are verified using SPRT
+	protected boolean sprt = false;
+	// Probability that the number of iterations is enough to find a good hypothesis. If 0 then all the
+	// iterations are run
+	protected double terminationConfidence = 0.0;
+	// Number of iterations between updates of SPRT and the adaptive number of iterations
+	protected int iterationsPerRound = 50;
+
+	// Initial guess for the fraction of inliers in the data set
+	protected double sprtInlierRatio = 0.1;
+	// Initial guess for probability that a point is consistent with a bad model
+	protected double sprtBadConsistency = 0.01;
+	// Time to generate a hypothesis relative to the time to compute the distance of one point
+	protected double sprtModelCost = 200.0;
+
+	// SPRT parameters for the current round
+	protected double sprtEpsilon, sprtDelta;
+	protected double sprtLogThreshold;
+	protected double sprtLogConsistent, sprtLogInconsistent;
+	// statistics from rejected hypotheses, used to estimate sprtDelta
+	protected long rejectedConsistent, rejectedTested;
+
+	// order that points are checked in when SPRT is used
+	protected int[] pointOrder = new int[0];
+
+	// best hypothesis across all rounds
+	protected Model globalBestModel;
+	protected int globalBestInliers;
+	protected int globalBestIteration;
+
+	// number of iterations processed in the most recent call to process
+	protected int iterationsProcessed;
+
+	/**
+	 * Creates a new instance of RANSAC
+	 *
+	 * @param randSeed Seed for the random number generator
+	 * @param modelManager Model manager
+	 * @param factoryGenerator Creates new instances of the model generator
+	 * @param factoryDistance Creates new instances of the distance function
+	 * @param maxIterations Maximum number of iterations
+	 * @param thresholdFit Threshold used to determine if a point is an inlier
+	 * @param maxThreads Maximum number of threads. If &le; 0 then the number of threads is set by {@link BoofConcurrency}.
+	 */
+	public Ransac_MT( long randSeed ,
+					  ModelManager<Model> modelManager ,
+					  FastQueue.Factory<? extends ModelGenerator<Model,Point>> factoryGenerator ,
+					  FastQueue.Factory<? extends DistanceFromModel<Model,Point>> factoryDistance ,
+					  int maxIterations , double thresholdFit , int maxThreads )
+	{
+		super(randSeed, modelManager, factoryGenerator.newInstance(), factoryDistance.newInstance(),
+				maxIterations, thresholdFit);
+		this.modelManager = modelManager;
+		this.maxThreads = maxThreads;
+		this.globalBestModel = modelManager.createModelInstance();
+		this.workers = new FastQueue<>(0, (Class<Worker>)(Class<?>)Worker.class, () -> createWorker(
+				factoryGenerator.newInstance(), factoryDistance.newInstance()));
+	}
+
+	@Override
+	public boolean process( List<Point> dataSet ) {
+		iterationsProcessed = 0;
+
+		// see if it has the minimum number of points
+		if( dataSet.size() < modelGenerator.getMinimumPoints() || dataSet.size() < sampleSize )
+			return false;
+
+		this.dataSet.clear();
+		this.dataSet.addAll(dataSet);
+		initialize(dataSet);
+
+		// the seed for each iteration is drawn here so that the results don't depend on the number of threads
+		if( iterationSeeds.length < maxIterations )
+			iterationSeeds = new long[maxIterations];
+		for( int i = 0; i < maxIterations; i++ ) {
+			iterationSeeds[i] = rand.nextLong();
+		}
+		stopIteration.set(Integer.MAX_VALUE);
+
+		if( maxIterations <= 0 )
+			return false;
+
+		if( sprt ) {
+			selectPointOrder(dataSet.size());
+			sprtEpsilon = sprtInlierRatio;
+			sprtDelta = sprtBadConsistency;
+			rejectedConsistent = rejectedTested = 0;
+			designSprt();
+		}
+
+		globalBestInliers = 0;
+		globalBestIteration = -1;
+
+		// Rounds are only needed if parameters are updated as the best hypothesis improves
+		boolean adaptive = terminationConfidence > 0.0;
+		int roundSize = sprt || adaptive ? Math.max(1,iterationsPerRound) : maxIterations;
+		int totalIterations = maxIterations;
+
+		for( int iteration0 = 0; iteration0 < totalIterations; iteration0 += roundSize ) {
+			int iteration1 = Math.min(totalIterations, iteration0+roundSize);
+			processRound(dataSet, iteration0, iteration1);
+			iterationsProcessed = iteration1;
+
+			// a hypothesis was found which matches every point
+			if( stopIteration.get() < iteration1 ) {
+				iterationsProcessed = stopIteration.get()+1;
+				break;
+			}
+
+			if( sprt ) {
+				updateSprt(dataSet.size());
+			}
+
+			if( adaptive && globalBestIteration >= 0 ) {
+				double rejectGood = sprt ? Math.exp(-sprtLogThreshold) : 0.0;
+				double inlierRatio = globalBestInliers/(double)dataSet.size();
+				totalIterations = adaptiveIterations(inlierRatio, sampleSize, rejectGood,
+						terminationConfidence, maxIterations);
+			}
+		}
+
+		if( globalBestIteration < 0 )
+			return false;
+
+		// Find the inliers using the same code as the single threaded version
+		modelManager.copyModel(globalBestModel, candidateParam);
+		selectMatchSet(dataSet, thresholdFit, candidateParam);
+		swapCandidateWithBest();
+
+		return bestFitPoints.size() > 0;
+	}
+
+	/**
+	 * Processes iterations in parallel then selects the hypothesis with the most inliers, with ties going to
+	 * the earliest iteration
+	 */
+	protected void processRound( List<Point> dataSet , int iteration0 , int iteration1 ) {
+		int numIterations = iteration1-iteration0;
+
+		if( maxThreads == 1 ) {
+			workers.resize(1);
+			workers.get(0).process(dataSet, iteration0, iteration1);
+		} else {
+			// limit the number of blocks, which is the number of threads, by making the blocks larger
+			int minBlock = maxThreads > 0 ? (numIterations+maxThreads-1)/maxThreads : 1;
+
+			BoofConcurrency.loopBlocks(iteration0, iteration1, minBlock, workers, ( worker , idx0 , idx1 ) ->
+					worker.process(dataSet, idx0, idx1));
+		}
+
+		Worker best = null;
+		for( int i = 0; i < workers.size; i++ ) {
+			Worker w = workers.get(i);
+			rejectedConsistent += w.rejectedConsistent;
+			rejectedTested += w.rejectedTested;
+			if( w.bestIteration < 0 )
+				continue;
+			if( best == null || w.bestInliers > best.bestInliers ||
+					(w.bestInliers == best.bestInliers && w.bestIteration < best.bestIteration) ) {
+				best = w;
+			}
+		}
+
+		// workers only save a hypothesis if it's better than the best from previous rounds
+		if( best != null ) {
+			globalBestInliers = best.bestInliers;
+			globalBestIteration = best.bestIteration;
+			modelManager.copyModel(best.bestModel, globalBestModel);
+		}
+	}
+
+	/**
+	 * Randomly shuffles the order points are verified in. A random order is required by SPRT since
+	 * input points are often sorted spatially.
+	 */
+	protected void selectPointOrder( int numPoints ) {
+		if( pointOrder.length < numPoints )
+			pointOrder = new int[numPoints];
+		for( int i = 0; i < numPoints; i++ ) {
+			pointOrder[i] = i;
+		}
+		for( int i = numPoints-1; i > 0; i-- ) {
+			int j = rand.nextInt(i+1);
+			int tmp = pointOrder[i];
+			pointOrder[i] = pointOrder[j];
+			pointOrder[j] = tmp;
+		}
+	}
+
+	/**
+	 * Updates the estimated probabilities using the best hypothesis and rejected hypotheses, then
+	 * designs a new test
+	 */
+	protected void updateSprt( int numPoints ) {
+		if( globalBestIteration >= 0 )
+			sprtEpsilon = Math.max(sprtEpsilon, globalBestInliers/(double)numPoints);
+		if( rejectedTested > 0 )
+			sprtDelta = Math.max(1e-4, rejectedConsistent/(double)rejectedTested);
+		designSprt();
+	}
+
+	/**
+	 * Selects the decision threshold A for SPRT using the approximation in [1], which minimizes the
+	 * expected run time.
+	 */
+	protected void designSprt() {
+		double epsilon = Math.min(sprtEpsilon, 1.0-1e-8);
+		double delta = sprtDelta;
+
+		// The test can't tell good and bad models apart
+		if( delta >= epsilon ) {
+			sprtLogThreshold = Double.MAX_VALUE;
+			sprtLogConsistent = sprtLogInconsistent = 0.0;
+			return;
+		}
+
+		sprtLogConsistent = Math.log(delta/epsilon);
+		sprtLogInconsistent = Math.log((1.0-delta)/(1.0-epsilon));
+
+		// expected amount of information gained by verifying a single point
+		double C = (1.0-delta)*sprtLogInconsistent + delta*Math.log(delta/epsilon);
+		double A0 = sprtModelCost*C + 1.0;
+		double A = A0;
+		for( int i = 0; i < 10; i++ ) {
+			A = A0 + Math.log(A);
+		}
+		sprtLogThreshold = Math.log(A);
+	}
+
+	/**
+	 * Computes the number of iterations needed to have drawn a sample with only inliers with the specified
+	 * confidence.
+	 *
+	 * @param inlierRatio Fraction of points which are inliers
+	 * @param sampleSize Number of points in a sample
+	 * @param rejectGood Probability that a good hypothesis is incorrectly rejected
+	 * @param confidence Desired probability of success. 0 to 1, exclusive.
+	 * @param maxIterations Maximum number of iterations
+	 * @return number of iterations
+	 */
+	public static int adaptiveIterations( double inlierRatio , int sampleSize , double rejectGood ,
+										  double confidence , int maxIterations ) {
+		double probGood = Math.pow(inlierRatio, sampleSize)*(1.0-rejectGood);
+		if( probGood <= 0.0 )
+			return maxIterations;
+		if( probGood >= 1.0 )
+			return Math.min(1, maxIterations);
+
+		double k = Math.log(1.0-confidence)/Math.log(1.0-probGood);
+		if( k >= maxIterations )
+			return maxIterations;
+		return Math.max(1, (int)Math.ceil(k));
+	}
+
+	/**
+	 * Randomly selects a set of unique points without modifying the input list, unlike
+	 * {@link Ransac#randomDraw(List, int, List, Random)}. Intended for small samples.
+	 *
+	 * @param dataSet List of points which are to be sampled
+	 * @param sampleSize Number of points in the sample
+	 * @param indexes (Output) Storage for the index of each selected point. Must be at least sampleSize long.
+	 * @param output (Output) The selected points
+	 * @param rand Random number generator
+	 */
+	public static <T> void randomDrawUnique( List<T> dataSet , int sampleSize , int[] indexes ,
+											 List<T> output , Random rand ) {
+		output.clear();
+		for( int i = 0; i < sampleSize; i++ ) {
+			int index;
+			do {
+				index = rand.nextInt(dataSet.size());
+			} while( contains(indexes, i, index) );
+			indexes[i] = index;
+			output.add(dataSet.get(index));
+		}
+	}
+
+	private static boolean contains( int[] indexes , int length , int value ) {
+		for( int i = 0; i < length; i++ ) {
+			if( indexes[i] == value )
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Creates a new worker. Can be overridden to configure the generator or distance function.
+	 */
+	protected Worker createWorker( ModelGenerator<Model,Point> generator , DistanceFromModel<Model,Point> distance ) {
+		return new Worker(generator, distance);
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	public void setMaxThreads( int maxThreads ) {
+		this.maxThreads = maxThreads;
+	}
+
+	public boolean isSprt() {
+		return sprt;
+	}
+
+	/**
+	 * If true then hypotheses are verified using SPRT and can be rejected before all the points are checked.
+	 */
+	public void setSprt( boolean sprt ) {
+		this.sprt = sprt;
+	}
+
+	public double getTerminationConfidence() {
+		return terminationConfidence;
+	}
+
+	/**
+	 * Specifies the desired probability that a hypothesis computed from only inliers has been found. Once
+	 * enough iterations have been run to reach this probability, given the best inlier ratio found so far, it
+	 * will stop. If 0 then the number of iterations is fixed.
+	 *
+	 * @param terminationConfidence 0 to 1, exclusive of 1. Typical values are 0.99 or 0.999
+	 */
+	public void setTerminationConfidence( double terminationConfidence ) {
+		if( terminationConfidence < 0.0 || terminationConfidence >= 1.0 )
+			throw new IllegalArgumentException("Confidence must be 0 <= c < 1");
+		this.terminationConfidence = terminationConfidence;
+	}
+
+	public int getIterationsPerRound() {
+		return iterationsPerRound;
+	}
+
+	public void setIterationsPerRound( int iterationsPerRound ) {
+		this.iterationsPerRound = iterationsPerRound;
+	}
+
+	public double getSprtInlierRatio() {
+		return sprtInlierRatio;
+	}
+
+	/**
+	 * Initial estimate of the fraction of points which are inliers. It's updated as better hypotheses are
+	 * found. Should be a conservative guess.
+	 */
+	public void setSprtInlierRatio( double sprtInlierRatio ) {
+		this.sprtInlierRatio = sprtInlierRatio;
+	}
+
+	public double getSprtBadConsistency() {
+		return sprtBadConsistency;
+	}
+
+	/**
+	 * Initial estimate of the probability that a point is an inlier to a bad hypothesis. It's updated using
+	 * rejected hypotheses.
+	 */
+	public void setSprtBadConsistency( double sprtBadConsistency ) {
+		this.sprtBadConsistency = sprtBadConsistency;
+	}
+
+	public double getSprtModelCost() {
+		return sprtModelCost;
+	}
+
+	/**
+	 * Time to generate a hypothesis relative to the time it takes to compute the distance for one point
+	 */
+	public void setSprtModelCost( double sprtModelCost ) {
+		this.sprtModelCost = sprtModelCost;
+	}
+
+	/**
+	 * Number of iterations which were processed in the most recent call to {@link #process}
+	 */
+	public int getIterationsProcessed() {
+		return iterationsProcessed;
+	}
+
+	/**
+	 * Generates and scores hypotheses for a block of iterations and remembers the best one
+	 */
+	protected class Worker {
+		public final ModelGenerator<Model,Point> generator;
+		public final DistanceFromModel<Model,Point> distance;
+
+		Random rand = new Random();
+		// indexes of points in the sample
+		int[] sampleIndexes = new int[0];
+		List<Point> sample = new ArrayList<>();
+
+		Model candidate = modelManager.createModelInstance();
+		Model bestModel = modelManager.createModelInstance();
+		// number of inliers and iteration of the best hypothesis. iteration is -1 if there is none
+		int bestInliers;
+		int bestIteration;
+
+		// statistics from hypotheses rejected by SPRT
+		long rejectedConsistent, rejectedTested;
+
+		public Worker( ModelGenerator<Model,Point> generator , DistanceFromModel<Model,Point> distance ) {
+			this.generator = generator;
+			this.distance = distance;
+		}
+
+		void process( List<Point> dataSet , int iteration0 , int iteration1 ) {
+			// only hypotheses which are better than ones in previous rounds are saved
+			bestInliers = globalBestInliers;
+			bestIteration = -1;
+			rejectedConsistent = rejectedTested = 0;
+
+			for( int iteration = iteration0; iteration < iteration1; iteration++ ) {
+				// iterations are processed in order so all the remaining ones can be skipped
+				if( iteration > stopIteration.get() )
+					break;
+
+				rand.setSeed(iterationSeeds[iteration]);
+				drawSample(dataSet);
+
+				if( !generator.generate(sample, candidate) )
+					continue;
+
+				int inliers = sprt ? countInliersSprt(dataSet) : countInliers(dataSet);
+				// the earliest iteration wins ties, so only a strict improvement is saved
+				if( inliers > bestInliers ) {
+					bestInliers = inliers;
+					bestIteration = iteration;
+					Model tmp = bestModel;
+					bestModel = candidate;
+					candidate = tmp;
+
+					if( inliers == dataSet.size() )
+						stopIteration.accumulateAndGet(iteration, Math::min);
+				}
+			}
+		}
+
+		void drawSample( List<Point> dataSet ) {
+			if( sampleIndexes.length < sampleSize )
+				sampleIndexes = new int[sampleSize];
+			randomDrawUnique(dataSet, sampleSize, sampleIndexes, sample, rand);
+		}
+
+		/**
+		 * Counts the number of inliers. Stops early if the hypothesis can't beat the best one in this block.
+		 */
+		int countInliers( List<Point> dataSet ) {
+			distance.setModel(candidate);
+
+			final int N = dataSet.size();
+			int inliers = 0;
+			for( int i = 0; i < N; i++ ) {
+				if( distance.computeDistance(dataSet.get(i)) < thresholdFit )
+					inliers++;
+				else if( inliers + (N-i-1) <= bestInliers )
+					return 0;
+			}
+			return inliers;
+		}
+
+		/**
+		 * Counts the number of inliers while evaluating the likelihood ratio that it's a bad hypothesis.
+		 * Stops early and returns zero if SPRT rejects the hypothesis or it can't beat the best hypothesis from
+		 * previous rounds. The best in this block isn't used since it depends on how the iterations are split
+		 * between threads, which would change the rejection statistics used to update SPRT.
+		 */
+		int countInliersSprt( List<Point> dataSet ) {
+			distance.setModel(candidate);
+
+			final int N = dataSet.size();
+			int inliers = 0;
+			double logLikelihood = 0.0;
+			for( int i = 0; i < N; i++ ) {
+				if( distance.computeDistance(dataSet.get(pointOrder[i])) < thresholdFit ) {
+					inliers++;
+					logLikelihood += sprtLogConsistent;
+				} else {
+					if( inliers + (N-i-1) <= globalBestInliers )
+						return 0;
+					logLikelihood += sprtLogInconsistent;
+					if( logLikelihood > sprtLogThreshold ) {
+						rejectedConsistent += inliers;
+						rejectedTested += i+1;
+						return 0;
+					}
+				}
+			}
+			return inliers;
+		}
+	}
+}
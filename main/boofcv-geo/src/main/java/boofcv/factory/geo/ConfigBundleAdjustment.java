@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -34,4 +34,12 @@ public class ConfigBundleAdjustment {
 	 * @see org.ddogleg.optimization.trustregion.ConfigTrustRegion
 	 */
 	public Object configOptimizer = new ConfigLevenbergMarquardt();
+
+	/**
+	 * Maximum number of threads used to compute the residuals and Jacobian. If 1 then the single threaded
+	 * implementation is used. If &le; 0 then the number of threads is set by BoofConcurrency. The concurrent
+	 * implementation is only used if BoofConcurrency.USE_CONCURRENT is true. Results are identical no matter
+	 * how many threads are used.
+	 */
+	public int numThreads = 1;
 }
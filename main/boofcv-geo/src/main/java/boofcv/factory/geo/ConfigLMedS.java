@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -40,6 +40,13 @@ public class ConfigLMedS implements Configuration {
 	 * The error fraction it's optimized against
 	 */
 	public double errorFraction = 0.5;
+	/**
+	 * Maximum number of threads used to generate and score hypotheses. If 1 then the single threaded
+	 * implementation is used. If &le; 0 then the number of threads is set by BoofConcurrency. The concurrent
+	 * implementation is only used if BoofConcurrency.USE_CONCURRENT is true. Results are reproducible for
+	 * a given seed no matter how many threads are used, but they will differ from the single threaded results.
+	 */
+	public int numThreads = 1;
 
 	public ConfigLMedS() {
 	}
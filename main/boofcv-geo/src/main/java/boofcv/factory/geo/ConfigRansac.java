@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -38,6 +38,26 @@ public class ConfigRansac implements Configuration {
 	 * Inlier threshold.
 	 */
 	public double inlierThreshold;
+	/**
+	 * Maximum number of threads used to generate and score hypotheses. If 1 then the single threaded
+	 * implementation is used. If &le; 0 then the number of threads is set by BoofConcurrency. The concurrent
+	 * implementation is only used if BoofConcurrency.USE_CONCURRENT is true. Results are reproducible for
+	 * a given seed no matter how many threads are used, but they will differ from the single threaded results.
+	 */
+	public int numThreads = 1;
+	/**
+	 * If true then hypotheses are verified using Wald's Sequential Probability Ratio Test (SPRT). Bad hypotheses
+	 * are rejected after only a few points have been checked. Only supported by the concurrent implementation,
+	 * which will be used even if numThreads is 1.
+	 */
+	public boolean sprt = false;
+	/**
+	 * If &gt; 0 then the number of iterations is adjusted using the inlier ratio of the best hypothesis. It will stop
+	 * once the probability that an all inlier sample has been drawn is at least this value, e.g. 0.99.
+	 * maxIterations is still the upper limit. Only supported by the concurrent implementation, which will be used
+	 * even if numThreads is 1.
+	 */
+	public double terminationConfidence = 0.0;
 
 	public ConfigRansac(int maxIterations, double inlierThreshold) {
 		this.maxIterations = maxIterations;
@@ -47,8 +67,18 @@ public class ConfigRansac implements Configuration {
 	public ConfigRansac() {
 	}
 
+	public void setTo( ConfigRansac src ) {
+		this.randSeed = src.randSeed;
+		this.maxIterations = src.maxIterations;
+		this.inlierThreshold = src.inlierThreshold;
+		this.numThreads = src.numThreads;
+		this.sprt = src.sprt;
+		this.terminationConfidence = src.terminationConfidence;
+	}
+
 	@Override
 	public void checkValidity() {
-
+		if( terminationConfidence < 0.0 || terminationConfidence >= 1.0 )
+			throw new IllegalArgumentException("terminationConfidence must be 0 <= c < 1");
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -31,6 +31,9 @@ import boofcv.abst.geo.trifocal.WrapTrifocalAlgebraicPoint7;
 import boofcv.abst.geo.trifocal.WrapTrifocalLinearPoint7;
 import boofcv.alg.geo.ModelObservationResidualN;
 import boofcv.alg.geo.bundle.*;
+import boofcv.alg.geo.bundle.block.BlockSparseJacobian;
+import boofcv.alg.geo.bundle.block.HessianSchurComplement_Block;
+import boofcv.alg.geo.bundle.block.MatrixMath_Block;
 import boofcv.alg.geo.f.DistanceEpipolarConstraint;
 import boofcv.alg.geo.h.HomographyDirectLinearTransform;
 import boofcv.alg.geo.h.HomographyResidualSampson;
@@ -40,6 +43,7 @@ import boofcv.alg.geo.pose.*;
 import boofcv.alg.geo.triangulate.*;
 import boofcv.alg.geo.trifocal.RefineThreeViewProjectiveGeometric;
 import boofcv.alg.geo.trifocal.TrifocalAlgebraicPoint7;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.misc.ConfigConverge;
 import boofcv.struct.geo.AssociatedPair;
 import georegression.fitting.MotionTransformPoint;
@@ -51,7 +55,10 @@ import org.ddogleg.optimization.FactoryOptimizationSparse;
 import org.ddogleg.optimization.UnconstrainedLeastSquares;
 import org.ddogleg.optimization.UnconstrainedLeastSquaresSchur;
 import org.ddogleg.optimization.lm.ConfigLevenbergMarquardt;
+import org.ddogleg.optimization.lm.UnconLeastSqLevenbergMarquardtSchur_F64;
 import org.ddogleg.optimization.trustregion.ConfigTrustRegion;
+import org.ddogleg.optimization.trustregion.TrustRegionUpdateDogleg_F64;
+import org.ddogleg.optimization.trustregion.UnconLeastSqTrustRegionSchur_F64;
 import org.ddogleg.solver.PolynomialOps;
 import org.ddogleg.solver.RootFinderType;
 import org.ddogleg.struct.FastQueue;
@@ -86,8 +93,10 @@ public class FactoryMultiView {
 			minimizer = FactoryOptimizationSparse.levenbergMarquardtSchur((ConfigLevenbergMarquardt)config.configOptimizer);
 
 		return new BundleAdjustmentSchur_DSCC<>(minimizer,
-				new BundleAdjustmentMetricResidualFunction(),
-				new BundleAdjustmentMetricSchurJacobian_DSCC(),
+				metricResiduals(config),
+				isConcurrent(config.numThreads) ?
+						new BundleAdjustmentMetricSchurJacobian_MT_DSCC(config.numThreads) :
+						new BundleAdjustmentMetricSchurJacobian_DSCC(),
 				new CodecSceneStructureMetric());
 	}
 
@@ -110,8 +119,10 @@ public class FactoryMultiView {
 			minimizer = FactoryOptimizationSparse.levenbergMarquardtSchur((ConfigLevenbergMarquardt)config.configOptimizer);
 
 		return new BundleAdjustmentSchur_DSCC<>(minimizer,
-				new BundleAdjustmentProjectiveResidualFunction(),
-				new BundleAdjustmentProjectiveSchurJacobian_DSCC(),
+				projectiveResiduals(config),
+				isConcurrent(config.numThreads) ?
+						new BundleAdjustmentProjectiveSchurJacobian_MT_DSCC(config.numThreads) :
+						new BundleAdjustmentProjectiveSchurJacobian_DSCC(),
 				new CodecSceneStructureProjective());
 	}
 
@@ -136,8 +147,10 @@ public class FactoryMultiView {
 			minimizer = FactoryOptimization.levenbergMarquardtSchur(robust,(ConfigLevenbergMarquardt)config.configOptimizer);
 
 		return new BundleAdjustmentSchur_DDRM<>(minimizer,
-				new BundleAdjustmentMetricResidualFunction(),
-				new BundleAdjustmentMetricSchurJacobian_DDRM(),
+				metricResiduals(config),
+				isConcurrent(config.numThreads) ?
+						new BundleAdjustmentMetricSchurJacobian_MT_DDRM(config.numThreads) :
+						new BundleAdjustmentMetricSchurJacobian_DDRM(),
 				new CodecSceneStructureMetric());
 	}
 
@@ -163,12 +176,87 @@ public class FactoryMultiView {
 
 
 		return new BundleAdjustmentSchur_DDRM<>(minimizer,
-				new BundleAdjustmentProjectiveResidualFunction(),
-				new BundleAdjustmentProjectiveSchurJacobian_DDRM(),
+				projectiveResiduals(config),
+				isConcurrent(config.numThreads) ?
+						new BundleAdjustmentProjectiveSchurJacobian_MT_DDRM(config.numThreads) :
+						new BundleAdjustmentProjectiveSchurJacobian_DDRM(),
 				new CodecSceneStructureProjective());
 	}
 
 
+	/**
+	 * Returns bundle adjustment for metric reconstruction which stores the Jacobian and the Schur complement in
+	 * block sparse matrices made up of small dense blocks. Intended for large problems with many points, where
+	 * it uses less memory and time than {@link #bundleSparseMetric}.
+	 *
+	 * @param solver Approach used to solve the reduced camera system. PCG is approximate but has no fill-in.
+	 * @param config (Optional) configuration
+	 * @return bundle adjustment
+	 */
+	public static BundleAdjustment<SceneStructureMetric> bundleBlockMetric(HessianSchurComplement_Block.Solver solver,
+																		   @Nullable ConfigBundleAdjustment config ) {
+		if( config == null )
+			config = new ConfigBundleAdjustment();
+
+		return new BundleAdjustmentSchur_Block<>(blockMinimizer(solver,config),
+				metricResiduals(config),
+				new BundleAdjustmentMetricSchurJacobian_Block(),
+				new CodecSceneStructureMetric());
+	}
+
+	/**
+	 * Returns bundle adjustment for projective reconstruction which stores the Jacobian and the Schur complement in
+	 * block sparse matrices made up of small dense blocks. Intended for large problems with many points, where
+	 * it uses less memory and time than {@link #bundleSparseProjective}.
+	 *
+	 * @param solver Approach used to solve the reduced camera system. PCG is approximate but has no fill-in.
+	 * @param config (Optional) configuration
+	 * @return bundle adjustment
+	 */
+	public static BundleAdjustment<SceneStructureProjective> bundleBlockProjective(HessianSchurComplement_Block.Solver solver,
+																				   @Nullable ConfigBundleAdjustment config ) {
+		if( config == null )
+			config = new ConfigBundleAdjustment();
+
+		return new BundleAdjustmentSchur_Block<>(blockMinimizer(solver,config),
+				projectiveResiduals(config),
+				new BundleAdjustmentProjectiveSchurJacobian_Block(),
+				new CodecSceneStructureProjective());
+	}
+
+	private static UnconstrainedLeastSquaresSchur<BlockSparseJacobian> blockMinimizer(
+			HessianSchurComplement_Block.Solver solver , ConfigBundleAdjustment config ) {
+		HessianSchurComplement_Block hessian = new HessianSchurComplement_Block(solver);
+
+		if( config.configOptimizer instanceof ConfigTrustRegion ) {
+			UnconLeastSqTrustRegionSchur_F64<BlockSparseJacobian> alg =
+					new UnconLeastSqTrustRegionSchur_F64<>(new TrustRegionUpdateDogleg_F64<>(),hessian);
+			alg.configure((ConfigTrustRegion)config.configOptimizer);
+			return alg;
+		} else {
+			UnconLeastSqLevenbergMarquardtSchur_F64<BlockSparseJacobian> alg =
+					new UnconLeastSqLevenbergMarquardtSchur_F64<>(new MatrixMath_Block(),hessian);
+			alg.configure((ConfigLevenbergMarquardt)config.configOptimizer);
+			return alg;
+		}
+	}
+
+	private static BundleAdjustmentMetricResidualFunction metricResiduals( ConfigBundleAdjustment config ) {
+		if( isConcurrent(config.numThreads) )
+			return new BundleAdjustmentMetricResidualFunction_MT(config.numThreads);
+		return new BundleAdjustmentMetricResidualFunction();
+	}
+
+	private static BundleAdjustmentProjectiveResidualFunction projectiveResiduals( ConfigBundleAdjustment config ) {
+		if( isConcurrent(config.numThreads) )
+			return new BundleAdjustmentProjectiveResidualFunction_MT(config.numThreads);
+		return new BundleAdjustmentProjectiveResidualFunction();
+	}
+
+	private static boolean isConcurrent( int numThreads ) {
+		return numThreads != 1 && BoofConcurrency.USE_CONCURRENT;
+	}
+
 	/**
 	 * Returns an algorithm for estimating a homography matrix given a set of {@link AssociatedPair}.
 	 *
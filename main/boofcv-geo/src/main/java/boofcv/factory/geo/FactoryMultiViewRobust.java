@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,9 +18,7 @@
 
 package boofcv.factory.geo;
 
-import boofcv.abst.geo.Estimate1ofEpipolar;
 import boofcv.abst.geo.Estimate1ofPnP;
-import boofcv.abst.geo.Estimate1ofTrifocalTensor;
 import boofcv.abst.geo.Triangulate2ViewsMetric;
 import boofcv.abst.geo.fitting.DistanceFromModelResidual;
 import boofcv.abst.geo.fitting.GenerateEpipolarMatrix;
@@ -29,6 +27,7 @@ import boofcv.alg.geo.DistanceFromModelMultiView;
 import boofcv.alg.geo.f.FundamentalResidualSampson;
 import boofcv.alg.geo.pose.PnPDistanceReprojectionSq;
 import boofcv.alg.geo.robust.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.geo.AssociatedPair;
 import boofcv.struct.geo.AssociatedTriple;
 import boofcv.struct.geo.Point2D3D;
@@ -43,6 +42,7 @@ import org.ddogleg.fitting.modelset.ModelManager;
 import org.ddogleg.fitting.modelset.ModelMatcher;
 import org.ddogleg.fitting.modelset.lmeds.LeastMedianOfSquares;
 import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.ddogleg.struct.FastQueue;
 import org.ejml.data.DMatrixRMaj;
 
 import javax.annotation.Nonnull;
@@ -80,14 +80,19 @@ public class FactoryMultiViewRobust {
 		configPnP.checkValidity();
 		configLMedS.checkValidity();
 
-		Estimate1ofPnP estimatorPnP = FactoryMultiView.pnp_1( configPnP.which , configPnP.epnpIterations, configPnP.numResolve);
-
-		DistanceFromModelMultiView<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
+		FastQueue.Factory<ModelGenerator<Se3_F64,Point2D3D>> generator = pnpGenerator(configPnP);
+		FastQueue.Factory<DistanceFromModelMultiView<Se3_F64,Point2D3D>> distance = PnPDistanceReprojectionSq::new;
 		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Point2D3D> generator = new EstimatorToGenerator<>(estimatorPnP);
 
-		LeastMedianOfSquaresMultiView<Se3_F64, Point2D3D> lmeds =
-				new LeastMedianOfSquaresMultiView<>(configLMedS.randSeed, configLMedS.totalCycles, manager, generator, distance);
+		if( isConcurrent(configLMedS.numThreads) ) {
+			LeastMedianOfSquaresMultiView_MT<Se3_F64, Point2D3D> lmeds = new LeastMedianOfSquaresMultiView_MT<>(
+					configLMedS.randSeed, configLMedS.totalCycles, manager, generator, distance, configLMedS.numThreads);
+			lmeds.setErrorFraction(configLMedS.errorFraction);
+			return lmeds;
+		}
+
+		LeastMedianOfSquaresMultiView<Se3_F64, Point2D3D> lmeds = new LeastMedianOfSquaresMultiView<>(
+				configLMedS.randSeed, configLMedS.totalCycles, manager, generator.newInstance(), distance.newInstance());
 		lmeds.setErrorFraction(configLMedS.errorFraction);
 		return lmeds;
 	}
@@ -114,16 +119,14 @@ public class FactoryMultiViewRobust {
 		pnp.checkValidity();
 		ransac.checkValidity();
 
-		Estimate1ofPnP estimatorPnP = FactoryMultiView.pnp_1(pnp.which, pnp.epnpIterations, pnp.numResolve);
-		DistanceFromModelMultiView<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
+		FastQueue.Factory<ModelGenerator<Se3_F64,Point2D3D>> generator = pnpGenerator(pnp);
+		FastQueue.Factory<DistanceFromModelMultiView<Se3_F64,Point2D3D>> distance = PnPDistanceReprojectionSq::new;
 		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Point2D3D> generator =
-				new EstimatorToGenerator<>(estimatorPnP);
 
 		// convert from pixels to pixels squared
 		double threshold = ransac.inlierThreshold*ransac.inlierThreshold;
 
-		return new RansacMultiView<>(ransac.randSeed, manager, generator, distance, ransac.maxIterations, threshold);
+		return ransacMultiView(ransac, manager, generator, distance, threshold);
 	}
 
 	/**
@@ -148,19 +151,20 @@ public class FactoryMultiViewRobust {
 		else
 			essential.checkValidity();
 
-		Estimate1ofEpipolar epipolar = FactoryMultiView.
-				essential_1(essential.which, essential.numResolve);
-
-		Triangulate2ViewsMetric triangulate = FactoryMultiView.triangulate2ViewMetric(
-				new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC));
 		ModelManager<Se3_F64> manager = new ModelManagerSe3_F64();
-		ModelGenerator<Se3_F64, AssociatedPair> generateEpipolarMotion =
-				new Se3FromEssentialGenerator(epipolar, triangulate);
-
-		DistanceFromModelMultiView<Se3_F64, AssociatedPair> distanceSe3 = new DistanceSe3SymmetricSq(triangulate);
+		FastQueue.Factory<ModelGenerator<Se3_F64, AssociatedPair>> generateEpipolarMotion = baselineGenerator(essential);
+		FastQueue.Factory<DistanceFromModelMultiView<Se3_F64, AssociatedPair>> distanceSe3 = () ->
+				new DistanceSe3SymmetricSq(triangulateGeometric());
+
+		if( isConcurrent(lmeds.numThreads) ) {
+			LeastMedianOfSquaresMultiView_MT<Se3_F64, AssociatedPair> config = new LeastMedianOfSquaresMultiView_MT<>
+					(lmeds.randSeed, lmeds.totalCycles, manager, generateEpipolarMotion, distanceSe3, lmeds.numThreads);
+			config.setErrorFraction(lmeds.errorFraction);
+			return config;
+		}
 
 		LeastMedianOfSquaresMultiView<Se3_F64, AssociatedPair> config = new LeastMedianOfSquaresMultiView<>
-				(lmeds.randSeed, lmeds.totalCycles, manager, generateEpipolarMotion, distanceSe3);
+				(lmeds.randSeed, lmeds.totalCycles, manager, generateEpipolarMotion.newInstance(), distanceSe3.newInstance());
 		config.setErrorFraction(lmeds.errorFraction);
 		return config;
 	}
@@ -172,29 +176,17 @@ public class FactoryMultiViewRobust {
 		lmeds.checkValidity();
 
 		ModelManager<DMatrixRMaj> managerF = new ModelManagerEpipolarMatrix();
-		Estimate1ofEpipolar estimateF = FactoryMultiView.fundamental_1(fundamental.which,
-				fundamental.numResolve);
-		GenerateEpipolarMatrix generateF = new GenerateEpipolarMatrix(estimateF);
-
-		// How the error is measured
-		DistanceFromModel<DMatrixRMaj,AssociatedPair> errorMetric;
-
-		switch( fundamental.errorModel ) {
-			case SAMPSON:
-				errorMetric = new DistanceFromModelResidual<>(new FundamentalResidualSampson());
-				break;
-
-			case GEOMETRIC:
-				errorMetric = new DistanceFundamentalGeometric();
-				break;
-
-			default:
-				throw new RuntimeException("Unknown");
+		FastQueue.Factory<ModelGenerator<DMatrixRMaj,AssociatedPair>> generateF = fundamentalGenerator(fundamental);
+		FastQueue.Factory<DistanceFromModel<DMatrixRMaj,AssociatedPair>> errorMetric = fundamentalDistance(fundamental);
+
+		LeastMedianOfSquares<DMatrixRMaj, AssociatedPair> config;
+		if( isConcurrent(lmeds.numThreads) ) {
+			config = new LeastMedianOfSquares_MT<>(lmeds.randSeed, lmeds.totalCycles, managerF,
+					generateF, errorMetric, lmeds.numThreads);
+		} else {
+			config = new LeastMedianOfSquares<>(lmeds.randSeed, lmeds.totalCycles, managerF,
+					generateF.newInstance(), errorMetric.newInstance());
 		}
-
-
-		LeastMedianOfSquares<DMatrixRMaj, AssociatedPair> config = new LeastMedianOfSquares<>
-				(lmeds.randSeed, lmeds.totalCycles, managerF, generateF, errorMetric);
 		config.setErrorFraction(lmeds.errorFraction);
 		return config;
 	}
@@ -222,22 +214,14 @@ public class FactoryMultiViewRobust {
 			throw new RuntimeException("Error model has to be Euclidean");
 		}
 
-		Estimate1ofEpipolar epipolar = FactoryMultiView.
-				essential_1(essential.which, essential.numResolve);
-
-		Triangulate2ViewsMetric triangulate = FactoryMultiView.triangulate2ViewMetric(
-				new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC));
 		ModelManager<Se3_F64> manager = new ModelManagerSe3_F64();
-		ModelGenerator<Se3_F64, AssociatedPair> generateEpipolarMotion =
-				new Se3FromEssentialGenerator(epipolar, triangulate);
-
-		DistanceFromModelMultiView<Se3_F64, AssociatedPair> distanceSe3 =
-				new DistanceSe3SymmetricSq(triangulate);
+		FastQueue.Factory<ModelGenerator<Se3_F64, AssociatedPair>> generateEpipolarMotion = baselineGenerator(essential);
+		FastQueue.Factory<DistanceFromModelMultiView<Se3_F64, AssociatedPair>> distanceSe3 = () ->
+				new DistanceSe3SymmetricSq(triangulateGeometric());
 
 		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold * 2.0;
 
-		return new RansacMultiView<>(ransac.randSeed, manager, generateEpipolarMotion, distanceSe3,
-				ransac.maxIterations, ransacTOL);
+		return ransacMultiView(ransac, manager, generateEpipolarMotion, distanceSe3, ransacTOL);
 	}
 
 	public static ModelMatcherMultiview<DMatrixRMaj, AssociatedPair>  essentialRansac(@Nullable ConfigEssential essential,
@@ -256,17 +240,17 @@ public class FactoryMultiViewRobust {
 		}
 
 		ModelManager<DMatrixRMaj> managerE = new ModelManagerEpipolarMatrix();
-		Estimate1ofEpipolar estimateF = FactoryMultiView.essential_1(essential.which,
-				essential.numResolve);
-		GenerateEpipolarMatrix generateE = new GenerateEpipolarMatrix(estimateF);
+		EnumEssential which = essential.which;
+		int numResolve = essential.numResolve;
+		FastQueue.Factory<ModelGenerator<DMatrixRMaj,AssociatedPair>> generateE = () ->
+				new GenerateEpipolarMatrix(FactoryMultiView.essential_1(which, numResolve));
 
 		// How the error is measured
-		DistanceFromModelMultiView<DMatrixRMaj,AssociatedPair> errorMetric =
-				new DistanceMultiView_EssentialSampson();
+		FastQueue.Factory<DistanceFromModelMultiView<DMatrixRMaj,AssociatedPair>> errorMetric =
+				DistanceMultiView_EssentialSampson::new;
 		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
 
-		return new RansacMultiView<>(ransac.randSeed, managerE, generateE, errorMetric,
-				ransac.maxIterations, ransacTOL);
+		return ransacMultiView(ransac, managerE, generateE, errorMetric, ransacTOL);
 	}
 
 
@@ -278,29 +262,12 @@ public class FactoryMultiViewRobust {
 		ransac.checkValidity();
 
 		ModelManager<DMatrixRMaj> managerF = new ModelManagerEpipolarMatrix();
-		Estimate1ofEpipolar estimateF = FactoryMultiView.fundamental_1(fundamental.which,
-				fundamental.numResolve);
-		GenerateEpipolarMatrix generateF = new GenerateEpipolarMatrix(estimateF);
-
-		// How the error is measured
-		DistanceFromModel<DMatrixRMaj,AssociatedPair> errorMetric;
-
-		switch( fundamental.errorModel ) {
-			case SAMPSON:
-				errorMetric = new DistanceFromModelResidual<>(new FundamentalResidualSampson());
-				break;
-
-			case GEOMETRIC:
-				errorMetric = new DistanceFundamentalGeometric();
-				break;
-
-			default:
-				throw new RuntimeException("Unknown");
-		}
+		FastQueue.Factory<ModelGenerator<DMatrixRMaj,AssociatedPair>> generateF = fundamentalGenerator(fundamental);
+		FastQueue.Factory<DistanceFromModel<DMatrixRMaj,AssociatedPair>> errorMetric = fundamentalDistance(fundamental);
 
 		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold;
 
-		return new Ransac<>(ransac.randSeed, managerF, generateF, errorMetric, ransac.maxIterations, ransacTOL);
+		return ransac(ransac, managerF, generateF, errorMetric, ransacTOL);
 	}
 
 	/**
@@ -325,11 +292,19 @@ public class FactoryMultiViewRobust {
 			homography = new ConfigHomography();
 
 		ModelManager<Homography2D_F64> manager = new ModelManagerHomography2D_F64();
-		GenerateHomographyLinear modelFitter = new GenerateHomographyLinear(homography.normalize);
-		DistanceHomographySq distance = new DistanceHomographySq();
-
-		LeastMedianOfSquares<Homography2D_F64,AssociatedPair> lmeds= new LeastMedianOfSquares<>
-				(configLMedS.randSeed, configLMedS.totalCycles, manager, modelFitter, distance);
+		boolean normalize = homography.normalize;
+		FastQueue.Factory<ModelGenerator<Homography2D_F64,AssociatedPair>> modelFitter = () ->
+				new GenerateHomographyLinear(normalize);
+		FastQueue.Factory<DistanceFromModel<Homography2D_F64,AssociatedPair>> distance = DistanceHomographySq::new;
+
+		LeastMedianOfSquares<Homography2D_F64,AssociatedPair> lmeds;
+		if( isConcurrent(configLMedS.numThreads) ) {
+			lmeds = new LeastMedianOfSquares_MT<>(configLMedS.randSeed, configLMedS.totalCycles, manager,
+					modelFitter, distance, configLMedS.numThreads);
+		} else {
+			lmeds = new LeastMedianOfSquares<>(configLMedS.randSeed, configLMedS.totalCycles, manager,
+					modelFitter.newInstance(), distance.newInstance());
+		}
 		lmeds.setErrorFraction(configLMedS.errorFraction);
 		return lmeds;
 	}
@@ -356,12 +331,14 @@ public class FactoryMultiViewRobust {
 			homography = new ConfigHomography();
 
 		ModelManager<Homography2D_F64> manager = new ModelManagerHomography2D_F64();
-		GenerateHomographyLinear modelFitter = new GenerateHomographyLinear(homography.normalize);
-		DistanceHomographySq distance = new DistanceHomographySq();
+		boolean normalize = homography.normalize;
+		FastQueue.Factory<ModelGenerator<Homography2D_F64,AssociatedPair>> modelFitter = () ->
+				new GenerateHomographyLinear(normalize);
+		FastQueue.Factory<DistanceFromModel<Homography2D_F64,AssociatedPair>> distance = DistanceHomographySq::new;
 
 		double ransacTol = ransac.inlierThreshold*ransac.inlierThreshold;
 
-		return new Ransac<>(ransac.randSeed, manager, modelFitter, distance, ransac.maxIterations, ransacTol);
+		return ransac(ransac, manager, modelFitter, distance, ransacTol);
 	}
 
 	/**
@@ -373,17 +350,18 @@ public class FactoryMultiViewRobust {
 	 * @param ransac RANSAC configuration
 	 * @return Ransac
 	 */
-	public static RansacMultiView<Homography2D_F64,AssociatedPair>
+	public static ModelMatcherMultiview<Homography2D_F64,AssociatedPair>
 	homographyCalibratedRansac( @Nonnull ConfigRansac ransac )
 	{
 		ModelManager<Homography2D_F64> manager = new ModelManagerHomography2D_F64();
-		GenerateHomographyLinear modelFitter = new GenerateHomographyLinear(false);
-		DistanceHomographyCalibratedSq distance = new DistanceHomographyCalibratedSq();
+		FastQueue.Factory<ModelGenerator<Homography2D_F64,AssociatedPair>> modelFitter = () ->
+				new GenerateHomographyLinear(false);
+		FastQueue.Factory<DistanceFromModelMultiView<Homography2D_F64,AssociatedPair>> distance =
+				DistanceHomographyCalibratedSq::new;
 
 		double ransacTol = ransac.inlierThreshold*ransac.inlierThreshold;
 
-		return new RansacMultiView<>
-				(ransac.randSeed, manager, modelFitter, distance, ransac.maxIterations, ransacTol);
+		return ransacMultiView(ransac, manager, modelFitter, distance, ransacTol);
 	}
 
 	/**
@@ -408,29 +386,136 @@ public class FactoryMultiViewRobust {
 		trifocal.checkValidity();
 
 		double ransacTol;
-		DistanceFromModel<TrifocalTensor,AssociatedTriple> distance;
+		FastQueue.Factory<DistanceFromModel<TrifocalTensor,AssociatedTriple>> distance;
 
 		switch( error.model) {
 			case REPROJECTION: {
 				ransacTol = 3.0*ransac.inlierThreshold*ransac.inlierThreshold;
-				distance = new DistanceTrifocalReprojectionSq();
+				distance = DistanceTrifocalReprojectionSq::new;
 			} break;
-			case REPROJECTION_REFINE:
+			case REPROJECTION_REFINE: {
 				ransacTol = 3.0*ransac.inlierThreshold*ransac.inlierThreshold;
-				distance = new DistanceTrifocalReprojectionSq(error.converge.gtol,error.converge.maxIterations);
-				break;
+				double gtol = error.converge.gtol;
+				int maxIterations = error.converge.maxIterations;
+				distance = () -> new DistanceTrifocalReprojectionSq(gtol,maxIterations);
+			} break;
 			case POINT_TRANSFER:
 				ransacTol = 2.0*ransac.inlierThreshold*ransac.inlierThreshold;
-				distance = new DistanceTrifocalTransferSq();
+				distance = DistanceTrifocalTransferSq::new;
 				break;
 			default:
 				throw new IllegalArgumentException("Unknown error model "+error.model);
 		}
 
-		Estimate1ofTrifocalTensor estimator = FactoryMultiView.trifocal_1(trifocal);
+		ConfigTrifocal configTrifocal = trifocal;
 		ModelManager<TrifocalTensor> manager = new ManagerTrifocalTensor();
-		ModelGenerator<TrifocalTensor,AssociatedTriple> generator = new GenerateTrifocalTensor(estimator);
+		FastQueue.Factory<ModelGenerator<TrifocalTensor,AssociatedTriple>> generator = () ->
+				new GenerateTrifocalTensor(FactoryMultiView.trifocal_1(configTrifocal));
 
-		return new Ransac<>(ransac.randSeed, manager, generator, distance, ransac.maxIterations, ransacTol);
+		return ransac(ransac, manager, generator, distance, ransacTol);
+	}
+
+	/**
+	 * Creates {@link Ransac} or its concurrent version, depending on the configuration
+	 */
+	private static <Model,Point> Ransac<Model,Point>
+	ransac( ConfigRansac ransac , ModelManager<Model> manager ,
+			FastQueue.Factory<ModelGenerator<Model,Point>> generator ,
+			FastQueue.Factory<DistanceFromModel<Model,Point>> distance , double threshold ) {
+		if( useRansac_MT(ransac) ) {
+			Ransac_MT<Model,Point> alg = new Ransac_MT<>(ransac.randSeed, manager, generator, distance,
+					ransac.maxIterations, threshold, threads(ransac));
+			configure(ransac, alg);
+			return alg;
+		} else {
+			return new Ransac<>(ransac.randSeed, manager, generator.newInstance(), distance.newInstance(),
+					ransac.maxIterations, threshold);
+		}
+	}
+
+	/**
+	 * Creates {@link RansacMultiView} or its concurrent version, depending on the configuration
+	 */
+	private static <Model,Point> ModelMatcherMultiview<Model,Point>
+	ransacMultiView( ConfigRansac ransac , ModelManager<Model> manager ,
+					 FastQueue.Factory<ModelGenerator<Model,Point>> generator ,
+					 FastQueue.Factory<DistanceFromModelMultiView<Model,Point>> distance , double threshold ) {
+		if( useRansac_MT(ransac) ) {
+			RansacMultiView_MT<Model,Point> alg = new RansacMultiView_MT<>(ransac.randSeed, manager, generator,
+					distance, ransac.maxIterations, threshold, threads(ransac));
+			configure(ransac, alg);
+			return alg;
+		} else {
+			return new RansacMultiView<>(ransac.randSeed, manager, generator.newInstance(), distance.newInstance(),
+					ransac.maxIterations, threshold);
+		}
+	}
+
+	/**
+	 * If the concurrent implementation should be used
+	 */
+	private static boolean isConcurrent( int numThreads ) {
+		return numThreads != 1 && BoofConcurrency.USE_CONCURRENT;
+	}
+
+	/**
+	 * If the concurrent implementation of RANSAC should be used. Early termination is only supported by it.
+	 */
+	private static boolean useRansac_MT( ConfigRansac ransac ) {
+		return isConcurrent(ransac.numThreads) || ransac.sprt || ransac.terminationConfidence > 0.0;
+	}
+
+	/**
+	 * Number of threads RANSAC should use. Single threaded if concurrency has been turned off.
+	 */
+	private static int threads( ConfigRansac ransac ) {
+		return isConcurrent(ransac.numThreads) ? ransac.numThreads : 1;
+	}
+
+	private static void configure( ConfigRansac config , Ransac_MT<?,?> alg ) {
+		alg.setSprt(config.sprt);
+		alg.setTerminationConfidence(config.terminationConfidence);
+	}
+
+	private static FastQueue.Factory<ModelGenerator<Se3_F64,Point2D3D>> pnpGenerator( ConfigPnP pnp ) {
+		EnumPNP which = pnp.which;
+		int epnpIterations = pnp.epnpIterations;
+		int numResolve = pnp.numResolve;
+		return () -> new EstimatorToGenerator<>(FactoryMultiView.pnp_1(which, epnpIterations, numResolve));
+	}
+
+	private static FastQueue.Factory<ModelGenerator<Se3_F64,AssociatedPair>> baselineGenerator( ConfigEssential essential ) {
+		EnumEssential which = essential.which;
+		int numResolve = essential.numResolve;
+		return () -> new Se3FromEssentialGenerator(FactoryMultiView.essential_1(which, numResolve),
+				triangulateGeometric());
+	}
+
+	private static Triangulate2ViewsMetric triangulateGeometric() {
+		return FactoryMultiView.triangulate2ViewMetric(new ConfigTriangulation(ConfigTriangulation.Type.GEOMETRIC));
+	}
+
+	private static FastQueue.Factory<ModelGenerator<DMatrixRMaj,AssociatedPair>>
+	fundamentalGenerator( ConfigFundamental fundamental ) {
+		EnumFundamental which = fundamental.which;
+		int numResolve = fundamental.numResolve;
+		return () -> new GenerateEpipolarMatrix(FactoryMultiView.fundamental_1(which, numResolve));
+	}
+
+	/**
+	 * How the error is measured for the fundamental matrix
+	 */
+	private static FastQueue.Factory<DistanceFromModel<DMatrixRMaj,AssociatedPair>>
+	fundamentalDistance( ConfigFundamental fundamental ) {
+		switch( fundamental.errorModel ) {
+			case SAMPSON:
+				return () -> new DistanceFromModelResidual<>(new FundamentalResidualSampson());
+
+			case GEOMETRIC:
+				return DistanceFundamentalGeometric::new;
+
+			default:
+				throw new RuntimeException("Unknown");
+		}
 	}
 }
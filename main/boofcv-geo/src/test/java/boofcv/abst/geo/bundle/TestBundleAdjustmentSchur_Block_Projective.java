@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.geo.bundle;
+
+import boofcv.alg.geo.bundle.block.HessianSchurComplement_Block;
+import boofcv.factory.geo.FactoryMultiView;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBundleAdjustmentSchur_Block_Projective extends GenericBundleAdjustmentProjectiveChecks {
+
+	@Override
+	public BundleAdjustment<SceneStructureProjective> createAlg() {
+		BundleAdjustment<SceneStructureProjective> ret =
+				FactoryMultiView.bundleBlockProjective(HessianSchurComplement_Block.Solver.CHOLESKY,null);
+		ret.configure(1e-5,1e-5,20);
+		return ret;
+	}
+}
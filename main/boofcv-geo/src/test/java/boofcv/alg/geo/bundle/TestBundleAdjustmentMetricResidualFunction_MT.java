@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.alg.geo.bundle.cameras.BundleUniversalOmni;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureMetric.createScene;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleAdjustmentMetricResidualFunction_MT {
+	Random rand = new Random(48854);
+
+	/**
+	 * The output should be identical to the single threaded implementation no matter how many threads are used
+	 */
+	@Test
+	void compareToSingleThread() {
+		for( boolean omni : new boolean[]{false,true} ) {
+			compareToSingleThread(true,false,omni);
+			compareToSingleThread(false,false,omni);
+			compareToSingleThread(true,true,omni);
+			compareToSingleThread(false,true,omni);
+		}
+	}
+
+	void compareToSingleThread(boolean homogenous , boolean hasRigid , boolean omni ) {
+		SceneStructureMetric structure = createScene(rand,homogenous, hasRigid);
+		if( omni )
+			useOmniCameras(structure);
+		SceneObservations observations = createObservations(rand,structure);
+
+		double param[] = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure,param);
+
+		BundleAdjustmentMetricResidualFunction single = new BundleAdjustmentMetricResidualFunction();
+		single.configure(structure,observations);
+		double expected[] = new double[single.getNumOfOutputsM()];
+		single.process(param,expected);
+
+		double found[] = new double[expected.length];
+		for (int threads = 1; threads <= 5; threads++) {
+			BundleAdjustmentMetricResidualFunction_MT alg = new BundleAdjustmentMetricResidualFunction_MT(threads);
+			alg.configure(structure,observations);
+
+			// every element should be written to
+			Arrays.fill(found,Double.NaN);
+			alg.process(param,found);
+			assertArrayEquals(expected,found,0.0);
+		}
+	}
+
+	/**
+	 * Replaces the cameras with omnidirectional cameras. Their Jacobian is the most complex of the camera models
+	 * and they are used to check that a single camera model can be shared between threads.
+	 */
+	static void useOmniCameras( SceneStructureMetric structure ) {
+		for (int i = 0; i < structure.cameras.size; i++) {
+			BundleUniversalOmni omni = new BundleUniversalOmni(false,2,true,false);
+			omni.setIntrinsic(new double[]{300+i*10,200,400,400,0.01,0.015,-0.001,0.002,0.1,0.9},0);
+			structure.setCamera(i,structure.cameras.get(i).known,omni);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.alg.geo.bundle.block.BlockSparseJacobian;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureMetric.createScene;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleAdjustmentMetricSchurJacobian_Block {
+	Random rand = new Random(48854);
+
+	/**
+	 * Should produce the same Jacobian as the dense implementation
+	 */
+	@Test
+	void compareToDense() {
+		compareToDense(true,false);
+		compareToDense(false,false);
+		compareToDense(true,true);
+		compareToDense(false,true);
+	}
+
+	void compareToDense(boolean homogenous , boolean hasRigid) {
+		SceneStructureMetric structure = createScene(rand,homogenous, hasRigid);
+		SceneObservations observations = createObservations(rand,structure);
+
+		double param[] = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure,param);
+
+		BundleAdjustmentMetricSchurJacobian_DDRM dense = new BundleAdjustmentMetricSchurJacobian_DDRM();
+		dense.configure(structure,observations);
+		DMatrixRMaj expectedLeft = new DMatrixRMaj(1,1);
+		DMatrixRMaj expectedRight = new DMatrixRMaj(1,1);
+		dense.process(param,expectedLeft,expectedRight);
+
+		BundleAdjustmentMetricSchurJacobian_Block alg = new BundleAdjustmentMetricSchurJacobian_Block();
+		alg.configure(structure,observations);
+		BlockSparseJacobian left = new BlockSparseJacobian();
+		BlockSparseJacobian right = new BlockSparseJacobian();
+
+		// process twice to make sure the matrices are correctly reset
+		for (int trial = 0; trial < 2; trial++) {
+			alg.process(param,left,right);
+			assertTrue(MatrixFeatures_DDRM.isIdentical(expectedLeft,left.toDense(null),0.0));
+			assertTrue(MatrixFeatures_DDRM.isIdentical(expectedRight,right.toDense(null),0.0));
+		}
+
+		// one block in the left side for each observation, i.e. the Schur complement's A is block diagonal
+		for (int rowBlock = 0; rowBlock < left.getRowBlockCount(); rowBlock++) {
+			assertTrue(left.getRowBlockEnd(rowBlock)-left.getRowBlockBegin(rowBlock) <= 1);
+		}
+		assertEquals(left.getNumCols(),left.getColBlockStart(left.getColBlockCount()));
+		assertEquals(right.getNumCols(),right.getColBlockStart(right.getColBlockCount()));
+	}
+}
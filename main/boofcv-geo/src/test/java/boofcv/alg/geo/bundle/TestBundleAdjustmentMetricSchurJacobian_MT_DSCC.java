@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import org.ejml.data.DMatrixSparseCSC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricResidualFunction_MT.useOmniCameras;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureMetric.createScene;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleAdjustmentMetricSchurJacobian_MT_DSCC {
+	Random rand = new Random(48854);
+
+	/**
+	 * The output should be identical to the single threaded implementation no matter how many threads are used
+	 */
+	@Test
+	void compareToSingleThread() {
+		for( boolean omni : new boolean[]{false,true} ) {
+			compareToSingleThread(true,false,omni);
+			compareToSingleThread(false,false,omni);
+			compareToSingleThread(true,true,omni);
+			compareToSingleThread(false,true,omni);
+		}
+	}
+
+	void compareToSingleThread(boolean homogenous , boolean hasRigid , boolean omni ) {
+		SceneStructureMetric structure = createScene(rand,homogenous, hasRigid);
+		if( omni )
+			useOmniCameras(structure);
+		SceneObservations observations = createObservations(rand,structure);
+
+		double param[] = new double[structure.getParameterCount()];
+		new CodecSceneStructureMetric().encode(structure,param);
+
+		BundleAdjustmentMetricSchurJacobian_DSCC single = new BundleAdjustmentMetricSchurJacobian_DSCC();
+		single.configure(structure,observations);
+		DMatrixSparseCSC expectedLeft = new DMatrixSparseCSC(1,1);
+		DMatrixSparseCSC expectedRight = new DMatrixSparseCSC(1,1);
+		single.process(param,expectedLeft,expectedRight);
+
+		DMatrixSparseCSC left = new DMatrixSparseCSC(1,1);
+		DMatrixSparseCSC right = new DMatrixSparseCSC(1,1);
+		for (int threads = 1; threads <= 5; threads++) {
+			BundleAdjustmentMetricSchurJacobian_MT_DSCC alg = new BundleAdjustmentMetricSchurJacobian_MT_DSCC(threads);
+			alg.configure(structure,observations);
+
+			// process twice to make sure the work space is correctly reset
+			for (int trial = 0; trial < 2; trial++) {
+				alg.process(param,left,right);
+				assertIdentical(expectedLeft,left);
+				assertIdentical(expectedRight,right);
+			}
+		}
+	}
+
+	/**
+	 * Checks to see if the two matrices have the same elements in the same order. Needed since the rows are unsorted
+	 */
+	static void assertIdentical( DMatrixSparseCSC expected , DMatrixSparseCSC found ) {
+		assertEquals(expected.numRows,found.numRows);
+		assertEquals(expected.numCols,found.numCols);
+		assertEquals(expected.nz_length,found.nz_length);
+		for (int i = 0; i <= expected.numCols; i++) {
+			assertEquals(expected.col_idx[i],found.col_idx[i]);
+		}
+		for (int i = 0; i < expected.nz_length; i++) {
+			assertEquals(expected.nz_rows[i],found.nz_rows[i]);
+			assertEquals(expected.nz_values[i],found.nz_values[i]);
+		}
+	}
+}
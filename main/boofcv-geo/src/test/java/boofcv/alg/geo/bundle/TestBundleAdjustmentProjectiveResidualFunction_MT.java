@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentProjectiveResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createScene3D;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createSceneH;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleAdjustmentProjectiveResidualFunction_MT {
+	Random rand = new Random(48854);
+
+	/**
+	 * The output should be identical to the single threaded implementation no matter how many threads are used
+	 */
+	@Test
+	void compareToSingleThread() {
+		compareToSingleThread(createScene3D(rand));
+		compareToSingleThread(createSceneH(rand));
+	}
+
+	void compareToSingleThread( SceneStructureProjective structure ) {
+		SceneObservations observations = createObservations(rand,structure);
+
+		double param[] = new double[structure.getParameterCount()];
+		new CodecSceneStructureProjective().encode(structure,param);
+
+		BundleAdjustmentProjectiveResidualFunction single = new BundleAdjustmentProjectiveResidualFunction();
+		single.configure(structure,observations);
+		double expected[] = new double[single.getNumOfOutputsM()];
+		single.process(param,expected);
+
+		double found[] = new double[expected.length];
+		for (int threads = 1; threads <= 5; threads++) {
+			BundleAdjustmentProjectiveResidualFunction_MT alg = new BundleAdjustmentProjectiveResidualFunction_MT(threads);
+			alg.configure(structure,observations);
+
+			// every element should be written to
+			Arrays.fill(found,Double.NaN);
+			alg.process(param,found);
+			assertArrayEquals(expected,found,0.0);
+		}
+	}
+}
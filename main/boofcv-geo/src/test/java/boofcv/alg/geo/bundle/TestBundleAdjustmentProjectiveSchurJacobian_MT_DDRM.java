@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentProjectiveResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createScene3D;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createSceneH;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleAdjustmentProjectiveSchurJacobian_MT_DDRM {
+	Random rand = new Random(48854);
+
+	/**
+	 * The output should be identical to the single threaded implementation no matter how many threads are used
+	 */
+	@Test
+	void compareToSingleThread() {
+		compareToSingleThread(createScene3D(rand));
+		compareToSingleThread(createSceneH(rand));
+	}
+
+	void compareToSingleThread( SceneStructureProjective structure ) {
+		SceneObservations observations = createObservations(rand,structure);
+
+		double param[] = new double[structure.getParameterCount()];
+		new CodecSceneStructureProjective().encode(structure,param);
+
+		BundleAdjustmentProjectiveSchurJacobian_DDRM single = new BundleAdjustmentProjectiveSchurJacobian_DDRM();
+		single.configure(structure,observations);
+		DMatrixRMaj expectedLeft = new DMatrixRMaj(1,1);
+		DMatrixRMaj expectedRight = new DMatrixRMaj(1,1);
+		single.process(param,expectedLeft,expectedRight);
+
+		DMatrixRMaj left = new DMatrixRMaj(1,1);
+		DMatrixRMaj right = new DMatrixRMaj(1,1);
+		for (int threads = 1; threads <= 5; threads++) {
+			BundleAdjustmentProjectiveSchurJacobian_MT_DDRM alg = new BundleAdjustmentProjectiveSchurJacobian_MT_DDRM(threads);
+			alg.configure(structure,observations);
+
+			// process twice to make sure the work space is correctly reset
+			for (int trial = 0; trial < 2; trial++) {
+				alg.process(param,left,right);
+				assertTrue(MatrixFeatures_DDRM.isIdentical(expectedLeft,left,0.0));
+				assertTrue(MatrixFeatures_DDRM.isIdentical(expectedRight,right,0.0));
+			}
+		}
+	}
+}
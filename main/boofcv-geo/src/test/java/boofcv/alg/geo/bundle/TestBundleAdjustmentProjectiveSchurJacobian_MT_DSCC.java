@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureProjective;
+import org.ejml.data.DMatrixSparseCSC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentMetricSchurJacobian_MT_DSCC.assertIdentical;
+import static boofcv.alg.geo.bundle.TestBundleAdjustmentProjectiveResidualFunction.createObservations;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createScene3D;
+import static boofcv.alg.geo.bundle.TestCodecSceneStructureProjective.createSceneH;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleAdjustmentProjectiveSchurJacobian_MT_DSCC {
+	Random rand = new Random(48854);
+
+	/**
+	 * The output should be identical to the single threaded implementation no matter how many threads are used
+	 */
+	@Test
+	void compareToSingleThread() {
+		compareToSingleThread(createScene3D(rand));
+		compareToSingleThread(createSceneH(rand));
+	}
+
+	void compareToSingleThread( SceneStructureProjective structure ) {
+		SceneObservations observations = createObservations(rand,structure);
+
+		double param[] = new double[structure.getParameterCount()];
+		new CodecSceneStructureProjective().encode(structure,param);
+
+		BundleAdjustmentProjectiveSchurJacobian_DSCC single = new BundleAdjustmentProjectiveSchurJacobian_DSCC();
+		single.configure(structure,observations);
+		DMatrixSparseCSC expectedLeft = new DMatrixSparseCSC(1,1);
+		DMatrixSparseCSC expectedRight = new DMatrixSparseCSC(1,1);
+		single.process(param,expectedLeft,expectedRight);
+
+		DMatrixSparseCSC left = new DMatrixSparseCSC(1,1);
+		DMatrixSparseCSC right = new DMatrixSparseCSC(1,1);
+		for (int threads = 1; threads <= 5; threads++) {
+			BundleAdjustmentProjectiveSchurJacobian_MT_DSCC alg = new BundleAdjustmentProjectiveSchurJacobian_MT_DSCC(threads);
+			alg.configure(structure,observations);
+
+			// process twice to make sure the work space is correctly reset
+			for (int trial = 0; trial < 2; trial++) {
+				alg.process(param,left,right);
+				assertIdentical(expectedLeft,left);
+				assertIdentical(expectedRight,right);
+			}
+		}
+	}
+}
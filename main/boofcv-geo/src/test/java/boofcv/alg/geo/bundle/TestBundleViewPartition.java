@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBundleViewPartition {
+	@Test
+	void configure() {
+		SceneObservations observations = createObservations(true, 3,0,5,2);
+
+		BundleViewPartition alg = new BundleViewPartition();
+		alg.configure(observations);
+
+		// rigid observations are counted too, one for each view
+		assertEquals(0,alg.getFirstObservation(0));
+		assertEquals(4,alg.getFirstObservation(1));
+		assertEquals(5,alg.getFirstObservation(2));
+		assertEquals(11,alg.getFirstObservation(3));
+		assertEquals(14,alg.getFirstObservation(4));
+	}
+
+	/**
+	 * Blocks should have a similar number of observations
+	 */
+	@Test
+	void split_balanced() {
+		SceneObservations observations = createObservations(false, 10,10,10,10,20,20);
+
+		BundleViewPartition alg = new BundleViewPartition();
+		alg.configure(observations);
+
+		alg.split(2);
+		assertEquals(2,alg.getBlockCount());
+		assertEquals(0,alg.getViewStart(0));
+		assertEquals(4,alg.getViewEnd(0));
+		assertEquals(4,alg.getViewStart(1));
+		assertEquals(6,alg.getViewEnd(1));
+
+		alg.split(1);
+		assertEquals(1,alg.getBlockCount());
+		assertEquals(0,alg.getViewStart(0));
+		assertEquals(6,alg.getViewEnd(0));
+	}
+
+	/**
+	 * Every block must have at least one view, even when the observations are very unbalanced
+	 */
+	@Test
+	void split_noEmptyBlocks() {
+		SceneObservations observations = createObservations(false, 100,1,1,1);
+
+		BundleViewPartition alg = new BundleViewPartition();
+		alg.configure(observations);
+
+		for (int numBlocks = 1; numBlocks <= 6; numBlocks++) {
+			alg.split(numBlocks);
+			assertEquals(Math.min(4,numBlocks),alg.getBlockCount());
+			assertEquals(0,alg.getViewStart(0));
+			assertEquals(4,alg.getViewEnd(alg.getBlockCount()-1));
+			for (int block = 0; block < alg.getBlockCount(); block++) {
+				assertTrue(alg.getViewEnd(block) > alg.getViewStart(block));
+				if( block > 0 )
+					assertEquals(alg.getViewEnd(block-1),alg.getViewStart(block));
+			}
+		}
+	}
+
+	@Test
+	void append() {
+		DMatrixSparseTriplet a = new DMatrixSparseTriplet(5,4,1);
+		a.addItem(0,1,2);
+		a.addItem(1,3,4);
+		DMatrixSparseTriplet b = new DMatrixSparseTriplet(5,4,1);
+		b.addItem(2,0,5);
+		b.addItem(3,2,6);
+		b.addItem(4,1,7);
+
+		BundleViewPartition.append(b,a);
+		assertEquals(5,a.nz_length);
+		assertEquals(2,a.get(0,1));
+		assertEquals(4,a.get(1,3));
+		assertEquals(5,a.get(2,0));
+		assertEquals(6,a.get(3,2));
+		assertEquals(7,a.get(4,1));
+	}
+
+	private static SceneObservations createObservations( boolean rigid , int ...counts ) {
+		SceneObservations observations = new SceneObservations(counts.length,rigid);
+		for (int viewIndex = 0; viewIndex < counts.length; viewIndex++) {
+			for (int i = 0; i < counts[viewIndex]; i++) {
+				observations.getView(viewIndex).add(i,1,2);
+			}
+			if( rigid )
+				observations.getViewRigid(viewIndex).add(0,1,2);
+		}
+		return observations;
+	}
+}
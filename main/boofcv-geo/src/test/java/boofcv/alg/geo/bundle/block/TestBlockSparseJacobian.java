@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle.block;
+
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBlockSparseJacobian {
+	Random rand = new Random(234);
+
+	BlockSparseJacobian create( int numRows ) {
+		GrowQueue_I32 widths = new GrowQueue_I32();
+		widths.add(3);
+		widths.add(1);
+		widths.add(4);
+		BlockSparseJacobian alg = new BlockSparseJacobian();
+		alg.setBlocks(2,widths);
+		alg.reshape(numRows,8);
+		return alg;
+	}
+
+	/**
+	 * Assign values and see if it's the same as a dense matrix
+	 */
+	@Test
+	void set_get() {
+		BlockSparseJacobian alg = create(6);
+		DMatrixRMaj expected = new DMatrixRMaj(6,8);
+
+		// skip the middle row block and assign elements out of order inside a row block
+		int[][] coordinates = new int[][]{{1,5},{0,2},{1,0},{4,3},{5,7},{4,0}};
+		for( int[] c : coordinates ) {
+			double value = rand.nextGaussian();
+			alg.set(c[0],c[1],value);
+			expected.set(c[0],c[1],value);
+		}
+
+		assertEquals(5,alg.getBlockCount());
+		for (int row = 0; row < 6; row++) {
+			for (int col = 0; col < 8; col++) {
+				assertEquals(expected.get(row,col),alg.get(row,col),0.0);
+			}
+		}
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expected,alg.toDense(null),0.0));
+
+		// check the block layout
+		assertEquals(0,alg.getRowBlockBegin(0));
+		assertEquals(2,alg.getRowBlockEnd(0));
+		assertEquals(2,alg.getRowBlockBegin(1));
+		assertEquals(2,alg.getRowBlockEnd(1));
+		assertEquals(2,alg.getRowBlockBegin(2));
+		assertEquals(5,alg.getRowBlockEnd(2));
+		assertEquals(2,alg.getBlockColumn(0));
+		assertEquals(0,alg.getBlockColumn(1));
+		assertEquals(2*4,alg.getBlockOffset(1));
+	}
+
+	@Test
+	void set_outOfOrder() {
+		BlockSparseJacobian alg = create(6);
+		alg.set(2,0,1);
+		alg.set(3,0,1);
+		assertThrows(IllegalArgumentException.class,()->alg.set(1,0,1));
+	}
+
+	@Test
+	void zero_reshape() {
+		BlockSparseJacobian alg = create(6);
+		alg.set(2,0,1);
+		alg.zero();
+		assertEquals(0,alg.getBlockCount());
+		assertEquals(0,alg.get(2,0),0.0);
+		// this would fail if the row blocks hadn't been reset
+		alg.set(0,0,2);
+
+		alg.reshape(10,8);
+		assertEquals(0,alg.getBlockCount());
+		assertEquals(10,alg.getNumRows());
+		assertEquals(5,alg.getRowBlockCount());
+		assertEquals(3,alg.getColBlockCount());
+	}
+
+	@Test
+	void copy_isSameStructure() {
+		BlockSparseJacobian alg = create(6);
+		alg.set(2,0,1);
+		alg.set(4,5,2);
+
+		BlockSparseJacobian copy = alg.copy();
+		assertTrue(alg.isSameStructure(copy));
+		assertTrue(MatrixFeatures_DDRM.isIdentical(alg.toDense(null),copy.toDense(null),0.0));
+
+		// values are ignored
+		copy.set(4,5,3);
+		assertTrue(alg.isSameStructure(copy));
+		copy.set(5,0,3);
+		assertFalse(alg.isSameStructure(copy));
+
+		BlockSparseJacobian like = alg.createLike();
+		assertEquals(0,like.getBlockCount());
+		assertEquals(6,like.getNumRows());
+		assertEquals(3,like.getColBlockCount());
+	}
+
+	@Test
+	void serialize() throws IOException, ClassNotFoundException {
+		BlockSparseJacobian alg = create(6);
+		alg.set(2,0,1);
+		alg.set(4,5,2);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try( ObjectOutputStream out = new ObjectOutputStream(bytes) ) {
+			out.writeObject(alg);
+		}
+		BlockSparseJacobian found;
+		try( ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())) ) {
+			found = (BlockSparseJacobian)in.readObject();
+		}
+
+		assertTrue(alg.isSameStructure(found));
+		assertTrue(MatrixFeatures_DDRM.isIdentical(alg.toDense(null),found.toDense(null),0.0));
+
+		// the layout should still be usable
+		found.set(5,7,3);
+		assertEquals(3,found.get(5,7));
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle.block;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDenseBlockMath {
+	Random rand = new Random(234);
+
+	// offset used to make sure the offset is handled correctly
+	int offset = 3;
+
+	@Test
+	void multAddTransA() {
+		DMatrixRMaj A = RandomMatrices_DDRM.rectangle(2,3,rand);
+		DMatrixRMaj B = RandomMatrices_DDRM.rectangle(2,4,rand);
+		DMatrixRMaj C = RandomMatrices_DDRM.rectangle(3,4,rand);
+		DMatrixRMaj expected = C.copy();
+		CommonOps_DDRM.multAddTransA(-1.5,A,B,expected);
+
+		double[] c = embed(C);
+		DenseBlockMath.multAddTransA(-1.5,2,3,4,embed(A),offset,embed(B),offset,c,offset);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expected,extract(c,3,4),UtilEjml.TEST_F64));
+	}
+
+	@Test
+	void mult() {
+		DMatrixRMaj A = RandomMatrices_DDRM.rectangle(3,3,rand);
+		DMatrixRMaj B = RandomMatrices_DDRM.rectangle(3,6,rand);
+		DMatrixRMaj expected = new DMatrixRMaj(3,6);
+		CommonOps_DDRM.mult(A,B,expected);
+
+		double[] c = embed(RandomMatrices_DDRM.rectangle(3,6,rand));
+		DenseBlockMath.mult(3,3,6,embed(A),offset,embed(B),offset,c,offset);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expected,extract(c,3,6),UtilEjml.TEST_F64));
+	}
+
+	@Test
+	void multAddVector() {
+		DMatrixRMaj A = RandomMatrices_DDRM.rectangle(3,4,rand);
+		DMatrixRMaj x = RandomMatrices_DDRM.rectangle(4,1,rand);
+		DMatrixRMaj y = RandomMatrices_DDRM.rectangle(3,1,rand);
+		DMatrixRMaj expected = y.copy();
+		CommonOps_DDRM.multAdd(0.5,A,x,expected);
+
+		double[] found = embed(y);
+		DenseBlockMath.multAddVector(0.5,3,4,embed(A),offset,embed(x),offset,found,offset);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expected,extract(found,3,1),UtilEjml.TEST_F64));
+
+		// transposed
+		x = RandomMatrices_DDRM.rectangle(3,1,rand);
+		y = RandomMatrices_DDRM.rectangle(4,1,rand);
+		expected = y.copy();
+		CommonOps_DDRM.multAddTransA(0.5,A,x,expected);
+
+		found = embed(y);
+		DenseBlockMath.multAddTransVector(0.5,3,4,embed(A),offset,embed(x),offset,found,offset);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expected,extract(found,4,1),UtilEjml.TEST_F64));
+	}
+
+	@Test
+	void innerProduct() {
+		DMatrixRMaj A = RandomMatrices_DDRM.rectangle(3,4,rand);
+		DMatrixRMaj x = RandomMatrices_DDRM.rectangle(3,1,rand);
+		DMatrixRMaj y = RandomMatrices_DDRM.rectangle(4,1,rand);
+		double expected = CommonOps_DDRM.dot(x,multiply(A,y));
+
+		double found = DenseBlockMath.innerProduct(3,4,embed(x),offset,embed(A),offset,embed(y),offset);
+		assertEquals(expected,found,UtilEjml.TEST_F64);
+	}
+
+	@Test
+	void cholesky_solve() {
+		DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(6,rand);
+		double[] u = embed(A);
+		assertTrue(DenseBlockMath.cholesky(6,u,offset));
+
+		// U'*U = A and U is upper triangular
+		DMatrixRMaj U = extract(u,6,6);
+		assertTrue(MatrixFeatures_DDRM.isUpperTriangle(U,0,0.0));
+		DMatrixRMaj found = new DMatrixRMaj(6,6);
+		CommonOps_DDRM.multTransA(U,U,found);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+
+		// Solve A*X = B using the decomposition
+		DMatrixRMaj B = RandomMatrices_DDRM.rectangle(6,2,rand);
+		DMatrixRMaj expected = new DMatrixRMaj(6,2);
+		CommonOps_DDRM.solve(A,B,expected);
+		double[] x = embed(B);
+		DenseBlockMath.solveTransUpper(6,2,u,offset,x,offset);
+		DenseBlockMath.solveUpper(6,2,u,offset,x,offset);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expected,extract(x,6,2),UtilEjml.TEST_F64));
+
+		// not positive definite
+		A.set(2,2,-1);
+		assertFalse(DenseBlockMath.cholesky(6,embed(A),offset));
+	}
+
+	@Test
+	void invertSPD() {
+		DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(4,rand);
+		DMatrixRMaj expected = A.copy();
+		CommonOps_DDRM.invert(expected);
+
+		double[] a = embed(A);
+		double[] inv = new double[16+offset];
+		assertTrue(DenseBlockMath.invertSPD(4,a,offset,inv,offset,new double[16]));
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expected,extract(inv,4,4),UtilEjml.TEST_F64));
+		// input should not be modified
+		assertTrue(MatrixFeatures_DDRM.isIdentical(A,extract(a,4,4),0.0));
+	}
+
+	private DMatrixRMaj multiply( DMatrixRMaj A , DMatrixRMaj B ) {
+		DMatrixRMaj C = new DMatrixRMaj(A.numRows,B.numCols);
+		CommonOps_DDRM.mult(A,B,C);
+		return C;
+	}
+
+	private double[] embed( DMatrixRMaj M ) {
+		double[] array = new double[M.getNumElements()+offset];
+		System.arraycopy(M.data,0,array,offset,M.getNumElements());
+		return array;
+	}
+
+	private DMatrixRMaj extract( double[] array , int rows , int cols ) {
+		DMatrixRMaj M = new DMatrixRMaj(rows,cols);
+		System.arraycopy(array,offset,M.data,0,rows*cols);
+		return M;
+	}
+}
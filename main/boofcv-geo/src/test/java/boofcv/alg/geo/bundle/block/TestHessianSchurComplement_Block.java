@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle.block;
+
+import org.ddogleg.optimization.math.HessianSchurComplement_DSCC;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestHessianSchurComplement_Block {
+	Random rand = new Random(234);
+
+	// Jacobian with a structure similar to bundle adjustment
+	BlockSparseJacobian left = new BlockSparseJacobian();
+	BlockSparseJacobian right = new BlockSparseJacobian();
+	DMatrixSparseCSC leftS = new DMatrixSparseCSC(1,1);
+	DMatrixSparseCSC rightS = new DMatrixSparseCSC(1,1);
+
+	/**
+	 * Creates a random Jacobian. Left has points and rigid bodies. Right has views and shared cameras.
+	 * Some row blocks have no left block and every view is observed by every camera.
+	 */
+	void createJacobian( int numPoints , int numViews , int numCameras ) {
+		GrowQueue_I32 leftWidths = new GrowQueue_I32();
+		for (int i = 0; i < numPoints; i++) {
+			leftWidths.add( i%5 == 4 ? 6 : 3 );
+		}
+		GrowQueue_I32 rightWidths = new GrowQueue_I32();
+		for (int i = 0; i < numViews; i++) {
+			rightWidths.add(6);
+		}
+		for (int i = 0; i < numCameras; i++) {
+			rightWidths.add(3+i*2);
+		}
+
+		int numObs = 0;
+		for (int point = 0; point < numPoints; point++) {
+			numObs += 4;
+		}
+		numObs += numViews;
+
+		left.setBlocks(2,leftWidths);
+		right.setBlocks(2,rightWidths);
+		left.reshape(numObs*2,sum(leftWidths));
+		right.reshape(numObs*2,sum(rightWidths));
+
+		int row = 0;
+		for (int point = 0; point < numPoints; point++) {
+			for (int i = 0; i < 4; i++, row += 2) {
+				int view = rand.nextInt(numViews);
+				setBlock(right,row,view);
+				// make sure the camera is set before the point, like the Jacobian does
+				setBlock(right,row,numViews+view%numCameras);
+				setBlock(left,row,point);
+			}
+		}
+		// observations of a fixed point
+		for (int view = 0; view < numViews; view++, row += 2) {
+			setBlock(right,row,view);
+		}
+
+		ConvertDMatrixStruct.convert(left.toDense(null),leftS,0);
+		ConvertDMatrixStruct.convert(right.toDense(null),rightS,0);
+	}
+
+	private static int sum( GrowQueue_I32 values ) {
+		int total = 0;
+		for (int i = 0; i < values.size; i++) {
+			total += values.get(i);
+		}
+		return total;
+	}
+
+	private void setBlock( BlockSparseJacobian J , int row , int colBlock ) {
+		int col0 = J.getColBlockStart(colBlock);
+		for (int i = 0; i < 2; i++) {
+			for (int j = 0; j < J.getBlockWidth(colBlock); j++) {
+				J.set(row+i,col0+j,rand.nextGaussian());
+			}
+		}
+	}
+
+	@Test
+	void compareToDSCC() {
+		for( HessianSchurComplement_Block.Solver solver : HessianSchurComplement_Block.Solver.values() ) {
+			createJacobian(20,6,2);
+			HessianSchurComplement_Block alg = new HessianSchurComplement_Block(solver);
+			HessianSchurComplement_DSCC expected = new HessianSchurComplement_DSCC();
+
+			// do it twice to make sure the structure is handled correctly when it doesn't change
+			for (int trial = 0; trial < 2; trial++) {
+				compareToDSCC(alg,expected,solver == HessianSchurComplement_Block.Solver.CHOLESKY ? 1e-8 : 1e-6);
+			}
+			// different structure
+			createJacobian(15,8,3);
+			compareToDSCC(alg,expected,solver == HessianSchurComplement_Block.Solver.CHOLESKY ? 1e-8 : 1e-6);
+		}
+	}
+
+	void compareToDSCC( HessianSchurComplement_Block alg , HessianSchurComplement_DSCC expected , double tol ) {
+		int N = left.getNumCols()+right.getNumCols();
+		alg.init(N);
+		expected.init(N);
+		alg.computeHessian(left,right);
+		expected.computeHessian(leftS,rightS);
+
+		// gradient
+		DMatrixRMaj residuals = RandomMatrices_DDRM.rectangle(left.getNumRows(),1,rand);
+		DMatrixRMaj gradient = new DMatrixRMaj(1,1);
+		// the DSCC implementation doesn't reshape its output
+		DMatrixRMaj gradientExpected = new DMatrixRMaj(N,1);
+		alg.computeGradient(left,right,residuals,gradient);
+		expected.computeGradient(leftS,rightS,residuals,gradientExpected);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(gradientExpected,gradient,UtilEjml.TEST_F64));
+
+		DMatrixRMaj v = RandomMatrices_DDRM.rectangle(N,1,rand);
+		assertEquals(expected.innerVectorHessian(v),alg.innerVectorHessian(v),UtilEjml.TEST_F64);
+
+		// scale and dampen it the same way Levenberg-Marquardt does
+		DMatrixRMaj diag = new DMatrixRMaj(1,1);
+		DMatrixRMaj diagExpected = new DMatrixRMaj(1,1);
+		alg.extractDiagonals(diag);
+		expected.extractDiagonals(diagExpected);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(diagExpected,diag,UtilEjml.TEST_F64));
+
+		DMatrixRMaj scaling = RandomMatrices_DDRM.rectangle(N,1,0.5,2.0,rand);
+		alg.divideRowsCols(scaling);
+		expected.divideRowsCols(scaling);
+		assertEquals(expected.innerVectorHessian(v),alg.innerVectorHessian(v),UtilEjml.TEST_F64);
+
+		expected.extractDiagonals(diagExpected);
+		CommonOps_DDRM.add(diagExpected,0.1,diagExpected);
+		alg.setDiagonals(diagExpected);
+		expected.setDiagonals(diagExpected);
+		assertEquals(expected.innerVectorHessian(v),alg.innerVectorHessian(v),UtilEjml.TEST_F64);
+
+		assertTrue(alg.initializeSolver());
+		assertTrue(expected.initializeSolver());
+
+		DMatrixRMaj step = new DMatrixRMaj(1,1);
+		DMatrixRMaj stepExpected = new DMatrixRMaj(N,1);
+		assertTrue(alg.solve(gradient,step));
+		assertTrue(expected.solve(gradient,stepExpected));
+
+		double scale = CommonOps_DDRM.elementMaxAbs(stepExpected);
+		for (int i = 0; i < N; i++) {
+			assertEquals(stepExpected.data[i],step.data[i],tol*scale);
+		}
+	}
+
+	/**
+	 * If A is not positive definite then it should fail
+	 */
+	@Test
+	void notPositiveDefinite() {
+		createJacobian(10,4,1);
+		HessianSchurComplement_Block alg = new HessianSchurComplement_Block();
+		alg.computeHessian(left,right);
+
+		DMatrixRMaj diag = new DMatrixRMaj(1,1);
+		alg.extractDiagonals(diag);
+		diag.data[1] = -1;
+		alg.setDiagonals(diag);
+		assertFalse(alg.initializeSolver());
+	}
+
+	/**
+	 * Each row block can reference at most one block in the left Jacobian
+	 */
+	@Test
+	void multipleLeftBlocksInRow() {
+		createJacobian(10,4,1);
+		left.zero();
+		setBlock(left,0,0);
+		setBlock(left,0,1);
+		HessianSchurComplement_Block alg = new HessianSchurComplement_Block();
+		assertThrows(IllegalArgumentException.class,()->alg.computeHessian(left,right));
+	}
+}
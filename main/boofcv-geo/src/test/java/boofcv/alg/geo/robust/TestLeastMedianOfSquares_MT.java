@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.homography.ModelManagerHomography2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLeastMedianOfSquares_MT {
+	Random rand = new Random(234);
+
+	int originalThreads = BoofConcurrency.getMaxThreads();
+
+	@AfterEach
+	void restoreThreads() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Perfect model should have a median error of zero and the inlier set should be points with the smallest error
+	 */
+	@Test
+	void findsModel() {
+		List<AssociatedPair> points = new ArrayList<>();
+		List<AssociatedPair> outliers = TestRansac_MT.createObservations(rand, 200, 0.3, points);
+
+		LeastMedianOfSquares_MT<Homography2D_F64,AssociatedPair> alg = createAlg(0.5, 100, -1);
+		assertTrue(alg.process(points));
+		assertEquals(0, alg.getFitQuality(), 1e-6);
+
+		List<AssociatedPair> matches = alg.getMatchSet();
+		assertEquals(100, matches.size());
+		for( int i = 0; i < matches.size(); i++ ) {
+			assertFalse(outliers.contains(matches.get(i)));
+			assertSame(matches.get(i), points.get(alg.getInputIndex(i)));
+		}
+	}
+
+	/**
+	 * When the inlier fraction is zero all the points are returned
+	 */
+	@Test
+	void noInlierFraction() {
+		List<AssociatedPair> points = new ArrayList<>();
+		TestRansac_MT.createObservations(rand, 50, 0.3, points);
+
+		LeastMedianOfSquares_MT<Homography2D_F64,AssociatedPair> alg = createAlg(0, 50, -1);
+		assertTrue(alg.process(points));
+		assertEquals(points.size(), alg.getMatchSet().size());
+		for( int i = 0; i < points.size(); i++ ) {
+			assertEquals(i, alg.getInputIndex(i));
+		}
+	}
+
+	/**
+	 * The results should only depend on the seed and not on the number of threads
+	 */
+	@Test
+	void independentOfThreads() {
+		List<AssociatedPair> points = new ArrayList<>();
+		TestRansac_MT.createObservations(rand, 150, 0.6, points);
+
+		BoofConcurrency.setMaxThreads(2);
+		LeastMedianOfSquares_MT<Homography2D_F64,AssociatedPair> expected = createAlg(0.3, 60, 1);
+		assertTrue(expected.process(points));
+
+		for( int threads : new int[]{2,3,8} ) {
+			BoofConcurrency.setMaxThreads(threads);
+			LeastMedianOfSquares_MT<Homography2D_F64,AssociatedPair> alg = createAlg(0.3, 60, -1);
+			assertTrue(alg.process(points));
+
+			assertEquals(expected.getFitQuality(), alg.getFitQuality(), 0.0);
+			for( int i = 0; i < alg.getMatchSet().size(); i++ ) {
+				assertEquals(expected.getInputIndex(i), alg.getInputIndex(i));
+			}
+		}
+	}
+
+	private LeastMedianOfSquares_MT<Homography2D_F64,AssociatedPair> createAlg( double inlierFraction ,
+																			   int cycles , int threads ) {
+		return new LeastMedianOfSquares_MT<>(0xBEEF, cycles, Double.MAX_VALUE, inlierFraction,
+				new ModelManagerHomography2D_F64(), ()->new GenerateHomographyLinear(true),
+				DistanceHomographySq::new, threads);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.alg.geo.DistanceFromModelMultiView;
+import boofcv.struct.calib.CameraPinhole;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.homography.ModelManagerHomography2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansacMultiView_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Intrinsic parameters should be passed to the distance function in every thread, including ones which are
+	 * created after the intrinsics are specified
+	 */
+	@Test
+	void intrinsicsPassedToWorkers() {
+		List<AssociatedPair> points = new ArrayList<>();
+		TestRansac_MT.createObservations(rand, 100, 0.2, points);
+
+		List<CheckIntrinsics> created = new ArrayList<>();
+		RansacMultiView_MT<Homography2D_F64,AssociatedPair> alg = new RansacMultiView_MT<>(234,
+				new ModelManagerHomography2D_F64(), ()->new GenerateHomographyLinear(true),
+				()->{
+					CheckIntrinsics d = new CheckIntrinsics();
+					synchronized (created) {
+						created.add(d);
+					}
+					return d;
+				}, 50, 0.5, -1);
+
+		assertEquals(2, alg.getNumberOfViews());
+		alg.setIntrinsic(0, new CameraPinhole(100,100,0,50,50,100,100));
+		alg.setIntrinsic(1, new CameraPinhole(200,200,0,50,50,100,100));
+		assertTrue(alg.process(points));
+
+		// first one is used by the main thread
+		assertTrue(created.size() > 1);
+		for( CheckIntrinsics d : created ) {
+			assertEquals(100, d.views[0].fx);
+			assertEquals(200, d.views[1].fx);
+		}
+	}
+
+	private static class CheckIntrinsics extends DistanceHomographySq
+			implements DistanceFromModelMultiView<Homography2D_F64,AssociatedPair> {
+		CameraPinhole[] views = new CameraPinhole[2];
+
+		@Override
+		public void setIntrinsic( int view , CameraPinhole intrinsic ) {
+			views[view] = new CameraPinhole(intrinsic);
+		}
+
+		@Override
+		public int getNumberOfViews() {
+			return 2;
+		}
+	}
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.homography.ModelManagerHomography2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansac_MT {
+	Random rand = new Random(234);
+
+	int originalThreads = BoofConcurrency.getMaxThreads();
+
+	@AfterEach
+	void restoreThreads() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Give it data with outliers and see if it finds all the inliers and only the inliers
+	 */
+	@Test
+	void findsInliers() {
+		List<AssociatedPair> points = new ArrayList<>();
+		List<AssociatedPair> outliers = createObservations(rand, 200, 0.3, points);
+
+		Ransac_MT<Homography2D_F64,AssociatedPair> alg = createAlg(100, 4);
+		assertTrue(alg.process(points));
+
+		List<AssociatedPair> matches = alg.getMatchSet();
+		assertEquals(points.size()-outliers.size(), matches.size());
+		for( int i = 0; i < matches.size(); i++ ) {
+			AssociatedPair p = matches.get(i);
+			assertFalse(outliers.contains(p));
+			assertSame(p, points.get(alg.getInputIndex(i)));
+		}
+		// the input list should not be modified
+		assertNotSame(points, matches);
+	}
+
+	/**
+	 * The results should only depend on the seed and not on the number of threads
+	 */
+	@Test
+	void independentOfThreads() {
+		independentOfThreads(alg->{});
+	}
+
+	@Test
+	void independentOfThreads_sprt() {
+		independentOfThreads(alg->alg.setSprt(true));
+	}
+
+	/**
+	 * Several rounds with SPRT, so that the parameters are updated from the rejected hypotheses
+	 */
+	@Test
+	void independentOfThreads_sprtRounds() {
+		independentOfThreads(alg->{
+			alg.setSprt(true);
+			alg.setIterationsPerRound(20);
+		});
+	}
+
+	@Test
+	void independentOfThreads_adaptive() {
+		independentOfThreads(alg->{
+			alg.setSprt(true);
+			alg.setTerminationConfidence(0.99);
+			alg.setIterationsPerRound(7);
+		});
+	}
+
+	void independentOfThreads( Consumer<Ransac_MT<Homography2D_F64,AssociatedPair>> configure ) {
+		List<AssociatedPair> points = new ArrayList<>();
+		createObservations(rand, 150, 0.6, points);
+
+		BoofConcurrency.setMaxThreads(2);
+		Ransac_MT<Homography2D_F64,AssociatedPair> expected = createAlg(200, 1);
+		configure.accept(expected);
+		assertTrue(expected.process(points));
+
+		for( int threads : new int[]{2,3,8} ) {
+			BoofConcurrency.setMaxThreads(threads);
+			Ransac_MT<Homography2D_F64,AssociatedPair> alg = createAlg(200, -1);
+			configure.accept(alg);
+			assertTrue(alg.process(points));
+
+			assertEquals(expected.getIterationsProcessed(), alg.getIterationsProcessed());
+			assertEquals(expected.getMatchSet().size(), alg.getMatchSet().size());
+			for( int i = 0; i < alg.getMatchSet().size(); i++ ) {
+				assertEquals(expected.getInputIndex(i), alg.getInputIndex(i));
+			}
+			Homography2D_F64 a = expected.getModelParameters();
+			Homography2D_F64 b = alg.getModelParameters();
+			for( int i = 0; i < 9; i++ ) {
+				assertEquals(a.get(i/3,i%3), b.get(i/3,i%3), 0.0);
+			}
+
+			// statistics from rejected hypotheses change the SPRT parameters in later rounds
+			assertEquals(expected.rejectedConsistent, alg.rejectedConsistent);
+			assertEquals(expected.rejectedTested, alg.rejectedTested);
+			assertEquals(expected.sprtDelta, alg.sprtDelta, 0.0);
+			assertEquals(expected.sprtLogThreshold, alg.sprtLogThreshold, 0.0);
+		}
+	}
+
+	/**
+	 * SPRT should find the same inliers while computing the distance for fewer points
+	 */
+	@Test
+	void sprt() {
+		List<AssociatedPair> points = new ArrayList<>();
+		List<AssociatedPair> outliers = createObservations(rand, 300, 0.5, points);
+
+		int[] counts = new int[2];
+		for( int trial = 0; trial < 2; trial++ ) {
+			int which = trial;
+			Ransac_MT<Homography2D_F64,AssociatedPair> alg = new Ransac_MT<>(0xBEEF,
+					new ModelManagerHomography2D_F64(), ()->new GenerateHomographyLinear(true),
+					()->new DistanceHomographySq() {
+						@Override
+						public double computeDistance( AssociatedPair pt ) {
+							counts[which]++;
+							return super.computeDistance(pt);
+						}
+					}, 100, 0.5, 1);
+			alg.setSprt(trial == 1);
+			assertTrue(alg.process(points));
+			assertEquals(100, alg.getIterationsProcessed());
+			assertEquals(points.size()-outliers.size(), alg.getMatchSet().size());
+		}
+		assertTrue(counts[1] < counts[0]*0.5, counts[0]+" "+counts[1]);
+	}
+
+	/**
+	 * Adaptive termination should stop well before the maximum number of iterations when there are few outliers
+	 */
+	@Test
+	void terminationConfidence() {
+		List<AssociatedPair> points = new ArrayList<>();
+		List<AssociatedPair> outliers = createObservations(rand, 200, 0.1, points);
+
+		Ransac_MT<Homography2D_F64,AssociatedPair> alg = createAlg(1000, -1);
+		alg.setTerminationConfidence(0.99);
+		alg.setIterationsPerRound(5);
+		assertTrue(alg.process(points));
+		assertTrue(alg.getIterationsProcessed() <= 10);
+		assertEquals(points.size()-outliers.size(), alg.getMatchSet().size());
+
+		// Turning it off should use all the iterations
+		alg.setTerminationConfidence(0.0);
+		assertTrue(alg.process(points));
+		assertEquals(1000, alg.getIterationsProcessed());
+	}
+
+	@Test
+	void adaptiveIterations() {
+		// 1 - (1-0.5^4)^72 = 0.99
+		assertEquals(72, Ransac_MT.adaptiveIterations(0.5, 4, 0.0, 0.99, 1000));
+		assertEquals(50, Ransac_MT.adaptiveIterations(0.5, 4, 0.0, 0.99, 50));
+		// rejecting good models should increase the number of iterations
+		assertEquals(76, Ransac_MT.adaptiveIterations(0.5, 4, 0.05, 0.99, 1000));
+		assertEquals(1, Ransac_MT.adaptiveIterations(1.0, 4, 0.0, 0.99, 1000));
+		assertEquals(1000, Ransac_MT.adaptiveIterations(0.0, 4, 0.0, 0.99, 1000));
+	}
+
+	/**
+	 * Every point is an inlier. Should stop early and select all the points
+	 */
+	@Test
+	void perfectData() {
+		List<AssociatedPair> points = new ArrayList<>();
+		createObservations(rand, 50, 0.0, points);
+
+		Ransac_MT<Homography2D_F64,AssociatedPair> alg = createAlg(1000, -1);
+		assertTrue(alg.process(points));
+		assertEquals(points.size(), alg.getMatchSet().size());
+	}
+
+	@Test
+	void tooFewPoints() {
+		List<AssociatedPair> points = new ArrayList<>();
+		createObservations(rand, 3, 0.0, points);
+
+		Ransac_MT<Homography2D_F64,AssociatedPair> alg = createAlg(100, -1);
+		assertFalse(alg.process(points));
+	}
+
+	@Test
+	void randomDrawUnique() {
+		List<Integer> list = new ArrayList<>();
+		for( int i = 0; i < 10; i++ ) {
+			list.add(i);
+		}
+		int[] indexes = new int[10];
+		List<Integer> found = new ArrayList<>();
+		for( int trial = 0; trial < 20; trial++ ) {
+			Ransac_MT.randomDrawUnique(list, 10, indexes, found, rand);
+			assertEquals(10, found.size());
+			for( int i = 0; i < 10; i++ ) {
+				assertTrue(found.contains(i));
+				assertEquals(indexes[i], (int)found.get(i));
+			}
+		}
+		// input should not be modified
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals(i, (int)list.get(i));
+		}
+	}
+
+	private Ransac_MT<Homography2D_F64,AssociatedPair> createAlg( int iterations , int threads ) {
+		return new Ransac_MT<>(0xBEEF, new ModelManagerHomography2D_F64(),
+				()->new GenerateHomographyLinear(true), DistanceHomographySq::new, iterations, 0.5, threads);
+	}
+
+	/**
+	 * Creates observations from a homography with the specified fraction of outliers
+	 *
+	 * @return List of outliers
+	 */
+	static List<AssociatedPair> createObservations( Random rand , int total , double fractionOutliers ,
+													List<AssociatedPair> points ) {
+		Homography2D_F64 H = new Homography2D_F64(1.2,0.1,20, -0.05,0.9,-15, 0.0001,0.0002,1);
+
+		List<AssociatedPair> outliers = new ArrayList<>();
+		for( int i = 0; i < total; i++ ) {
+			Point2D_F64 p1 = new Point2D_F64(rand.nextDouble()*600,rand.nextDouble()*400);
+			Point2D_F64 p2 = new Point2D_F64();
+			AssociatedPair p = new AssociatedPair(p1,p2,false);
+			if( rand.nextDouble() < fractionOutliers ) {
+				p2.set(rand.nextDouble()*600,rand.nextDouble()*400);
+				outliers.add(p);
+			} else {
+				HomographyPointOps_F64.transform(H, p1, p2);
+			}
+			points.add(p);
+		}
+		return outliers;
+	}
+}
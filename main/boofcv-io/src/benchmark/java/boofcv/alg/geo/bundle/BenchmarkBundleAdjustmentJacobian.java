@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.io.UtilIO;
+import boofcv.io.geo.CodecBundleAdjustmentInTheLarge;
+import org.ejml.data.DMatrixSparseCSC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates the residuals and sparse Jacobian for a Bundle Adjustment in the Large dataset. A different
+ * dataset can be specified by passing in its absolute path as the "file" parameter.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkBundleAdjustmentJacobian {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"sfm/problem-16-22106-pre.txt"})
+	public String file;
+
+	BundleAdjustmentMetricResidualFunction function;
+	BundleAdjustmentMetricSchurJacobian_DSCC jacobian;
+
+	double[] parameters;
+	double[] residuals;
+	DMatrixSparseCSC left = new DMatrixSparseCSC(1,1);
+	DMatrixSparseCSC right = new DMatrixSparseCSC(1,1);
+
+	@Setup
+	public void setup() throws IOException {
+		CodecBundleAdjustmentInTheLarge parser = new CodecBundleAdjustmentInTheLarge();
+		parser.parse(new File(UtilIO.pathExample(file)));
+
+		SceneStructureMetric structure = parser.scene;
+		SceneObservations observations = parser.observations;
+
+		if( concurrent ) {
+			function = new BundleAdjustmentMetricResidualFunction_MT();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_MT_DSCC();
+		} else {
+			function = new BundleAdjustmentMetricResidualFunction();
+			jacobian = new BundleAdjustmentMetricSchurJacobian_DSCC();
+		}
+		function.configure(structure,observations);
+		jacobian.configure(structure,observations);
+
+		parameters = new double[structure.getParameterCount()];
+		residuals = new double[function.getNumOfOutputsM()];
+		new CodecSceneStructureMetric().encode(structure,parameters);
+	}
+
+	@Benchmark
+	public void residuals() {
+		function.process(parameters,residuals);
+	}
+
+	@Benchmark
+	public void jacobian() {
+		jacobian.process(parameters,left,right);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBundleAdjustmentJacobian.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
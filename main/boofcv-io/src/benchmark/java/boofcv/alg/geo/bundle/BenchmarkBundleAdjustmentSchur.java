@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.BundleAdjustmentSchur;
+import boofcv.abst.geo.bundle.SceneObservations;
+import boofcv.abst.geo.bundle.SceneStructureMetric;
+import boofcv.alg.geo.bundle.block.HessianSchurComplement_Block;
+import boofcv.io.UtilIO;
+import boofcv.io.geo.CodecBundleAdjustmentInTheLarge;
+import org.ddogleg.optimization.math.HessianSchurComplement;
+import org.ddogleg.optimization.math.HessianSchurComplement_DSCC;
+import org.ejml.data.DMatrix;
+import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the different Schur complement implementations on a Bundle Adjustment in the Large dataset. One
+ * damped Gauss-Newton step is computed from a fixed Jacobian, the same as one Levenberg-Marquardt iteration.
+ * A different dataset can be specified by passing in its absolute path as the "file" parameter.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkBundleAdjustmentSchur {
+
+	@Param({"DSCC","BLOCK","BLOCK_PCG"})
+	public String matrix;
+
+	@Param({"sfm/problem-16-22106-pre.txt"})
+	public String file;
+
+	Schur<?> schur;
+
+	@Setup
+	public void setup() throws IOException {
+		CodecBundleAdjustmentInTheLarge parser = new CodecBundleAdjustmentInTheLarge();
+		parser.parse(new File(UtilIO.pathExample(file)));
+
+		SceneStructureMetric structure = parser.scene;
+		SceneObservations observations = parser.observations;
+
+		switch( matrix ) {
+			case "DSCC":
+				schur = new Schur<>(new BundleAdjustmentMetricSchurJacobian_DSCC(),new HessianSchurComplement_DSCC());
+				break;
+			case "BLOCK":
+				schur = new Schur<>(new BundleAdjustmentMetricSchurJacobian_Block(),
+						new HessianSchurComplement_Block(HessianSchurComplement_Block.Solver.CHOLESKY));
+				break;
+			case "BLOCK_PCG":
+				schur = new Schur<>(new BundleAdjustmentMetricSchurJacobian_Block(),
+						new HessianSchurComplement_Block(HessianSchurComplement_Block.Solver.PCG));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown matrix "+matrix);
+		}
+		schur.setup(structure,observations);
+	}
+
+	@Benchmark
+	public void jacobian() {
+		schur.jacobian();
+	}
+
+	@Benchmark
+	public void step() {
+		schur.step();
+	}
+
+	static class Schur<S extends DMatrix> {
+		BundleAdjustmentSchur.Jacobian<SceneStructureMetric,S> jacobian;
+		HessianSchurComplement<S> hessian;
+		S left, right;
+
+		double[] parameters;
+		DMatrixRMaj residuals;
+		DMatrixRMaj gradient = new DMatrixRMaj(1,1);
+		DMatrixRMaj diagonal = new DMatrixRMaj(1,1);
+		DMatrixRMaj damped = new DMatrixRMaj(1,1);
+		DMatrixRMaj step = new DMatrixRMaj(1,1);
+
+		Schur( BundleAdjustmentSchur.Jacobian<SceneStructureMetric,S> jacobian , HessianSchurComplement<S> hessian ) {
+			this.jacobian = jacobian;
+			this.hessian = hessian;
+			this.left = hessian.createMatrix();
+			this.right = hessian.createMatrix();
+		}
+
+		void setup( SceneStructureMetric structure , SceneObservations observations ) {
+			BundleAdjustmentMetricResidualFunction function = new BundleAdjustmentMetricResidualFunction();
+			function.configure(structure,observations);
+			jacobian.configure(structure,observations);
+
+			parameters = new double[structure.getParameterCount()];
+			new CodecSceneStructureMetric().encode(structure,parameters);
+			residuals = new DMatrixRMaj(function.getNumOfOutputsM(),1);
+			function.process(parameters,residuals.data);
+
+			jacobian.process(parameters,left,right);
+			int N = jacobian.getNumOfInputsN();
+			gradient.reshape(N,1);
+			step.reshape(N,1);
+			hessian.init(N);
+			hessian.computeGradient(left,right,residuals,gradient);
+		}
+
+		void jacobian() {
+			jacobian.process(parameters,left,right);
+		}
+
+		void step() {
+			hessian.computeHessian(left,right);
+			hessian.extractDiagonals(diagonal);
+			damped.reshape(diagonal.numRows,1);
+			for (int i = 0; i < diagonal.numRows; i++) {
+				damped.data[i] = diagonal.data[i]*(1.0+1e-3);
+			}
+			hessian.setDiagonals(damped);
+			if( !hessian.initializeSolver() || !hessian.solve(gradient,step) )
+				throw new RuntimeException("Solve failed");
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkBundleAdjustmentSchur.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
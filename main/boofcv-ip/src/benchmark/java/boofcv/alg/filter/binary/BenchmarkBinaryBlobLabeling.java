@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -64,6 +64,26 @@ public class BenchmarkBinaryBlobLabeling {
 		}
 	}
 
+	public static class NewAlg8_MT extends PerformerBase {
+
+		LinearContourLabelChang2004 alg = new LinearContourLabelChang2004_MT(ConnectRule.EIGHT);
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+	}
+
+	public static class NewAlg4_MT extends PerformerBase {
+
+		LinearContourLabelChang2004 alg = new LinearContourLabelChang2004_MT(ConnectRule.FOUR);
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+	}
+
 	public static void main(String args[]) {
 		System.out.println("=========  Profile Image Size "+ imgWidth +" x "+ imgHeight  +" ==========");
 
@@ -81,6 +101,8 @@ public class BenchmarkBinaryBlobLabeling {
 
 		ProfileOperation.printOpsPerSec(new NewAlg8(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new NewAlg4(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new NewAlg8_MT(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new NewAlg4_MT(), TEST_TIME);
 
 	}
 }
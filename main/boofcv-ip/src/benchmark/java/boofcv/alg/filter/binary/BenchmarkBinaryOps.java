@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.filter.binary;
 
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayBinary;
 import boofcv.struct.image.GrayU8;
 import org.openjdk.jmh.annotations.*;
 
@@ -49,6 +50,10 @@ public class BenchmarkBinaryOps  {
 	private GrayU8 inputB = new GrayU8(size, size);
 	private GrayU8 output = new GrayU8(size, size);
 
+	private GrayBinary packedA = new GrayBinary(size, size);
+	private GrayBinary packedB = new GrayBinary(size, size);
+	private GrayBinary packedOut = new GrayBinary(size, size);
+
 	@Setup
 	public void setup() {
 		BoofConcurrency.USE_CONCURRENT = concurrent;
@@ -60,6 +65,10 @@ public class BenchmarkBinaryOps  {
 
 		ImageMiscOps.fillUniform(inputA, rand, 0, 1);
 		ImageMiscOps.fillUniform(inputB, rand, 0, 1);
+
+		BinaryPackedOps.pack(inputA, packedA);
+		BinaryPackedOps.pack(inputB, packedB);
+		packedOut.reshape(size, size);
 	}
 
 	@Benchmark
@@ -82,6 +91,21 @@ public class BenchmarkBinaryOps  {
 		BinaryImageOps.dilate8(inputA,1,output);
 	}
 
+	@Benchmark
+	public void erode8_15x15() {
+		BinaryImageOps.erode8(inputA,7,output);
+	}
+
+	@Benchmark
+	public void erode_15x15() {
+		BinaryImageOps.erode(inputA,15,15,output);
+	}
+
+	@Benchmark
+	public void erode_101x101() {
+		BinaryImageOps.erode(inputA,101,101,output);
+	}
+
 	@Benchmark
 	public void removePointNoise() {
 		BinaryImageOps.removePointNoise(inputA,output);
@@ -122,4 +146,48 @@ public class BenchmarkBinaryOps  {
 		BinaryImageOps.thin(inputA,5,output);
 	}
 
+	@Benchmark
+	public void packed_erode4() {
+		BinaryPackedOps.erode4(packedA,1,packedOut);
+	}
+
+	@Benchmark
+	public void packed_erode8() {
+		BinaryPackedOps.erode8(packedA,1,packedOut);
+	}
+
+	@Benchmark
+	public void packed_dilate4() {
+		BinaryPackedOps.dilate4(packedA,1,packedOut);
+	}
+
+	@Benchmark
+	public void packed_dilate8() {
+		BinaryPackedOps.dilate8(packedA,1,packedOut);
+	}
+
+	@Benchmark
+	public void packed_edge4() {
+		BinaryPackedOps.edge4(packedA,packedOut,true);
+	}
+
+	@Benchmark
+	public void packed_edge8() {
+		BinaryPackedOps.edge8(packedA,packedOut,true);
+	}
+
+	@Benchmark
+	public void packed_logicAnd() {
+		BinaryPackedOps.logicAnd(packedA,packedB,packedOut);
+	}
+
+	@Benchmark
+	public void packed_invert() {
+		BinaryPackedOps.invert(packedA,packedOut);
+	}
+
+	@Benchmark
+	public void packed_thin() {
+		BinaryPackedOps.thin(packedA,5,packedOut);
+	}
 }
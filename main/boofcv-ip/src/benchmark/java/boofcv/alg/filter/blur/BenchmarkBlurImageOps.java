@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,6 +21,8 @@ package boofcv.alg.filter.blur;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.concurrency.IWorkArrays;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.runner.Runner;
@@ -53,6 +55,7 @@ public class BenchmarkBlurImageOps {
 	GrayU8 input = new GrayU8(size, size);
 	GrayU8 output = new GrayU8(size, size);
 	GrayU8 storage = new GrayU8(size, size);
+	GrayF32 storageF = new GrayF32(size, size);
 	IWorkArrays work = new IWorkArrays();
 
 	@Setup
@@ -63,6 +66,7 @@ public class BenchmarkBlurImageOps {
 		input.reshape(size, size);
 		output.reshape(size, size);
 		storage.reshape(size, size);
+		storageF.reshape(size, size);
 
 		ImageMiscOps.fillUniform(input,rand,0,200);
 		ImageMiscOps.fillUniform(output,rand,0,200);
@@ -79,6 +83,11 @@ public class BenchmarkBlurImageOps {
 		BlurImageOps.gaussian(input,output,-1,radius,storage);
 	}
 
+	@Benchmark
+	public void gaussianRecursive() {
+		BlurImageOps.gaussianRecursive(input,output,FactoryKernelGaussian.sigmaForRadius(radius,0),storageF);
+	}
+
 	@Benchmark
 	public void median() {
 		BlurImageOps.median(input,output,radius,work);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,83 +18,122 @@
 
 package boofcv.alg.filter.blur;
 
-import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
-import boofcv.alg.filter.blur.impl.ImplMedianHistogramInnerNaive;
-import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
+import boofcv.alg.filter.blur.impl.*;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IWorkArrays;
 import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.GrayS16;
-import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmark for different convolution operations.
+ * Compares the different median filter implementations across kernel sizes. Sorting networks only support
+ * a radius of 1 or 2 and are skipped for larger radii.
+ *
  * @author Peter Abeles
  */
-public class BenchmarkMedianFilter  {
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-	static long TEST_TIME = 1000;
-
-	static GrayF32 imgFloat32 = new GrayF32(imgWidth,imgHeight);
-	static GrayF32 out_F32 = new GrayF32(imgWidth,imgHeight);
-	static GrayU8 imgInt8 = new GrayU8(imgWidth,imgHeight);
-	static GrayS16 imgInt16 = new GrayS16(imgWidth,imgHeight);
-	static GrayU8 out_I8 = new GrayU8(imgWidth,imgHeight);
-	static GrayS16 out_I16 = new GrayS16(imgWidth,imgHeight);
-	static GrayS32 out_I32 = new GrayS32(imgWidth,imgHeight);
-
-	// iterate through different sized kernel radius
-	private int radius;
-
-	public BenchmarkMedianFilter() {
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=2)
+public class BenchmarkMedianFilter {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"1", "2", "5", "12", "25", "50"})
+	public int radius;
+
+	@Param({"640", "2000"})
+	public int size;
+
+	GrayU8 input = new GrayU8(1, 1);
+	GrayU8 output = new GrayU8(1, 1);
+	GrayF32 inputF = new GrayF32(1, 1);
+	GrayF32 outputF = new GrayF32(1, 1);
+	IWorkArrays work = new IWorkArrays();
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
 		Random rand = new Random(234);
-		ImageMiscOps.fillUniform(imgInt8,rand, 0, 100);
-		ImageMiscOps.fillUniform(imgFloat32,rand,0,200);
+
+		input.reshape(size, size);
+		output.reshape(size, size);
+		inputF.reshape(size, size);
+		outputF.reshape(size, size);
+
+		ImageMiscOps.fillUniform(input,rand,0,200);
+		ImageMiscOps.fillUniform(inputF,rand,0,200);
+	}
+
+	@Benchmark
+	public void BlurImageOps_U8() {
+		BlurImageOps.median(input,output,radius,work);
 	}
 
-	public int timeBlurImageOps_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BlurImageOps.median(imgInt8, out_I8, radius, null);
-		return 0;
+	@Benchmark
+	public void BlurImageOps_F32() {
+		if( radius <= 5 )
+			BlurImageOps.median(inputF,outputF,radius);
 	}
 
-	public int timeBlurImageOps_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			BlurImageOps.median(imgFloat32,out_F32,radius);
-		return 0;
+	@Benchmark
+	public void Histogram_U8() {
+		if( concurrent )
+			ImplMedianHistogramInner_MT.process(input,output,radius,work);
+		else
+			ImplMedianHistogramInner.process(input,output,radius,work);
 	}
 
-	public int timeHistogramNaive_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianHistogramInnerNaive.process(imgInt8, out_I8, radius, null, null);
-		return 0;
+	@Benchmark
+	public void ConstantTime_U8() {
+		if( concurrent )
+			ImplMedianConstantTimeInner_MT.process(input,output,radius,work);
+		else
+			ImplMedianConstantTimeInner.process(input,output,radius,work);
 	}
 
-	public int timeHistogram_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianHistogramInner.process(imgInt8,out_I8,radius,null);
-		return 0;
+	@Benchmark
+	public void SortNetwork_U8() {
+		if( radius > 2 )
+			return;
+		if( concurrent )
+			ImplMedianSortNetworkInner_MT.process(input,output,radius);
+		else
+			ImplMedianSortNetworkInner.process(input,output,radius);
 	}
 
-	public int timeSortNaive_I8(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianSortNaive.process(imgInt8,out_I8,radius,null);
-		return 0;
+	@Benchmark
+	public void SortNetwork_F32() {
+		if( radius > 2 )
+			return;
+		if( concurrent )
+			ImplMedianSortNetworkInner_MT.process(inputF,outputF,radius);
+		else
+			ImplMedianSortNetworkInner.process(inputF,outputF,radius);
 	}
 
-	public int timeSortNaive_F32(int reps) {
-		for( int i = 0; i < reps; i++ )
-			ImplMedianSortNaive.process(imgFloat32,out_F32,radius,null);
-		return 0;
+	@Benchmark
+	public void SortNaive_F32() {
+		if( radius <= 5 )
+			ImplMedianSortNaive.process(inputF,outputF,radius,null);
 	}
 
-	public static void main( String args[] ) {
-		System.out.println("=========  Profile Image Size "+imgWidth+" x "+imgHeight+" ==========");
-		System.out.println();
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkMedianFilter.class.getSimpleName())
+				.build();
 
-//		Runner.main(BenchmarkMedianFilter.class, args);
+		new Runner(opt).run();
 	}
 }
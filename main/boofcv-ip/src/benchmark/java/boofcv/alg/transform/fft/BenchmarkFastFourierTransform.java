@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,47 +19,85 @@
 package boofcv.alg.transform.fft;
 
 import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.alg.filter.convolve.ConvolveImageFFT;
+import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
+import boofcv.alg.filter.convolve.border.ConvolveJustBorder_General_SB;
 import boofcv.alg.misc.ImageMiscOps;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel2D_F32;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.InterleavedF32;
+import org.openjdk.jmh.annotations.*;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkFastFourierTransform {
+	@Param({"true","false"})
+	public boolean concurrent;
 
-	static int width = 640;
-	static int height = 480;
-	static long TEST_TIME = 1000;
+	@Param({"640"})
+	public int width;
 
-	static GrayF32 input = new GrayF32(width,height);
-	static InterleavedF32 fourier = new InterleavedF32(width,height,2);
-	static GrayF32 output = new GrayF32(width,height);
+	@Param({"25"})
+	public int kernelWidth;
 
+	GrayF32 input = new GrayF32(1,1);
+	InterleavedF32 fourier = new InterleavedF32(1,1,2);
+	GrayF32 output = new GrayF32(1,1);
 
-	public static class ComputeFFT extends PerformerBase {
+	DiscreteFourierTransform<GrayF32,InterleavedF32> dft;
+	ConvolveImageFFT convolveFFT;
+	Kernel2D_F32 kernel;
+	ImageBorder_F32 border = (ImageBorder_F32)FactoryImageBorder.single(BorderType.REFLECT, GrayF32.class);
 
-		DiscreteFourierTransform dft = DiscreteFourierTransformOps.createTransformF32();
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		int height = width*3/4;
+		input.reshape(width,height);
+		fourier.reshape(width,height);
+		output.reshape(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
 
-		@Override
-		public void process() {
-			dft.forward(input,fourier);
-			dft.inverse(fourier,output);
+		kernel = new Kernel2D_F32(kernelWidth);
+		for (int i = 0; i < kernel.data.length; i++) {
+			kernel.data[i] = rand.nextFloat();
 		}
-	}
 
-	public static void main( String args[] ) {
+		dft = DiscreteFourierTransformOps.createTransformF32();
+		convolveFFT = new ConvolveImageFFT();
+	}
 
-		Random rand = new Random(234);
-		ImageMiscOps.fillUniform(input, rand, 0, 100);
+	@Benchmark
+	public void forwardInverse() {
+		dft.forward(input,fourier);
+		dft.inverse(fourier,output);
+	}
 
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ==========");
-		System.out.println();
+	@Benchmark
+	public void convolve_direct() {
+		border.setImage(input);
+		ConvolveImageNoBorder.convolve(kernel,input,output);
+		ConvolveJustBorder_General_SB.convolve(kernel,border,output);
+	}
 
-		ProfileOperation.printOpsPerSec(new ComputeFFT(), TEST_TIME);
+	@Benchmark
+	public void convolve_fft() {
+		convolveFFT.process(kernel,input,output,border);
 	}
 }
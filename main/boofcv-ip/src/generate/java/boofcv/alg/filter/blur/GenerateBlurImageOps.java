@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -40,6 +40,7 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 		}
 		printPlanar();
 		printMedian();
+		printGaussianRecursive();
 
 		out.print("\n" +
 				"}\n");
@@ -47,10 +48,16 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 
 	private void printPreamble() {
 		out.print("import boofcv.alg.InputSanityCheck;\n" +
+				"import boofcv.alg.filter.blur.impl.ImplGaussianRecursive;\n" +
+				"import boofcv.alg.filter.blur.impl.ImplGaussianRecursive_MT;\n" +
+				"import boofcv.alg.filter.blur.impl.ImplMedianConstantTimeInner;\n" +
+				"import boofcv.alg.filter.blur.impl.ImplMedianConstantTimeInner_MT;\n" +
 				"import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;\n" +
 				"import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner_MT;\n" +
 				"import boofcv.alg.filter.blur.impl.ImplMedianSortEdgeNaive;\n" +
 				"import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;\n" +
+				"import boofcv.alg.filter.blur.impl.ImplMedianSortNetworkInner;\n" +
+				"import boofcv.alg.filter.blur.impl.ImplMedianSortNetworkInner_MT;\n" +
 				"import boofcv.alg.filter.convolve.ConvolveImageMean;\n" +
 				"import boofcv.alg.filter.convolve.ConvolveImageNormalized;\n" +
 				"import boofcv.concurrency.*;\n" +
@@ -209,10 +216,21 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 				"\t\t\tint w = radius * 2 + 1;\n" +
 				"\t\t\tint offset[] = new int[w * w];\n" +
 				"\n" +
+				"\t\t\t// select the algorithm which is fastest for this radius\n" +
 				"\t\t\tif( BoofConcurrency.USE_CONCURRENT ) {\n" +
-				"\t\t\t\tImplMedianHistogramInner_MT.process(input, output, radius, work);\n" +
+				"\t\t\t\tif( radius == 1 )\n" +
+				"\t\t\t\t\tImplMedianSortNetworkInner_MT.process(input, output, radius);\n" +
+				"\t\t\t\telse if( radius < 24 )\n" +
+				"\t\t\t\t\tImplMedianHistogramInner_MT.process(input, output, radius, work);\n" +
+				"\t\t\t\telse\n" +
+				"\t\t\t\t\tImplMedianConstantTimeInner_MT.process(input, output, radius, work);\n" +
 				"\t\t\t} else {\n" +
-				"\t\t\t\tImplMedianHistogramInner.process(input, output, radius, work);\n" +
+				"\t\t\t\tif( radius == 1 )\n" +
+				"\t\t\t\t\tImplMedianSortNetworkInner.process(input, output, radius);\n" +
+				"\t\t\t\telse if( radius < 24 )\n" +
+				"\t\t\t\t\tImplMedianHistogramInner.process(input, output, radius, work);\n" +
+				"\t\t\t\telse\n" +
+				"\t\t\t\t\tImplMedianConstantTimeInner.process(input, output, radius, work);\n" +
 				"\t\t\t}\n" +
 				"\t\t\t// TODO Optimize this algorithm. It is taking up a large percentage of the CPU time\n" +
 				"\t\t\tImplMedianSortEdgeNaive.process(input, output, radius, offset);\n" +
@@ -239,7 +257,16 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 				"\t\tboolean processed = BOverrideBlurImageOps.invokeNativeMedian(input, output, radius);\n" +
 				"\n" +
 				"\t\tif( !processed ) {\n" +
-				"\t\t\tImplMedianSortNaive.process(input, output, radius, null);\n" +
+				"\t\t\tif( radius <= 2 ) {\n" +
+				"\t\t\t\tif( BoofConcurrency.USE_CONCURRENT ) {\n" +
+				"\t\t\t\t\tImplMedianSortNetworkInner_MT.process(input, output, radius);\n" +
+				"\t\t\t\t} else {\n" +
+				"\t\t\t\t\tImplMedianSortNetworkInner.process(input, output, radius);\n" +
+				"\t\t\t\t}\n" +
+				"\t\t\t\tImplMedianSortEdgeNaive.process(input, output, radius, null);\n" +
+				"\t\t\t} else {\n" +
+				"\t\t\t\tImplMedianSortNaive.process(input, output, radius, null);\n" +
+				"\t\t\t}\n" +
 				"\t\t}\n" +
 				"\t\treturn output;\n" +
 				"\t}\n" +
@@ -267,6 +294,62 @@ public class GenerateBlurImageOps  extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	void printGaussianRecursive() {
+		out.print("\t/**\n" +
+				"\t * Applies Gaussian blur using a recursive (IIR) filter. Unlike {@link #gaussian(GrayF32, GrayF32, double, int, GrayF32)}\n" +
+				"\t * the cost per pixel is independent of sigma, making it much faster for large sigmas. The result is an\n" +
+				"\t * approximation of a Gaussian. Pixels outside the image have the value of the closest border pixel.\n" +
+				"\t *\n" +
+				"\t * @param input Input image.  Not modified.\n" +
+				"\t * @param output (Optional) Storage for output image, Can be null.  Modified.\n" +
+				"\t * @param sigma Gaussian distribution's sigma. &ge; 0.5\n" +
+				"\t * @return Output blurred image.\n" +
+				"\t */\n" +
+				"\tpublic static GrayF32 gaussianRecursive(GrayF32 input, @Nullable GrayF32 output, double sigma ) {\n" +
+				"\t\toutput = InputSanityCheck.checkDeclare(input,output);\n" +
+				"\n" +
+				"\t\t// the vertical pass is done in place so no intermediate storage is needed\n" +
+				"\t\tfloat[] coef = ImplGaussianRecursive.coefficients(sigma);\n" +
+				"\t\tif( BoofConcurrency.USE_CONCURRENT ) {\n" +
+				"\t\t\tImplGaussianRecursive_MT.horizontal(input, output, coef);\n" +
+				"\t\t\tImplGaussianRecursive_MT.vertical(output, coef);\n" +
+				"\t\t} else {\n" +
+				"\t\t\tImplGaussianRecursive.horizontal(input, output, coef);\n" +
+				"\t\t\tImplGaussianRecursive.vertical(output, coef);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\treturn output;\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * Applies Gaussian blur using a recursive (IIR) filter. Unlike {@link #gaussian(GrayU8, GrayU8, double, int, GrayU8)}\n" +
+				"\t * the cost per pixel is independent of sigma, making it much faster for large sigmas. The result is an\n" +
+				"\t * approximation of a Gaussian. Pixels outside the image have the value of the closest border pixel.\n" +
+				"\t *\n" +
+				"\t * @param input Input image.  Not modified.\n" +
+				"\t * @param output (Optional) Storage for output image, Can be null.  Modified.\n" +
+				"\t * @param sigma Gaussian distribution's sigma. &ge; 0.5\n" +
+				"\t * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.\n" +
+				"\t * @return Output blurred image.\n" +
+				"\t */\n" +
+				"\tpublic static GrayU8 gaussianRecursive(GrayU8 input, @Nullable GrayU8 output, double sigma,\n" +
+				"\t\t\t\t\t\t\t\t\t\t   @Nullable GrayF32 storage ) {\n" +
+				"\t\toutput = InputSanityCheck.checkDeclare(input,output);\n" +
+				"\t\tstorage = InputSanityCheck.checkDeclare(input,storage,GrayF32.class);\n" +
+				"\n" +
+				"\t\tfloat[] coef = ImplGaussianRecursive.coefficients(sigma);\n" +
+				"\t\tif( BoofConcurrency.USE_CONCURRENT ) {\n" +
+				"\t\t\tImplGaussianRecursive_MT.horizontal(input, storage, coef);\n" +
+				"\t\t\tImplGaussianRecursive_MT.vertical(storage, output, coef);\n" +
+				"\t\t} else {\n" +
+				"\t\t\tImplGaussianRecursive.horizontal(input, storage, coef);\n" +
+				"\t\t\tImplGaussianRecursive.vertical(storage, output, coef);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\treturn output;\n" +
+				"\t}\n\n");
+	}
+
 	void printPlanar() {
 		out.print("\t/**\n" +
 				"\t * Applies Gaussian blur to a {@link Planar}\n" +
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -69,6 +69,8 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"import boofcv.struct.wavelet.WlCoef_I32;\n" +
 				"import boofcv.struct.wavelet.WlBorderCoef;\n" +
 				"\n" +
+				"//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;\n" +
+				"\n" +
 				"\n" +
 				"/**\n" +
 				" * <p>\n" +
@@ -134,6 +136,7 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"\t\tfinal int lowerBorder = UtilWavelet.borderForwardLower(coefficients);\n" +
 				"\t\tfinal int upperBorder = input.width - UtilWavelet.borderForwardUpper(coefficients,input.width);\n" +
 				"\n" +
+				"\t\t//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {\n" +
 				"\t\tfor( int y = 0; y < height; y++ ) {\n" +
 				"\t\t\tfor( int x = 0; x < lowerBorder; x += 2 ) {\n" +
 				"\t\t\t\t"+sumType+" scale = 0;\n" +
@@ -192,6 +195,7 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"\t\t\t\toutput.set(output.width/2 + outX , y , wavelet );\n" +
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_ABOVE });\n" +
 				"\t}\n\n");
 	}
 
@@ -211,6 +215,7 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"\t\tfinal int lowerBorder = UtilWavelet.borderForwardLower(coefficients);\n" +
 				"\t\tfinal int upperBorder = input.height - UtilWavelet.borderForwardUpper(coefficients,input.height);\n" +
 				"\n" +
+				"\t\t//CONCURRENT_BELOW BoofConcurrency.loopFor(0, width, x -> {\n" +
 				"\t\tfor( int x = 0; x < width; x++) {\n" +
 				"\t\t\tfor( int y = 0; y < lowerBorder; y += 2 ) {\n" +
 				"\t\t\t\t"+sumType+" scale = 0;\n" +
@@ -270,6 +275,7 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"\t\t\t\toutput.set(x , output.height/2 + outY , wavelet );\n" +
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_ABOVE });\n" +
 				"\t}\n\n");
 	}
 
@@ -285,9 +291,6 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 
 		out.print("\tpublic static void horizontalInverse( BorderIndex1D border , WlBorderCoef<WlCoef_"+genName+"> desc , "+imageIn.getSingleBandName()+" input , "+imageOut.getSingleBandName()+" output )\n" +
 				"\t{\n" +
-				"\t\t"+sumType+" []trends = new "+sumType+"[ input.width ];\n" +
-				"\t\t"+sumType+" []details = new "+sumType+"[ input.width ];\n" +
-				"\n" +
 				"\t\tfinal int height = output.height;\n" +
 				"\t\tfinal int paddedWidth = output.width + output.width%2;\n" +
 				"\n" +
@@ -317,17 +320,17 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"\n");
 
 		if( imageIn.isInteger() ) {
-			out.print("\t\tWlCoef_"+genName+" coefficients = desc.getInnerCoefficients();\n");
-			out.print("\t\tfinal int e = coefficients.denominatorScaling*2;\n" +
-					"\t\tfinal int f = coefficients.denominatorWavelet*2;\n" +
+			out.print("\t\tfinal int e = desc.getInnerCoefficients().denominatorScaling*2;\n" +
+					"\t\tfinal int f = desc.getInnerCoefficients().denominatorWavelet*2;\n" +
 					"\t\tfinal int ef = e*f;\n" +
-					"\t\tfinal int ef2 = ef/2;\n");
-		} else {
-			out.print("\t\tWlCoef_"+genName+" coefficients;\n");
+					"\t\tfinal int ef2 = ef/2;\n\n");
 		}
 
-		out.print("\n" +
-				"\t\tfor( int y = 0; y < height; y++ ) {\n" +
+		out.print("\t\t//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1)->{\n" +
+				"\t\tfinal int y0 = 0, y1 = height;\n" +
+				"\t\t"+sumType+" []trends = new "+sumType+"[ input.width ];\n" +
+				"\t\t"+sumType+" []details = new "+sumType+"[ input.width ];\n" +
+				"\t\tfor( int y = y0; y < y1; y++ ) {\n" +
 				"\n" +
 				"\t\t\t// initialize details and trends arrays\n" +
 				"\t\t\tfor( int i = 0; i < indexes.length; i++ ) {\n" +
@@ -342,6 +345,7 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"\t\t\t\tfloat a = input.get(x/2,y);\n" +
 				"\t\t\t\tfloat d = input.get(input.width/2+x/2,y);\n" +
 				"\n" +
+				"\t\t\t\tWlCoef_"+genName+" coefficients;\n" +
 				"\t\t\t\tif( x < lowerBorder ) {\n" +
 				"\t\t\t\t\tcoefficients = desc.getBorderCoefficients(x);\n" +
 				"\t\t\t\t} else if( x >= upperBorder ) {\n" +
@@ -381,6 +385,7 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				outputSum +
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_INLINE });\n" +
 				"\t}\n\n");
 	}
 
@@ -396,9 +401,6 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 
 		out.print("\tpublic static void verticalInverse( BorderIndex1D border , WlBorderCoef<WlCoef_"+genName+"> desc , "+imageIn.getSingleBandName()+" input , "+imageOut.getSingleBandName()+" output )\n" +
 				"\t{\n" +
-				"\t\t"+sumType+" []trends = new "+sumType+"[ input.height ];\n" +
-				"\t\t"+sumType+" []details = new "+sumType+"[ input.height ];\n" +
-				"\n" +
 				"\t\tfinal int width = output.width;\n" +
 				"\t\tfinal int paddedHeight = output.height + output.height%2;\n" +
 				"\n" +
@@ -428,17 +430,17 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"\n");
 
 		if( imageIn.isInteger() ) {
-			out.print("\t\tWlCoef_"+genName+" coefficients = desc.getInnerCoefficients();\n");
-			out.print("\t\tfinal int e = coefficients.denominatorScaling*2;\n" +
-					"\t\tfinal int f = coefficients.denominatorWavelet*2;\n" +
+			out.print("\t\tfinal int e = desc.getInnerCoefficients().denominatorScaling*2;\n" +
+					"\t\tfinal int f = desc.getInnerCoefficients().denominatorWavelet*2;\n" +
 					"\t\tfinal int ef = e*f;\n" +
-					"\t\tfinal int ef2 = ef/2;\n");
-		} else {
-			out.print("\t\tWlCoef_"+genName+" coefficients;\n");
+					"\t\tfinal int ef2 = ef/2;\n\n");
 		}
 
-		out.print("\n" +
-				"\t\tfor( int x = 0; x < width; x++ ) {\n" +
+		out.print("\t\t//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, width, (x0,x1)->{\n" +
+				"\t\tfinal int x0 = 0, x1 = width;\n" +
+				"\t\t"+sumType+" []trends = new "+sumType+"[ input.height ];\n" +
+				"\t\t"+sumType+" []details = new "+sumType+"[ input.height ];\n" +
+				"\t\tfor( int x = x0; x < x1; x++ ) {\n" +
 				"\n" +
 				"\t\t\t// initialize details and trends arrays\n" +
 				"\t\t\tfor( int i = 0; i < indexes.length; i++ ) {\n" +
@@ -453,6 +455,7 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				"\t\t\t\tfloat a = input.get(x,y/2);\n" +
 				"\t\t\t\tfloat d = input.get(x,input.height/2+y/2);\n" +
 				"\n" +
+				"\t\t\t\tWlCoef_"+genName+" coefficients;\n" +
 				"\t\t\t\tif( y < lowerBorder ) {\n" +
 				"\t\t\t\t\tcoefficients = desc.getBorderCoefficients(y);\n" +
 				"\t\t\t\t} else if( y >= upperBorder ) {\n" +
@@ -492,6 +495,7 @@ public class GenerateImplWaveletTransformBorder extends CodeGeneratorBase {
 				outputSum +
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_INLINE });\n" +
 				"\t}\n\n");
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -59,6 +59,8 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"import boofcv.struct.wavelet.WlCoef_F32;\n" +
 				"import boofcv.struct.wavelet.WlCoef_I32;\n" +
 				"\n" +
+				"//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;\n" +
+				"\n" +
 				"\n" +
 				"/**\n" +
 				" * <p>\n" +
@@ -117,6 +119,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\tfinal int startX = UtilWavelet.borderForwardLower(coefficients);\n" +
 				"\t\tfinal int endOffsetX = input.width - UtilWavelet.borderForwardUpper(coefficients,input.width) - startX;\n" +
 				"\n" +
+				"\t\t//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {\n" +
 				"\t\tfor( int y = 0; y < height; y++ ) {\n" +
 				"\n" +
 				"\t\t\tint indexIn = input.startIndex + input.stride*y + startX;\n" +
@@ -146,6 +149,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\t\t\tdataOut[ indexOut++ ] = "+outputCast+"scale;\n" +
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_ABOVE });\n" +
 				"\t}\n\n");
 	}
 
@@ -166,7 +170,9 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\tfinal int startY = UtilWavelet.borderForwardLower(coefficients);\n" +
 				"\t\tfinal int endY = input.height - UtilWavelet.borderForwardUpper(coefficients,input.width);\n" +
 				"\n" +
+				"\t\t//CONCURRENT_BELOW BoofConcurrency.loopFor(0, (endY-startY+1)/2, row -> {\n" +
 				"\t\tfor( int y = startY; y < endY; y += 2 ) {\n" +
+				"\t\t\t//CONCURRENT_INLINE int y = startY + 2*row;\n" +
 				"\n" +
 				"\t\t\tint indexIn = input.startIndex + input.stride*y;\n" +
 				"\t\t\tint indexOut = output.startIndex + output.stride*(y/2);\n" +
@@ -196,6 +202,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\n" +
 				"\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_ABOVE });\n" +
 				"\t}\n\n");
 	}
 
@@ -207,9 +214,6 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\tfinal "+sumType+"[] alpha = coefficients.scaling;\n" +
 				"\t\tfinal "+sumType+"[] beta = coefficients.wavelet;\n" +
 				"\n" +
-				"\t\t"+sumType+" []trends = new "+sumType+"[ output.width ];\n" +
-				"\t\t"+sumType+" []details = new "+sumType+"[ output.width ];\n" +
-				"\n" +
 				"\t\tfinal int width = input.width;\n" +
 				"\t\tfinal int height = output.height;\n" +
 				"\t\tfinal int widthD2 = width/2;\n" +
@@ -224,7 +228,11 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 					"\n");
 		}
 
-		out.print("\t\tfor( int y = 0; y < height; y++ ) {\n" +
+		out.print("\t\t//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1)->{\n" +
+				"\t\tfinal int y0 = 0, y1 = height;\n" +
+				"\t\t"+sumType+" []trends = new "+sumType+"[ output.width ];\n" +
+				"\t\t"+sumType+" []details = new "+sumType+"[ output.width ];\n" +
+				"\t\tfor( int y = y0; y < y1; y++ ) {\n" +
 				"\n" +
 				"\t\t\t// initialize details and trends arrays\n" +
 				"\t\t\tint indexSrc = input.startIndex + y*input.stride+lowerBorder/2;\n" +
@@ -274,6 +282,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 
 		out.print("\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_INLINE });\n" +
 				"\t}\n\n");
 	}
 
@@ -285,9 +294,6 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 				"\t\tfinal "+sumType+"[] alpha = coefficients.scaling;\n" +
 				"\t\tfinal "+sumType+"[] beta = coefficients.wavelet;\n" +
 				"\n" +
-				"\t\t"+sumType+" []trends = new "+sumType+"[ output.height ];\n" +
-				"\t\t"+sumType+" []details = new "+sumType+"[ output.height ];\n" +
-				"\n" +
 				"\t\tfinal int width = output.width;\n" +
 				"\t\tfinal int height = input.height;\n" +
 				"\t\tfinal int heightD2 = (height/2)*input.stride;\n" +
@@ -302,7 +308,11 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 					"\t\tfinal int ef2 = ef/2;\n" +
 					"\n");
 		}
-		out.print("\t\tfor( int x = 0; x < width; x++) {\n" +
+		out.print("\t\t//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, width, (x0,x1)->{\n" +
+				"\t\tfinal int x0 = 0, x1 = width;\n" +
+				"\t\t"+sumType+" []trends = new "+sumType+"[ output.height ];\n" +
+				"\t\t"+sumType+" []details = new "+sumType+"[ output.height ];\n" +
+				"\t\tfor( int x = x0; x < x1; x++ ) {\n" +
 				"\n" +
 				"\t\t\tint indexSrc = input.startIndex + (lowerBorder/2)*input.stride + x;\n" +
 				"\t\t\tfor( int y = lowerBorder; y < upperBorder; y += 2 , indexSrc += input.stride ) {\n" +
@@ -350,6 +360,7 @@ public class GenerateImplWaveletTransformInner extends CodeGeneratorBase {
 		}
 		out.print("\t\t\t}\n" +
 				"\t\t}\n" +
+				"\t\t//CONCURRENT_INLINE });\n" +
 				"\t}\n\n");
 	}
 
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.binary;
+
+import boofcv.alg.filter.binary.ContourPacked;
+import boofcv.alg.filter.binary.LinearContourLabelChang2004_MT;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.List;
+
+/**
+ * Concurrent version of {@link BinaryContourFinderLinearExternal}. External contours are found using
+ * {@link LinearContourLabelChang2004_MT} with internal contours turned off, which produces the same contours
+ * in the same order. Unlike the single threaded version a labeled image is required internally and the input
+ * image is not modified, other than its border being set to zero when a padded copy isn't created.
+ *
+ * @author Peter Abeles
+ */
+public class BinaryContourFinderLinearExternal_MT implements BinaryContourFinder, BinaryContourInterface.Padded
+{
+	LinearContourLabelChang2004_MT alg;
+
+	boolean copyForPadding = true;
+	int adjustX,adjustY;
+
+	GrayU8 inner = new GrayU8();
+	GrayS32 labeled = new GrayS32(1,1);
+
+	// external contours which passed the size filter
+	PackedSetsPoint2D_I32 points = new PackedSetsPoint2D_I32();
+	FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked.class,true);
+
+	public BinaryContourFinderLinearExternal_MT() {
+		this.alg = new LinearContourLabelChang2004_MT(ConnectRule.FOUR);
+		this.alg.setFindInternalContours(false);
+	}
+
+	@Override
+	public void process(GrayU8 binary) {
+		int offsetX = 0, offsetY = 0;
+		if(copyForPadding) {
+			alg.process(binary,labeled);
+		} else {
+			// pixels along the border are ignored and the inner image is offset from the input by one pixel
+			ImageMiscOps.fillBorder(binary, 0, 1);
+			binary.subimage(1,1,binary.width-1,binary.height-1,inner);
+			alg.process(inner,labeled);
+			offsetX = 1-adjustX;
+			offsetY = 1-adjustY;
+		}
+
+		// Contours which are too large or small have no points. Discard them and compact the list
+		contours.reset();
+		points.reset();
+		PackedSetsPoint2D_I32 found = alg.getPackedPoints();
+		PackedSetsPoint2D_I32.SetIterator iterator = found.createIterator();
+		for( int i = 0; i < found.size(); i++ ) {
+			if( found.sizeOfSet(i) == 0 )
+				continue;
+
+			ContourPacked p = contours.grow();
+			p.reset();
+			p.externalIndex = points.size();
+			p.id = points.size();
+
+			points.grow();
+			iterator.setup(i);
+			while( iterator.hasNext() ) {
+				Point2D_I32 c = iterator.next();
+				points.addPointToTail(c.x + offsetX, c.y + offsetY);
+			}
+		}
+	}
+
+	@Override
+	public List<ContourPacked> getContours() {
+		return contours.toList();
+	}
+
+	@Override
+	public void loadContour(int contourID, FastQueue<Point2D_I32> storage) {
+		points.getSet(contourID,storage);
+	}
+
+	@Override
+	public void writeContour(int contourID, List<Point2D_I32> storage) {
+		points.writeOverSet(contourID,storage);
+	}
+
+	@Override
+	public void setSaveInnerContour(boolean enabled) {
+	}
+
+	@Override
+	public boolean isSaveInternalContours() {
+		return false;
+	}
+
+	@Override
+	public void setMinContour(int length) {
+		alg.setMinContourSize(length);
+	}
+
+	@Override
+	public int getMinContour() {
+		return alg.getMinContourSize();
+	}
+
+	@Override
+	public void setMaxContour(int length) {
+		alg.setMaxContourSize(length);
+	}
+
+	@Override
+	public int getMaxContour() {
+		return alg.getMaxContourSize();
+	}
+
+	@Override
+	public void setConnectRule(ConnectRule rule) {
+		alg.setConnectRule(rule);
+	}
+
+	@Override
+	public ConnectRule getConnectRule() {
+		return alg.getConnectRule();
+	}
+
+	@Override
+	public void setCreatePaddedCopy(boolean padded) {
+		this.copyForPadding = padded;
+	}
+
+	@Override
+	public boolean isCreatePaddedCopy() {
+		return copyForPadding;
+	}
+
+	@Override
+	public void setCoordinateAdjustment(int x, int y) {
+		this.adjustX = x;
+		this.adjustY = y;
+	}
+}
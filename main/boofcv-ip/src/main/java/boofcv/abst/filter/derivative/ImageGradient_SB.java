@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -26,6 +26,8 @@ import boofcv.struct.border.ImageBorder;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 
+import javax.annotation.Nullable;
+
 
 /**
  * Generic implementation which uses reflections to call derivative functions
@@ -37,7 +39,7 @@ public abstract class ImageGradient_SB<Input extends ImageGray<Input>, Output ex
 {
 	// How the image border should be handled
 	BorderType borderType = BoofDefaults.DERIV_BORDER_TYPE;
-	ImageBorder<Input> border;
+	@Nullable ImageBorder<Input> border;
 	Class<Input> inputType;
 	Class<Output> derivType;
 
@@ -50,7 +52,8 @@ public abstract class ImageGradient_SB<Input extends ImageGray<Input>, Output ex
 	@Override
 	public void setBorderType(BorderType type) {
 		this.borderType = type;
-		border = FactoryImageBorder.single(borderType, inputType);
+		// the border is not processed when it's null
+		border = type == BorderType.SKIP ? null : FactoryImageBorder.single(borderType, inputType);
 	}
 
 	@Override
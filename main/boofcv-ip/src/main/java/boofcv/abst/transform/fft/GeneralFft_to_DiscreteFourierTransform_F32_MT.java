@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.transform.fft;
+
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D;
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D_MT;
+
+/**
+ * Concurrent version of {@link GeneralFft_to_DiscreteFourierTransform_F32}
+ *
+ * @author Peter Abeles
+ */
+public class GeneralFft_to_DiscreteFourierTransform_F32_MT extends GeneralFft_to_DiscreteFourierTransform_F32 {
+	// passed to each transform when it's created
+	private int minConcurrentPixels = GeneralPurposeFFT_F32_2D_MT.DEFAULT_MIN_CONCURRENT_PIXELS;
+
+	@Override
+	protected GeneralPurposeFFT_F32_2D createAlgorithm( int rows, int columns ) {
+		GeneralPurposeFFT_F32_2D_MT alg = new GeneralPurposeFFT_F32_2D_MT(rows, columns);
+		alg.setMinConcurrentPixels(minConcurrentPixels);
+		return alg;
+	}
+
+	public int getMinConcurrentPixels() {
+		return minConcurrentPixels;
+	}
+
+	/**
+	 * Images with fewer pixels than this are transformed using a single thread. Only affects image shapes
+	 * which have not been seen yet.
+	 *
+	 * @see GeneralPurposeFFT_F32_2D_MT#setMinConcurrentPixels
+	 */
+	public void setMinConcurrentPixels( int minConcurrentPixels ) {
+		this.minConcurrentPixels = minConcurrentPixels;
+	}
+}
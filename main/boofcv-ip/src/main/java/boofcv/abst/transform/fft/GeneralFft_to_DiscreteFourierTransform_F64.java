@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -23,6 +23,9 @@ import boofcv.alg.transform.fft.GeneralPurposeFFT_F64_2D;
 import boofcv.struct.image.GrayF64;
 import boofcv.struct.image.InterleavedF64;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Wrapper around {@link GeneralPurposeFFT_F64_2D} which implements {@link DiscreteFourierTransform}
  *
@@ -38,6 +41,16 @@ public class GeneralFft_to_DiscreteFourierTransform_F64
 	// performs the FFT
 	private GeneralPurposeFFT_F64_2D alg;
 
+	// maximum number of plans which are saved
+	private static final int MAX_PLANS = 4;
+	// recently used plans, keyed by image shape. Avoids recomputing the plan when sizes are alternated
+	private final Map<Long,GeneralPurposeFFT_F64_2D> plans = new LinkedHashMap<Long,GeneralPurposeFFT_F64_2D>(16,0.75f,true) {
+		@Override
+		protected boolean removeEldestEntry( Map.Entry<Long, GeneralPurposeFFT_F64_2D> eldest ) {
+			return size() > MAX_PLANS;
+		}
+	};
+
 	// storage for temporary results
 	private InterleavedF64 tmp = new InterleavedF64(1,1,2);
 
@@ -87,16 +100,25 @@ public class GeneralFft_to_DiscreteFourierTransform_F64
 	}
 
 	/**
-	 * Declare the algorithm if the image size has changed
+	 * Declare the algorithm if the image size has changed. Previously declared algorithms are reused.
 	 */
 	private void checkDeclareAlg(GrayF64 image) {
 		if( prevWidth != image.width || prevHeight != image.height ) {
 			prevWidth = image.width;
 			prevHeight = image.height;
-			alg = new GeneralPurposeFFT_F64_2D(image.height,image.width);
+			long key = ((long)image.height << 32) | image.width;
+			alg = plans.get(key);
+			if( alg == null ) {
+				alg = createAlgorithm(image.height, image.width);
+				plans.put(key, alg);
+			}
 		}
 	}
 
+	protected GeneralPurposeFFT_F64_2D createAlgorithm( int rows, int columns ) {
+		return new GeneralPurposeFFT_F64_2D(rows, columns);
+	}
+
 	@Override
 	public void setModifyInputs(boolean modify) {
 		this.modifyInputs = modify;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -39,7 +39,15 @@ import boofcv.struct.image.GrayF32;
  */
 public class DenoiseVisuShrink_F32 implements DenoiseWavelet<GrayF32> {
 
-	ShrinkThresholdRule<GrayF32> rule = new ShrinkThresholdSoft_F32();
+	ShrinkThresholdRule<GrayF32> rule;
+
+	public DenoiseVisuShrink_F32( ShrinkThresholdRule<GrayF32> rule ) {
+		this.rule = rule;
+	}
+
+	public DenoiseVisuShrink_F32() {
+		this(new ShrinkThresholdSoft_F32());
+	}
 
 	/**
 	 * Applies VisuShrink denoising to the provided multilevel wavelet transform using
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,9 @@ import boofcv.alg.denoise.DenoiseWavelet;
 import boofcv.alg.denoise.ShrinkThresholdRule;
 import boofcv.struct.image.ImageGray;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Performs an adaptive threshold based wavelet shrinkage across each of the wavelet subbands in each
@@ -34,6 +37,10 @@ public abstract class SubbandShrink<I extends ImageGray<I>> implements DenoiseWa
 	// specifies how the threshold is applied to each pixel in the image
 	protected ShrinkThresholdRule<I> rule;
 
+	// subbands in the layer being processed and their thresholds
+	protected List<I> subbands = new ArrayList<>();
+	protected Number[] thresholds = new Number[3];
+
 	protected SubbandShrink(ShrinkThresholdRule<I> rule) {
 		this.rule = rule;
 	}
@@ -61,32 +68,31 @@ public abstract class SubbandShrink<I extends ImageGray<I>> implements DenoiseWa
 			int h = transform.height;
 			int ww = w/2;
 			int hh = h/2;
-			Number threshold;
-			I subband;
-
-			// HL
-			subband = transform.subimage(ww,0,w,hh, null);
-			threshold = computeThreshold(subband);
-			rule.process(subband,threshold);
-
-//			System.out.print("HL = "+threshold);
-
-			// LH
-			subband = transform.subimage(0,hh,ww,h, null);
-			threshold = computeThreshold(subband);
-			rule.process(subband,threshold);
 
-//			System.out.print("  LH = "+threshold);
+			subbands.clear();
+			subbands.add(transform.subimage(ww,0,w,hh, null)); // HL
+			subbands.add(transform.subimage(0,hh,ww,h, null)); // LH
+			subbands.add(transform.subimage(ww,hh,w,h, null)); // HH
 
-			// HH
-			subband = transform.subimage(ww,hh,w,h, null);
-			threshold = computeThreshold(subband);
-			rule.process(subband,threshold);
+			computeThresholds(subbands,thresholds);
 
-//			System.out.println("  HH = "+threshold);
+			for( int j = 0; j < subbands.size(); j++ ) {
+				rule.process(subbands.get(j),thresholds[j]);
+			}
 
 			transform = transform.subimage(0,0,ww,hh, null);
 		}
+	}
 
+	/**
+	 * Computes the threshold for each subband in a single layer.
+	 *
+	 * @param subbands (Input) The HL, LH, and HH subbands
+	 * @param thresholds (Output) Threshold for each subband
+	 */
+	protected void computeThresholds( List<I> subbands , Number[] thresholds ) {
+		for( int i = 0; i < subbands.size(); i++ ) {
+			thresholds[i] = computeThreshold(subbands.get(i));
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -29,6 +29,7 @@ import boofcv.struct.ImageRectangle_F64;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.Planar;
@@ -121,6 +122,29 @@ public class DistortImageOps {
 		distorter.apply(input,output);
 	}
 
+	/**
+	 * Applies a pixel transform to a {@link GrayU8} image using fixed-point bilinear interpolation. If the same
+	 * transform is applied to several images then create the distortion with
+	 * {@link FactoryDistort#distortFixedU8} and reuse it, so that the map is only computed once.
+	 *
+	 * @param input Input (source) image.
+	 * @param output Where the result of transforming the image image is written to.
+	 * @param transform The transform that is being applied to the image
+	 * @param borderType Specifies how to handle image borders.
+	 */
+	public static void distortSingleFixed( GrayU8 input, GrayU8 output,
+										   PixelTransform<Point2D_F32> transform, BorderType borderType )
+	{
+		boolean skip = borderType == BorderType.SKIP;
+		if( skip )
+			borderType = BorderType.EXTENDED;
+
+		ImageDistort<GrayU8,GrayU8> distorter = FactoryDistort.distortFixedU8(borderType);
+		distorter.setRenderAll(!skip);
+		distorter.setModel(transform);
+		distorter.apply(input,output);
+	}
+
 	/**
 	 * Applies a pixel transform to a single band image.  More flexible but order to use function.
 	 *
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_F32;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Cached distortion for {@link GrayU8} images which uses bilinear interpolation computed with integer arithmetic.
+ * The distortion is computed once and saved in a compact fixed-point map. For each output pixel the map contains the
+ * integer coordinate of the input pixel as a 16-bit value and the fractional offsets as 8-bit weights, for
+ * 6 bytes a pixel. In comparison, {@link ImageDistortCache_SB} stores a {@link Point2D_F32} for each pixel
+ * and interpolates using floating point.
+ * </p>
+ *
+ * <p>
+ * Input pixels are sampled with a precision of 1/256 of a pixel and the output is rounded, so the results can differ
+ * by one from the floating point version. Output pixels which sample outside the input image are handled by the
+ * provided interpolation algorithm, which determines how the image border is handled.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortCacheFixed_U8 implements ImageDistort<GrayU8,GrayU8> {
+
+	// largest magnitude of a coordinate stored in the map. Points farther away are clamped
+	public static final int MAX_COORDINATE = 30000;
+
+	// size of output image
+	protected int width=-1,height=-1;
+
+	// integer coordinate of the input pixel for each output pixel
+	protected short[] mapX = new short[0];
+	protected short[] mapY = new short[0];
+	// fractional part of the coordinate with 8-bits of precision
+	protected byte[] mapWX = new byte[0];
+	protected byte[] mapWY = new byte[0];
+
+	// handles pixels which are outside the input image
+	protected InterpolatePixelS<GrayU8> interpBorder;
+
+	// transform
+	protected PixelTransform<Point2D_F32> dstToSrc;
+
+	// crop boundary
+	protected int x0,y0,x1,y1;
+
+	// should it render all pixels in the destination, even ones outside the input image
+	protected boolean renderAll = true;
+	protected GrayU8 srcImg;
+	protected GrayU8 dstImg;
+
+	protected boolean dirty;
+
+	/**
+	 * Specifies configuration parameters
+	 *
+	 * @param interpBorder Interpolation used for pixels outside the input image. Specifies how the border is handled.
+	 */
+	public ImageDistortCacheFixed_U8( InterpolatePixelS<GrayU8> interpBorder ) {
+		this.interpBorder = interpBorder;
+	}
+
+	@Override
+	public void setModel(PixelTransform<Point2D_F32> dstToSrc) {
+		this.dirty = true;
+		this.dstToSrc = dstToSrc;
+	}
+
+	@Override
+	public void apply(GrayU8 srcImg, GrayU8 dstImg) {
+		init(srcImg, dstImg);
+		x0 = 0;y0 = 0;x1 = dstImg.width;y1 = dstImg.height;
+		render(null);
+	}
+
+	@Override
+	public void apply(GrayU8 srcImg, GrayU8 dstImg, GrayU8 mask) {
+		init(srcImg, dstImg);
+		mask.reshape(dstImg);
+		x0 = 0;y0 = 0;x1 = dstImg.width;y1 = dstImg.height;
+		render(mask);
+	}
+
+	@Override
+	public void apply(GrayU8 srcImg, GrayU8 dstImg, int dstX0, int dstY0, int dstX1, int dstY1) {
+		init(srcImg, dstImg);
+
+		// Check that a valid region was specified. If not do nothing
+		if( dstX1 <= dstX0 || dstY1 <= dstY0 )
+			return;
+
+		x0 = dstX0;y0 = dstY0;x1 = dstX1;y1 = dstY1;
+		render(null);
+	}
+
+	protected void init(GrayU8 srcImg, GrayU8 dstImg) {
+		if( srcImg.width >= MAX_COORDINATE || srcImg.height >= MAX_COORDINATE )
+			throw new IllegalArgumentException("Input image is too large for a fixed-point map");
+
+		if( dirty || width != dstImg.width || height != dstImg.height) {
+			width = dstImg.width;
+			height = dstImg.height;
+			declareMap(width*height);
+			computeMap();
+			dirty = false;
+		}
+
+		this.srcImg = srcImg;
+		this.dstImg = dstImg;
+		interpBorder.setImage(srcImg);
+	}
+
+	protected void declareMap( int N ) {
+		if( mapX.length < N ) {
+			mapX = new short[N];
+			mapY = new short[N];
+			mapWX = new byte[N];
+			mapWY = new byte[N];
+		}
+	}
+
+	protected void computeMap() {
+		computeMap(0, height, dstToSrc, new Point2D_F32());
+	}
+
+	/**
+	 * Computes the map for output pixels inside the specified rows
+	 */
+	protected void computeMap( int rowStart, int rowEnd, PixelTransform<Point2D_F32> dstToSrc, Point2D_F32 p ) {
+		for( int y = rowStart; y < rowEnd; y++ ) {
+			int index = y*width;
+			for( int x = 0; x < width; x++, index++ ) {
+				dstToSrc.compute(x, y, p);
+				encode(index, p.x, p.y);
+			}
+		}
+	}
+
+	/**
+	 * Converts the floating point coordinate into fixed point and saves it in the map
+	 */
+	protected void encode( int index, float x, float y ) {
+		// NaN means the transform is undefined, which is handled the same as outside the image
+		if( Float.isNaN(x) || Float.isNaN(y) ) {
+			x = y = -MAX_COORDINATE;
+		} else {
+			x = Math.max(-MAX_COORDINATE, Math.min(MAX_COORDINATE, x));
+			y = Math.max(-MAX_COORDINATE, Math.min(MAX_COORDINATE, y));
+		}
+
+		int ix = (int)Math.floor(x);
+		int iy = (int)Math.floor(y);
+		int wx = Math.round((x - ix)*256);
+		int wy = Math.round((y - iy)*256);
+		// rounded up to the next pixel
+		if( wx == 256 ) { ix++; wx = 0; }
+		if( wy == 256 ) { iy++; wy = 0; }
+
+		mapX[index] = (short)ix;
+		mapY[index] = (short)iy;
+		mapWX[index] = (byte)wx;
+		mapWY[index] = (byte)wy;
+	}
+
+	protected void render( @Nullable GrayU8 mask ) {
+		render(y0, y1, interpBorder, mask);
+	}
+
+	/**
+	 * Renders output pixels inside the specified rows
+	 *
+	 * @param interpBorder Interpolation for pixels outside the input image
+	 * @param mask If not null then it's set to 1 if a pixel is inside the input image and 0 if outside
+	 */
+	protected void render( int rowStart, int rowEnd, InterpolatePixelS<GrayU8> interpBorder, @Nullable GrayU8 mask ) {
+		final byte[] src = srcImg.data;
+		final byte[] dst = dstImg.data;
+		final int stride = srcImg.stride;
+		final int lastX = srcImg.width-1;
+		final int lastY = srcImg.height-1;
+
+		for( int y = rowStart; y < rowEnd; y++ ) {
+			int indexMap = y*width + x0;
+			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMsk = mask == null ? 0 : mask.startIndex + mask.stride*y + x0;
+
+			for( int x = x0; x < x1; x++, indexMap++, indexDst++, indexMsk++ ) {
+				int sx = mapX[indexMap];
+				int sy = mapY[indexMap];
+				int wx = mapWX[indexMap] & 0xFF;
+				int wy = mapWY[indexMap] & 0xFF;
+
+				// same as 0 <= x <= width-1 and 0 <= y <= height-1 for the floating point coordinate
+				boolean inside = sx >= 0 && sy >= 0 &&
+						(sx < lastX || (sx == lastX && wx == 0)) && (sy < lastY || (sy == lastY && wy == 0));
+
+				if( inside ) {
+					// the neighbor's weight is zero along the last row and column
+					int stepX = sx < lastX ? 1 : 0;
+					int stepY = sy < lastY ? stride : 0;
+					int indexSrc = srcImg.startIndex + sy*stride + sx;
+
+					int p00 = src[indexSrc] & 0xFF;
+					int p10 = src[indexSrc + stepX] & 0xFF;
+					int p01 = src[indexSrc + stepY] & 0xFF;
+					int p11 = src[indexSrc + stepY + stepX] & 0xFF;
+
+					// interpolate along x then y. Each step adds 8-bits of fractional precision
+					int top = (p00 << 8) + (p10 - p00)*wx;
+					int bottom = (p01 << 8) + (p11 - p01)*wx;
+					dst[indexDst] = (byte)(((top << 8) + (bottom - top)*wy + (1 << 15)) >> 16);
+
+					if( mask != null )
+						mask.data[indexMsk] = 1;
+				} else {
+					if( renderAll )
+						dst[indexDst] = (byte)(interpBorder.get(sx + wx/256.0f, sy + wy/256.0f) + 0.5f);
+					if( mask != null )
+						mask.data[indexMsk] = 0;
+				}
+			}
+		}
+	}
+
+	public InterpolatePixelS<GrayU8> getInterpBorder() {
+		return interpBorder;
+	}
+
+	@Override
+	public void setRenderAll(boolean renderAll) {
+		this.renderAll = renderAll;
+	}
+
+	@Override
+	public boolean getRenderAll() {
+		return renderAll;
+	}
+
+	@Override
+	public PixelTransform<Point2D_F32> getModel() {
+		return dstToSrc;
+	}
+}
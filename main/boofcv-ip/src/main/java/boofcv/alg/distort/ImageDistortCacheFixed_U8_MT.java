@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent version of {@link ImageDistortCacheFixed_U8}. The map is computed and the image rendered in blocks
+ * of rows in parallel. Each thread has its own copy of the border interpolation.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("unchecked")
+public class ImageDistortCacheFixed_U8_MT extends ImageDistortCacheFixed_U8 {
+
+	// interpolation used along the border by each thread
+	private final FastQueue<InterpolatePixelS<GrayU8>> workspace = new FastQueue<>(
+			(Class<InterpolatePixelS<GrayU8>>)(Class<?>)InterpolatePixelS.class, ()->interpBorder.copy());
+
+	public ImageDistortCacheFixed_U8_MT( InterpolatePixelS<GrayU8> interpBorder ) {
+		super(interpBorder);
+	}
+
+	@Override
+	protected void computeMap() {
+		BoofConcurrency.loopBlocks(0, height, (rowStart, rowEnd)->{
+			PixelTransform<Point2D_F32> dstToSrc = this.dstToSrc.copyConcurrent();
+			computeMap(rowStart, rowEnd, dstToSrc, new Point2D_F32());
+		});
+	}
+
+	@Override
+	protected void render( @Nullable GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(y0, y1, workspace, (interp, rowStart, rowEnd)->{
+			interp.setImage(srcImg);
+			render(rowStart, rowEnd, interp, mask);
+		});
+	}
+}
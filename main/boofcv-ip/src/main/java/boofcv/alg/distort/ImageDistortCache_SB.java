@@ -24,11 +24,16 @@ import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_F32;
 
+import javax.annotation.Nullable;
+
 /**
  * Except for very simple functions, computing the per pixel distortion is an expensive operation.
  * To overcome this problem the distortion is computed once and cached.  Then when the image is distorted
  * again the save results are simply recalled and not computed again.
  *
+ * The cache is stored in a {@link RemapTable_F32}. Tables are immutable and can be shared between instances
+ * by calling {@link #setTable}, avoiding the need for each instance to compute and store its own copy.
+ *
  * @author Peter Abeles
  */
 public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends ImageGray<Output>>
@@ -36,9 +41,8 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 	protected AssignPixelValue_SB<Output> assigner;
 
-	// size of output image
-	protected int width=-1,height=-1;
-	protected Point2D_F32 map[];
+	// location of each output pixel in the input image
+	protected @Nullable RemapTable_F32 table;
 	// sub pixel interpolation
 	protected InterpolatePixelS<Input> interp;
 
@@ -114,23 +118,12 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 	}
 
 	protected void init(Input srcImg, Output dstImg) {
-		if( dirty || width != dstImg.width || height != dstImg.height) {
-			width = dstImg.width;
-			height = dstImg.height;
-			map = new Point2D_F32[width*height];
-			for( int i = 0; i < map.length; i++ ) {
-				map[i] = new Point2D_F32();
-			}
-
-			int index = 0;
-			for( int y = 0; y < height; y++ ) {
-				for( int x = 0; x < width; x++ ) {
-					dstToSrc.compute(x,y,map[index++]);
-				}
-			}
+		if( dirty || table == null || !table.isShape(dstImg.width, dstImg.height) ) {
+			if( dstToSrc == null )
+				throw new IllegalArgumentException("Table doesn't match the shape of dstImg and no model was specified");
+			table = computeTable(dstImg.width, dstImg.height);
 			dirty = false;
-		} else if( dstImg.width != width || dstImg.height != height )
-			throw new IllegalArgumentException("Unexpected dstImg dimension");
+		}
 
 		this.srcImg = srcImg;
 		this.dstImg = dstImg;
@@ -138,16 +131,33 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		assigner.setImage(dstImg);
 	}
 
+	protected RemapTable_F32 computeTable( int width, int height ) {
+		return RemapTable_F32.compute(width, height, dstToSrc);
+	}
+
+	/**
+	 * Specifies a precomputed table, which can be shared with other instances. The table will be used until the
+	 * model is changed or an output image with a different shape is passed in.
+	 *
+	 * @param table Location of each output pixel in the input image
+	 */
+	public void setTable( RemapTable_F32 table ) {
+		this.table = table;
+		this.dirty = false;
+	}
+
 	protected void renderAll() {
 
 		// todo TO make this faster first apply inside the region which can process the fast border
 		// then do the slower border thingy
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+			int indexMap = table.index(x0,y);
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMap++ ) {
+				float sx = table.getX(indexMap);
+				float sy = table.getY(indexMap);
 
-				assigner.assign(indexDst,interp.get(s.x, s.y));
+				assigner.assign(indexDst,interp.get(sx, sy));
 			}
 		}
 	}
@@ -159,13 +169,15 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMap = table.index(x0,y);
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
 
-			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-				Point2D_F32 s = map[indexDst];
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ , indexMap++ ) {
+				float sx = table.getX(indexMap);
+				float sy = table.getY(indexMap);
 
-				assigner.assign(indexDst,interp.get(s.x, s.y));
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
+				assigner.assign(indexDst,interp.get(sx, sy));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
 					mask.data[indexMsk] = 1;
 				} else {
 					mask.data[indexMsk] = 0;
@@ -180,11 +192,13 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+			int indexMap = table.index(x0,y);
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMap++ ) {
+				float sx = table.getX(indexMap);
+				float sy = table.getY(indexMap);
 
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-					assigner.assign(indexDst,interp.get(s.x, s.y));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+					assigner.assign(indexDst,interp.get(sx, sy));
 				}
 			}
 		}
@@ -196,13 +210,15 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+			int indexMap = table.index(x0,y);
 			int indexMsk = mask.startIndex + mask.stride*y + x0;
 
-			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-				Point2D_F32 s = map[indexDst];
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ , indexMap++ ) {
+				float sx = table.getX(indexMap);
+				float sy = table.getY(indexMap);
 
-				if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-					assigner.assign(indexDst,interp.get(s.x, s.y));
+				if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+					assigner.assign(indexDst,interp.get(sx, sy));
 					mask.data[indexMsk] = 1;
 				} else {
 					mask.data[indexMsk] = 0;
@@ -211,7 +227,26 @@ public class ImageDistortCache_SB<Input extends ImageGray<Input>,Output extends
 		}
 	}
 
-	public Point2D_F32[] getMap() {
+	public @Nullable RemapTable_F32 getTable() {
+		return table;
+	}
+
+	/**
+	 * Returns a copy of the cached table with one point for each pixel in the destination image. Modifying the
+	 * returned array has no effect on the cache.
+	 *
+	 * @deprecated Use {@link #getTable()}, which doesn't create a new array
+	 */
+	@Deprecated
+	public @Nullable Point2D_F32[] getMap() {
+		RemapTable_F32 table = this.table;
+		if( table == null )
+			return null;
+
+		Point2D_F32[] map = new Point2D_F32[table.getWidth()*table.getHeight()];
+		for( int i = 0; i < map.length; i++ ) {
+			map[i] = new Point2D_F32(table.getX(i), table.getY(i));
+		}
 		return map;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,10 +20,8 @@ package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.concurrency.BoofConcurrency;
-import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
-import georegression.struct.point.Point2D_F32;
 
 import java.util.Stack;
 
@@ -66,32 +64,8 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 	}
 
 	@Override
-	protected void init(Input srcImg, Output dstImg) {
-		if( dirty || width != dstImg.width || height != dstImg.height) {
-			width = dstImg.width;
-			height = dstImg.height;
-			map = new Point2D_F32[width*height];
-			for( int i = 0; i < map.length; i++ ) {
-				map[i] = new Point2D_F32();
-			}
-
-			BoofConcurrency.loopBlocks(0,height,(y0, y1)->{
-				PixelTransform<Point2D_F32> dstToSrc = this.dstToSrc.copyConcurrent();
-				for( int y = y0; y < y1; y++ ) {
-					int index = y*width;
-					for( int x = 0; x < width; x++ ) {
-						dstToSrc.compute(x,y,map[index++]);
-					}
-				}
-			});
-			dirty = false;
-		} else if( dstImg.width != width || dstImg.height != height )
-			throw new IllegalArgumentException("Unexpected dstImg dimension");
-
-		this.srcImg = srcImg;
-		this.dstImg = dstImg;
-		interp.setImage(srcImg);
-		assigner.setImage(dstImg);
+	protected RemapTable_F32 computeTable( int width, int height ) {
+		return RemapTable_F32.computeConcurrent(width, height, dstToSrc);
 	}
 
 	@Override
@@ -142,10 +116,12 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 			init();
 			for( int y = y0; y < y1; y++ ) {
 				int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-				for( int x = x0; x < x1; x++ , indexDst++ ) {
-					Point2D_F32 s = map[indexDst];
+				int indexMap = table.index(x0,y);
+				for( int x = x0; x < x1; x++ , indexDst++ , indexMap++ ) {
+					float sx = table.getX(indexMap);
+					float sy = table.getY(indexMap);
 
-					assigner.assign(indexDst,interp.get(s.x, s.y));
+					assigner.assign(indexDst,interp.get(sx, sy));
 				}
 			}
 		}
@@ -157,13 +133,15 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 
 			for( int y = y0; y < y1; y++ ) {
 				int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+				int indexMap = table.index(x0,y);
 				int indexMsk = mask.startIndex + mask.stride*y + x0;
 
-				for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-					Point2D_F32 s = map[indexDst];
+				for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ , indexMap++ ) {
+					float sx = table.getX(indexMap);
+					float sy = table.getY(indexMap);
 
-					assigner.assign(indexDst,interp.get(s.x, s.y));
-					if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
+					assigner.assign(indexDst,interp.get(sx, sy));
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
 						mask.data[indexMsk] = 1;
 					} else {
 						mask.data[indexMsk] = 0;
@@ -180,11 +158,13 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 
 			for( int y = y0; y < y1; y++ ) {
 				int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-				for( int x = x0; x < x1; x++ , indexDst++ ) {
-					Point2D_F32 s = map[indexDst];
+				int indexMap = table.index(x0,y);
+				for( int x = x0; x < x1; x++ , indexDst++ , indexMap++ ) {
+					float sx = table.getX(indexMap);
+					float sy = table.getY(indexMap);
 
-					if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-						assigner.assign(indexDst,interp.get(s.x, s.y));
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+						assigner.assign(indexDst,interp.get(sx, sy));
 					}
 				}
 			}
@@ -198,13 +178,15 @@ public class ImageDistortCache_SB_MT<Input extends ImageGray<Input>,Output exten
 
 			for( int y = y0; y < y1; y++ ) {
 				int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
+				int indexMap = table.index(x0,y);
 				int indexMsk = mask.startIndex + mask.stride*y + x0;
 
-				for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ ) {
-					Point2D_F32 s = map[indexDst];
+				for( int x = x0; x < x1; x++ , indexDst++ , indexMsk++ , indexMap++ ) {
+					float sx = table.getX(indexMap);
+					float sy = table.getY(indexMap);
 
-					if( s.x >= 0 && s.x <= maxWidth && s.y >= 0 && s.y <= maxHeight ) {
-						assigner.assign(indexDst,interp.get(s.x, s.y));
+					if( sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight ) {
+						assigner.assign(indexDst,interp.get(sx, sy));
 						mask.data[indexMsk] = 1;
 					} else {
 						mask.data[indexMsk] = 0;
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.PixelTransform;
+import georegression.struct.point.Point2D_F32;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Immutable table which specifies the location in the source image of each pixel in the destination image.
+ * Coordinates are stored as interleaved (x,y) floats in a single flat buffer, row-major, for 8 bytes per pixel.
+ * Since the table can't be modified after it has been created a single instance can be shared between
+ * any number of {@link ImageDistortCache_SB} and threads, e.g. one table for each camera model.
+ * </p>
+ *
+ * <p>
+ * The table can be saved to disk and loaded back as a memory-mapped file, avoiding the need to recompute
+ * it at startup. A mapped table is backed by the operating system's page cache and is not on the heap.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RemapTable_F32 {
+	// identifies the file format, "BRMT" in ASCII
+	private static final int MAGIC = 0x42524D54;
+	private static final int VERSION = 1;
+	// magic, version, width, height
+	private static final int HEADER_BYTES = 16;
+
+	// shape of the destination image
+	private final int width, height;
+	// interleaved (x,y) source coordinates for each destination pixel
+	private final FloatBuffer data;
+
+	private RemapTable_F32( int width, int height, FloatBuffer data ) {
+		this.width = width;
+		this.height = height;
+		this.data = data;
+	}
+
+	/**
+	 * Computes the table by applying the transform to every pixel in the destination image
+	 *
+	 * @param width Width of the destination image
+	 * @param height Height of the destination image
+	 * @param dstToSrc Transform from destination to source pixels
+	 * @return The table
+	 */
+	public static RemapTable_F32 compute( int width, int height, PixelTransform<Point2D_F32> dstToSrc ) {
+		final float[] xy = declare(width, height);
+		compute(0, height, width, dstToSrc, xy);
+		return new RemapTable_F32(width, height, FloatBuffer.wrap(xy));
+	}
+
+	/**
+	 * Same as {@link #compute} but blocks of rows are computed in parallel, each with its own copy of the transform
+	 */
+	public static RemapTable_F32 computeConcurrent( int width, int height, PixelTransform<Point2D_F32> dstToSrc ) {
+		final float[] xy = declare(width, height);
+		BoofConcurrency.loopBlocks(0, height, (y0, y1)->
+				compute(y0, y1, width, dstToSrc.copyConcurrent(), xy));
+		return new RemapTable_F32(width, height, FloatBuffer.wrap(xy));
+	}
+
+	private static float[] declare( int width, int height ) {
+		if( width < 0 || height < 0 )
+			throw new IllegalArgumentException("Shape can't be negative");
+		return new float[2*width*height];
+	}
+
+	private static void compute( int y0, int y1, int width, PixelTransform<Point2D_F32> dstToSrc, float[] xy ) {
+		Point2D_F32 p = new Point2D_F32();
+		for( int y = y0; y < y1; y++ ) {
+			int index = 2*y*width;
+			for( int x = 0; x < width; x++ ) {
+				dstToSrc.compute(x, y, p);
+				xy[index++] = p.x;
+				xy[index++] = p.y;
+			}
+		}
+	}
+
+	/**
+	 * Loads a table which was saved using {@link #save(File)}. The file is memory-mapped and not read into the heap.
+	 *
+	 * @param file Location of the saved table
+	 * @return The table
+	 * @throws IOException If the file can't be read or is not a table
+	 */
+	public static RemapTable_F32 load( File file ) throws IOException {
+		try( RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel() ) {
+			if( channel.size() < HEADER_BYTES )
+				throw new IOException("File is too small to be a remap table");
+
+			// the mapping remains valid after the channel has been closed
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			mapped.order(ByteOrder.LITTLE_ENDIAN);
+			if( mapped.getInt() != MAGIC )
+				throw new IOException("Not a remap table");
+			int version = mapped.getInt();
+			if( version != VERSION )
+				throw new IOException("Unsupported version "+version);
+			int width = mapped.getInt();
+			int height = mapped.getInt();
+			if( width < 0 || height < 0 || channel.size() != HEADER_BYTES + 8L*width*height )
+				throw new IOException("File size doesn't match the table's shape");
+
+			FloatBuffer data = mapped.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+			return new RemapTable_F32(width, height, data);
+		}
+	}
+
+	/**
+	 * Saves the table to disk in a format which can be memory-mapped by {@link #load(File)}
+	 *
+	 * @param file Where the table is saved to. Overwritten if it already exists
+	 * @throws IOException If the file can't be written
+	 */
+	public void save( File file ) throws IOException {
+		long totalBytes = HEADER_BYTES + 8L*width*height;
+		try( RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel() ) {
+			raf.setLength(totalBytes);
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalBytes);
+			mapped.order(ByteOrder.LITTLE_ENDIAN);
+			mapped.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height);
+			ByteBuffer body = mapped.slice().order(ByteOrder.LITTLE_ENDIAN);
+			FloatBuffer src = data.duplicate();
+			src.clear();
+			body.asFloatBuffer().put(src);
+			mapped.force();
+		}
+	}
+
+	/**
+	 * Returns the index of the pixel in the table. Pass it into {@link #getX} and {@link #getY}.
+	 */
+	public final int index( int x, int y ) {
+		return y*width + x;
+	}
+
+	/**
+	 * Source x-coordinate for the destination pixel at the specified index
+	 */
+	public final float getX( int index ) {
+		return data.get(2*index);
+	}
+
+	/**
+	 * Source y-coordinate for the destination pixel at the specified index
+	 */
+	public final float getY( int index ) {
+		return data.get(2*index + 1);
+	}
+
+	/**
+	 * Looks up the source coordinate for the destination pixel (x,y)
+	 */
+	public void get( int x, int y, Point2D_F32 output ) {
+		int index = index(x, y);
+		output.x = getX(index);
+		output.y = getY(index);
+	}
+
+	/**
+	 * Returns true if the table was created for a destination image with the specified shape
+	 */
+	public boolean isShape( int width, int height ) {
+		return this.width == width && this.height == height;
+	}
+
+	/**
+	 * Returns true if the table is backed by a memory-mapped file
+	 */
+	public boolean isMapped() {
+		return data.isDirect();
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+}
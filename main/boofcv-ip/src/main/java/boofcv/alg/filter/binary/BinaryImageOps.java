@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -23,6 +23,7 @@ import boofcv.abst.filter.binary.BinaryContourInterface;
 import boofcv.abst.filter.binary.BinaryLabelContourFinder;
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.filter.binary.impl.*;
+import boofcv.alg.filter.morphology.MorphologyImageOps;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.binary.FactoryBinaryContourFinder;
@@ -388,6 +389,71 @@ public class BinaryImageOps {
 		return output;
 	}
 
+	/**
+	 * <p>
+	 * Erodes an image using a rectangular structuring element. A pixel is set to one only if every pixel inside
+	 * the rectangle is one. Pixels outside the image are treated as one. A line structuring element is a rectangle
+	 * with a width or height of one. The cost per pixel is independent of the rectangle's size, making this suitable
+	 * for large structuring elements, e.g. document cleanup.
+	 * </p>
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 * @see MorphologyImageOps
+	 */
+	public static GrayU8 erode(GrayU8 input, int width, int height, GrayU8 output) {
+		return MorphologyImageOps.erode(input, width, height, output, null);
+	}
+
+	/**
+	 * <p>
+	 * Dilates an image using a rectangular structuring element. A pixel is set to one if any pixel inside
+	 * the rectangle is one. Pixels outside the image are treated as zero. A line structuring element is a rectangle
+	 * with a width or height of one. The cost per pixel is independent of the rectangle's size.
+	 * </p>
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 * @see MorphologyImageOps
+	 */
+	public static GrayU8 dilate(GrayU8 input, int width, int height, GrayU8 output) {
+		return MorphologyImageOps.dilate(input, width, height, output, null);
+	}
+
+	/**
+	 * Opening (erosion then dilation) with a rectangular structuring element. Removes blobs and thin
+	 * structures which can't contain the rectangle.
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static GrayU8 open(GrayU8 input, int width, int height, GrayU8 output) {
+		return MorphologyImageOps.open(input, width, height, output, null);
+	}
+
+	/**
+	 * Closing (dilation then erosion) with a rectangular structuring element. Fills in holes and gaps
+	 * which are smaller than the rectangle.
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static GrayU8 close(GrayU8 input, int width, int height, GrayU8 output) {
+		return MorphologyImageOps.close(input, width, height, output, null);
+	}
+
 	/**
 	 * Binary operation which is designed to remove small bits of spurious noise.  An 8-neighborhood is used.
 	 * If a pixel is connected to less than 2 neighbors then its value zero.  If connected to more than 6 then
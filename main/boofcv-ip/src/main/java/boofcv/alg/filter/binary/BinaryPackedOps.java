@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.filter.binary.impl.BinaryThinning;
+import boofcv.alg.filter.binary.impl.ImplBinaryPackedOps;
+import boofcv.struct.image.GrayBinary;
+import boofcv.struct.image.GrayU8;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Binary operations on bit-packed {@link GrayBinary} images. Each function is the equivalent of the function
+ * with the same name in {@link BinaryImageOps} and produces the same output, but 64 pixels are processed at once
+ * and 1/8 the memory is read and written. Use {@link #pack} and {@link #unpack} to convert to and from
+ * {@link GrayU8}, or threshold directly into a packed image with
+ * {@link ThresholdImageOps#thresholdPacked(GrayU8, GrayBinary, int, boolean)}.
+ * </p>
+ *
+ * <p>
+ * Operations which look at a pixel's neighbors can't be performed in-place.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BinaryPackedOps {
+
+	/**
+	 * Converts a binary {@link GrayU8} image into a packed image. Any non-zero value is treated as 1.
+	 *
+	 * @param input Input binary image. Not modified.
+	 * @param output (Optional) Packed output image. If null a new image is declared. Modified.
+	 * @return The packed image.
+	 */
+	public static GrayBinary pack( GrayU8 input , @Nullable GrayBinary output ) {
+		if( output == null )
+			output = new GrayBinary(input.width,input.height);
+		else
+			output.reshape(input.width,input.height);
+
+		ImplBinaryPackedOps.pack(input,output);
+		return output;
+	}
+
+	/**
+	 * Converts a packed image into a {@link GrayU8} image with values of 0 and 1.
+	 *
+	 * @param input Input packed image. Not modified.
+	 * @param output (Optional) Output binary image. If null a new image is declared. Modified.
+	 * @return The unpacked image.
+	 */
+	public static GrayU8 unpack( GrayBinary input , @Nullable GrayU8 output ) {
+		if( output == null )
+			output = new GrayU8(input.width,input.height);
+		else
+			output.reshape(input.width,input.height);
+
+		ImplBinaryPackedOps.unpack(input,output);
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'and' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output (Optional) Output image. Can be the same as the inputs. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary logicAnd( GrayBinary inputA , GrayBinary inputB , @Nullable GrayBinary output ) {
+		checkSameShape(inputA,inputB);
+		output = declareOutput(inputA,output);
+
+		ImplBinaryPackedOps.logicAnd(inputA,inputB,output);
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'or' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output (Optional) Output image. Can be the same as the inputs. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary logicOr( GrayBinary inputA , GrayBinary inputB , @Nullable GrayBinary output ) {
+		checkSameShape(inputA,inputB);
+		output = declareOutput(inputA,output);
+
+		ImplBinaryPackedOps.logicOr(inputA,inputB,output);
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'xor' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output (Optional) Output image. Can be the same as the inputs. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary logicXor( GrayBinary inputA , GrayBinary inputB , @Nullable GrayBinary output ) {
+		checkSameShape(inputA,inputB);
+		output = declareOutput(inputA,output);
+
+		ImplBinaryPackedOps.logicXor(inputA,inputB,output);
+		return output;
+	}
+
+	/**
+	 * Inverts each pixel from true to false and vis-versa.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Output image. Can be the same as the input. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary invert( GrayBinary input , @Nullable GrayBinary output ) {
+		output = declareOutput(input,output);
+		if( input.width == 0 )
+			return output;
+
+		ImplBinaryPackedOps.invert(input,output);
+		return output;
+	}
+
+	/**
+	 * Returns the number of pixels with a value of 1
+	 */
+	public static int countOnes( GrayBinary input ) {
+		return ImplBinaryPackedOps.countOnes(input);
+	}
+
+	/**
+	 * Erodes an image according to a 4-neighborhood. Unless a pixel is connected to all its neighbors its value
+	 * is set to zero.
+	 *
+	 * @see BinaryImageOps#erode4(GrayU8, int, GrayU8)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output (Optional) Output image. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary erode4( GrayBinary input , int numTimes , @Nullable GrayBinary output ) {
+		return applyNeighborOp(input, numTimes, output, ImplBinaryPackedOps::erode4);
+	}
+
+	/**
+	 * Dilates an image according to a 4-neighborhood. If a pixel is connected to any other pixel then its output
+	 * value will be one.
+	 *
+	 * @see BinaryImageOps#dilate4(GrayU8, int, GrayU8)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output (Optional) Output image. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary dilate4( GrayBinary input , int numTimes , @Nullable GrayBinary output ) {
+		return applyNeighborOp(input, numTimes, output, ImplBinaryPackedOps::dilate4);
+	}
+
+	/**
+	 * Erodes an image according to a 8-neighborhood. Unless a pixel is connected to all its neighbors its value
+	 * is set to zero.
+	 *
+	 * @see BinaryImageOps#erode8(GrayU8, int, GrayU8)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output (Optional) Output image. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary erode8( GrayBinary input , int numTimes , @Nullable GrayBinary output ) {
+		return applyNeighborOp(input, numTimes, output, ImplBinaryPackedOps::erode8);
+	}
+
+	/**
+	 * Dilates an image according to a 8-neighborhood. If a pixel is connected to any other pixel then its output
+	 * value will be one.
+	 *
+	 * @see BinaryImageOps#dilate8(GrayU8, int, GrayU8)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param numTimes How many times the operation will be applied to the image.
+	 * @param output (Optional) Output image. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary dilate8( GrayBinary input , int numTimes , @Nullable GrayBinary output ) {
+		return applyNeighborOp(input, numTimes, output, ImplBinaryPackedOps::dilate8);
+	}
+
+	/**
+	 * Removes all pixels but ones which are on the edge of an object. The edge is defined as lying on the
+	 * object and not being surrounded by a pixel along a 4-neighborhood.
+	 *
+	 * @see BinaryImageOps#edge4(GrayU8, GrayU8, boolean)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Output image. Modified.
+	 * @param outsideZero if true then pixels outside the image are treated as zero, otherwise one
+	 * @return Output image.
+	 */
+	public static GrayBinary edge4( GrayBinary input , @Nullable GrayBinary output , boolean outsideZero ) {
+		output = declareNeighborOutput(input,output);
+		if( input.width == 0 )
+			return output;
+
+		ImplBinaryPackedOps.edge4(input,output,outsideZero);
+		return output;
+	}
+
+	/**
+	 * Removes all pixels but ones which are on the edge of an object. The edge is defined as lying on the
+	 * object and not being surrounded by 8 pixels.
+	 *
+	 * @see BinaryImageOps#edge8(GrayU8, GrayU8, boolean)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Output image. Modified.
+	 * @param outsideZero if true then pixels outside the image are treated as zero, otherwise one
+	 * @return Output image.
+	 */
+	public static GrayBinary edge8( GrayBinary input , @Nullable GrayBinary output , boolean outsideZero ) {
+		output = declareNeighborOutput(input,output);
+		if( input.width == 0 )
+			return output;
+
+		ImplBinaryPackedOps.edge8(input,output,outsideZero);
+		return output;
+	}
+
+	/**
+	 * Applies morphological thinning to the image using the same masks as {@link BinaryThinning}. Each mask
+	 * is applied to all 64 pixels in a word at once.
+	 *
+	 * @see BinaryImageOps#thin(GrayU8, int, GrayU8)
+	 *
+	 * @param input Input image. Not modified.
+	 * @param maxIterations Maximum number of cycles it will thin for. -1 for the maximum required
+	 * @param output (Optional) Output image. Modified.
+	 * @return Output image.
+	 */
+	public static GrayBinary thin( GrayBinary input , int maxIterations , @Nullable GrayBinary output ) {
+		output = declareNeighborOutput(input,output);
+		output.setTo(input);
+		if( input.width == 0 )
+			return output;
+
+		byte[][] masks = new byte[][]{
+				BinaryThinning.mask0, BinaryThinning.mask1, BinaryThinning.mask2, BinaryThinning.mask3,
+				BinaryThinning.mask4, BinaryThinning.mask5, BinaryThinning.mask6, BinaryThinning.mask7};
+
+		GrayBinary work = output;
+		GrayBinary tmp = input.createSameShape();
+
+		for (int loop = 0; loop < maxIterations || maxIterations == -1; loop++) {
+			boolean changed = false;
+			for (int i = 0; i < masks.length; i++) {
+				changed |= ImplBinaryPackedOps.thinMask(masks[i],work,tmp);
+				GrayBinary a = work;
+				work = tmp;
+				tmp = a;
+			}
+			if( !changed )
+				break;
+		}
+
+		// there are an even number of masks so the results will always end up in 'output'
+		return output;
+	}
+
+	/**
+	 * Applies an operation which looks at the neighbors of each pixel 'numTimes'
+	 */
+	private static GrayBinary applyNeighborOp( GrayBinary input , int numTimes , @Nullable GrayBinary output ,
+											   NeighborOp op ) {
+		if( numTimes <= 0 )
+			throw new IllegalArgumentException("numTimes must be >= 1");
+		output = declareNeighborOutput(input,output);
+		if( input.width == 0 )
+			return output;
+
+		op.process(input,output);
+		if( numTimes > 1 ) {
+			GrayBinary tmp1 = input.createSameShape();
+			GrayBinary tmp2 = output;
+
+			for( int i = 1; i < numTimes; i++ ) {
+				op.process(tmp2, tmp1);
+
+				GrayBinary a = tmp1;
+				tmp1 = tmp2;
+				tmp2 = a;
+			}
+
+			if( tmp2 != output ) {
+				output.setTo(tmp2);
+			}
+		}
+		return output;
+	}
+
+	private static GrayBinary declareOutput( GrayBinary input , @Nullable GrayBinary output ) {
+		if( output == null )
+			return new GrayBinary(input.width,input.height);
+		output.reshape(input.width,input.height);
+		return output;
+	}
+
+	private static GrayBinary declareNeighborOutput( GrayBinary input , @Nullable GrayBinary output ) {
+		if( input == output )
+			throw new IllegalArgumentException("Input and output can't be the same instance");
+		return declareOutput(input,output);
+	}
+
+	private static void checkSameShape( GrayBinary imgA , GrayBinary imgB ) {
+		if( imgA.width != imgB.width || imgA.height != imgB.height )
+			throw new IllegalArgumentException("Image shapes do not match. "+
+					imgA.width+"x"+imgA.height+" "+imgB.width+"x"+imgB.height);
+	}
+
+	private interface NeighborOp {
+		void process( GrayBinary input , GrayBinary output );
+	}
+}
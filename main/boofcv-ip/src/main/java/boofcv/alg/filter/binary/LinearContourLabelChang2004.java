@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -59,21 +59,21 @@ import org.ddogleg.struct.FastQueue;
 public class LinearContourLabelChang2004 {
 
 	// The maximum number of elements in a contour that will be recorded
-	private int minContourSize = 0;
+	protected int minContourSize = 0;
 	// The maximum number of elements in a contour that will be recorded
-	private int maxContourSize = Integer.MAX_VALUE;
+	protected int maxContourSize = Integer.MAX_VALUE;
 	// If false it will not save internal contours as they are found
-	private boolean saveInternalContours = true;
+	protected boolean saveInternalContours = true;
 
 	// traces edge pixels
-	private ContourTracer tracer;
+	protected ContourTracer tracer;
 
 	// binary image with a border of zero.
-	private GrayU8 border = new GrayU8(1,1);
+	protected GrayU8 border = new GrayU8(1,1);
 
 	// predeclared/recycled data structures
 	PackedSetsPoint2D_I32 packedPoints = new PackedSetsPoint2D_I32(2000);
-	private FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked.class, true);
+	protected FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked.class, true);
 
 	// internal book keeping variables
 	private int x,y,indexIn,indexOut;
@@ -97,12 +97,7 @@ public class LinearContourLabelChang2004 {
 		// initialize data structures
 		labeled.reshape(binary.width,binary.height);
 
-		// ensure that the image border pixels are filled with zero by enlarging the image
-		if( border.width != binary.width+2 || border.height != binary.height+2)  {
-			border.reshape(binary.width + 2, binary.height + 2);
-			ImageMiscOps.fillBorder(border, 0, 1);
-		}
-		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+		copyIntoBorder(binary);
 
 		// labeled image must initially be filled with zeros
 		ImageMiscOps.fill(labeled,0);
@@ -151,6 +146,18 @@ public class LinearContourLabelChang2004 {
 		}
 	}
 
+	/**
+	 * Copies the binary image into {@link #border}, which has a 1 pixel border of zeros around it
+	 */
+	protected void copyIntoBorder(GrayU8 binary) {
+		// ensure that the image border pixels are filled with zero by enlarging the image
+		if( border.width != binary.width+2 || border.height != binary.height+2)  {
+			border.reshape(binary.width + 2, binary.height + 2);
+			ImageMiscOps.fillBorder(border, 0, 1);
+		}
+		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+	}
+
 	/**
 	 * Faster when there's a specialized function which searches for one pixels
 	 */
@@ -0,0 +1,462 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link LinearContourLabelChang2004} which produces identical output. Instead
+ * of a single raster scan the image is broken up into horizontal strips which are labeled independently using
+ * union-find. The labeled image is used as the union-find forest, where each pixel points to a pixel in the same
+ * blob with a lower index. Trees are then merged across strip borders. Since the root of a tree is always the pixel
+ * with the lowest index it is the first pixel a raster scan would encounter, which is where the single threaded
+ * algorithm starts tracing the external contour and assigns the blob's ID.
+ * </p>
+ *
+ * <p>
+ * Holes are found the same way by labeling the background using the complementary connectivity rule. Background
+ * regions which do not touch the image border are holes and the pixel above a hole's root is where the single
+ * threaded algorithm would start tracing the internal contour. Once the starting point of every contour is known
+ * they are traced in parallel and combined in the same order they would be encountered in a raster scan.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearContourLabelChang2004_MT extends LinearContourLabelChang2004 {
+
+	// Number of rows in each strip which is labeled independently
+	private int stripHeight = 100;
+	// If false internal contours are not searched for and the background is not labeled
+	private boolean findInternalContours = true;
+
+	// Storage for each strip. Also used as storage for each group of contours being traced
+	private FastQueue<Strip> strips = new FastQueue<>(Strip.class, Strip::new);
+
+	// Index of the root pixel for the background region which touches the image border. -1 if there is none
+	private int outsideRoot;
+
+	// Index of the first pixel in every blob and the pixel above the first pixel in every hole
+	private GrowQueue_I32 blobStarts = new GrowQueue_I32();
+	private GrowQueue_I32 holeStarts = new GrowQueue_I32();
+
+	// Pixel index a contour is traced from and its label, in the order the single threaded algorithm traces them.
+	// Internal contours have a negative label.
+	private GrowQueue_I32 jobPixel = new GrowQueue_I32();
+	private GrowQueue_I32 jobLabel = new GrowQueue_I32();
+
+	public LinearContourLabelChang2004_MT( ConnectRule rule ) {
+		super(rule);
+	}
+
+	@Override
+	public void process( GrayU8 binary , GrayS32 labeled ) {
+		labeled.reshape(binary.width,binary.height);
+		copyIntoBorder(binary);
+
+		packedPoints.reset();
+		contours.reset();
+
+		final ConnectRule rule = tracer.getConnectRule();
+		final boolean internal = findInternalContours;
+
+		final int numStrips = Math.max(1, labeled.height/stripHeight);
+		strips.resize(numStrips);
+		for (int i = 0; i < numStrips; i++) {
+			Strip s = strips.get(i);
+			s.y0 = i*labeled.height/numStrips;
+			s.y1 = (i+1)*labeled.height/numStrips;
+		}
+
+		// Label each strip independently
+		BoofConcurrency.loopFor(0, numStrips, i -> {
+			Strip s = strips.get(i);
+			labelStrip(labeled, s.y0, s.y1, rule, internal);
+		});
+
+		// Merge trees across strip borders and find the background region outside of all the blobs
+		for (int i = 1; i < numStrips; i++) {
+			mergeStripBorder(labeled, strips.get(i).y0, rule, internal);
+		}
+		outsideRoot = internal ? findOutsideRoot(labeled) : -1;
+
+		// Point every pixel at the root of its tree and save the root of every blob and hole
+		BoofConcurrency.loopFor(0, numStrips, i -> findRoots(labeled, strips.get(i)));
+
+		// Blobs are numbered in the order their root is encountered, just like the single threaded algorithm
+		int numBlobs = 0;
+		for (int i = 0; i < numStrips; i++) {
+			Strip s = strips.get(i);
+			s.labelOffset = numBlobs;
+			numBlobs += s.blobRoots.size;
+		}
+
+		// Assign the final labels. Roots are marked with a value which can't be confused for a background pixel
+		final int offset = labeled.data.length + 1;
+		BoofConcurrency.loopFor(0, numStrips, i -> {
+			Strip s = strips.get(i);
+			for (int j = 0; j < s.blobRoots.size; j++) {
+				labeled.data[s.blobRoots.get(j)] = -(s.labelOffset + j + 1) - offset;
+			}
+		});
+		BoofConcurrency.loopFor(0, numStrips, i -> assignLabels(labeled, strips.get(i), offset));
+		BoofConcurrency.loopFor(0, numStrips, i -> {
+			Strip s = strips.get(i);
+			for (int j = 0; j < s.blobRoots.size; j++) {
+				labeled.data[s.blobRoots.get(j)] = s.labelOffset + j + 1;
+			}
+		});
+
+		createContourJobs(labeled, numStrips);
+		for (int i = 0; i < numBlobs; i++) {
+			ContourPacked c = contours.grow();
+			c.reset();
+			c.id = i + 1;
+		}
+
+		// Trace all the contours. Each strip is assigned a consecutive group of contours
+		final int numJobs = jobPixel.size;
+		BoofConcurrency.loopFor(0, numStrips, i -> {
+			int j0 = (int)((long)i*numJobs/numStrips);
+			int j1 = (int)((long)(i+1)*numJobs/numStrips);
+			traceContours(labeled, strips.get(i), rule, j0, j1);
+		});
+
+		// Combine the traced contours in the same order as the single threaded algorithm
+		int job = 0;
+		for (int i = 0; i < numStrips; i++) {
+			Strip s = strips.get(i);
+			for (int setIdx = 0; setIdx < s.points.size(); setIdx++, job++) {
+				int label = jobLabel.get(job);
+				ContourPacked c = contours.get(Math.abs(label)-1);
+				if( label > 0 )
+					c.externalIndex = packedPoints.size();
+				else
+					c.internalIndexes.add(packedPoints.size());
+				packedPoints.grow();
+
+				s.iterator.setup(setIdx);
+				while( s.iterator.hasNext() ) {
+					Point2D_I32 p = s.iterator.next();
+					packedPoints.addPointToTail(p.x, p.y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Labels pixels inside the strip using union-find. Pixels outside the strip are ignored.
+	 */
+	private void labelStrip( GrayS32 labeled , int y0 , int y1 , ConnectRule rule , boolean internal ) {
+		final byte[] bin = border.data;
+		final int[] data = labeled.data;
+		final int strideB = border.stride;
+		final int width = labeled.width;
+		final boolean eight = rule == ConnectRule.EIGHT;
+
+		for (int y = y0; y < y1; y++) {
+			int indexB = border.startIndex + (y+1)*strideB + 1;
+			int indexL = labeled.startIndex + y*labeled.stride;
+			final int upL = labeled.stride;
+			final boolean hasAbove = y > y0;
+
+			for (int x = 0; x < width; x++, indexB++, indexL++) {
+				int root = indexL;
+				if( bin[indexB] == 1 ) {
+					// thanks to the border of zeros there's no need to check the image bounds
+					if( bin[indexB-1] == 1 )
+						root = union(data, root, indexL-1, 1);
+					if( hasAbove ) {
+						if( bin[indexB-strideB] == 1 ) {
+							// if the pixel above is part of the blob so are its neighbors
+							root = union(data, root, indexL-upL, 1);
+						} else if( eight ) {
+							if( bin[indexB-strideB-1] == 1 )
+								root = union(data, root, indexL-upL-1, 1);
+							if( bin[indexB-strideB+1] == 1 )
+								root = union(data, root, indexL-upL+1, 1);
+						}
+					}
+					data[indexL] = root+1;
+				} else if( internal ) {
+					// The background is connected using the opposite rule and pixels outside the image are ignored
+					if( x > 0 && bin[indexB-1] != 1 )
+						root = union(data, root, indexL-1, -1);
+					if( hasAbove ) {
+						if( bin[indexB-strideB] != 1 ) {
+							root = union(data, root, indexL-upL, -1);
+						} else if( !eight ) {
+							if( x > 0 && bin[indexB-strideB-1] != 1 )
+								root = union(data, root, indexL-upL-1, -1);
+							if( x < width-1 && bin[indexB-strideB+1] != 1 )
+								root = union(data, root, indexL-upL+1, -1);
+						}
+					}
+					data[indexL] = -(root+1);
+				} else {
+					data[indexL] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Merges the trees in the first row of a strip with the trees in the last row of the strip above it
+	 */
+	private void mergeStripBorder( GrayS32 labeled , int y , ConnectRule rule , boolean internal ) {
+		final byte[] bin = border.data;
+		final int[] data = labeled.data;
+		final int strideB = border.stride;
+		final int width = labeled.width;
+		final boolean eight = rule == ConnectRule.EIGHT;
+
+		int indexB = border.startIndex + (y+1)*strideB + 1;
+		int indexL = labeled.startIndex + y*labeled.stride;
+		final int upL = labeled.stride;
+
+		for (int x = 0; x < width; x++, indexB++, indexL++) {
+			if( bin[indexB] == 1 ) {
+				int root = find(data, indexL, 1);
+				if( bin[indexB-strideB] == 1 ) {
+					union(data, root, indexL-upL, 1);
+				} else if( eight ) {
+					if( bin[indexB-strideB-1] == 1 )
+						root = union(data, root, indexL-upL-1, 1);
+					if( bin[indexB-strideB+1] == 1 )
+						union(data, root, indexL-upL+1, 1);
+				}
+			} else if( internal ) {
+				int root = find(data, indexL, -1);
+				if( bin[indexB-strideB] != 1 ) {
+					union(data, root, indexL-upL, -1);
+				} else if( !eight ) {
+					if( x > 0 && bin[indexB-strideB-1] != 1 )
+						root = union(data, root, indexL-upL-1, -1);
+					if( x < width-1 && bin[indexB-strideB+1] != 1 )
+						union(data, root, indexL-upL+1, -1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * All background pixels along the image border are connected through the region outside the image. Merges
+	 * them into a single tree and returns its root.
+	 */
+	private int findOutsideRoot( GrayS32 labeled ) {
+		final int[] data = labeled.data;
+		int root = -1;
+		for (int y = 0; y < labeled.height; y++) {
+			int index = labeled.startIndex + y*labeled.stride;
+			int step = y == 0 || y == labeled.height-1 ? 1 : Math.max(1,labeled.width-1);
+			for (int x = 0; x < labeled.width; x += step) {
+				if( data[index+x] >= 0 )
+					continue;
+				if( root == -1 )
+					root = find(data, index+x, -1);
+				else
+					root = union(data, root, index+x, -1);
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Points each pixel in the strip directly at the root of its tree and records the roots of blobs and holes.
+	 * Other threads might be traversing trees through these pixels, which is safe since the value of a pixel
+	 * only changes from one of its ancestors to the root.
+	 */
+	private void findRoots( GrayS32 labeled , Strip strip ) {
+		final int[] data = labeled.data;
+		strip.blobRoots.reset();
+		strip.holeRoots.reset();
+
+		for (int y = strip.y0; y < strip.y1; y++) {
+			int index = labeled.startIndex + y*labeled.stride;
+			int end = index + labeled.width;
+			for (; index < end; index++) {
+				int value = data[index];
+				if( value > 0 ) {
+					int root = find(data, index, 1);
+					data[index] = root+1;
+					if( root == index )
+						strip.blobRoots.add(index);
+				} else if( value < 0 ) {
+					int root = find(data, index, -1);
+					data[index] = -(root+1);
+					if( root == index && root != outsideRoot )
+						strip.holeRoots.add(index);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Looks up the label of every blob pixel from its root and sets background pixels to zero
+	 */
+	private void assignLabels( GrayS32 labeled , Strip strip , int offset ) {
+		final int[] data = labeled.data;
+		for (int y = strip.y0; y < strip.y1; y++) {
+			int index = labeled.startIndex + y*labeled.stride;
+			int end = index + labeled.width;
+			for (; index < end; index++) {
+				int value = data[index];
+				if( value > 0 ) {
+					data[index] = -data[value-1] - offset;
+				} else if( value < 0 && value >= -labeled.data.length ) {
+					data[index] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the list of contours which need to be traced, sorted in the order a raster scan would encounter
+	 * them. If a hole is directly below the first pixel in a blob the external contour is traced first.
+	 */
+	private void createContourJobs( GrayS32 labeled , int numStrips ) {
+		blobStarts.reset();
+		holeStarts.reset();
+		for (int i = 0; i < numStrips; i++) {
+			Strip s = strips.get(i);
+			blobStarts.addAll(s.blobRoots);
+			for (int j = 0; j < s.holeRoots.size; j++) {
+				holeStarts.add(s.holeRoots.get(j) - labeled.stride);
+			}
+		}
+
+		jobPixel.reset();
+		jobLabel.reset();
+		int idxBlob = 0, idxHole = 0;
+		while( idxBlob < blobStarts.size || idxHole < holeStarts.size ) {
+			if( idxHole == holeStarts.size ||
+					(idxBlob < blobStarts.size && blobStarts.get(idxBlob) <= holeStarts.get(idxHole)) ) {
+				jobPixel.add(blobStarts.get(idxBlob));
+				jobLabel.add(++idxBlob);
+			} else {
+				int pixel = holeStarts.get(idxHole++);
+				jobPixel.add(pixel);
+				jobLabel.add(-labeled.data[pixel]);
+			}
+		}
+	}
+
+	/**
+	 * Traces the contours in the specified range of jobs and saves them in the strip's storage
+	 */
+	private void traceContours( GrayS32 labeled , Strip strip , ConnectRule rule , int job0 , int job1 ) {
+		if( strip.tracer == null || strip.tracer.getConnectRule() != rule )
+			strip.tracer = new ContourTracer(rule);
+		strip.points.reset();
+		strip.tracer.setInputs(border, labeled, strip.points);
+
+		for (int job = job0; job < job1; job++) {
+			int pixel = jobPixel.get(job) - labeled.startIndex;
+			int label = jobLabel.get(job);
+			int x = pixel%labeled.stride;
+			int y = pixel/labeled.stride;
+
+			boolean external = label > 0;
+			strip.points.grow();
+			strip.tracer.setMaxContourSize(external || saveInternalContours ? maxContourSize : 0);
+			strip.tracer.trace(Math.abs(label), x+1, y+1, external);
+
+			// Keep track that this was a contour, but free up all the points used in defining it
+			int size = strip.points.sizeOfTail();
+			if( size >= maxContourSize || size < minContourSize ) {
+				strip.points.removeTail();
+				strip.points.grow();
+			}
+		}
+	}
+
+	/**
+	 * Returns the root of the tree which contains the pixel. Pixel values are encoded as sign*(parent+1).
+	 */
+	static int find( int[] data , int index , int sign ) {
+		int parent;
+		while( (parent = sign*data[index]-1) != index )
+			index = parent;
+		return index;
+	}
+
+	/**
+	 * Merges the tree with the specified root with the tree which contains the pixel. The root with the lower
+	 * index becomes the root of the merged tree and is returned.
+	 */
+	static int union( int[] data , int root , int index , int sign ) {
+		int other = find(data, index, sign);
+		if( other < root ) {
+			data[root] = sign*(other+1);
+			return other;
+		} else if( other > root ) {
+			data[other] = sign*(root+1);
+		}
+		return root;
+	}
+
+	public int getStripHeight() {
+		return stripHeight;
+	}
+
+	/**
+	 * Number of rows in each strip which is labeled independently. Larger strips reduce the number of trees
+	 * which need to be merged but limit how many threads can be used.
+	 */
+	public void setStripHeight( int stripHeight ) {
+		if( stripHeight <= 0 )
+			throw new IllegalArgumentException("Strip height must be at least 1");
+		this.stripHeight = stripHeight;
+	}
+
+	public boolean isFindInternalContours() {
+		return findInternalContours;
+	}
+
+	/**
+	 * If false then internal contours are not searched for and only external contours are returned. This is
+	 * faster than turning off {@link #setSaveInternalContours(boolean)} since the background doesn't need to be
+	 * labeled.
+	 */
+	public void setFindInternalContours( boolean findInternalContours ) {
+		this.findInternalContours = findInternalContours;
+	}
+
+	private static class Strip {
+		// first and last row (exclusive) of the strip
+		int y0, y1;
+		// the label of the first blob in this strip minus one
+		int labelOffset;
+		// index of root pixels inside the strip
+		GrowQueue_I32 blobRoots = new GrowQueue_I32();
+		GrowQueue_I32 holeRoots = new GrowQueue_I32();
+
+		// Storage for tracing contours
+		ContourTracer tracer;
+		PackedSetsPoint2D_I32 points = new PackedSetsPoint2D_I32();
+		PackedSetsPoint2D_I32.SetIterator iterator = points.createIterator();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 package boofcv.alg.filter.binary;
 
 import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.binary.impl.ImplBinaryPackedOps;
 import boofcv.alg.filter.binary.impl.ImplThresholdImageOps;
 import boofcv.alg.filter.binary.impl.ImplThresholdImageOps_MT;
 import boofcv.concurrency.BoofConcurrency;
@@ -113,6 +114,58 @@ public class ThresholdImageOps {
 		return output;
 	}
 
+	/**
+	 * Applies a global threshold across the whole image and writes the results into a bit-packed image.
+	 * If 'down' is true, then pixels with values <= to 'threshold' are set to 1 and the others set to 0.
+	 * If 'down' is false, then pixels with values > to 'threshold' are set to 1 and the others set to 0.
+	 *
+	 * @see BinaryPackedOps
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Packed binary output image. If null a new image will be declared. Modified.
+	 * @param threshold threshold value.
+	 * @param down If true then the inequality <= is used, otherwise if false then &gt; is used.
+	 * @return Output image.
+	 */
+	public static GrayBinary thresholdPacked( GrayU8 input , @Nullable GrayBinary output ,
+											  int threshold , boolean down )
+	{
+		if( output == null )
+			output = new GrayBinary(input.width,input.height);
+		else
+			output.reshape(input.width,input.height);
+
+		ImplBinaryPackedOps.threshold(input, output, threshold, down);
+
+		return output;
+	}
+
+	/**
+	 * Applies a global threshold across the whole image and writes the results into a bit-packed image.
+	 * If 'down' is true, then pixels with values <= to 'threshold' are set to 1 and the others set to 0.
+	 * If 'down' is false, then pixels with values > to 'threshold' are set to 1 and the others set to 0.
+	 *
+	 * @see BinaryPackedOps
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output (Optional) Packed binary output image. If null a new image will be declared. Modified.
+	 * @param threshold threshold value.
+	 * @param down If true then the inequality <= is used, otherwise if false then &gt; is used.
+	 * @return Output image.
+	 */
+	public static GrayBinary thresholdPacked( GrayF32 input , @Nullable GrayBinary output ,
+											  float threshold , boolean down )
+	{
+		if( output == null )
+			output = new GrayBinary(input.width,input.height);
+		else
+			output.reshape(input.width,input.height);
+
+		ImplBinaryPackedOps.threshold(input, output, threshold, down);
+
+		return output;
+	}
+
 	/**
 	 * Applies a global threshold across the whole image.  If 'down' is true, then pixels with values <=
 	 * to 'threshold' are set to 1 and the others set to 0.  If 'down' is false, then pixels with values >
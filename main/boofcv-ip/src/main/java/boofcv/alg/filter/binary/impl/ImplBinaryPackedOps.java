@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary.impl;
+
+import boofcv.struct.image.GrayBinary;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * <p>
+ * Implementations of binary operations on {@link GrayBinary} which process 64 pixels at once. The value of
+ * neighboring pixels are found by shifting the words in a row left or right and carrying over the bit from the
+ * adjacent word. Pixels outside the image are given the value specified by 'fill', 0 for all zeros and ~0L for
+ * all ones. Results are identical to the equivalent operations on {@link GrayU8}.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see boofcv.alg.filter.binary.BinaryPackedOps
+ */
+@SuppressWarnings("Duplicates")
+public class ImplBinaryPackedOps {
+
+	public static void threshold( GrayU8 input , GrayBinary output , int threshold , boolean down ) {
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = y*output.stride;
+			for (int x0 = 0; x0 < input.width; x0 += GrayBinary.BITS, indexOut++ ) {
+				int length = Math.min(GrayBinary.BITS,input.width-x0);
+				long word = 0;
+				if( down ) {
+					for (int j = 0; j < length; j++) {
+						if( (input.data[indexIn++] & 0xFF) <= threshold )
+							word |= 1L << j;
+					}
+				} else {
+					for (int j = 0; j < length; j++) {
+						if( (input.data[indexIn++] & 0xFF) > threshold )
+							word |= 1L << j;
+					}
+				}
+				output.data[indexOut] = word;
+			}
+		}
+	}
+
+	public static void threshold( GrayF32 input , GrayBinary output , float threshold , boolean down ) {
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = y*output.stride;
+			for (int x0 = 0; x0 < input.width; x0 += GrayBinary.BITS, indexOut++ ) {
+				int length = Math.min(GrayBinary.BITS,input.width-x0);
+				long word = 0;
+				if( down ) {
+					for (int j = 0; j < length; j++) {
+						if( input.data[indexIn++] <= threshold )
+							word |= 1L << j;
+					}
+				} else {
+					for (int j = 0; j < length; j++) {
+						if( input.data[indexIn++] > threshold )
+							word |= 1L << j;
+					}
+				}
+				output.data[indexOut] = word;
+			}
+		}
+	}
+
+	/**
+	 * Packs a binary {@link GrayU8} image. Any non-zero value is treated as 1.
+	 */
+	public static void pack( GrayU8 input , GrayBinary output ) {
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = y*output.stride;
+			for (int x0 = 0; x0 < input.width; x0 += GrayBinary.BITS, indexOut++ ) {
+				int length = Math.min(GrayBinary.BITS,input.width-x0);
+				long word = 0;
+				for (int j = 0; j < length; j++) {
+					if( input.data[indexIn++] != 0 )
+						word |= 1L << j;
+				}
+				output.data[indexOut] = word;
+			}
+		}
+	}
+
+	public static void unpack( GrayBinary input , GrayU8 output ) {
+		for (int y = 0; y < input.height; y++) {
+			int indexIn = y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x0 = 0; x0 < input.width; x0 += GrayBinary.BITS, indexIn++ ) {
+				int length = Math.min(GrayBinary.BITS,input.width-x0);
+				long word = input.data[indexIn];
+				for (int j = 0; j < length; j++) {
+					output.data[indexOut++] = (byte)((word >>> j) & 1L);
+				}
+			}
+		}
+	}
+
+	public static void logicAnd( GrayBinary inputA , GrayBinary inputB , GrayBinary output ) {
+		int N = inputA.stride*inputA.height;
+		for (int i = 0; i < N; i++) {
+			output.data[i] = inputA.data[i] & inputB.data[i];
+		}
+	}
+
+	public static void logicOr( GrayBinary inputA , GrayBinary inputB , GrayBinary output ) {
+		int N = inputA.stride*inputA.height;
+		for (int i = 0; i < N; i++) {
+			output.data[i] = inputA.data[i] | inputB.data[i];
+		}
+	}
+
+	public static void logicXor( GrayBinary inputA , GrayBinary inputB , GrayBinary output ) {
+		int N = inputA.stride*inputA.height;
+		for (int i = 0; i < N; i++) {
+			output.data[i] = inputA.data[i] ^ inputB.data[i];
+		}
+	}
+
+	public static void invert( GrayBinary input , GrayBinary output ) {
+		long lastMask = input.getLastWordMask();
+		for (int y = 0; y < input.height; y++) {
+			int index = y*input.stride;
+			int end = index + input.stride - 1;
+			for (; index < end; index++) {
+				output.data[index] = ~input.data[index];
+			}
+			output.data[end] = ~input.data[end] & lastMask;
+		}
+	}
+
+	public static int countOnes( GrayBinary input ) {
+		int total = 0;
+		int N = input.stride*input.height;
+		for (int i = 0; i < N; i++) {
+			total += Long.bitCount(input.data[i]);
+		}
+		return total;
+	}
+
+	public static void erode4( GrayBinary input , GrayBinary output ) {
+		final long fill = ~0L;
+		final long lastMask = input.getLastWordMask();
+		for (int y = 0; y < input.height; y++) {
+			int indexOut = y*output.stride;
+			for (int i = 0; i < input.stride; i++ ) {
+				long value = word(input,y,i,fill) &
+						west(input,y,i,fill) & east(input,y,i,fill) &
+						word(input,y-1,i,fill) & word(input,y+1,i,fill);
+				output.data[indexOut+i] = value;
+			}
+			output.data[indexOut+input.stride-1] &= lastMask;
+		}
+	}
+
+	public static void dilate4( GrayBinary input , GrayBinary output ) {
+		final long fill = 0L;
+		final long lastMask = input.getLastWordMask();
+		for (int y = 0; y < input.height; y++) {
+			int indexOut = y*output.stride;
+			for (int i = 0; i < input.stride; i++ ) {
+				long value = word(input,y,i,fill) |
+						west(input,y,i,fill) | east(input,y,i,fill) |
+						word(input,y-1,i,fill) | word(input,y+1,i,fill);
+				output.data[indexOut+i] = value;
+			}
+			output.data[indexOut+input.stride-1] &= lastMask;
+		}
+	}
+
+	public static void edge4( GrayBinary input , GrayBinary output , boolean outsideZero ) {
+		final long fill = outsideZero ? 0L : ~0L;
+		for (int y = 0; y < input.height; y++) {
+			int indexOut = y*output.stride;
+			for (int i = 0; i < input.stride; i++ ) {
+				long surrounded = west(input,y,i,fill) & east(input,y,i,fill) &
+						word(input,y-1,i,fill) & word(input,y+1,i,fill);
+				output.data[indexOut+i] = input.data[indexOut+i] & ~surrounded;
+			}
+		}
+	}
+
+	public static void erode8( GrayBinary input , GrayBinary output ) {
+		final long fill = ~0L;
+		final long lastMask = input.getLastWordMask();
+		for (int y = 0; y < input.height; y++) {
+			int indexOut = y*output.stride;
+			for (int i = 0; i < input.stride; i++ ) {
+				long value = word(input,y,i,fill) &
+						west(input,y,i,fill) & east(input,y,i,fill) &
+						west(input,y-1,i,fill) & word(input,y-1,i,fill) & east(input,y-1,i,fill) &
+						west(input,y+1,i,fill) & word(input,y+1,i,fill) & east(input,y+1,i,fill);
+				output.data[indexOut+i] = value;
+			}
+			output.data[indexOut+input.stride-1] &= lastMask;
+		}
+	}
+
+	public static void dilate8( GrayBinary input , GrayBinary output ) {
+		final long fill = 0L;
+		final long lastMask = input.getLastWordMask();
+		for (int y = 0; y < input.height; y++) {
+			int indexOut = y*output.stride;
+			for (int i = 0; i < input.stride; i++ ) {
+				long value = word(input,y,i,fill) |
+						west(input,y,i,fill) | east(input,y,i,fill) |
+						west(input,y-1,i,fill) | word(input,y-1,i,fill) | east(input,y-1,i,fill) |
+						west(input,y+1,i,fill) | word(input,y+1,i,fill) | east(input,y+1,i,fill);
+				output.data[indexOut+i] = value;
+			}
+			output.data[indexOut+input.stride-1] &= lastMask;
+		}
+	}
+
+	public static void edge8( GrayBinary input , GrayBinary output , boolean outsideZero ) {
+		final long fill = outsideZero ? 0L : ~0L;
+		for (int y = 0; y < input.height; y++) {
+			int indexOut = y*output.stride;
+			for (int i = 0; i < input.stride; i++ ) {
+				long surrounded = west(input,y,i,fill) & east(input,y,i,fill) &
+						west(input,y-1,i,fill) & word(input,y-1,i,fill) & east(input,y-1,i,fill) &
+						west(input,y+1,i,fill) & word(input,y+1,i,fill) & east(input,y+1,i,fill);
+				output.data[indexOut+i] = input.data[indexOut+i] & ~surrounded;
+			}
+		}
+	}
+
+	/**
+	 * Applies a hit-or-miss mask in the format used by {@link BinaryThinning} and sets all pixels which match
+	 * the mask to zero. Pixels outside the image are zero.
+	 *
+	 * @param mask 3x3 mask. -1 = any value, 0 = must be zero, 1 = must be one
+	 * @param input Input image
+	 * @param output Output image. Can't be the same as the input.
+	 * @return true if any pixels were changed
+	 */
+	public static boolean thinMask( byte[] mask , GrayBinary input , GrayBinary output ) {
+		final long fill = 0L;
+		final long[] neighbors = new long[9];
+		boolean changed = false;
+		for (int y = 0; y < input.height; y++) {
+			int indexOut = y*output.stride;
+			for (int i = 0; i < input.stride; i++ ) {
+				for (int row = 0; row < 3; row++) {
+					neighbors[row*3  ] = west(input,y+row-1,i,fill);
+					neighbors[row*3+1] = word(input,y+row-1,i,fill);
+					neighbors[row*3+2] = east(input,y+row-1,i,fill);
+				}
+
+				long hit = ~0L;
+				for (int k = 0; k < 9; k++) {
+					if( mask[k] == 0 )
+						hit &= ~neighbors[k];
+					else if( mask[k] == 1 )
+						hit &= neighbors[k];
+				}
+
+				long center = neighbors[4];
+				long value = center & ~hit;
+				changed |= value != center;
+				output.data[indexOut+i] = value;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Word 'i' in row 'y'. Returns 'fill' if outside the image.
+	 */
+	static long word( GrayBinary image , int y , int i , long fill ) {
+		if( y < 0 || y >= image.height || i < 0 || i >= image.stride )
+			return fill;
+		return image.data[y*image.stride + i];
+	}
+
+	/**
+	 * Word 'i' in row 'y' shifted so that each bit contains the value of the pixel to its left (x-1).
+	 */
+	static long west( GrayBinary image , int y , int i , long fill ) {
+		return (word(image,y,i,fill) << 1) | (word(image,y,i-1,fill) >>> 63);
+	}
+
+	/**
+	 * Word 'i' in row 'y' shifted so that each bit contains the value of the pixel to its right (x+1).
+	 */
+	static long east( GrayBinary image , int y , int i , long fill ) {
+		long value = (word(image,y,i,fill) >>> 1) | (word(image,y,i+1,fill) << 63);
+		// the pixel just outside the right side of the image is stored as zero in the last word
+		if( i == image.stride-1 && y >= 0 && y < image.height )
+			value |= fill & (1L << ((image.width-1)%GrayBinary.BITS));
+		return value;
+	}
+}
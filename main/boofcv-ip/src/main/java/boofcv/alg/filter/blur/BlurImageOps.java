@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,10 +19,16 @@
 package boofcv.alg.filter.blur;
 
 import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.blur.impl.ImplGaussianRecursive;
+import boofcv.alg.filter.blur.impl.ImplGaussianRecursive_MT;
+import boofcv.alg.filter.blur.impl.ImplMedianConstantTimeInner;
+import boofcv.alg.filter.blur.impl.ImplMedianConstantTimeInner_MT;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner_MT;
 import boofcv.alg.filter.blur.impl.ImplMedianSortEdgeNaive;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
+import boofcv.alg.filter.blur.impl.ImplMedianSortNetworkInner;
+import boofcv.alg.filter.blur.impl.ImplMedianSortNetworkInner_MT;
 import boofcv.alg.filter.convolve.ConvolveImageMean;
 import boofcv.alg.filter.convolve.ConvolveImageNormalized;
 import boofcv.concurrency.*;
@@ -758,13 +764,30 @@ public class BlurImageOps {
 		boolean processed = BOverrideBlurImageOps.invokeNativeMedian(input, output, radius);
 
 		if( !processed ) {
+			// the inner algorithms and the edge algorithm assume that the image is larger than the kernel
+			if( input.width <= 2*radius || input.height <= 2*radius ) {
+				ImplMedianSortNaive.process(input, output, radius, null);
+				return output;
+			}
+
 			int w = radius * 2 + 1;
 			int offset[] = new int[w * w];
 
+			// select the algorithm which is fastest for this radius
 			if( BoofConcurrency.USE_CONCURRENT ) {
-				ImplMedianHistogramInner_MT.process(input, output, radius, work);
+				if( radius == 1 )
+					ImplMedianSortNetworkInner_MT.process(input, output, radius);
+				else if( radius < 24 )
+					ImplMedianHistogramInner_MT.process(input, output, radius, work);
+				else
+					ImplMedianConstantTimeInner_MT.process(input, output, radius, work);
 			} else {
-				ImplMedianHistogramInner.process(input, output, radius, work);
+				if( radius == 1 )
+					ImplMedianSortNetworkInner.process(input, output, radius);
+				else if( radius < 24 )
+					ImplMedianHistogramInner.process(input, output, radius, work);
+				else
+					ImplMedianConstantTimeInner.process(input, output, radius, work);
 			}
 			// TODO Optimize this algorithm. It is taking up a large percentage of the CPU time
 			ImplMedianSortEdgeNaive.process(input, output, radius, offset);
@@ -791,7 +814,17 @@ public class BlurImageOps {
 		boolean processed = BOverrideBlurImageOps.invokeNativeMedian(input, output, radius);
 
 		if( !processed ) {
-			ImplMedianSortNaive.process(input, output, radius, null);
+			// the sorting network requires the image to be larger than the kernel
+			if( radius <= 2 && input.width > 2*radius && input.height > 2*radius ) {
+				if( BoofConcurrency.USE_CONCURRENT ) {
+					ImplMedianSortNetworkInner_MT.process(input, output, radius);
+				} else {
+					ImplMedianSortNetworkInner.process(input, output, radius);
+				}
+				ImplMedianSortEdgeNaive.process(input, output, radius, null);
+			} else {
+				ImplMedianSortNaive.process(input, output, radius, null);
+			}
 		}
 		return output;
 	}
@@ -818,5 +851,59 @@ public class BlurImageOps {
 		return output;
 	}
 
+	/**
+	 * Applies Gaussian blur using a recursive (IIR) filter. Unlike {@link #gaussian(GrayF32, GrayF32, double, int, GrayF32)}
+	 * the cost per pixel is independent of sigma, making it much faster for large sigmas. The result is an
+	 * approximation of a Gaussian. Pixels outside the image have the value of the closest border pixel.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma. &ge; 0.5
+	 * @return Output blurred image.
+	 */
+	public static GrayF32 gaussianRecursive(GrayF32 input, @Nullable GrayF32 output, double sigma ) {
+		output = InputSanityCheck.checkDeclare(input,output);
+
+		// the vertical pass is done in place so no intermediate storage is needed
+		float[] coef = ImplGaussianRecursive.coefficients(sigma);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplGaussianRecursive_MT.horizontal(input, output, coef);
+			ImplGaussianRecursive_MT.vertical(output, coef);
+		} else {
+			ImplGaussianRecursive.horizontal(input, output, coef);
+			ImplGaussianRecursive.vertical(output, coef);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Applies Gaussian blur using a recursive (IIR) filter. Unlike {@link #gaussian(GrayU8, GrayU8, double, int, GrayU8)}
+	 * the cost per pixel is independent of sigma, making it much faster for large sigmas. The result is an
+	 * approximation of a Gaussian. Pixels outside the image have the value of the closest border pixel.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma. &ge; 0.5
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static GrayU8 gaussianRecursive(GrayU8 input, @Nullable GrayU8 output, double sigma,
+										   @Nullable GrayF32 storage ) {
+		output = InputSanityCheck.checkDeclare(input,output);
+		storage = InputSanityCheck.checkDeclare(input,storage,GrayF32.class);
+
+		float[] coef = ImplGaussianRecursive.coefficients(sigma);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplGaussianRecursive_MT.horizontal(input, storage, coef);
+			ImplGaussianRecursive_MT.vertical(storage, output, coef);
+		} else {
+			ImplGaussianRecursive.horizontal(input, storage, coef);
+			ImplGaussianRecursive.vertical(storage, output, coef);
+		}
+
+		return output;
+	}
+
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -186,4 +186,28 @@ public class GBlurImageOps {
 				throw new IllegalArgumentException("Unknown image family");
 		}
 	}
+
+	/**
+	 * Applies Gaussian blur using a recursive filter whose cost is independent of sigma.
+	 * Only {@link GrayU8} and {@link GrayF32} are supported.
+	 *
+	 * @see BlurImageOps#gaussianRecursive(GrayF32, GrayF32, double)
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma. &ge; 0.5
+	 * @param storage (Optional) Storage for intermediate results when the input is {@link GrayU8}. Can be null.
+	 * @param <T> Input image type.
+	 * @return Output blurred image.
+	 */
+	public static <T extends ImageGray<T>>
+	T gaussianRecursive(T input, @Nullable T output, double sigma, @Nullable GrayF32 storage ) {
+		if( input instanceof GrayU8 ) {
+			return (T) BlurImageOps.gaussianRecursive((GrayU8) input, (GrayU8) output, sigma, storage);
+		} else if( input instanceof GrayF32 ) {
+			return (T) BlurImageOps.gaussianRecursive((GrayF32) input, (GrayF32) output, sigma);
+		} else {
+			throw new IllegalArgumentException("Unsupported image type: " + input.getClass().getSimpleName());
+		}
+	}
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * <p>
+ * Recursive (IIR) approximation of Gaussian blur using the third order filter described in [1]. Each pass along
+ * a row or column is a causal filter followed by an anti-causal filter, which together approximate convolution with
+ * a Gaussian kernel. The number of operations per pixel is constant and independent of sigma, unlike FIR
+ * convolution where it grows linearly with the kernel's radius. The approximation is valid for sigma &ge; 0.5
+ * and is most advantageous for large sigmas. Its tails are heavier than a true Gaussian's, which is the price
+ * for matching the Gaussian's shape near the peak with only three coefficients.
+ * </p>
+ *
+ * <p>
+ * Pixels outside the image are assumed to have the same value as the closest pixel on the border. The vertical
+ * pass is done in place one row at a time so that memory is accessed sequentially.
+ * </p>
+ *
+ * <p>
+ * [1] Young, Ian T., and Lucas J. Van Vliet. "Recursive implementation of the Gaussian filter."
+ * Signal processing 44.2 (1995): 139-151.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ImplGaussianRecursive {
+
+	/**
+	 * Computes the filter's coefficients for the specified sigma. The returned array contains
+	 * {B, b1/b0, b2/b0, b3/b0} from [1], where B + b1/b0 + b2/b0 + b3/b0 = 1.
+	 *
+	 * @param sigma Gaussian's standard deviation. &ge; 0.5
+	 * @return filter coefficients
+	 */
+	public static float[] coefficients( double sigma ) {
+		if( sigma < 0.5 )
+			throw new IllegalArgumentException("Sigma must be >= 0.5");
+
+		// relationship between sigma and q from [1]
+		double q;
+		if( sigma >= 2.5 )
+			q = 0.98711*sigma - 0.96330;
+		else
+			q = 3.97156 - 4.14554*Math.sqrt(1.0 - 0.26891*sigma);
+
+		double q2 = q*q, q3 = q2*q;
+		double b0 = 1.57825 + 2.44413*q + 1.4281*q2 + 0.422205*q3;
+		double b1 = 2.44413*q + 2.85619*q2 + 1.26661*q3;
+		double b2 = -(1.4281*q2 + 1.26661*q3);
+		double b3 = 0.422205*q3;
+
+		float a1 = (float)(b1/b0), a2 = (float)(b2/b0), a3 = (float)(b3/b0);
+		// compute B from the other terms so that a constant image is exactly preserved
+		return new float[]{1.0f - (a1 + a2 + a3), a1, a2, a3};
+	}
+
+	public static void horizontal( GrayF32 input , GrayF32 output , float[] coef ) {
+		horizontal(input, output, coef, 0, input.height);
+	}
+
+	/**
+	 * Applies the filter along each row in the range [y0,y1)
+	 */
+	public static void horizontal( GrayF32 input , GrayF32 output , float[] coef , int y0 , int y1 ) {
+		final float B = coef[0], a1 = coef[1], a2 = coef[2], a3 = coef[3];
+		final int width = input.width;
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+			int endOut = indexOut + width;
+
+			// causal pass. The border value is its own steady state
+			float p1 = input.data[indexIn], p2 = p1, p3 = p1;
+			for (int i = indexOut; i < endOut; i++) {
+				float v = B*input.data[indexIn++] + a1*p1 + a2*p2 + a3*p3;
+				output.data[i] = v;
+				p3 = p2; p2 = p1; p1 = v;
+			}
+
+			// anti-causal pass
+			p1 = p2 = p3 = output.data[endOut-1];
+			for (int i = endOut-1; i >= indexOut; i--) {
+				float v = B*output.data[i] + a1*p1 + a2*p2 + a3*p3;
+				output.data[i] = v;
+				p3 = p2; p2 = p1; p1 = v;
+			}
+		}
+	}
+
+	public static void horizontal( GrayU8 input , GrayF32 output , float[] coef ) {
+		horizontal(input, output, coef, 0, input.height);
+	}
+
+	/**
+	 * Applies the filter along each row in the range [y0,y1)
+	 */
+	public static void horizontal( GrayU8 input , GrayF32 output , float[] coef , int y0 , int y1 ) {
+		final float B = coef[0], a1 = coef[1], a2 = coef[2], a3 = coef[3];
+		final int width = input.width;
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+			int endOut = indexOut + width;
+
+			// causal pass. The border value is its own steady state
+			float p1 = input.data[indexIn] & 0xFF, p2 = p1, p3 = p1;
+			for (int i = indexOut; i < endOut; i++) {
+				float v = B*(input.data[indexIn++] & 0xFF) + a1*p1 + a2*p2 + a3*p3;
+				output.data[i] = v;
+				p3 = p2; p2 = p1; p1 = v;
+			}
+
+			// anti-causal pass
+			p1 = p2 = p3 = output.data[endOut-1];
+			for (int i = endOut-1; i >= indexOut; i--) {
+				float v = B*output.data[i] + a1*p1 + a2*p2 + a3*p3;
+				output.data[i] = v;
+				p3 = p2; p2 = p1; p1 = v;
+			}
+		}
+	}
+
+	public static void vertical( GrayF32 image , float[] coef ) {
+		vertical(image, coef, 0, image.width);
+	}
+
+	/**
+	 * Applies the filter in place along each column in the range [x0,x1). Rows are processed sequentially.
+	 * The first and last rows are their own steady state, so references before or after the image are clamped
+	 * to the border row.
+	 */
+	public static void vertical( GrayF32 image , float[] coef , int x0 , int x1 ) {
+		final float B = coef[0], a1 = coef[1], a2 = coef[2], a3 = coef[3];
+		final int height = image.height;
+		final float[] data = image.data;
+		final int length = x1-x0;
+
+		// causal pass
+		for (int y = 1; y < height; y++) {
+			int index = image.startIndex + y*image.stride + x0;
+			int index1 = image.startIndex + Math.max(0,y-1)*image.stride + x0;
+			int index2 = image.startIndex + Math.max(0,y-2)*image.stride + x0;
+			int index3 = image.startIndex + Math.max(0,y-3)*image.stride + x0;
+			for (int i = 0; i < length; i++) {
+				data[index+i] = B*data[index+i] + a1*data[index1+i] + a2*data[index2+i] + a3*data[index3+i];
+			}
+		}
+
+		// anti-causal pass
+		for (int y = height-2; y >= 0; y--) {
+			int index = image.startIndex + y*image.stride + x0;
+			int index1 = image.startIndex + Math.min(height-1,y+1)*image.stride + x0;
+			int index2 = image.startIndex + Math.min(height-1,y+2)*image.stride + x0;
+			int index3 = image.startIndex + Math.min(height-1,y+3)*image.stride + x0;
+			for (int i = 0; i < length; i++) {
+				data[index+i] = B*data[index+i] + a1*data[index1+i] + a2*data[index2+i] + a3*data[index3+i];
+			}
+		}
+	}
+
+	public static void vertical( GrayF32 image , GrayU8 output , float[] coef ) {
+		vertical(image, output, coef, 0, image.width);
+	}
+
+	/**
+	 * Applies the filter in place along each column in the range [x0,x1) then rounds the results into
+	 * the U8 output image.
+	 */
+	public static void vertical( GrayF32 image , GrayU8 output , float[] coef , int x0 , int x1 ) {
+		vertical(image, coef, x0, x1);
+
+		for (int y = 0; y < image.height; y++) {
+			int indexIn = image.startIndex + y*image.stride + x0;
+			int indexOut = output.startIndex + y*output.stride + x0;
+			int end = indexOut + (x1-x0);
+			while( indexOut < end ) {
+				int v = (int)(image.data[indexIn++] + 0.5f);
+				output.data[indexOut++] = (byte)(v < 0 ? 0 : Math.min(v, 255));
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * Concurrent version of {@link ImplGaussianRecursive}. Rows are split between threads for the horizontal pass
+ * and columns for the vertical pass. Output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class ImplGaussianRecursive_MT {
+
+	public static void horizontal( GrayF32 input , GrayF32 output , float[] coef ) {
+		BoofConcurrency.loopBlocks(0, input.height, (y0, y1) ->
+				ImplGaussianRecursive.horizontal(input, output, coef, y0, y1));
+	}
+
+	public static void horizontal( GrayU8 input , GrayF32 output , float[] coef ) {
+		BoofConcurrency.loopBlocks(0, input.height, (y0, y1) ->
+				ImplGaussianRecursive.horizontal(input, output, coef, y0, y1));
+	}
+
+	public static void vertical( GrayF32 image , float[] coef ) {
+		BoofConcurrency.loopBlocks(0, image.width, (x0, x1) ->
+				ImplGaussianRecursive.vertical(image, coef, x0, x1));
+	}
+
+	public static void vertical( GrayF32 image , GrayU8 output , float[] coef ) {
+		BoofConcurrency.loopBlocks(0, image.width, (x0, x1) ->
+				ImplGaussianRecursive.vertical(image, output, coef, x0, x1));
+	}
+}
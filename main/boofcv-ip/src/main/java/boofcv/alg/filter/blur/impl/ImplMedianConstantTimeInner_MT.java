@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IWorkArrays;
+import boofcv.struct.image.GrayU8;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Median filter where the cost per pixel is independent of the radius. Only the inner portion of the image is
+ * processed. A histogram is maintained for every column in the image, which covers the rows inside the kernel. When
+ * the kernel moves to the next pixel its histogram is updated by adding the column histogram which entered the kernel
+ * and subtracting the one which left it. Histograms have a coarse level with 16 bins and a fine level with 256 bins.
+ * The coarse level is always updated and used to select which 16 fine bins contain the median. Fine bins are only
+ * updated when needed, see [1] for details.
+ * </p>
+ *
+ * <p>
+ * The overhead per pixel is higher than {@link ImplMedianHistogramInner}, which has a cost that grows with the
+ * radius, so this is only faster for larger kernels. Produces the same output as {@link ImplMedianHistogramInner}.
+ * </p>
+ *
+ * <p>
+ * [1] Perreault, Simon, and Patrick Hebert. "Median filtering in constant time." IEEE Transactions on Image
+ * Processing 16.9 (2007): 2389-2394.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ImplMedianConstantTimeInner_MT {
+
+	/**
+	 * Applies a median image filter.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 * @param work (Optional) used to create local workspace
+	 */
+	public static void process(GrayU8 input, GrayU8 output , int radius, @Nullable IWorkArrays work )
+	{
+		int w = 2*radius+1;
+
+		// sanity check to make sure the image isn't too small to be processed by this algorithm
+		if( input.width < w || input.height < w )
+			return;
+
+		// Fine histograms for every column followed by coarse histograms for every column
+		final int width = input.width;
+		final int offsetCoarse = width*256;
+		if( work == null )
+			work = new IWorkArrays();
+		work.reset(width*(256+16));
+		final IWorkArrays _work = work;
+
+		// defines what the median is. Same definition as ImplMedianHistogramInner
+		int threshold = (w*w)/2+1;
+
+		BoofConcurrency.loopBlocks(radius, output.height-radius, w,(y0,y1)->{
+		int[] columns = _work.pop();
+		int[] kernelFine = new int[256];
+		int[] kernelCoarse = new int[16];
+		// the x-coordinate the fine bins inside each coarse bin were last updated at
+		int[] lastUpdated = new int[16];
+
+		// histograms for each column contain the rows inside the kernel centered at y0
+		Arrays.fill(columns,0);
+		for( int y = y0-radius; y <= y0+radius; y++ ) {
+			updateColumns(input, columns, offsetCoarse, y, 1);
+		}
+
+		for( int y = y0; y < y1; y++ ) {
+			if( y > y0 ) {
+				updateColumns(input, columns, offsetCoarse, y-radius-1, -1);
+				updateColumns(input, columns, offsetCoarse, y+radius, 1);
+			}
+
+			// Compute the histogram for the first kernel in the row from scratch
+			Arrays.fill(kernelFine,0);
+			Arrays.fill(kernelCoarse,0);
+			for( int x = 0; x < w; x++ ) {
+				int indexFine = x*256;
+				for( int i = 0; i < 256; i++ ) {
+					kernelFine[i] += columns[indexFine+i];
+				}
+				int indexCoarse = offsetCoarse + x*16;
+				for( int i = 0; i < 16; i++ ) {
+					kernelCoarse[i] += columns[indexCoarse+i];
+				}
+			}
+			Arrays.fill(lastUpdated,radius);
+
+			int indexOut = output.startIndex + y*output.stride + radius;
+			for( int x = radius; x < width-radius; x++ ) {
+				if( x > radius ) {
+					int indexAdd = offsetCoarse + (x+radius)*16;
+					int indexRemove = offsetCoarse + (x-radius-1)*16;
+					for( int i = 0; i < 16; i++ ) {
+						kernelCoarse[i] += columns[indexAdd+i] - columns[indexRemove+i];
+					}
+				}
+
+				// find the coarse bin which contains the median
+				int count = 0, coarse = 0;
+				while( count + kernelCoarse[coarse] < threshold ) {
+					count += kernelCoarse[coarse++];
+				}
+
+				// Bring the fine bins up to date. Recompute from scratch if that's less work.
+				int fine = coarse*16;
+				int last = lastUpdated[coarse];
+				if( x - last > radius ) {
+					Arrays.fill(kernelFine,fine,fine+16,0);
+					for( int col = x-radius; col <= x+radius; col++ ) {
+						int indexFine = col*256 + fine;
+						for( int i = 0; i < 16; i++ ) {
+							kernelFine[fine+i] += columns[indexFine+i];
+						}
+					}
+				} else {
+					for( int col = last+1; col <= x; col++ ) {
+						int indexAdd = (col+radius)*256 + fine;
+						int indexRemove = (col-radius-1)*256 + fine;
+						for( int i = 0; i < 16; i++ ) {
+							kernelFine[fine+i] += columns[indexAdd+i] - columns[indexRemove+i];
+						}
+					}
+				}
+				lastUpdated[coarse] = x;
+
+				// find the median inside the fine bins
+				int median = fine;
+				while( true ) {
+					count += kernelFine[median];
+					if( count >= threshold )
+						break;
+					median++;
+				}
+				output.data[indexOut++] = (byte)median;
+			}
+		}
+		_work.recycle(columns);
+		});
+	}
+
+	/**
+	 * Adds or removes a row from the column histograms
+	 */
+	private static void updateColumns( GrayU8 input , int[] columns , int offsetCoarse , int y , int delta ) {
+		int indexIn = input.startIndex + y*input.stride;
+		for( int x = 0; x < input.width; x++ ) {
+			int value = input.data[indexIn++] & 0xFF;
+			columns[x*256 + value] += delta;
+			columns[offsetCoarse + x*16 + (value >> 4)] += delta;
+		}
+	}
+}
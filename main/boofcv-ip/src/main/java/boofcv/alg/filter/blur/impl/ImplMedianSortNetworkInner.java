@@ -0,0 +1,471 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * <p>
+ * Median filter for 3x3 and 5x5 kernels which uses sorting networks instead of a histogram or quick select.
+ * Only the inner portion of the image is processed. For a 3x3 kernel each column of three pixels is sorted once and
+ * shared by the three kernels which contain it. The median is then the median of the largest minimum, the median of
+ * the middle values, and the smallest maximum [1]. For a 5x5 kernel a sorting network which only selects the median
+ * is used [2]. Comparisons are done with min/max so that no branches are needed, floats are first converted into
+ * integers with the same ordering.
+ * </p>
+ *
+ * <p>
+ * [1] Paeth, Alan W. "Median finding on a 3x3 grid." Graphics Gems. Academic Press, 1990. 171-175.<br>
+ * [2] Devillard, Nicolas. "Fast median search: an ANSI C implementation." 1998
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ImplMedianSortNetworkInner {
+
+	/**
+	 * Applies a median filter to the inner portion of the image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Radius of the filter. Must be 1 or 2.
+	 */
+	public static void process(GrayU8 input, GrayU8 output , int radius ) {
+		switch( radius ) {
+			case 1: radius1(input,output); break;
+			case 2: radius2(input,output); break;
+			default: throw new IllegalArgumentException("Only a radius of 1 or 2 is supported");
+		}
+	}
+
+	/**
+	 * Applies a median filter to the inner portion of the image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Radius of the filter. Must be 1 or 2.
+	 */
+	public static void process(GrayF32 input, GrayF32 output , int radius ) {
+		switch( radius ) {
+			case 1: radius1(input,output); break;
+			case 2: radius2(input,output); break;
+			default: throw new IllegalArgumentException("Only a radius of 1 or 2 is supported");
+		}
+	}
+
+	private static void radius1(GrayU8 input, GrayU8 output ) {
+		if( input.width < 3 || input.height < 3 )
+			return;
+
+		final int width = input.width;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(1, input.height-1, (y0,y1)->{
+		final int y0 = 1, y1 = input.height-1;
+		// sorted values in each column
+		int[] low = new int[width];
+		int[] middle = new int[width];
+		int[] high = new int[width];
+
+		for( int y = y0; y < y1; y++ ) {
+			int index0 = input.startIndex + (y-1)*input.stride;
+			int index1 = index0 + input.stride;
+			int index2 = index1 + input.stride;
+
+			// sort the three pixels in each column once, which is then used by three kernels
+			for( int x = 0; x < width; x++ ) {
+				int a = input.data[index0+x]&0xFF;
+				int b = input.data[index1+x]&0xFF;
+				int c = input.data[index2+x]&0xFF;
+				int tmp;
+				if( a > b ) { tmp = a; a = b; b = tmp; }
+				if( b > c ) { tmp = b; b = c; c = tmp; }
+				if( a > b ) { tmp = a; a = b; b = tmp; }
+				low[x] = a;
+				middle[x] = b;
+				high[x] = c;
+			}
+
+			// The median is the median of the largest low, the median middle, and the smallest high
+			int indexOut = output.startIndex + y*output.stride + 1;
+			for( int x = 1; x < width-1; x++ ) {
+				int maxLow = max(low[x-1], max(low[x], low[x+1]));
+				int minHigh = min(high[x-1], min(high[x], high[x+1]));
+				int medMiddle = median(middle[x-1], middle[x], middle[x+1]);
+				output.data[indexOut++] = (byte)median(maxLow, medMiddle, minHigh);
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	private static void radius1(GrayF32 input, GrayF32 output ) {
+		if( input.width < 3 || input.height < 3 )
+			return;
+
+		final int width = input.width;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(1, input.height-1, (y0,y1)->{
+		final int y0 = 1, y1 = input.height-1;
+		// sorted values in each column
+		float[] low = new float[width];
+		float[] middle = new float[width];
+		float[] high = new float[width];
+
+		for( int y = y0; y < y1; y++ ) {
+			int index0 = input.startIndex + (y-1)*input.stride;
+			int index1 = index0 + input.stride;
+			int index2 = index1 + input.stride;
+
+			// sort the three pixels in each column once, which is then used by three kernels
+			for( int x = 0; x < width; x++ ) {
+				float a = input.data[index0+x];
+				float b = input.data[index1+x];
+				float c = input.data[index2+x];
+				float tmp;
+				if( a > b ) { tmp = a; a = b; b = tmp; }
+				if( b > c ) { tmp = b; b = c; c = tmp; }
+				if( a > b ) { tmp = a; a = b; b = tmp; }
+				low[x] = a;
+				middle[x] = b;
+				high[x] = c;
+			}
+
+			// The median is the median of the largest low, the median middle, and the smallest high
+			int indexOut = output.startIndex + y*output.stride + 1;
+			for( int x = 1; x < width-1; x++ ) {
+				float maxLow = max(low[x-1], max(low[x], low[x+1]));
+				float minHigh = min(high[x-1], min(high[x], high[x+1]));
+				float medMiddle = median(middle[x-1], middle[x], middle[x+1]);
+				output.data[indexOut++] = median(maxLow, medMiddle, minHigh);
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	private static void radius2(GrayU8 input, GrayU8 output ) {
+		if( input.width < 5 || input.height < 5 )
+			return;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(2, input.height-2, (y0,y1)->{
+		final int y0 = 2, y1 = input.height-2;
+		for( int y = y0; y < y1; y++ ) {
+			int indexIn = input.startIndex + (y-2)*input.stride;
+			int indexOut = output.startIndex + y*output.stride + 2;
+			for( int x = 2; x < input.width-2; x++ ) {
+				output.data[indexOut++] = (byte)median25(input.data,indexIn++,input.stride);
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	private static void radius2(GrayF32 input, GrayF32 output ) {
+		if( input.width < 5 || input.height < 5 )
+			return;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(2, input.height-2, (y0,y1)->{
+		final int y0 = 2, y1 = input.height-2;
+		for( int y = y0; y < y1; y++ ) {
+			int indexIn = input.startIndex + (y-2)*input.stride;
+			int indexOut = output.startIndex + y*output.stride + 2;
+			for( int x = 2; x < input.width-2; x++ ) {
+				output.data[indexOut++] = median25(input.data,indexIn++,input.stride);
+			}
+		}
+		//CONCURRENT_ABOVE }});
+	}
+
+	/**
+	 * Selects the median of a 5x5 region using a sorting network with 99 comparators. Values are kept in local
+	 * variables and each comparator is a min/max pair, which the JIT turns into conditional moves instead of
+	 * branches that are hard to predict.
+	 *
+	 * @param data Image data
+	 * @param index Index of the region's top-left pixel
+	 * @param stride Image stride
+	 */
+	static int median25( byte[] data , int index , int stride ) {
+		int p0 = data[index]&0xFF, p1 = data[index+1]&0xFF, p2 = data[index+2]&0xFF, p3 = data[index+3]&0xFF, p4 = data[index+4]&0xFF;
+		index += stride;
+		int p5 = data[index]&0xFF, p6 = data[index+1]&0xFF, p7 = data[index+2]&0xFF, p8 = data[index+3]&0xFF, p9 = data[index+4]&0xFF;
+		index += stride;
+		int p10 = data[index]&0xFF, p11 = data[index+1]&0xFF, p12 = data[index+2]&0xFF, p13 = data[index+3]&0xFF, p14 = data[index+4]&0xFF;
+		index += stride;
+		int p15 = data[index]&0xFF, p16 = data[index+1]&0xFF, p17 = data[index+2]&0xFF, p18 = data[index+3]&0xFF, p19 = data[index+4]&0xFF;
+		index += stride;
+		int p20 = data[index]&0xFF, p21 = data[index+1]&0xFF, p22 = data[index+2]&0xFF, p23 = data[index+3]&0xFF, p24 = data[index+4]&0xFF;
+
+		int t;
+		t = Math.min(p0,p1); p1 = Math.max(p0,p1); p0 = t;
+		t = Math.min(p3,p4); p4 = Math.max(p3,p4); p3 = t;
+		t = Math.min(p2,p4); p4 = Math.max(p2,p4); p2 = t;
+		t = Math.min(p2,p3); p3 = Math.max(p2,p3); p2 = t;
+		t = Math.min(p6,p7); p7 = Math.max(p6,p7); p6 = t;
+		t = Math.min(p5,p7); p7 = Math.max(p5,p7); p5 = t;
+		t = Math.min(p5,p6); p6 = Math.max(p5,p6); p5 = t;
+		t = Math.min(p9,p10); p10 = Math.max(p9,p10); p9 = t;
+		t = Math.min(p8,p10); p10 = Math.max(p8,p10); p8 = t;
+		t = Math.min(p8,p9); p9 = Math.max(p8,p9); p8 = t;
+		t = Math.min(p12,p13); p13 = Math.max(p12,p13); p12 = t;
+		t = Math.min(p11,p13); p13 = Math.max(p11,p13); p11 = t;
+		t = Math.min(p11,p12); p12 = Math.max(p11,p12); p11 = t;
+		t = Math.min(p15,p16); p16 = Math.max(p15,p16); p15 = t;
+		t = Math.min(p14,p16); p16 = Math.max(p14,p16); p14 = t;
+		t = Math.min(p14,p15); p15 = Math.max(p14,p15); p14 = t;
+		t = Math.min(p18,p19); p19 = Math.max(p18,p19); p18 = t;
+		t = Math.min(p17,p19); p19 = Math.max(p17,p19); p17 = t;
+		t = Math.min(p17,p18); p18 = Math.max(p17,p18); p17 = t;
+		t = Math.min(p21,p22); p22 = Math.max(p21,p22); p21 = t;
+		t = Math.min(p20,p22); p22 = Math.max(p20,p22); p20 = t;
+		t = Math.min(p20,p21); p21 = Math.max(p20,p21); p20 = t;
+		t = Math.min(p23,p24); p24 = Math.max(p23,p24); p23 = t;
+		t = Math.min(p2,p5); p5 = Math.max(p2,p5); p2 = t;
+		t = Math.min(p3,p6); p6 = Math.max(p3,p6); p3 = t;
+		t = Math.min(p0,p6); p6 = Math.max(p0,p6); p0 = t;
+		t = Math.min(p0,p3); p3 = Math.max(p0,p3); p0 = t;
+		t = Math.min(p4,p7); p7 = Math.max(p4,p7); p4 = t;
+		t = Math.min(p1,p7); p7 = Math.max(p1,p7); p1 = t;
+		t = Math.min(p1,p4); p4 = Math.max(p1,p4); p1 = t;
+		t = Math.min(p11,p14); p14 = Math.max(p11,p14); p11 = t;
+		t = Math.min(p8,p14); p14 = Math.max(p8,p14); p8 = t;
+		t = Math.min(p8,p11); p11 = Math.max(p8,p11); p8 = t;
+		t = Math.min(p12,p15); p15 = Math.max(p12,p15); p12 = t;
+		t = Math.min(p9,p15); p15 = Math.max(p9,p15); p9 = t;
+		t = Math.min(p9,p12); p12 = Math.max(p9,p12); p9 = t;
+		t = Math.min(p13,p16); p16 = Math.max(p13,p16); p13 = t;
+		t = Math.min(p10,p16); p16 = Math.max(p10,p16); p10 = t;
+		t = Math.min(p10,p13); p13 = Math.max(p10,p13); p10 = t;
+		t = Math.min(p20,p23); p23 = Math.max(p20,p23); p20 = t;
+		t = Math.min(p17,p23); p23 = Math.max(p17,p23); p17 = t;
+		t = Math.min(p17,p20); p20 = Math.max(p17,p20); p17 = t;
+		t = Math.min(p21,p24); p24 = Math.max(p21,p24); p21 = t;
+		t = Math.min(p18,p24); p24 = Math.max(p18,p24); p18 = t;
+		t = Math.min(p18,p21); p21 = Math.max(p18,p21); p18 = t;
+		t = Math.min(p19,p22); p22 = Math.max(p19,p22); p19 = t;
+		t = Math.min(p8,p17); p17 = Math.max(p8,p17); p8 = t;
+		t = Math.min(p9,p18); p18 = Math.max(p9,p18); p9 = t;
+		t = Math.min(p0,p18); p18 = Math.max(p0,p18); p0 = t;
+		t = Math.min(p0,p9); p9 = Math.max(p0,p9); p0 = t;
+		t = Math.min(p10,p19); p19 = Math.max(p10,p19); p10 = t;
+		t = Math.min(p1,p19); p19 = Math.max(p1,p19); p1 = t;
+		t = Math.min(p1,p10); p10 = Math.max(p1,p10); p1 = t;
+		t = Math.min(p11,p20); p20 = Math.max(p11,p20); p11 = t;
+		t = Math.min(p2,p20); p20 = Math.max(p2,p20); p2 = t;
+		t = Math.min(p2,p11); p11 = Math.max(p2,p11); p2 = t;
+		t = Math.min(p12,p21); p21 = Math.max(p12,p21); p12 = t;
+		t = Math.min(p3,p21); p21 = Math.max(p3,p21); p3 = t;
+		t = Math.min(p3,p12); p12 = Math.max(p3,p12); p3 = t;
+		t = Math.min(p13,p22); p22 = Math.max(p13,p22); p13 = t;
+		t = Math.min(p4,p22); p22 = Math.max(p4,p22); p4 = t;
+		t = Math.min(p4,p13); p13 = Math.max(p4,p13); p4 = t;
+		t = Math.min(p14,p23); p23 = Math.max(p14,p23); p14 = t;
+		t = Math.min(p5,p23); p23 = Math.max(p5,p23); p5 = t;
+		t = Math.min(p5,p14); p14 = Math.max(p5,p14); p5 = t;
+		t = Math.min(p15,p24); p24 = Math.max(p15,p24); p15 = t;
+		t = Math.min(p6,p24); p24 = Math.max(p6,p24); p6 = t;
+		t = Math.min(p6,p15); p15 = Math.max(p6,p15); p6 = t;
+		t = Math.min(p7,p16); p16 = Math.max(p7,p16); p7 = t;
+		t = Math.min(p7,p19); p19 = Math.max(p7,p19); p7 = t;
+		t = Math.min(p13,p21); p21 = Math.max(p13,p21); p13 = t;
+		t = Math.min(p15,p23); p23 = Math.max(p15,p23); p15 = t;
+		t = Math.min(p7,p13); p13 = Math.max(p7,p13); p7 = t;
+		t = Math.min(p7,p15); p15 = Math.max(p7,p15); p7 = t;
+		t = Math.min(p1,p9); p9 = Math.max(p1,p9); p1 = t;
+		t = Math.min(p3,p11); p11 = Math.max(p3,p11); p3 = t;
+		t = Math.min(p5,p17); p17 = Math.max(p5,p17); p5 = t;
+		t = Math.min(p11,p17); p17 = Math.max(p11,p17); p11 = t;
+		t = Math.min(p9,p17); p17 = Math.max(p9,p17); p9 = t;
+		t = Math.min(p4,p10); p10 = Math.max(p4,p10); p4 = t;
+		t = Math.min(p6,p12); p12 = Math.max(p6,p12); p6 = t;
+		t = Math.min(p7,p14); p14 = Math.max(p7,p14); p7 = t;
+		t = Math.min(p4,p6); p6 = Math.max(p4,p6); p4 = t;
+		t = Math.min(p4,p7); p7 = Math.max(p4,p7); p4 = t;
+		t = Math.min(p12,p14); p14 = Math.max(p12,p14); p12 = t;
+		t = Math.min(p10,p14); p14 = Math.max(p10,p14); p10 = t;
+		t = Math.min(p6,p7); p7 = Math.max(p6,p7); p6 = t;
+		t = Math.min(p10,p12); p12 = Math.max(p10,p12); p10 = t;
+		t = Math.min(p6,p10); p10 = Math.max(p6,p10); p6 = t;
+		t = Math.min(p6,p17); p17 = Math.max(p6,p17); p6 = t;
+		t = Math.min(p12,p17); p17 = Math.max(p12,p17); p12 = t;
+		t = Math.min(p7,p17); p17 = Math.max(p7,p17); p7 = t;
+		t = Math.min(p7,p10); p10 = Math.max(p7,p10); p7 = t;
+		t = Math.min(p12,p18); p18 = Math.max(p12,p18); p12 = t;
+		t = Math.min(p7,p12); p12 = Math.max(p7,p12); p7 = t;
+		t = Math.min(p10,p18); p18 = Math.max(p10,p18); p10 = t;
+		t = Math.min(p12,p20); p20 = Math.max(p12,p20); p12 = t;
+		t = Math.min(p10,p20); p20 = Math.max(p10,p20); p10 = t;
+		t = Math.min(p10,p12); p12 = Math.max(p10,p12); p10 = t;
+		return p12;
+	}
+
+	private static int median( int a , int b , int c ) {
+		return max(min(a,b), min(max(a,b),c));
+	}
+
+	private static int max( int a , int b ) {
+		return Math.max(a,b);
+	}
+
+	private static int min( int a , int b ) {
+		return Math.min(a,b);
+	}
+
+	/**
+	 * Selects the median of a 5x5 region. Same as {@link #median25(byte[], int, int)} but with each value
+	 * converted into an integer which has the same ordering, since float min/max are much slower.
+	 */
+	static float median25( float[] data , int index , int stride ) {
+		int p0 = sortKey(data[index]), p1 = sortKey(data[index+1]), p2 = sortKey(data[index+2]), p3 = sortKey(data[index+3]), p4 = sortKey(data[index+4]);
+		index += stride;
+		int p5 = sortKey(data[index]), p6 = sortKey(data[index+1]), p7 = sortKey(data[index+2]), p8 = sortKey(data[index+3]), p9 = sortKey(data[index+4]);
+		index += stride;
+		int p10 = sortKey(data[index]), p11 = sortKey(data[index+1]), p12 = sortKey(data[index+2]), p13 = sortKey(data[index+3]), p14 = sortKey(data[index+4]);
+		index += stride;
+		int p15 = sortKey(data[index]), p16 = sortKey(data[index+1]), p17 = sortKey(data[index+2]), p18 = sortKey(data[index+3]), p19 = sortKey(data[index+4]);
+		index += stride;
+		int p20 = sortKey(data[index]), p21 = sortKey(data[index+1]), p22 = sortKey(data[index+2]), p23 = sortKey(data[index+3]), p24 = sortKey(data[index+4]);
+
+		int t;
+		t = Math.min(p0,p1); p1 = Math.max(p0,p1); p0 = t;
+		t = Math.min(p3,p4); p4 = Math.max(p3,p4); p3 = t;
+		t = Math.min(p2,p4); p4 = Math.max(p2,p4); p2 = t;
+		t = Math.min(p2,p3); p3 = Math.max(p2,p3); p2 = t;
+		t = Math.min(p6,p7); p7 = Math.max(p6,p7); p6 = t;
+		t = Math.min(p5,p7); p7 = Math.max(p5,p7); p5 = t;
+		t = Math.min(p5,p6); p6 = Math.max(p5,p6); p5 = t;
+		t = Math.min(p9,p10); p10 = Math.max(p9,p10); p9 = t;
+		t = Math.min(p8,p10); p10 = Math.max(p8,p10); p8 = t;
+		t = Math.min(p8,p9); p9 = Math.max(p8,p9); p8 = t;
+		t = Math.min(p12,p13); p13 = Math.max(p12,p13); p12 = t;
+		t = Math.min(p11,p13); p13 = Math.max(p11,p13); p11 = t;
+		t = Math.min(p11,p12); p12 = Math.max(p11,p12); p11 = t;
+		t = Math.min(p15,p16); p16 = Math.max(p15,p16); p15 = t;
+		t = Math.min(p14,p16); p16 = Math.max(p14,p16); p14 = t;
+		t = Math.min(p14,p15); p15 = Math.max(p14,p15); p14 = t;
+		t = Math.min(p18,p19); p19 = Math.max(p18,p19); p18 = t;
+		t = Math.min(p17,p19); p19 = Math.max(p17,p19); p17 = t;
+		t = Math.min(p17,p18); p18 = Math.max(p17,p18); p17 = t;
+		t = Math.min(p21,p22); p22 = Math.max(p21,p22); p21 = t;
+		t = Math.min(p20,p22); p22 = Math.max(p20,p22); p20 = t;
+		t = Math.min(p20,p21); p21 = Math.max(p20,p21); p20 = t;
+		t = Math.min(p23,p24); p24 = Math.max(p23,p24); p23 = t;
+		t = Math.min(p2,p5); p5 = Math.max(p2,p5); p2 = t;
+		t = Math.min(p3,p6); p6 = Math.max(p3,p6); p3 = t;
+		t = Math.min(p0,p6); p6 = Math.max(p0,p6); p0 = t;
+		t = Math.min(p0,p3); p3 = Math.max(p0,p3); p0 = t;
+		t = Math.min(p4,p7); p7 = Math.max(p4,p7); p4 = t;
+		t = Math.min(p1,p7); p7 = Math.max(p1,p7); p1 = t;
+		t = Math.min(p1,p4); p4 = Math.max(p1,p4); p1 = t;
+		t = Math.min(p11,p14); p14 = Math.max(p11,p14); p11 = t;
+		t = Math.min(p8,p14); p14 = Math.max(p8,p14); p8 = t;
+		t = Math.min(p8,p11); p11 = Math.max(p8,p11); p8 = t;
+		t = Math.min(p12,p15); p15 = Math.max(p12,p15); p12 = t;
+		t = Math.min(p9,p15); p15 = Math.max(p9,p15); p9 = t;
+		t = Math.min(p9,p12); p12 = Math.max(p9,p12); p9 = t;
+		t = Math.min(p13,p16); p16 = Math.max(p13,p16); p13 = t;
+		t = Math.min(p10,p16); p16 = Math.max(p10,p16); p10 = t;
+		t = Math.min(p10,p13); p13 = Math.max(p10,p13); p10 = t;
+		t = Math.min(p20,p23); p23 = Math.max(p20,p23); p20 = t;
+		t = Math.min(p17,p23); p23 = Math.max(p17,p23); p17 = t;
+		t = Math.min(p17,p20); p20 = Math.max(p17,p20); p17 = t;
+		t = Math.min(p21,p24); p24 = Math.max(p21,p24); p21 = t;
+		t = Math.min(p18,p24); p24 = Math.max(p18,p24); p18 = t;
+		t = Math.min(p18,p21); p21 = Math.max(p18,p21); p18 = t;
+		t = Math.min(p19,p22); p22 = Math.max(p19,p22); p19 = t;
+		t = Math.min(p8,p17); p17 = Math.max(p8,p17); p8 = t;
+		t = Math.min(p9,p18); p18 = Math.max(p9,p18); p9 = t;
+		t = Math.min(p0,p18); p18 = Math.max(p0,p18); p0 = t;
+		t = Math.min(p0,p9); p9 = Math.max(p0,p9); p0 = t;
+		t = Math.min(p10,p19); p19 = Math.max(p10,p19); p10 = t;
+		t = Math.min(p1,p19); p19 = Math.max(p1,p19); p1 = t;
+		t = Math.min(p1,p10); p10 = Math.max(p1,p10); p1 = t;
+		t = Math.min(p11,p20); p20 = Math.max(p11,p20); p11 = t;
+		t = Math.min(p2,p20); p20 = Math.max(p2,p20); p2 = t;
+		t = Math.min(p2,p11); p11 = Math.max(p2,p11); p2 = t;
+		t = Math.min(p12,p21); p21 = Math.max(p12,p21); p12 = t;
+		t = Math.min(p3,p21); p21 = Math.max(p3,p21); p3 = t;
+		t = Math.min(p3,p12); p12 = Math.max(p3,p12); p3 = t;
+		t = Math.min(p13,p22); p22 = Math.max(p13,p22); p13 = t;
+		t = Math.min(p4,p22); p22 = Math.max(p4,p22); p4 = t;
+		t = Math.min(p4,p13); p13 = Math.max(p4,p13); p4 = t;
+		t = Math.min(p14,p23); p23 = Math.max(p14,p23); p14 = t;
+		t = Math.min(p5,p23); p23 = Math.max(p5,p23); p5 = t;
+		t = Math.min(p5,p14); p14 = Math.max(p5,p14); p5 = t;
+		t = Math.min(p15,p24); p24 = Math.max(p15,p24); p15 = t;
+		t = Math.min(p6,p24); p24 = Math.max(p6,p24); p6 = t;
+		t = Math.min(p6,p15); p15 = Math.max(p6,p15); p6 = t;
+		t = Math.min(p7,p16); p16 = Math.max(p7,p16); p7 = t;
+		t = Math.min(p7,p19); p19 = Math.max(p7,p19); p7 = t;
+		t = Math.min(p13,p21); p21 = Math.max(p13,p21); p13 = t;
+		t = Math.min(p15,p23); p23 = Math.max(p15,p23); p15 = t;
+		t = Math.min(p7,p13); p13 = Math.max(p7,p13); p7 = t;
+		t = Math.min(p7,p15); p15 = Math.max(p7,p15); p7 = t;
+		t = Math.min(p1,p9); p9 = Math.max(p1,p9); p1 = t;
+		t = Math.min(p3,p11); p11 = Math.max(p3,p11); p3 = t;
+		t = Math.min(p5,p17); p17 = Math.max(p5,p17); p5 = t;
+		t = Math.min(p11,p17); p17 = Math.max(p11,p17); p11 = t;
+		t = Math.min(p9,p17); p17 = Math.max(p9,p17); p9 = t;
+		t = Math.min(p4,p10); p10 = Math.max(p4,p10); p4 = t;
+		t = Math.min(p6,p12); p12 = Math.max(p6,p12); p6 = t;
+		t = Math.min(p7,p14); p14 = Math.max(p7,p14); p7 = t;
+		t = Math.min(p4,p6); p6 = Math.max(p4,p6); p4 = t;
+		t = Math.min(p4,p7); p7 = Math.max(p4,p7); p4 = t;
+		t = Math.min(p12,p14); p14 = Math.max(p12,p14); p12 = t;
+		t = Math.min(p10,p14); p14 = Math.max(p10,p14); p10 = t;
+		t = Math.min(p6,p7); p7 = Math.max(p6,p7); p6 = t;
+		t = Math.min(p10,p12); p12 = Math.max(p10,p12); p10 = t;
+		t = Math.min(p6,p10); p10 = Math.max(p6,p10); p6 = t;
+		t = Math.min(p6,p17); p17 = Math.max(p6,p17); p6 = t;
+		t = Math.min(p12,p17); p17 = Math.max(p12,p17); p12 = t;
+		t = Math.min(p7,p17); p17 = Math.max(p7,p17); p7 = t;
+		t = Math.min(p7,p10); p10 = Math.max(p7,p10); p7 = t;
+		t = Math.min(p12,p18); p18 = Math.max(p12,p18); p12 = t;
+		t = Math.min(p7,p12); p12 = Math.max(p7,p12); p7 = t;
+		t = Math.min(p10,p18); p18 = Math.max(p10,p18); p10 = t;
+		t = Math.min(p12,p20); p20 = Math.max(p12,p20); p12 = t;
+		t = Math.min(p10,p20); p20 = Math.max(p10,p20); p10 = t;
+		t = Math.min(p10,p12); p12 = Math.max(p10,p12); p10 = t;
+		return fromSortKey(p12);
+	}
+
+	/**
+	 * Converts a float into an int which sorts in the same order. -0.0 is considered to be less than 0.0
+	 */
+	static int sortKey( float value ) {
+		int bits = Float.floatToRawIntBits(value);
+		return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+	}
+
+	static float fromSortKey( int key ) {
+		return Float.intBitsToFloat(key ^ ((key >> 31) & 0x7FFFFFFF));
+	}
+
+	private static float median( float a , float b , float c ) {
+		return max(min(a,b), min(max(a,b),c));
+	}
+
+	private static float max( float a , float b ) {
+		return a > b ? a : b;
+	}
+
+	private static float min( float a , float b ) {
+		return a < b ? a : b;
+	}
+}
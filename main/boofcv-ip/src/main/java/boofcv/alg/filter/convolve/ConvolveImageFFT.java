@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel2D;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.InterleavedF32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Convolves a 2D kernel across an image using the Fast Fourier Transform (FFT). The output is the same as
+ * {@link ConvolveImage#convolve(Kernel2D_F32, GrayF32, GrayF32, ImageBorder_F32)}, up to floating point error, but
+ * the cost doesn't depend on the kernel's size. Much faster than direct convolution for large kernels.
+ * </p>
+ *
+ * <p>
+ * The image is padded using the border so that the circular convolution computed by the FFT is equal to
+ * a linear convolution inside the image. The padded shape is increased to a size which has no prime factors
+ * larger than 5, which the FFT can process efficiently.
+ * </p>
+ *
+ * <p>
+ * {@link ConvolveImage} does not switch to this class automatically. Use {@link #isFaster} to decide which
+ * one to call and reuse the same instance across images, since the FFT plan and work buffers are only
+ * declared when the image shape changes.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveImageFFT {
+
+	/**
+	 * Kernels with a width of at least this value and images with at least {@link #MIN_PIXELS} pixels
+	 * are expected to be faster with the FFT. Determined empirically.
+	 */
+	public static final int MIN_KERNEL_WIDTH = 15;
+	/** Minimum number of pixels in the image before the FFT is expected to be faster */
+	public static final int MIN_PIXELS = 64*64;
+
+	DiscreteFourierTransform<GrayF32,InterleavedF32> dft = DiscreteFourierTransformOps.createTransformF32();
+
+	// input image padded by the border
+	GrayF32 padded = new GrayF32(1,1);
+	// kernel in the padded image's coordinate system
+	GrayF32 kernelImage = new GrayF32(1,1);
+	// Fourier transforms of the image and kernel
+	InterleavedF32 transformImage = new InterleavedF32(1,1,2);
+	InterleavedF32 transformKernel = new InterleavedF32(1,1,2);
+
+	public ConvolveImageFFT() {
+		dft.setModifyInputs(true);
+	}
+
+	/**
+	 * Returns true if convolving the kernel across the image using the FFT is expected to be faster than
+	 * direct convolution
+	 */
+	public static boolean isFaster( Kernel2D kernel, ImageGray<?> image ) {
+		return kernel.width >= MIN_KERNEL_WIDTH && image.width*image.height >= MIN_PIXELS;
+	}
+
+	/**
+	 * Convenience function which creates a new instance and convolves the image. If several images are
+	 * convolved then it's faster to reuse the same instance.
+	 *
+	 * @see #process
+	 */
+	public static void convolve( Kernel2D_F32 kernel, GrayF32 input, GrayF32 output, ImageBorder_F32 border ) {
+		new ConvolveImageFFT().process(kernel, input, output, border);
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.
+	 *
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param border How the image borders are handled.
+	 */
+	public void process( Kernel2D_F32 kernel, GrayF32 input, GrayF32 output, ImageBorder_F32 border ) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		int width = fastSize(input.width + kernel.width - 1);
+		int height = fastSize(input.height + kernel.width - 1);
+
+		padded.reshape(width, height);
+		kernelImage.reshape(width, height);
+		transformImage.reshape(width, height);
+		transformKernel.reshape(width, height);
+
+		border.setImage(input);
+		padImage(input, kernel.offset, border);
+		kernelToImage(kernel);
+
+		dft.forward(padded, transformImage);
+		dft.forward(kernelImage, transformKernel);
+		DiscreteFourierTransformOps.multiplyComplex(transformImage, transformKernel, transformImage);
+		dft.inverse(transformImage, padded);
+
+		for (int y = 0; y < output.height; y++) {
+			System.arraycopy(padded.data, y*padded.width, output.data, output.startIndex + y*output.stride, output.width);
+		}
+	}
+
+	/**
+	 * Copies the input image into the padded image with an offset of the kernel's offset. Pixels outside
+	 * the input image are filled in using the border.
+	 */
+	void padImage( GrayF32 input, int offset, ImageBorder_F32 border ) {
+		for (int y = 0; y < padded.height; y++) {
+			int inputY = y - offset;
+			int index = y*padded.width;
+			if( inputY < 0 || inputY >= input.height ) {
+				for (int x = 0; x < padded.width; x++) {
+					padded.data[index++] = border.get(x - offset, inputY);
+				}
+			} else {
+				for (int x = 0; x < offset; x++) {
+					padded.data[index++] = border.get(x - offset, inputY);
+				}
+				System.arraycopy(input.data, input.startIndex + inputY*input.stride, padded.data, index, input.width);
+				index += input.width;
+				for (int x = offset + input.width; x < padded.width; x++) {
+					padded.data[index++] = border.get(x - offset, inputY);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Places the kernel in an image the same shape as the padded image. The kernel is flipped and wrapped around
+	 * so that the FFT's convolution is equal to {@link ConvolveImage}'s, i.e. output(x,y) =
+	 * sum k(i,j)*padded(x+i,y+j).
+	 */
+	void kernelToImage( Kernel2D_F32 kernel ) {
+		Arrays.fill(kernelImage.data, 0, kernelImage.width*kernelImage.height, 0);
+		for (int j = 0; j < kernel.width; j++) {
+			int y = (kernelImage.height - j)%kernelImage.height;
+			for (int i = 0; i < kernel.width; i++) {
+				int x = (kernelImage.width - i)%kernelImage.width;
+				kernelImage.data[y*kernelImage.width + x] = kernel.get(i, j);
+			}
+		}
+	}
+
+	/**
+	 * Returns the smallest number which is greater than or equal to 'length' and has no prime factors larger than 5
+	 */
+	public static int fastSize( int length ) {
+		for (int n = length; ; n++) {
+			int m = n;
+			while( m%2 == 0 ) m /= 2;
+			while( m%3 == 0 ) m /= 3;
+			while( m%5 == 0 ) m /= 5;
+			if( m == 1 )
+				return n;
+		}
+	}
+}
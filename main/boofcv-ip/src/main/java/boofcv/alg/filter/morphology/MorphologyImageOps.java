@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.morphology.impl.ImplMorphologyVanHerk;
+import boofcv.alg.filter.morphology.impl.ImplMorphologyVanHerk_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.FWorkArrays;
+import boofcv.concurrency.IWorkArrays;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Grayscale morphological operations with a rectangular structuring element. Erosion replaces each pixel with
+ * the minimum value inside the structuring element and dilation with the maximum. Opening is an erosion followed
+ * by a dilation and closing is a dilation followed by an erosion. Lines are rectangles with a width or height
+ * of one. Pixels outside the image are ignored.
+ * </p>
+ *
+ * <p>
+ * The computational cost per pixel is constant and independent of the structuring element's size, see
+ * {@link ImplMorphologyVanHerk}. On binary images, with values of 0 and 1, these functions are equivalent to the
+ * binary morphological operations.
+ * </p>
+ *
+ * <p>
+ * For a structuring element with an even size the center is at size/2 for erosion. For dilation the element is
+ * reflected so that opening and closing have their standard properties.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MorphologyImageOps {
+
+	/**
+	 * Erodes the image using a rectangular structuring element.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output (Optional) Storage for output image. Modified.
+	 * @param storage (Optional) Storage for intermediate results. Modified.
+	 * @return Output image.
+	 */
+	public static GrayU8 erode( GrayU8 input , int width , int height ,
+								@Nullable GrayU8 output , @Nullable GrayU8 storage ) {
+		return apply(input, width, height, false, output, storage);
+	}
+
+	/**
+	 * Dilates the image using a rectangular structuring element.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output (Optional) Storage for output image. Modified.
+	 * @param storage (Optional) Storage for intermediate results. Modified.
+	 * @return Output image.
+	 */
+	public static GrayU8 dilate( GrayU8 input , int width , int height ,
+								 @Nullable GrayU8 output , @Nullable GrayU8 storage ) {
+		return apply(input, width, height, true, output, storage);
+	}
+
+	/**
+	 * Opening (erosion then dilation) using a rectangular structuring element. Removes bright features which are
+	 * smaller than the structuring element.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output (Optional) Storage for output image. Modified.
+	 * @param storage (Optional) Storage for intermediate results. Modified.
+	 * @return Output image.
+	 */
+	public static GrayU8 open( GrayU8 input , int width , int height ,
+							   @Nullable GrayU8 output , @Nullable GrayU8 storage ) {
+		output = apply(input, width, height, false, output, storage);
+		return apply(output, width, height, true, output, storage);
+	}
+
+	/**
+	 * Closing (dilation then erosion) using a rectangular structuring element. Removes dark features which are
+	 * smaller than the structuring element.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output (Optional) Storage for output image. Modified.
+	 * @param storage (Optional) Storage for intermediate results. Modified.
+	 * @return Output image.
+	 */
+	public static GrayU8 close( GrayU8 input , int width , int height ,
+								@Nullable GrayU8 output , @Nullable GrayU8 storage ) {
+		output = apply(input, width, height, true, output, storage);
+		return apply(output, width, height, false, output, storage);
+	}
+
+	/**
+	 * Erodes the image using a rectangular structuring element.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output (Optional) Storage for output image. Modified.
+	 * @param storage (Optional) Storage for intermediate results. Modified.
+	 * @return Output image.
+	 */
+	public static GrayF32 erode( GrayF32 input , int width , int height ,
+								 @Nullable GrayF32 output , @Nullable GrayF32 storage ) {
+		return apply(input, width, height, false, output, storage);
+	}
+
+	/**
+	 * Dilates the image using a rectangular structuring element.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output (Optional) Storage for output image. Modified.
+	 * @param storage (Optional) Storage for intermediate results. Modified.
+	 * @return Output image.
+	 */
+	public static GrayF32 dilate( GrayF32 input , int width , int height ,
+								  @Nullable GrayF32 output , @Nullable GrayF32 storage ) {
+		return apply(input, width, height, true, output, storage);
+	}
+
+	/**
+	 * Opening (erosion then dilation) using a rectangular structuring element. Removes bright features which are
+	 * smaller than the structuring element.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output (Optional) Storage for output image. Modified.
+	 * @param storage (Optional) Storage for intermediate results. Modified.
+	 * @return Output image.
+	 */
+	public static GrayF32 open( GrayF32 input , int width , int height ,
+								@Nullable GrayF32 output , @Nullable GrayF32 storage ) {
+		output = apply(input, width, height, false, output, storage);
+		return apply(output, width, height, true, output, storage);
+	}
+
+	/**
+	 * Closing (dilation then erosion) using a rectangular structuring element. Removes dark features which are
+	 * smaller than the structuring element.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param width Width of the structuring element. &ge; 1
+	 * @param height Height of the structuring element. &ge; 1
+	 * @param output (Optional) Storage for output image. Modified.
+	 * @param storage (Optional) Storage for intermediate results. Modified.
+	 * @return Output image.
+	 */
+	public static GrayF32 close( GrayF32 input , int width , int height ,
+								 @Nullable GrayF32 output , @Nullable GrayF32 storage ) {
+		output = apply(input, width, height, true, output, storage);
+		return apply(output, width, height, false, output, storage);
+	}
+
+	private static GrayU8 apply( GrayU8 input , int width , int height , boolean dilate ,
+								 @Nullable GrayU8 output , @Nullable GrayU8 storage ) {
+		checkSize(width, height);
+		output = InputSanityCheck.checkDeclare(input,output);
+		storage = InputSanityCheck.checkDeclare(input,storage);
+		if( input.width == 0 || input.height == 0 )
+			return output;
+
+		int beforeX = before(width, dilate);
+		int beforeY = before(height, dilate);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			IWorkArrays work = new IWorkArrays();
+			ImplMorphologyVanHerk_MT.horizontal(input, storage, width, beforeX, dilate, work);
+			ImplMorphologyVanHerk_MT.vertical(storage, output, height, beforeY, dilate, work);
+		} else {
+			ImplMorphologyVanHerk.horizontal(input, storage, width, beforeX, dilate,
+					new int[ImplMorphologyVanHerk.horizontalWorkLength(input.width,width)]);
+			ImplMorphologyVanHerk.vertical(storage, output, height, beforeY, dilate,
+					new int[ImplMorphologyVanHerk.verticalWorkLength(input.width,height)]);
+		}
+		return output;
+	}
+
+	private static GrayF32 apply( GrayF32 input , int width , int height , boolean dilate ,
+								  @Nullable GrayF32 output , @Nullable GrayF32 storage ) {
+		checkSize(width, height);
+		output = InputSanityCheck.checkDeclare(input,output);
+		storage = InputSanityCheck.checkDeclare(input,storage);
+		if( input.width == 0 || input.height == 0 )
+			return output;
+
+		int beforeX = before(width, dilate);
+		int beforeY = before(height, dilate);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			FWorkArrays work = new FWorkArrays();
+			ImplMorphologyVanHerk_MT.horizontal(input, storage, width, beforeX, dilate, work);
+			ImplMorphologyVanHerk_MT.vertical(storage, output, height, beforeY, dilate, work);
+		} else {
+			ImplMorphologyVanHerk.horizontal(input, storage, width, beforeX, dilate,
+					new float[ImplMorphologyVanHerk.horizontalWorkLength(input.width,width)]);
+			ImplMorphologyVanHerk.vertical(storage, output, height, beforeY, dilate,
+					new float[ImplMorphologyVanHerk.verticalWorkLength(input.width,height)]);
+		}
+		return output;
+	}
+
+	/**
+	 * Number of pixels before the center which are inside the structuring element. Reflected for dilation.
+	 */
+	private static int before( int length , boolean dilate ) {
+		return dilate ? length - 1 - length/2 : length/2;
+	}
+
+	private static void checkSize( int width , int height ) {
+		if( width < 1 || height < 1 )
+			throw new IllegalArgumentException("Structuring element must have a width and height >= 1");
+	}
+}
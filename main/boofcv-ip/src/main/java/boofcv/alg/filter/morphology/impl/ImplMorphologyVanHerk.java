@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology.impl;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * <p>
+ * Grayscale erosion and dilation with a rectangular structuring element using the van Herk/Gil-Werman
+ * algorithm [1,2]. A rectangle is separable, so a 1D running minimum (or maximum) is applied along the rows and
+ * then the columns. The 1D line is broken up into blocks which have the same length 'k' as the structuring
+ * element. For each block the prefix minimum 'g' and suffix minimum 'h' are computed and the minimum inside a
+ * window starting at 'x' is min(h[x],g[x+k-1]). This requires 3 comparisons per pixel, independent of the
+ * structuring element's size.
+ * </p>
+ *
+ * <p>
+ * Only the minimum is implemented. Dilation is computed by flipping the pixel values as they are read and
+ * written, i.e. max(a,b) = 255 - min(255-a,255-b) for U8 and max(a,b) = -min(-a,-b) for F32. Pixels outside the
+ * image are ignored, which is the same as setting them to the identity value of the operation.
+ * </p>
+ *
+ * <p>
+ * A structuring element of length 'k' covers 'before' pixels before the center pixel and k-1-before pixels
+ * after it.
+ * </p>
+ *
+ * <ol>
+ * <li>M. van Herk, "A fast algorithm for local minimum and maximum filters on rectangular and octagonal
+ * kernels" Pattern Recognition Letters, 1992</li>
+ * <li>J. Gil and M. Werman, "Computing 2-D min, median, and max filters" IEEE PAMI, 1993</li>
+ * </ol>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ImplMorphologyVanHerk {
+
+	/**
+	 * Length of the work array needed by horizontal
+	 */
+	public static int horizontalWorkLength( int width , int k ) {
+		return 2*numBlocks(width,k)*k;
+	}
+
+	/**
+	 * Length of the work array needed by vertical
+	 */
+	public static int verticalWorkLength( int width , int k ) {
+		return (k+1)*width;
+	}
+
+	/**
+	 * Number of blocks which the output image is split into along the vertical axis
+	 */
+	public static int verticalBlocks( int height , int k ) {
+		return (height + k - 1)/k;
+	}
+
+	/**
+	 * Number of blocks needed to cover a line after it has been padded by k-1 elements
+	 */
+	private static int numBlocks( int length , int k ) {
+		return (length + 2*k - 2)/k;
+	}
+
+	public static void horizontal( GrayU8 input , GrayU8 output , int k , int before , boolean dilate , int[] work ) {
+		horizontal(input, output, k, before, dilate, 0, input.height, work);
+	}
+
+	/**
+	 * Applies the filter along the rows in the range y0 to y1
+	 */
+	public static void horizontal( GrayU8 input , GrayU8 output , int k , int before , boolean dilate ,
+								   int y0 , int y1 , int[] work ) {
+		final int flip = dilate ? 0xFF : 0;
+		final int width = input.width;
+		final int length = numBlocks(width,k)*k;
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			// prefix minimum inside each block
+			for (int p = 0; p < length; p += k) {
+				int value = 0xFF;
+				for (int i = p; i < p+k; i++) {
+					int x = i-before;
+					if( x >= 0 && x < width ) {
+						value = Math.min(value,(input.data[indexIn+x] & 0xFF) ^ flip);
+					}
+					work[i] = value;
+				}
+			}
+			// suffix minimum inside each block
+			for (int p = 0; p < length; p += k) {
+				int value = 0xFF;
+				for (int i = p+k-1; i >= p; i--) {
+					int x = i-before;
+					if( x >= 0 && x < width ) {
+						value = Math.min(value,(input.data[indexIn+x] & 0xFF) ^ flip);
+					}
+					work[length+i] = value;
+				}
+			}
+			for (int x = 0; x < width; x++) {
+				output.data[indexOut+x] = (byte)(Math.min(work[length+x],work[x+k-1]) ^ flip);
+			}
+		}
+	}
+
+	public static void vertical( GrayU8 input , GrayU8 output , int k , int before , boolean dilate , int[] work ) {
+		vertical(input, output, k, before, dilate, 0, verticalBlocks(input.height,k), work);
+	}
+
+	/**
+	 * Applies the filter along the columns for output rows inside the blocks from block0 to block1.
+	 * Block 'j' contains output rows j*k to j*k+k-1. Only rows are traversed, which is cache friendly.
+	 */
+	public static void vertical( GrayU8 input , GrayU8 output , int k , int before , boolean dilate ,
+								 int block0 , int block1 , int[] work ) {
+		final int flip = dilate ? 0xFF : 0;
+		final int width = input.width;
+		final int height = input.height;
+		// suffix minimum for the block is stored in the first k rows and the prefix for the next block in the last
+		final int rowG = k*width;
+
+		for (int block = block0; block < block1; block++) {
+			int p0 = block*k;
+
+			// suffix minimum for this block
+			for (int t = k-1; t >= 0; t--) {
+				int y = p0+t-before;
+				int indexH = t*width;
+				boolean last = t == k-1;
+				if( y < 0 || y >= height ) {
+					for (int x = 0; x < width; x++) {
+						work[indexH+x] = last ? 0xFF : work[indexH+width+x];
+					}
+				} else {
+					int indexIn = input.startIndex + y*input.stride;
+					for (int x = 0; x < width; x++) {
+						int value = (input.data[indexIn+x] & 0xFF) ^ flip;
+						work[indexH+x] = last ? value : Math.min(value,work[indexH+width+x]);
+					}
+				}
+			}
+
+			// first row in the block is the minimum of the entire block
+			int yOut = p0;
+			if( yOut >= height )
+				break;
+			int indexOut = output.startIndex + yOut*output.stride;
+			for (int x = 0; x < width; x++) {
+				output.data[indexOut+x] = (byte)(work[x] ^ flip);
+			}
+
+			// prefix minimum of the next block is combined with the suffix of this block
+			for (int t = 1; t < k; t++) {
+				yOut = p0 + t;
+				if( yOut >= height )
+					break;
+				int y = p0 + k + t - 1 - before;
+				boolean first = t == 1;
+				if( y < 0 || y >= height ) {
+					if( first ) {
+						for (int x = 0; x < width; x++) {
+							work[rowG+x] = 0xFF;
+						}
+					}
+				} else {
+					int indexIn = input.startIndex + y*input.stride;
+					for (int x = 0; x < width; x++) {
+						int value = (input.data[indexIn+x] & 0xFF) ^ flip;
+						work[rowG+x] = first ? value : Math.min(value,work[rowG+x]);
+					}
+				}
+
+				int indexH = t*width;
+				indexOut = output.startIndex + yOut*output.stride;
+				for (int x = 0; x < width; x++) {
+					output.data[indexOut+x] = (byte)(Math.min(work[indexH+x],work[rowG+x]) ^ flip);
+				}
+			}
+		}
+	}
+
+	public static void horizontal( GrayF32 input , GrayF32 output , int k , int before , boolean dilate , float[] work ) {
+		horizontal(input, output, k, before, dilate, 0, input.height, work);
+	}
+
+	/**
+	 * Applies the filter along the rows in the range y0 to y1
+	 */
+	public static void horizontal( GrayF32 input , GrayF32 output , int k , int before , boolean dilate ,
+								   int y0 , int y1 , float[] work ) {
+		final float sign = dilate ? -1.0f : 1.0f;
+		final int width = input.width;
+		final int length = numBlocks(width,k)*k;
+
+		for (int y = y0; y < y1; y++) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			// prefix minimum inside each block
+			for (int p = 0; p < length; p += k) {
+				float value = Float.MAX_VALUE;
+				for (int i = p; i < p+k; i++) {
+					int x = i-before;
+					if( x >= 0 && x < width ) {
+						value = Math.min(value,input.data[indexIn+x]*sign);
+					}
+					work[i] = value;
+				}
+			}
+			// suffix minimum inside each block
+			for (int p = 0; p < length; p += k) {
+				float value = Float.MAX_VALUE;
+				for (int i = p+k-1; i >= p; i--) {
+					int x = i-before;
+					if( x >= 0 && x < width ) {
+						value = Math.min(value,input.data[indexIn+x]*sign);
+					}
+					work[length+i] = value;
+				}
+			}
+			for (int x = 0; x < width; x++) {
+				output.data[indexOut+x] = Math.min(work[length+x],work[x+k-1])*sign;
+			}
+		}
+	}
+
+	public static void vertical( GrayF32 input , GrayF32 output , int k , int before , boolean dilate , float[] work ) {
+		vertical(input, output, k, before, dilate, 0, verticalBlocks(input.height,k), work);
+	}
+
+	/**
+	 * Applies the filter along the columns for output rows inside the blocks from block0 to block1.
+	 * Block 'j' contains output rows j*k to j*k+k-1. Only rows are traversed, which is cache friendly.
+	 */
+	public static void vertical( GrayF32 input , GrayF32 output , int k , int before , boolean dilate ,
+								 int block0 , int block1 , float[] work ) {
+		final float sign = dilate ? -1.0f : 1.0f;
+		final int width = input.width;
+		final int height = input.height;
+		// suffix minimum for the block is stored in the first k rows and the prefix for the next block in the last
+		final int rowG = k*width;
+
+		for (int block = block0; block < block1; block++) {
+			int p0 = block*k;
+
+			// suffix minimum for this block
+			for (int t = k-1; t >= 0; t--) {
+				int y = p0+t-before;
+				int indexH = t*width;
+				boolean last = t == k-1;
+				if( y < 0 || y >= height ) {
+					for (int x = 0; x < width; x++) {
+						work[indexH+x] = last ? Float.MAX_VALUE : work[indexH+width+x];
+					}
+				} else {
+					int indexIn = input.startIndex + y*input.stride;
+					for (int x = 0; x < width; x++) {
+						float value = input.data[indexIn+x]*sign;
+						work[indexH+x] = last ? value : Math.min(value,work[indexH+width+x]);
+					}
+				}
+			}
+
+			// first row in the block is the minimum of the entire block
+			int yOut = p0;
+			if( yOut >= height )
+				break;
+			int indexOut = output.startIndex + yOut*output.stride;
+			for (int x = 0; x < width; x++) {
+				output.data[indexOut+x] = work[x]*sign;
+			}
+
+			// prefix minimum of the next block is combined with the suffix of this block
+			for (int t = 1; t < k; t++) {
+				yOut = p0 + t;
+				if( yOut >= height )
+					break;
+				int y = p0 + k + t - 1 - before;
+				boolean first = t == 1;
+				if( y < 0 || y >= height ) {
+					if( first ) {
+						for (int x = 0; x < width; x++) {
+							work[rowG+x] = Float.MAX_VALUE;
+						}
+					}
+				} else {
+					int indexIn = input.startIndex + y*input.stride;
+					for (int x = 0; x < width; x++) {
+						float value = input.data[indexIn+x]*sign;
+						work[rowG+x] = first ? value : Math.min(value,work[rowG+x]);
+					}
+				}
+
+				int indexH = t*width;
+				indexOut = output.startIndex + yOut*output.stride;
+				for (int x = 0; x < width; x++) {
+					output.data[indexOut+x] = Math.min(work[indexH+x],work[rowG+x])*sign;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.FWorkArrays;
+import boofcv.concurrency.IWorkArrays;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+
+/**
+ * Concurrent version of {@link ImplMorphologyVanHerk}. Rows are split between threads for the horizontal pass
+ * and blocks of rows for the vertical pass. Each thread has its own work array.
+ *
+ * @author Peter Abeles
+ */
+public class ImplMorphologyVanHerk_MT {
+
+	public static void horizontal( GrayU8 input , GrayU8 output , int k , int before , boolean dilate ,
+								   IWorkArrays work ) {
+		work.reset(ImplMorphologyVanHerk.horizontalWorkLength(input.width,k));
+		BoofConcurrency.loopBlocks(0, input.height, (y0,y1)->{
+			int[] array = work.pop();
+			ImplMorphologyVanHerk.horizontal(input, output, k, before, dilate, y0, y1, array);
+			work.recycle(array);
+		});
+	}
+
+	public static void vertical( GrayU8 input , GrayU8 output , int k , int before , boolean dilate ,
+								 IWorkArrays work ) {
+		work.reset(ImplMorphologyVanHerk.verticalWorkLength(input.width,k));
+		int numBlocks = ImplMorphologyVanHerk.verticalBlocks(input.height,k);
+		BoofConcurrency.loopBlocks(0, numBlocks, (block0,block1)->{
+			int[] array = work.pop();
+			ImplMorphologyVanHerk.vertical(input, output, k, before, dilate, block0, block1, array);
+			work.recycle(array);
+		});
+	}
+
+	public static void horizontal( GrayF32 input , GrayF32 output , int k , int before , boolean dilate ,
+								   FWorkArrays work ) {
+		work.reset(ImplMorphologyVanHerk.horizontalWorkLength(input.width,k));
+		BoofConcurrency.loopBlocks(0, input.height, (y0,y1)->{
+			float[] array = work.pop();
+			ImplMorphologyVanHerk.horizontal(input, output, k, before, dilate, y0, y1, array);
+			work.recycle(array);
+		});
+	}
+
+	public static void vertical( GrayF32 input , GrayF32 output , int k , int before , boolean dilate ,
+								 FWorkArrays work ) {
+		work.reset(ImplMorphologyVanHerk.verticalWorkLength(input.width,k));
+		int numBlocks = ImplMorphologyVanHerk.verticalBlocks(input.height,k);
+		BoofConcurrency.loopBlocks(0, numBlocks, (block0,block1)->{
+			float[] array = work.pop();
+			ImplMorphologyVanHerk.vertical(input, output, k, before, dilate, block0, block1, array);
+			work.recycle(array);
+		});
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -53,4 +53,9 @@ public interface InterpolateRectangle<T extends ImageGray<T>> {
 	 */
 	public void region(float tl_x, float tl_y, GrayF32 dest );
 //	public void region(float tl_x, float tl_y, float[] results, int regWidth, int regHeight);
+
+	/**
+	 * Creates a new instance of this interpolation algorithm with the same configuration. The image is not copied.
+	 */
+	InterpolateRectangle<T> copy();
 }
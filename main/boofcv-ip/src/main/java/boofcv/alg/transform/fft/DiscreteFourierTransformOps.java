@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,8 +20,11 @@ package boofcv.alg.transform.fft;
 
 import boofcv.abst.transform.fft.DiscreteFourierTransform;
 import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F32;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F32_MT;
 import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64_MT;
 import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.*;
 
 /**
@@ -39,7 +42,10 @@ public class DiscreteFourierTransformOps {
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<GrayF32,InterleavedF32>  createTransformF32() {
-		return new GeneralFft_to_DiscreteFourierTransform_F32();
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new GeneralFft_to_DiscreteFourierTransform_F32_MT();
+		else
+			return new GeneralFft_to_DiscreteFourierTransform_F32();
 	}
 
 	/**
@@ -50,7 +56,10 @@ public class DiscreteFourierTransformOps {
 	 * @return {@link DiscreteFourierTransform}
 	 */
 	public static DiscreteFourierTransform<GrayF64,InterleavedF64>  createTransformF64() {
-		return new GeneralFft_to_DiscreteFourierTransform_F64();
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new GeneralFft_to_DiscreteFourierTransform_F64_MT();
+		else
+			return new GeneralFft_to_DiscreteFourierTransform_F64();
 	}
 
 	/**
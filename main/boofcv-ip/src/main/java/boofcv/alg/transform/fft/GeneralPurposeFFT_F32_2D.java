@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -27,8 +27,8 @@ package boofcv.alg.transform.fft;
  * </p><p>
  * This code has a bit of a history.  Originally from General Purpose FFT.  Which was then ported into
  * JFFTPack written by Baoshe Zhang (http://jfftpack.sourceforge.net/), and then into JTransforms by Piotr Wendykier.
- * The major modification from JTransforms is that the SMP code has been stripped out.  It might be added back in
- * once an SMP strategy has been finalized in BoofCV.
+ * The major modification from JTransforms is that the SMP code has been stripped out.  A concurrent version
+ * is provided by {@link GeneralPurposeFFT_F32_2D_MT}.
  * </p>
  * <p>
  * Code License:  The original license of General Purpose FFT Package is shown below.  This file will fall
@@ -46,13 +46,13 @@ package boofcv.alg.transform.fft;
  */
 public class GeneralPurposeFFT_F32_2D {
 
-	private int rows;
+	protected int rows;
 
-	private int columns;
+	protected int columns;
 
 	private float[] t;
 
-	private GeneralPurposeFFT_F32_1D fftColumns, fftRows;
+	protected GeneralPurposeFFT_F32_1D fftColumns, fftRows;
 
 	private boolean isPowerOfTwo = false;
 
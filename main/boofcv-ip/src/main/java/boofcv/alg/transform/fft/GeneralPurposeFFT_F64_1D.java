@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -144,6 +144,31 @@ public class GeneralPurposeFFT_F64_1D {
 		ch2 = new double[n*2];
 	}
 
+	/**
+	 * Creates a copy which shares the precomputed tables with the original but has its own workspace. The
+	 * original and the copy can be used at the same time in different threads.
+	 *
+	 * @param original The FFT which is copied
+	 */
+	public GeneralPurposeFFT_F64_1D( GeneralPurposeFFT_F64_1D original ) {
+		this.n = original.n;
+		this.nBluestein = original.nBluestein;
+		this.ip = original.ip;
+		this.w = original.w;
+		this.nw = original.nw;
+		this.nc = original.nc;
+		this.wtable = original.wtable;
+		this.wtable_r = original.wtable_r;
+		this.bk1 = original.bk1;
+		this.bk2 = original.bk2;
+		this.plan = original.plan;
+
+		if( original.ak != null )
+			ak = new double[original.ak.length];
+		ch = new double[n];
+		ch2 = new double[n*2];
+	}
+
 	/**
 	 * Computes 1D forward DFT of complex data leaving the result in
 	 * <code>a</code>. Complex number is stored as two double values in
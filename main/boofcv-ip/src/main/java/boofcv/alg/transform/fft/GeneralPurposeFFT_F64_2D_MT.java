@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent version of {@link GeneralPurposeFFT_F64_2D}. The 2D transform is decomposed into 1D transforms
+ * along each row followed by 1D transforms along each column. Blocks of rows and then blocks of columns are
+ * processed in parallel. Each thread has its own workspace but shares the precomputed tables of the 1D transforms.
+ * When the input is real only half of the columns are transformed and the other half is found using
+ * the transform's symmetry.
+ * </p>
+ *
+ * <p>
+ * Only the full transforms are concurrent. {@link #realForward} and {@link #realInverse} are single threaded.
+ * Images with fewer than {@link #getMinConcurrentPixels()} pixels are also processed by the single threaded code since
+ * the overhead of using threads would dominate.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GeneralPurposeFFT_F64_2D_MT extends GeneralPurposeFFT_F64_2D {
+	/** Default value for {@link #setMinConcurrentPixels} */
+	public static final int DEFAULT_MIN_CONCURRENT_PIXELS = 128*128;
+
+	// transforms with fewer elements than this are processed using a single thread
+	private int minConcurrentPixels = DEFAULT_MIN_CONCURRENT_PIXELS;
+
+	// number of columns which are copied into local storage and transformed together
+	private static final int COLUMN_BLOCK = 8;
+
+	// workspace for each thread
+	private final FastQueue<Worker> workers = new FastQueue<>(Worker.class, this::createWorker);
+
+	/**
+	 * @param rows number of rows
+	 * @param columns number of columns
+	 */
+	public GeneralPurposeFFT_F64_2D_MT( int rows, int columns ) {
+		super(rows, columns);
+	}
+
+	public int getMinConcurrentPixels() {
+		return minConcurrentPixels;
+	}
+
+	/**
+	 * Transforms with fewer elements than this are processed using a single thread
+	 */
+	public void setMinConcurrentPixels( int minConcurrentPixels ) {
+		this.minConcurrentPixels = minConcurrentPixels;
+	}
+
+	private Worker createWorker() {
+		return new Worker();
+	}
+
+	@Override
+	public void complexForward( final double[] a ) {
+		if( !isConcurrent() ) {
+			super.complexForward(a);
+			return;
+		}
+
+		final int stride = 2*columns;
+		BoofConcurrency.loopBlocks(0, rows, workers, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.complexForward(a, r*stride);
+			}
+		});
+		transformColumns(a, columns, true, false);
+	}
+
+	@Override
+	public void complexInverse( final double[] a, final boolean scale ) {
+		if( !isConcurrent() ) {
+			super.complexInverse(a, scale);
+			return;
+		}
+
+		final int stride = 2*columns;
+		BoofConcurrency.loopBlocks(0, rows, workers, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.complexInverse(a, r*stride, scale);
+			}
+		});
+		transformColumns(a, columns, false, scale);
+	}
+
+	@Override
+	public void realForwardFull( final double[] a ) {
+		if( !isConcurrent() ) {
+			super.realForwardFull(a);
+			return;
+		}
+
+		spreadRows(a);
+		final int stride = 2*columns;
+		BoofConcurrency.loopBlocks(0, rows, workers, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.realForwardFull(a, r*stride);
+			}
+		});
+		int half = columns/2 + 1;
+		transformColumns(a, half, true, false);
+		fillSymmetric(a, half);
+	}
+
+	@Override
+	public void realInverseFull( final double[] a, final boolean scale ) {
+		if( !isConcurrent() ) {
+			super.realInverseFull(a, scale);
+			return;
+		}
+
+		spreadRows(a);
+		final int stride = 2*columns;
+		BoofConcurrency.loopBlocks(0, rows, workers, (w, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				w.fftColumns.realInverseFull(a, r*stride, scale);
+			}
+		});
+		int half = columns/2 + 1;
+		transformColumns(a, half, false, scale);
+		fillSymmetric(a, half);
+	}
+
+	private boolean isConcurrent() {
+		return rows > 1 && columns > 1 && rows*columns >= minConcurrentPixels;
+	}
+
+	/**
+	 * Moves the real data in the first rows*columns elements so that each row starts where the complex row will.
+	 * The second half of each row is zeroed since the 1D transform can leave some of those elements untouched.
+	 */
+	private void spreadRows( double[] a ) {
+		for (int r = rows-1; r >= 0; r--) {
+			int idx = r*2*columns;
+			System.arraycopy(a, r*columns, a, idx, columns);
+			Arrays.fill(a, idx + columns, idx + 2*columns, 0);
+		}
+	}
+
+	/**
+	 * Applies the 1D transform to the first 'numColumns' columns. Blocks of columns are copied into a local
+	 * array so that the input is read one row at a time.
+	 */
+	private void transformColumns( final double[] a, int numColumns, final boolean forward, final boolean scale ) {
+		final int stride = 2*columns;
+		final int length = 2*rows;
+
+		BoofConcurrency.loopBlocks(0, numColumns, workers, (w, c0, c1) -> {
+			final double[] temp = w.temp;
+			for (int c = c0; c < c1; c += COLUMN_BLOCK) {
+				int block = Math.min(COLUMN_BLOCK, c1 - c);
+
+				for (int r = 0; r < rows; r++) {
+					int idxA = r*stride + 2*c;
+					for (int b = 0; b < block; b++) {
+						int idxT = b*length + 2*r;
+						temp[idxT] = a[idxA++];
+						temp[idxT+1] = a[idxA++];
+					}
+				}
+
+				for (int b = 0; b < block; b++) {
+					if( forward )
+						w.fftRows.complexForward(temp, b*length);
+					else
+						w.fftRows.complexInverse(temp, b*length, scale);
+				}
+
+				for (int r = 0; r < rows; r++) {
+					int idxA = r*stride + 2*c;
+					for (int b = 0; b < block; b++) {
+						int idxT = b*length + 2*r;
+						a[idxA++] = temp[idxT];
+						a[idxA++] = temp[idxT+1];
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * The transform of real data is conjugate symmetric, F[r][c] = conj(F[-r][-c]). Uses that to fill in
+	 * the columns which were not computed.
+	 */
+	private void fillSymmetric( final double[] a, final int half ) {
+		final int stride = 2*columns;
+		BoofConcurrency.loopBlocks(0, rows, (r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				int idxSrcRow = ((rows - r)%rows)*stride;
+				int idxDst = r*stride + 2*half;
+				for (int c = half; c < columns; c++, idxDst += 2) {
+					int idxSrc = idxSrcRow + 2*(columns - c);
+					a[idxDst] = a[idxSrc];
+					a[idxDst+1] = -a[idxSrc+1];
+				}
+			}
+		});
+	}
+
+	private class Worker {
+		GeneralPurposeFFT_F64_1D fftRows = new GeneralPurposeFFT_F64_1D(GeneralPurposeFFT_F64_2D_MT.this.fftRows);
+		GeneralPurposeFFT_F64_1D fftColumns = rows == columns ? fftRows :
+				new GeneralPurposeFFT_F64_1D(GeneralPurposeFFT_F64_2D_MT.this.fftColumns);
+		double[] temp = new double[COLUMN_BLOCK*2*rows];
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,8 +22,11 @@ import boofcv.abst.filter.blur.BlurStorageFilter;
 import boofcv.alg.distort.DistortImageOps;
 import boofcv.alg.distort.PixelTransformAffine_F32;
 import boofcv.alg.distort.impl.DistortSupport;
+import boofcv.alg.filter.blur.GBlurImageOps;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.ImagePyramid;
@@ -60,6 +63,11 @@ public class PyramidFloatGaussianScale< T extends ImageGray<T>> extends PyramidF
 	// The effective amount of blur in each pyramid layer relative to the input image
 	protected double[] sigma;
 
+	// If true then a recursive Gaussian is used to blur each layer
+	protected boolean recursiveBlur = false;
+	// storage used by the recursive Gaussian for integer images
+	protected GrayF32 storageRecursive;
+
 	/**
 	 * Configures the pyramid
 	 *
@@ -97,6 +105,8 @@ public class PyramidFloatGaussianScale< T extends ImageGray<T>> extends PyramidF
 
 		sigma = new double[ orig.sigmaLayers.length ];
 		System.arraycopy(orig.sigma, 0, sigma, 0, orig.sigma.length);
+
+		this.recursiveBlur = orig.recursiveBlur;
 	}
 
 
@@ -116,9 +126,15 @@ public class PyramidFloatGaussianScale< T extends ImageGray<T>> extends PyramidF
 			T layer = getLayer(i);
 
 			// Apply the requested blur to the previous layer
-			BlurStorageFilter<T> blur = (BlurStorageFilter<T>) FactoryBlurFilter.gaussian(layer.getImageType(), sigmaLayers[i],-1);
 			tempImage.reshape(prev.width,prev.height);
-			blur.process(prev,tempImage);
+			if( isRecursive(sigmaLayers[i]) ) {
+				if( storageRecursive == null )
+					storageRecursive = new GrayF32(1,1);
+				GBlurImageOps.gaussianRecursive(prev, tempImage, sigmaLayers[i], storageRecursive);
+			} else {
+				BlurStorageFilter<T> blur = (BlurStorageFilter<T>) FactoryBlurFilter.gaussian(layer.getImageType(), sigmaLayers[i],-1);
+				blur.process(prev,tempImage);
+			}
 
 			// Resample the blurred image
 			if( scale[i] == 1 ) {
@@ -130,6 +146,28 @@ public class PyramidFloatGaussianScale< T extends ImageGray<T>> extends PyramidF
 		}
 	}
 
+	/**
+	 * The recursive Gaussian only supports {@link GrayU8} and {@link GrayF32} and a minimum sigma
+	 */
+	private boolean isRecursive( float sigma ) {
+		if( !recursiveBlur || sigma < 0.5f )
+			return false;
+		Class<T> type = getImageType().getImageClass();
+		return type == GrayU8.class || type == GrayF32.class;
+	}
+
+	public boolean isRecursiveBlur() {
+		return recursiveBlur;
+	}
+
+	/**
+	 * If true then a recursive Gaussian, whose cost is independent of sigma, is used to blur each layer
+	 * instead of convolution. Only applies to {@link GrayU8} and {@link GrayF32} images.
+	 */
+	public void setRecursiveBlur(boolean recursiveBlur) {
+		this.recursiveBlur = recursiveBlur;
+	}
+
 	public InterpolatePixelS<T> getInterpolate() {
 		return interpolate;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,8 +21,11 @@ package boofcv.alg.transform.wavelet;
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.misc.PixelMath;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformBorder;
+import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformBorder_MT;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformInner;
+import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformInner_MT;
 import boofcv.alg.transform.wavelet.impl.ImplWaveletTransformNaive;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.wavelet.WaveletDescription;
@@ -85,6 +88,11 @@ public class WaveletTransformOps {
 		if( input.getWidth() <= minSize || input.getHeight() <= minSize ) {
 			ImplWaveletTransformNaive.horizontal(desc.getBorder(),coef,input,storage);
 			ImplWaveletTransformNaive.vertical(desc.getBorder(),coef,storage,output);
+		} else if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplWaveletTransformInner_MT.horizontal(coef,input,storage);
+			ImplWaveletTransformBorder_MT.horizontal(desc.getBorder(),coef,input,storage);
+			ImplWaveletTransformInner_MT.vertical(coef,storage,output);
+			ImplWaveletTransformBorder_MT.vertical(desc.getBorder(),coef,storage,output);
 		} else {
 			ImplWaveletTransformInner.horizontal(coef,input,storage);
 			ImplWaveletTransformBorder.horizontal(desc.getBorder(),coef,input,storage);
@@ -173,6 +181,11 @@ public class WaveletTransformOps {
 		if( output.getWidth() <= minSize || output.getHeight() <= minSize ) {
 			ImplWaveletTransformNaive.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
 			ImplWaveletTransformNaive.horizontalInverse(desc.getBorder(),desc.getInverse(),storage,output);
+		} else if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplWaveletTransformInner_MT.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
+			ImplWaveletTransformBorder_MT.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
+			ImplWaveletTransformInner_MT.horizontalInverse(desc.getInverse().getInnerCoefficients(),storage,output);
+			ImplWaveletTransformBorder_MT.horizontalInverse(desc.getBorder(),desc.getInverse(),storage,output);
 		} else {
 			ImplWaveletTransformInner.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
 			ImplWaveletTransformBorder.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
@@ -286,6 +299,11 @@ public class WaveletTransformOps {
 		if( input.getWidth() <= minSize || input.getHeight() <= minSize ) {
 			ImplWaveletTransformNaive.horizontal(desc.getBorder(),coef,input,storage);
 			ImplWaveletTransformNaive.vertical(desc.getBorder(),coef,storage,output);
+		} else if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplWaveletTransformInner_MT.horizontal(coef,input,storage);
+			ImplWaveletTransformBorder_MT.horizontal(desc.getBorder(),coef,input,storage);
+			ImplWaveletTransformInner_MT.vertical(coef,storage,output);
+			ImplWaveletTransformBorder_MT.vertical(desc.getBorder(),coef,storage,output);
 		} else {
 			ImplWaveletTransformInner.horizontal(coef,input,storage);
 			ImplWaveletTransformBorder.horizontal(desc.getBorder(),coef,input,storage);
@@ -374,6 +392,11 @@ public class WaveletTransformOps {
 		if( output.getWidth() <= minSize || output.getHeight() <= minSize ) {
 			ImplWaveletTransformNaive.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
 			ImplWaveletTransformNaive.horizontalInverse(desc.getBorder(),desc.getInverse(),storage,output);
+		} else if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplWaveletTransformInner_MT.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
+			ImplWaveletTransformBorder_MT.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
+			ImplWaveletTransformInner_MT.horizontalInverse(desc.getInverse().getInnerCoefficients(),storage,output);
+			ImplWaveletTransformBorder_MT.horizontalInverse(desc.getBorder(),desc.getInverse(),storage,output);
 		} else {
 			ImplWaveletTransformInner.verticalInverse(desc.getInverse().getInnerCoefficients(),input,storage);
 			ImplWaveletTransformBorder.verticalInverse(desc.getBorder(),desc.getInverse(),input,storage);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,10 +20,8 @@ package boofcv.factory.denoise;
 
 import boofcv.alg.denoise.DenoiseWavelet;
 import boofcv.alg.denoise.ShrinkThresholdRule;
-import boofcv.alg.denoise.wavelet.DenoiseBayesShrink_F32;
-import boofcv.alg.denoise.wavelet.DenoiseSureShrink_F32;
-import boofcv.alg.denoise.wavelet.DenoiseVisuShrink_F32;
-import boofcv.alg.denoise.wavelet.ShrinkThresholdSoft_F32;
+import boofcv.alg.denoise.wavelet.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 
@@ -46,11 +44,17 @@ public class FactoryDenoiseWaveletAlg {
 	public static <T extends ImageGray<T>> DenoiseWavelet<T> bayes(ShrinkThresholdRule<T> rule , Class<T> imageType )
 	{
 		if( rule == null ) {
-			rule = (ShrinkThresholdRule<T>)new ShrinkThresholdSoft_F32();
+			if( BoofConcurrency.USE_CONCURRENT )
+				rule = (ShrinkThresholdRule<T>)new ShrinkThresholdSoft_F32_MT();
+			else
+				rule = (ShrinkThresholdRule<T>)new ShrinkThresholdSoft_F32();
 		}
 
 		if( imageType == GrayF32.class ) {
-			return (DenoiseWavelet<T>)new DenoiseBayesShrink_F32((ShrinkThresholdRule<GrayF32>)rule);
+			if( BoofConcurrency.USE_CONCURRENT )
+				return (DenoiseWavelet<T>)new DenoiseBayesShrink_F32_MT((ShrinkThresholdRule<GrayF32>)rule);
+			else
+				return (DenoiseWavelet<T>)new DenoiseBayesShrink_F32((ShrinkThresholdRule<GrayF32>)rule);
 		} else {
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 		}
@@ -65,7 +69,10 @@ public class FactoryDenoiseWaveletAlg {
 	public static <T extends ImageGray<T>> DenoiseWavelet<T> sure(Class<T> imageType )
 	{
 		if( imageType == GrayF32.class ) {
-			return (DenoiseWavelet<T>)new DenoiseSureShrink_F32();
+			if( BoofConcurrency.USE_CONCURRENT )
+				return (DenoiseWavelet<T>)new DenoiseSureShrink_F32_MT();
+			else
+				return (DenoiseWavelet<T>)new DenoiseSureShrink_F32();
 		} else {
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 		}
@@ -80,7 +87,10 @@ public class FactoryDenoiseWaveletAlg {
 	public static <T extends ImageGray<T>> DenoiseWavelet<T> visu(Class<T> imageType )
 	{
 		if( imageType == GrayF32.class ) {
-			return (DenoiseWavelet<T>)new DenoiseVisuShrink_F32();
+			if( BoofConcurrency.USE_CONCURRENT )
+				return (DenoiseWavelet<T>)new DenoiseVisuShrink_F32(new ShrinkThresholdSoft_F32_MT());
+			else
+				return (DenoiseWavelet<T>)new DenoiseVisuShrink_F32();
 		} else {
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -95,6 +95,46 @@ public class FactoryDistort {
 	public static <Input extends ImageGray<Input>, Output extends ImageGray<Output>>
 	ImageDistort<Input, Output> distortSB(boolean cached, InterpolatePixelS<Input> interp, Class<Output> outputType)
 	{
+		AssignPixelValue_SB<Output> assigner = createAssigner(outputType);
+
+		if(BoofConcurrency.USE_CONCURRENT ) {
+			if( cached ) {
+				return new ImageDistortCache_SB_MT<>(assigner,interp);
+			} else {
+				return new ImageDistortBasic_SB_MT<>(assigner,interp);
+			}
+		} else if( cached ) {
+			return new ImageDistortCache_SB<>(assigner,interp);
+		} else {
+			return new ImageDistortBasic_SB<>(assigner,interp);
+		}
+	}
+
+	/**
+	 * Creates a cached {@link boofcv.alg.distort.ImageDistort} which uses a precomputed table. The table
+	 * is not copied and can be shared by any number of distortions, e.g. one for each camera with the same model.
+	 *
+	 * @param table Location of each output pixel in the input image
+	 * @param interp Which interpolation algorithm should be used.
+	 * @param outputType Type of output image.
+	 */
+	public static <Input extends ImageGray<Input>, Output extends ImageGray<Output>>
+	ImageDistortCache_SB<Input, Output> distortCache(RemapTable_F32 table, InterpolatePixelS<Input> interp, Class<Output> outputType)
+	{
+		AssignPixelValue_SB<Output> assigner = createAssigner(outputType);
+
+		ImageDistortCache_SB<Input, Output> alg;
+		if(BoofConcurrency.USE_CONCURRENT ) {
+			alg = new ImageDistortCache_SB_MT<>(assigner,interp);
+		} else {
+			alg = new ImageDistortCache_SB<>(assigner,interp);
+		}
+		alg.setTable(table);
+		return alg;
+	}
+
+	private static <Output extends ImageGray<Output>>
+	AssignPixelValue_SB<Output> createAssigner( Class<Output> outputType ) {
 		AssignPixelValue_SB<Output> assigner;
 		if( outputType == GrayF32.class ) {
 			assigner = (AssignPixelValue_SB)new AssignPixelValue_SB.F32();
@@ -107,17 +147,25 @@ public class FactoryDistort {
 		} else {
 			throw new IllegalArgumentException("Output type not supported: "+outputType.getSimpleName());
 		}
+		return assigner;
+	}
 
-		if(BoofConcurrency.USE_CONCURRENT ) {
-			if( cached ) {
-				return new ImageDistortCache_SB_MT<>(assigner,interp);
-			} else {
-				return new ImageDistortBasic_SB_MT<>(assigner,interp);
-			}
-		} else if( cached ) {
-			return new ImageDistortCache_SB<>(assigner,interp);
+	/**
+	 * Creates a cached {@link boofcv.alg.distort.ImageDistort} for {@link GrayU8} images which performs bilinear
+	 * interpolation using fixed-point integer arithmetic. Faster than {@link #distortSB} and the map uses less
+	 * memory, but input pixels are sampled with 1/256 pixel precision.
+	 *
+	 * @see ImageDistortCacheFixed_U8
+	 *
+	 * @param borderType How pixels outside the input image are handled.
+	 */
+	public static ImageDistort<GrayU8, GrayU8> distortFixedU8( BorderType borderType ) {
+		InterpolatePixelS<GrayU8> interp = FactoryInterpolation.bilinearPixelS(GrayU8.class, borderType);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new ImageDistortCacheFixed_U8_MT(interp);
 		} else {
-			return new ImageDistortBasic_SB<>(assigner,interp);
+			return new ImageDistortCacheFixed_U8(interp);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,10 +18,11 @@
 
 package boofcv.factory.filter.binary;
 
-import boofcv.abst.filter.binary.BinaryContourFinder;
-import boofcv.abst.filter.binary.BinaryContourFinderLinearExternal;
-import boofcv.abst.filter.binary.BinaryLabelContourFinder;
-import boofcv.abst.filter.binary.BinaryLabelContourFinderChang2004;
+import boofcv.abst.filter.binary.*;
+import boofcv.alg.filter.binary.LinearContourLabelChang2004;
+import boofcv.alg.filter.binary.LinearContourLabelChang2004_MT;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
 
 /**
  * Creates instances of {@link BinaryLabelContourFinder}
@@ -39,14 +40,25 @@ public class FactoryBinaryContourFinder {
 		if( BOverrideFactoryBinaryContourFinder.chang2004 != null ) {
 			return BOverrideFactoryBinaryContourFinder.chang2004.createChang2004();
 		} else {
-			return new BinaryLabelContourFinderChang2004();
+			LinearContourLabelChang2004 alg;
+			if( BoofConcurrency.USE_CONCURRENT )
+				alg = new LinearContourLabelChang2004_MT(ConnectRule.FOUR);
+			else
+				alg = new LinearContourLabelChang2004(ConnectRule.FOUR);
+			return new BinaryLabelContourFinderChang2004(alg);
 		}
 	}
 
 	/**
 	 * Binary contour finder for external contours only
+	 *
+	 * @see boofcv.alg.filter.binary.LinearExternalContours
+	 * @see LinearContourLabelChang2004_MT
 	 */
 	public static BinaryContourFinder linearExternal() {
-		return new BinaryContourFinderLinearExternal();
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new BinaryContourFinderLinearExternal_MT();
+		else
+			return new BinaryContourFinderLinearExternal();
 	}
 }
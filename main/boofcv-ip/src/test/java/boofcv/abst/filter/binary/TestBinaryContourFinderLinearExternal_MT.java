@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.binary;
+
+import boofcv.alg.filter.binary.ContourPacked;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBinaryContourFinderLinearExternal_MT extends GenericBinaryContourFinder {
+
+	Random rand = new Random(234);
+
+	public TestBinaryContourFinderLinearExternal_MT() {
+		super.supportsInternalContour = false;
+	}
+
+	@Override
+	protected BinaryContourFinder create() {
+		BinaryContourFinderLinearExternal_MT alg = new BinaryContourFinderLinearExternal_MT();
+		alg.alg.setStripHeight(2);
+		return alg;
+	}
+
+	@Test
+	void compareToSingleThread() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( boolean padded : new boolean[]{true,false}) {
+				GrayU8 binary = new GrayU8(60,55);
+				ImageMiscOps.fillUniform(binary, rand, 0, 2);
+
+				BinaryContourFinderLinearExternal expected = new BinaryContourFinderLinearExternal();
+				BinaryContourFinderLinearExternal_MT found = (BinaryContourFinderLinearExternal_MT)create();
+
+				for( BinaryContourFinder alg : new BinaryContourFinder[]{expected,found}) {
+					alg.setConnectRule(rule);
+					alg.setMinContour(3);
+					alg.setMaxContour(50);
+					((BinaryContourInterface.Padded)alg).setCreatePaddedCopy(padded);
+					((BinaryContourInterface.Padded)alg).setCoordinateAdjustment(1,0);
+				}
+
+				expected.process(binary.clone());
+				found.process(binary.clone());
+
+				List<ContourPacked> contoursE = expected.getContours();
+				List<ContourPacked> contoursF = found.getContours();
+				assertEquals(contoursE.size(), contoursF.size());
+
+				FastQueue<Point2D_I32> pointsE = new FastQueue<>(Point2D_I32.class,true);
+				FastQueue<Point2D_I32> pointsF = new FastQueue<>(Point2D_I32.class,true);
+				for (int i = 0; i < contoursE.size(); i++) {
+					ContourPacked e = contoursE.get(i);
+					ContourPacked f = contoursF.get(i);
+					assertEquals(e.id, f.id);
+					assertEquals(e.externalIndex, f.externalIndex);
+
+					expected.loadContour(e.externalIndex, pointsE);
+					found.loadContour(f.externalIndex, pointsF);
+					assertEquals(pointsE.size, pointsF.size);
+					for (int j = 0; j < pointsE.size; j++) {
+						assertEquals(pointsE.get(j), pointsF.get(j));
+					}
+				}
+			}
+		}
+	}
+}
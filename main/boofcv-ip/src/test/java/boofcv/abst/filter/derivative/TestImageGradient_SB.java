@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,9 +18,15 @@
 
 package boofcv.abst.filter.derivative;
 
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.border.BorderType;
 import boofcv.struct.image.GrayF32;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 
 /**
  * @author Peter Abeles
@@ -44,4 +50,37 @@ public class TestImageGradient_SB {
 
 		alg.process(input,derivX,derivY);
 	}
+
+	/**
+	 * When the border is skipped the inner image should be the same and the border should not be modified
+	 */
+	@Test
+	public void skipBorder() {
+		GrayF32 input = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(input, new Random(234), 0, 100);
+		GrayF32 expectedX = new GrayF32(width,height);
+		GrayF32 expectedY = new GrayF32(width,height);
+		GrayF32 derivX = new GrayF32(width,height);
+		GrayF32 derivY = new GrayF32(width,height);
+		ImageMiscOps.fill(derivX, -1);
+		ImageMiscOps.fill(derivY, -1);
+
+		ImageGradient_SB<GrayF32,GrayF32> alg = new ImageGradient_SB.Sobel<>(GrayF32.class,GrayF32.class);
+		alg.process(input,expectedX,expectedY);
+		alg.setBorderType(BorderType.SKIP);
+		assertEquals(1, alg.getBorder());
+		alg.process(input,derivX,derivY);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if( x == 0 || y == 0 || x == width-1 || y == height-1 ) {
+					assertEquals(-1, derivX.get(x,y));
+					assertEquals(-1, derivY.get(x,y));
+				} else {
+					assertEquals(expectedX.get(x,y), derivX.get(x,y));
+					assertEquals(expectedY.get(x,y), derivY.get(x,y));
+				}
+			}
+		}
+	}
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.transform.fft;
+
+import boofcv.abst.transform.fft.DiscreteFourierTransform;
+import boofcv.abst.transform.fft.GeneralFft_to_DiscreteFourierTransform_F64_MT;
+import boofcv.struct.image.GrayF64;
+import boofcv.struct.image.InterleavedF64;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeneralFft_to_DiscreteFourierTransform_F64_MT extends TestGeneralFft_to_DiscreteFourierTransform_F64 {
+
+	@Override
+	public DiscreteFourierTransform<GrayF64,InterleavedF64> createAlgorithm() {
+		GeneralFft_to_DiscreteFourierTransform_F64_MT alg = new GeneralFft_to_DiscreteFourierTransform_F64_MT();
+		// the test images are small and would otherwise be processed by the single threaded code
+		alg.setMinConcurrentPixels(0);
+		return alg;
+	}
+}
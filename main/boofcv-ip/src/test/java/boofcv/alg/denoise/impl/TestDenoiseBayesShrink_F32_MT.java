@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.denoise.impl;
+
+import boofcv.alg.denoise.wavelet.DenoiseBayesShrink_F32;
+import boofcv.alg.denoise.wavelet.DenoiseBayesShrink_F32_MT;
+import boofcv.alg.denoise.wavelet.ShrinkThresholdSoft_F32;
+import boofcv.alg.denoise.wavelet.ShrinkThresholdSoft_F32_MT;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.transform.wavelet.FactoryWaveletDaub;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class TestDenoiseBayesShrink_F32_MT extends GenericWaveletDenoiseTests<GrayF32> {
+
+	TestDenoiseBayesShrink_F32_MT() {
+		super(GrayF32.class, 20, FactoryWaveletDaub.daubJ_F32(4), 3);
+	}
+
+	@Test
+	void standardTests() {
+		performTest();
+	}
+
+	@Test
+	void compareToSingleThread() {
+		GrayF32 transform = new GrayF32(120,96);
+		ImageMiscOps.fillUniform(transform, new Random(234), -50, 50);
+		GrayF32 expected = transform.clone();
+
+		new DenoiseBayesShrink_F32(new ShrinkThresholdSoft_F32()).denoise(expected,3);
+		new DenoiseBayesShrink_F32_MT(new ShrinkThresholdSoft_F32_MT()).denoise(transform,3);
+
+		BoofTesting.assertEquals(expected, transform, 0);
+	}
+
+	@Override
+	public void denoiseWavelet(ImageGray transformedImg, int numLevels ) {
+		DenoiseBayesShrink_F32_MT alg = new DenoiseBayesShrink_F32_MT(new ShrinkThresholdSoft_F32_MT());
+		alg.denoise((GrayF32)transformedImg,numLevels);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,12 +20,16 @@ package boofcv.alg.denoise.impl;
 
 import boofcv.alg.denoise.ShrinkThresholdRule;
 import boofcv.alg.denoise.wavelet.ShrinkThresholdSoft_I32;
+import boofcv.alg.misc.GImageMiscOps;
 import boofcv.core.image.FactoryGImageGray;
 import boofcv.core.image.GImageGray;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 
@@ -65,4 +69,18 @@ public class TestShrinkThresholdSoft_I32 {
 			}
 		}
 	}
+
+	/**
+	 * Applies both rules to the same image with positive and negative values and checks that the results are identical
+	 */
+	public static <T extends ImageGray<T>> void compareToSingleThread(T image , ShrinkThresholdRule<T> single ,
+																	  ShrinkThresholdRule<T> concurrent ) {
+		GImageMiscOps.fillUniform(image, new Random(234), -20, 20);
+		T expected = image.clone();
+
+		single.process(expected,6);
+		concurrent.process(image,6);
+
+		BoofTesting.assertEquals(expected, image, 0);
+	}
 }
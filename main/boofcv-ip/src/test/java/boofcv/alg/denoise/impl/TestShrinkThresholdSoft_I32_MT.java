@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.denoise.impl;
+
+import boofcv.alg.denoise.wavelet.ShrinkThresholdSoft_I32;
+import boofcv.alg.denoise.wavelet.ShrinkThresholdSoft_I32_MT;
+import boofcv.struct.image.GrayS32;
+import org.junit.jupiter.api.Test;
+
+class TestShrinkThresholdSoft_I32_MT {
+	int width = 10;
+	int height = 20;
+
+	@Test
+	void basicTest() {
+		TestShrinkThresholdSoft_I32.performBasicSoftTest(
+				new GrayS32(width,height),
+				new ShrinkThresholdSoft_I32_MT());
+	}
+
+	@Test
+	void compareToSingleThread() {
+		TestShrinkThresholdSoft_I32.compareToSingleThread(new GrayS32(35,40),
+				new ShrinkThresholdSoft_I32(), new ShrinkThresholdSoft_I32_MT());
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.homography.Homography2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistortCacheFixed_U8 {
+	Random rand = new Random(234);
+	int width = 60,height=80;
+
+	// part of the output is outside the input image
+	PixelTransform<Point2D_F32> tran = new PixelTransformHomography_F32(new Homography2D_F32(
+			0.9f,0.1f,-5.0f,
+			0.05f,1.1f,2f,
+			0.001f,-0.001f,1.05f));
+
+	/**
+	 * Compare against floating point bilinear interpolation. Should be within one after rounding
+	 */
+	@Test
+	void compareToFloat() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+
+		BoofTesting.checkSubImage(this, "compareToFloat", true, input, new GrayU8(width+5,height-4));
+	}
+
+	public void compareToFloat( GrayU8 input , GrayU8 found ) {
+		InterpolatePixelS<GrayU8> interp = FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.EXTENDED);
+		interp.setImage(input);
+
+		ImageDistortCacheFixed_U8 alg = createAlg(FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.EXTENDED));
+		alg.setModel(tran);
+		alg.apply(input,found);
+
+		Point2D_F32 p = new Point2D_F32();
+		int totalOutside = 0;
+		for (int y = 0; y < found.height; y++) {
+			for (int x = 0; x < found.width; x++) {
+				tran.compute(x,y,p);
+				if( !interp.isInFastBounds(p.x,p.y))
+					totalOutside++;
+				int expected = (int)(interp.get(p.x,p.y)+0.5f);
+				assertEquals(expected, found.get(x,y), 1.0);
+			}
+		}
+		// make sure the border was exercised
+		assertTrue(totalOutside > 0);
+	}
+
+	/**
+	 * Renders only the pixels inside the input image and the mask should indicate which ones were rendered
+	 */
+	@Test
+	void mask_renderAll_false() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+		GrayU8 found = new GrayU8(width,height);
+		ImageMiscOps.fill(found, 255);
+		GrayU8 mask = new GrayU8(1,1);
+
+		ImageDistortCacheFixed_U8 alg = createAlg(FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.ZERO));
+		alg.setRenderAll(false);
+		alg.setModel(tran);
+		alg.apply(input,found,mask);
+		assertEquals(width, mask.width);
+		assertEquals(height, mask.height);
+
+		Point2D_F32 p = new Point2D_F32();
+		int totalInside = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				tran.compute(x,y,p);
+				boolean inside = p.x >= 0 && p.y >= 0 && p.x <= width-1 && p.y <= height-1;
+				// the fixed-point coordinate is rounded so skip pixels right along the border
+				if( Math.abs(p.x) < 0.01 || Math.abs(p.y) < 0.01 ||
+						Math.abs(p.x-width+1) < 0.01 || Math.abs(p.y-height+1) < 0.01 )
+					continue;
+				if( inside ) {
+					totalInside++;
+					assertEquals(1, mask.get(x,y));
+				} else {
+					assertEquals(0, mask.get(x,y));
+					assertEquals(255, found.get(x,y));
+				}
+			}
+		}
+		assertTrue(totalInside > 0 && totalInside < width*height);
+	}
+
+	/**
+	 * Only the specified region should be modified
+	 */
+	@Test
+	void apply_region() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+		GrayU8 expected = new GrayU8(width,height);
+		GrayU8 found = new GrayU8(width,height);
+
+		ImageDistortCacheFixed_U8 alg = createAlg(FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.EXTENDED));
+		alg.setModel(tran);
+		alg.apply(input,expected);
+		alg.apply(input,found,10,15,40,50);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if( x >= 10 && x < 40 && y >= 15 && y < 50 )
+					assertEquals(expected.get(x,y), found.get(x,y));
+				else
+					assertEquals(0, found.get(x,y));
+			}
+		}
+	}
+
+	/**
+	 * Pixels which land exactly on the input image's pixels should be copied exactly
+	 */
+	@Test
+	void exactPixels() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+		GrayU8 found = new GrayU8(width,height);
+
+		ImageDistortCacheFixed_U8 alg = createAlg(FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.ZERO));
+		alg.setModel(new PixelTransformAffine_F32(new Affine2D_F32()));
+		alg.apply(input,found);
+
+		BoofTesting.assertEquals(input, found, 0);
+	}
+
+	/**
+	 * The map should be recomputed when the model is changed
+	 */
+	@Test
+	void changeModel() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+		GrayU8 found = new GrayU8(width,height);
+
+		ImageDistortCacheFixed_U8 alg = createAlg(FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.ZERO));
+		alg.setModel(tran);
+		alg.apply(input,found);
+		alg.setModel(new PixelTransformAffine_F32(new Affine2D_F32()));
+		alg.apply(input,found);
+
+		BoofTesting.assertEquals(input, found, 0);
+	}
+
+	@Test
+	void inputTooLarge() {
+		ImageDistortCacheFixed_U8 alg = createAlg(FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.ZERO));
+		alg.setModel(tran);
+		GrayU8 input = new GrayU8(ImageDistortCacheFixed_U8.MAX_COORDINATE,1);
+		assertThrows(IllegalArgumentException.class, ()->alg.apply(input,new GrayU8(10,10)));
+	}
+
+	protected ImageDistortCacheFixed_U8 createAlg( InterpolatePixelS<GrayU8> interp ) {
+		return new ImageDistortCacheFixed_U8(interp);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistortCacheFixed_U8_MT {
+	Random rand = new Random(234);
+	int width = 60,height=80;
+
+	@Test
+	void compare_all() {
+		GrayU8 input = new GrayU8(width,height);
+		GrayU8 output_ST = new GrayU8(width,height);
+		GrayU8 output_MT = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+
+		ImageDistortCacheFixed_U8 alg_ST = new ImageDistortCacheFixed_U8(
+				FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.REFLECT));
+		ImageDistortCacheFixed_U8_MT alg_MT = new ImageDistortCacheFixed_U8_MT(
+				FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.REFLECT));
+
+		alg_ST.setModel(new TestImageDistortBasic_IL_MT.Transform());
+		alg_ST.apply(input,output_ST);
+
+		alg_MT.setModel(new TestImageDistortBasic_IL_MT.Transform());
+		alg_MT.apply(input,output_MT);
+
+		BoofTesting.assertEquals(output_ST,output_MT, 0);
+	}
+
+	@Test
+	void compare_mask() {
+		GrayU8 input = new GrayU8(width,height);
+		GrayU8 output_ST = new GrayU8(width,height);
+		GrayU8 output_MT = new GrayU8(width,height);
+		GrayU8 mask_ST = new GrayU8(width,height);
+		GrayU8 mask_MT = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+
+		ImageDistortCacheFixed_U8 alg_ST = new ImageDistortCacheFixed_U8(
+				FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.ZERO));
+		ImageDistortCacheFixed_U8_MT alg_MT = new ImageDistortCacheFixed_U8_MT(
+				FactoryInterpolation.bilinearPixelS(GrayU8.class, BorderType.ZERO));
+		alg_ST.setRenderAll(false);
+		alg_MT.setRenderAll(false);
+
+		alg_ST.setModel(new TestImageDistortBasic_IL_MT.Transform());
+		alg_ST.apply(input,output_ST,mask_ST);
+
+		alg_MT.setModel(new TestImageDistortBasic_IL_MT.Transform());
+		alg_MT.apply(input,output_MT,mask_MT);
+
+		BoofTesting.assertEquals(output_ST,output_MT, 0);
+		BoofTesting.assertEquals(mask_ST,mask_MT, 0);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,7 +22,11 @@ import boofcv.alg.interpolate.BilinearPixelS;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -35,6 +39,27 @@ public class TestImageDistortCache_SB extends CommonImageDistort_SB{
 		return new Helper(interp);
 	}
 
+	/**
+	 * The deprecated getMap() should return the same points as the table
+	 */
+	@Test
+	void getMap() {
+		Helper alg = new Helper(interp);
+		assertNull(alg.getMap());
+
+		offX = 0.5f; offY = -0.25f;
+		alg.setModel(tran);
+		alg.apply(new GrayF32(10, 15), new GrayF32(10, 15));
+
+		RemapTable_F32 table = alg.getTable();
+		Point2D_F32[] map = alg.getMap();
+		assertEquals(150, map.length);
+		for (int i = 0; i < map.length; i++) {
+			assertEquals(table.getX(i), map[i].x);
+			assertEquals(table.getY(i), map[i].y);
+		}
+	}
+
 	protected static class Helper extends ImageDistortCache_SB implements ImageDistortHelper {
 
 		int total = 0;
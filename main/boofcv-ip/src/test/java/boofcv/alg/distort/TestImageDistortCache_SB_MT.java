@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,6 +21,7 @@ package boofcv.alg.distort;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.image.GrayF32;
@@ -31,6 +32,9 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 /**
  * @author Peter Abeles
  */
@@ -85,4 +89,59 @@ public class TestImageDistortCache_SB_MT {
 
 		BoofTesting.assertEquals(output_ST,output_MT, UtilEjml.TEST_F32);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Several instances sharing the same table should produce the same results as computing their own
+	 */
+	@Test
+	void sharedTable() {
+		GrayF32 input = new GrayF32(width,height);
+		GrayF32 expected = new GrayF32(width,height);
+		GrayF32 found = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,150);
+
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.createPixelS(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, GrayF32.class);
+
+		ImageDistortCache_SB<GrayF32,GrayF32> alg = new ImageDistortCache_SB_MT<>(new AssignPixelValue_SB.F32(),interpolate);
+		alg.setModel(new TestImageDistortBasic_IL_MT.Transform());
+		alg.apply(input,expected);
+
+		RemapTable_F32 table = RemapTable_F32.compute(width,height,new TestImageDistortBasic_IL_MT.Transform());
+		for (int i = 0; i < 2; i++) {
+			ImageDistortCache_SB<GrayF32,GrayF32> shared = FactoryDistort.distortCache(table,interpolate.copy(),GrayF32.class);
+			GImageMiscOps.fill(found,0);
+			shared.apply(input,found);
+			assertSame(table, shared.getTable());
+			BoofTesting.assertEquals(expected,found, UtilEjml.TEST_F32);
+		}
+
+		// No model and the table is the wrong shape
+		ImageDistortCache_SB<GrayF32,GrayF32> shared = FactoryDistort.distortCache(table,interpolate.copy(),GrayF32.class);
+		assertThrows(IllegalArgumentException.class, ()->shared.apply(input,new GrayF32(width+1,height)));
+	}
+
+	/**
+	 * The output image is a sub-image
+	 */
+	@Test
+	void subimage() {
+		GrayF32 input = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,150);
+		GrayF32 expected = new GrayF32(width,height);
+		GrayF32 found = BoofTesting.createSubImageOf(expected);
+
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.createPixelS(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, GrayF32.class);
+
+		for( boolean concurrent : new boolean[]{false,true}) {
+			ImageDistortCache_SB<GrayF32,GrayF32> alg = concurrent ?
+					new ImageDistortCache_SB_MT<>(new AssignPixelValue_SB.F32(),interpolate) :
+					new ImageDistortCache_SB<>(new AssignPixelValue_SB.F32(),interpolate);
+			alg.setModel(new TestImageDistortBasic_IL_MT.Transform());
+			alg.apply(input,expected);
+			alg.apply(input,found);
+			BoofTesting.assertEquals(expected,found, UtilEjml.TEST_F32);
+		}
+	}
+}
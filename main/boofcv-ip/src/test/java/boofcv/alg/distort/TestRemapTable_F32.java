@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import georegression.struct.homography.Homography2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestRemapTable_F32 {
+	int width = 30, height = 25;
+
+	PixelTransformHomography_F32 tran = new PixelTransformHomography_F32(new Homography2D_F32(
+			0.9f,0.1f,-5.0f,
+			0.05f,1.1f,2f,
+			0.001f,-0.001f,1.05f));
+
+	@Test
+	void compute() {
+		RemapTable_F32 table = RemapTable_F32.compute(width, height, tran);
+		checkTable(table);
+		assertFalse(table.isMapped());
+	}
+
+	@Test
+	void computeConcurrent() {
+		RemapTable_F32 table = RemapTable_F32.computeConcurrent(width, height, tran);
+		checkTable(table);
+	}
+
+	@Test
+	void saveLoad() throws IOException {
+		File file = File.createTempFile("remap", ".bin");
+		try {
+			RemapTable_F32 original = RemapTable_F32.compute(width, height, tran);
+			original.save(file);
+			RemapTable_F32 found = RemapTable_F32.load(file);
+			assertTrue(found.isMapped());
+			checkTable(found);
+
+			// saving a loaded table should produce the same result
+			File file2 = File.createTempFile("remap", ".bin");
+			try {
+				found.save(file2);
+				checkTable(RemapTable_F32.load(file2));
+			} finally {
+				assertTrue(file2.delete());
+			}
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	void load_notTable() throws IOException {
+		File file = File.createTempFile("remap", ".bin");
+		try {
+			try( FileOutputStream out = new FileOutputStream(file) ) {
+				out.write(new byte[100]);
+			}
+			assertThrows(IOException.class, ()->RemapTable_F32.load(file));
+
+			// truncate a valid table
+			RemapTable_F32.compute(width, height, tran).save(file);
+			try( FileOutputStream out = new FileOutputStream(file, true) ) {
+				out.write(1);
+			}
+			assertThrows(IOException.class, ()->RemapTable_F32.load(file));
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	void isShape() {
+		RemapTable_F32 table = RemapTable_F32.compute(width, height, tran);
+		assertTrue(table.isShape(width, height));
+		assertFalse(table.isShape(width+1, height));
+		assertFalse(table.isShape(width, height+1));
+	}
+
+	private void checkTable( RemapTable_F32 table ) {
+		assertEquals(width, table.getWidth());
+		assertEquals(height, table.getHeight());
+
+		Point2D_F32 expected = new Point2D_F32();
+		Point2D_F32 found = new Point2D_F32();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				tran.compute(x, y, expected);
+				table.get(x, y, found);
+				assertEquals(expected.x, found.x, 0.0f);
+				assertEquals(expected.y, found.y, 0.0f);
+				assertEquals(expected.x, table.getX(table.index(x,y)), 0.0f);
+				assertEquals(expected.y, table.getY(table.index(x,y)), 0.0f);
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.filter.binary;
 
 import boofcv.alg.filter.binary.impl.CompareToBinaryNaive;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
@@ -161,6 +162,8 @@ public class TestBinaryImageOps {
 
 		int numTimes = 0;
 		for( Method m : methods ) {
+			if( m.getParameterTypes().length != 3 )
+				continue;
 			if( m.getName().contains("erode") || m.getName().contains("dilate")) {
 				checkMultipleCalls(m);
 				numTimes++;
@@ -193,6 +196,43 @@ public class TestBinaryImageOps {
 		}
 	}
 
+	/**
+	 * A rectangular structuring element of size 2n+1 should be the same as applying the 8-neighborhood n times
+	 */
+	@Test
+	public void erodeDilate_rectangle() {
+		GrayU8 input = new GrayU8(30,25);
+		ImageMiscOps.fillUniform(input, rand, 0, 2);
+		// make erosion produce something other than zero
+		ImageMiscOps.fillRectangle(input,1,5,4,15,12);
+
+		for( int numTimes = 1; numTimes <= 3; numTimes++ ) {
+			int size = 2*numTimes+1;
+			BoofTesting.assertEquals(BinaryImageOps.erode8(input,numTimes,null),
+					BinaryImageOps.erode(input,size,size,null),0);
+			BoofTesting.assertEquals(BinaryImageOps.dilate8(input,numTimes,null),
+					BinaryImageOps.dilate(input,size,size,null),0);
+		}
+	}
+
+	@Test
+	public void openClose_rectangle() {
+		GrayU8 input = new GrayU8(30,25);
+		ImageMiscOps.fillRectangle(input,1,5,4,15,12);
+		// a blob which is too small to survive opening
+		ImageMiscOps.fillRectangle(input,1,24,2,2,2);
+
+		GrayU8 found = BinaryImageOps.open(input,5,5,null);
+		assertEquals(15*12, ImageStatistics.sum(found));
+		assertEquals(1, found.get(5,4));
+		assertEquals(0, found.get(24,2));
+
+		// a gap which is filled in by closing
+		input.set(10,10,0);
+		found = BinaryImageOps.close(input,3,3,null);
+		assertEquals(1, found.get(10,10));
+	}
+
 	/**
 	 * Very crude and not exhaustive check of contour
 	 */
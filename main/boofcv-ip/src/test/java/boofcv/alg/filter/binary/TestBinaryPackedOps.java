@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.filter.binary.impl.ImplBinaryNaiveOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayBinary;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares packed operations against the equivalent operations in {@link BinaryImageOps}
+ *
+ * @author Peter Abeles
+ */
+class TestBinaryPackedOps {
+	Random rand = new Random(234);
+
+	// widths which are less than, equal to, and more than multiples of the word size
+	int[] widths = new int[]{1,5,63,64,65,128,130};
+	int height = 9;
+
+	@Test
+	void pack_unpack() {
+		for( int width : widths ) {
+			GrayU8 original = randomBinary(width, height);
+			GrayBinary packed = BinaryPackedOps.pack(original, null);
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(original.get(x,y), packed.get(x,y));
+				}
+			}
+			assertEquals(0, packed.data[packed.stride-1] & ~packed.getLastWordMask());
+
+			GrayU8 found = BinaryPackedOps.unpack(packed, null);
+			assertImagesEqual(original, found);
+		}
+	}
+
+	@Test
+	void logic() {
+		for( int width : widths ) {
+			GrayU8 a = randomBinary(width, height);
+			GrayU8 b = randomBinary(width, height);
+			GrayBinary pa = BinaryPackedOps.pack(a,null);
+			GrayBinary pb = BinaryPackedOps.pack(b,null);
+
+			check(BinaryImageOps.logicAnd(a,b,null), BinaryPackedOps.logicAnd(pa,pb,null));
+			check(BinaryImageOps.logicOr(a,b,null), BinaryPackedOps.logicOr(pa,pb,null));
+			check(BinaryImageOps.logicXor(a,b,null), BinaryPackedOps.logicXor(pa,pb,null));
+			check(BinaryImageOps.invert(a,null), BinaryPackedOps.invert(pa,null));
+		}
+	}
+
+	@Test
+	void countOnes() {
+		for( int width : widths ) {
+			GrayU8 a = randomBinary(width, height);
+			int expected = 0;
+			for (int i = 0; i < a.data.length; i++) {
+				expected += a.data[i];
+			}
+			assertEquals(expected, BinaryPackedOps.countOnes(BinaryPackedOps.pack(a,null)));
+		}
+	}
+
+	/**
+	 * Compare against the naive implementation since it's the reference for how borders are handled
+	 */
+	@Test
+	void erode_dilate() {
+		for( int width : widths ) {
+			GrayU8 a = randomBinary(width, height);
+			GrayBinary pa = BinaryPackedOps.pack(a,null);
+			GrayU8 expected = a.createSameShape();
+
+			ImplBinaryNaiveOps.erode4(a,expected);
+			check(expected, BinaryPackedOps.erode4(pa,1,null));
+			ImplBinaryNaiveOps.erode8(a,expected);
+			check(expected, BinaryPackedOps.erode8(pa,1,null));
+			ImplBinaryNaiveOps.dilate4(a,expected);
+			check(expected, BinaryPackedOps.dilate4(pa,1,null));
+			ImplBinaryNaiveOps.dilate8(a,expected);
+			check(expected, BinaryPackedOps.dilate8(pa,1,null));
+		}
+	}
+
+	@Test
+	void erode_dilate_numTimes() {
+		GrayU8 a = randomBinary(130, height);
+		GrayBinary pa = BinaryPackedOps.pack(a,null);
+
+		check(BinaryImageOps.erode4(a,2,null), BinaryPackedOps.erode4(pa,2,null));
+		check(BinaryImageOps.erode8(a,3,null), BinaryPackedOps.erode8(pa,3,null));
+		check(BinaryImageOps.dilate4(a,2,null), BinaryPackedOps.dilate4(pa,2,null));
+		check(BinaryImageOps.dilate8(a,3,null), BinaryPackedOps.dilate8(pa,3,null));
+	}
+
+	@Test
+	void edge() {
+		for( int width : widths ) {
+			GrayU8 a = randomBinary(width, height);
+			GrayBinary pa = BinaryPackedOps.pack(a,null);
+			GrayU8 expected = a.createSameShape();
+
+			for( boolean outsideZero : new boolean[]{true,false}) {
+				ImplBinaryNaiveOps.edge4(a,expected,outsideZero);
+				check(expected, BinaryPackedOps.edge4(pa,null,outsideZero));
+				ImplBinaryNaiveOps.edge8(a,expected,outsideZero);
+				check(expected, BinaryPackedOps.edge8(pa,null,outsideZero));
+			}
+		}
+	}
+
+	@Test
+	void thin() {
+		for( int width : widths ) {
+			// thinning needs larger blobs to be interesting
+			GrayU8 a = BinaryImageOps.dilate8(randomBinary(width, height*3),1,null);
+			GrayBinary pa = BinaryPackedOps.pack(a,null);
+
+			check(BinaryImageOps.thin(a,-1,null), BinaryPackedOps.thin(pa,-1,null));
+			check(BinaryImageOps.thin(a,1,null), BinaryPackedOps.thin(pa,1,null));
+		}
+	}
+
+	@Test
+	void neighborOps_sameInstance() {
+		GrayBinary a = new GrayBinary(10,12);
+		assertThrows(IllegalArgumentException.class, ()->BinaryPackedOps.erode4(a,1,a));
+		assertThrows(IllegalArgumentException.class, ()->BinaryPackedOps.edge8(a,a,true));
+	}
+
+	private GrayU8 randomBinary( int width , int height ) {
+		GrayU8 image = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(image,rand,0,2);
+		return image;
+	}
+
+	private void check( GrayU8 expected , GrayBinary found ) {
+		assertEquals(0, found.data[found.stride-1] & ~found.getLastWordMask());
+		assertImagesEqual(expected, BinaryPackedOps.unpack(found,null));
+	}
+
+	private void assertImagesEqual( GrayU8 expected , GrayU8 found ) {
+		assertEquals(expected.width, found.width);
+		assertEquals(expected.height, found.height);
+		for (int y = 0; y < expected.height; y++) {
+			for (int x = 0; x < expected.width; x++) {
+				assertEquals(expected.get(x,y), found.get(x,y), x+" "+y+" width="+expected.width);
+			}
+		}
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestLinearContourLabelChang2004_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Random images with blobs that cross strip borders many times and have lots of holes
+	 */
+	@Test
+	void compareToSingleThread_random() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( int stripHeight : new int[]{1,2,7,100}) {
+				for( double fraction : new double[]{0.2,0.5,0.8}) {
+					GrayU8 binary = new GrayU8(45,38);
+					for (int i = 0; i < binary.data.length; i++) {
+						binary.data[i] = (byte)(rand.nextDouble() < fraction ? 1 : 0);
+					}
+					LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(rule);
+					alg.setStripHeight(stripHeight);
+					compareToSingleThread(binary, alg);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Images from the single threaded test
+	 */
+	@Test
+	void compareToSingleThread_examples() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( GrayU8 binary : new GrayU8[]{TestLinearContourLabelChang2004.TEST1, TestLinearContourLabelChang2004.TEST2,
+					TestLinearContourLabelChang2004.TEST3, TestLinearContourLabelChang2004.TEST4}) {
+				LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(rule);
+				alg.setStripHeight(2);
+				compareToSingleThread(binary, alg);
+			}
+		}
+	}
+
+	/**
+	 * Blobs nested inside of holes inside of other blobs
+	 */
+	@Test
+	void compareToSingleThread_nested() {
+		GrayU8 binary = new GrayU8(40,40);
+		for (int i = 0; i < 5; i++) {
+			ImageMiscOps.fillRectangle(binary, i%2 == 0 ? 1 : 0, i*3+1, i*3+2, 38-i*6, 36-i*6);
+		}
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(rule);
+			alg.setStripHeight(3);
+			compareToSingleThread(binary, alg);
+		}
+	}
+
+	@Test
+	void compareToSingleThread_contourSize() {
+		GrayU8 binary = new GrayU8(60,50);
+		ImageMiscOps.fillUniform(binary, rand, 0, 2);
+
+		for( boolean saveInternal : new boolean[]{true,false}) {
+			LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(ConnectRule.EIGHT);
+			alg.setStripHeight(5);
+			alg.setMinContourSize(4);
+			alg.setMaxContourSize(20);
+			alg.setSaveInternalContours(saveInternal);
+			compareToSingleThread(binary, alg);
+		}
+	}
+
+	/**
+	 * The output should be the same when the labeled image is a sub-image and when it's called multiple times
+	 */
+	@Test
+	void subimage_multipleCalls() {
+		LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(ConnectRule.FOUR);
+		alg.setStripHeight(4);
+
+		for (int trial = 0; trial < 3; trial++) {
+			GrayU8 binary = new GrayU8(30,25+trial);
+			ImageMiscOps.fillUniform(binary, rand, 0, 2);
+
+			LinearContourLabelChang2004 expected = new LinearContourLabelChang2004(ConnectRule.FOUR);
+			GrayS32 labeledExpected = new GrayS32(binary.width, binary.height);
+			expected.process(binary.clone(), labeledExpected);
+
+			GrayS32 labeled = BoofTesting.createSubImageOf(new GrayS32(binary.width, binary.height));
+			alg.process(binary, labeled);
+
+			BoofTesting.assertEquals(labeledExpected, labeled, 0);
+			assertEqualContours(expected, alg);
+		}
+	}
+
+	/**
+	 * If internal contours aren't searched for then the external contours should be unchanged
+	 */
+	@Test
+	void findInternalContours_false() {
+		GrayU8 binary = new GrayU8(50,45);
+		ImageMiscOps.fillUniform(binary, rand, 0, 2);
+
+		LinearContourLabelChang2004 expected = new LinearContourLabelChang2004(ConnectRule.EIGHT);
+		GrayS32 labeledExpected = new GrayS32(binary.width, binary.height);
+		expected.process(binary, labeledExpected);
+
+		LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(ConnectRule.EIGHT);
+		alg.setStripHeight(3);
+		alg.setFindInternalContours(false);
+		GrayS32 labeled = new GrayS32(binary.width, binary.height);
+		alg.process(binary, labeled);
+
+		BoofTesting.assertEquals(labeledExpected, labeled, 0);
+		assertEquals(expected.getContours().size, alg.getContours().size);
+		for (int i = 0; i < expected.getContours().size; i++) {
+			ContourPacked e = expected.getContours().get(i);
+			ContourPacked f = alg.getContours().get(i);
+			assertEquals(e.id, f.id);
+			assertEquals(0, f.internalIndexes.size);
+			assertEquals(expected.getPackedPoints().getSet(e.externalIndex), alg.getPackedPoints().getSet(f.externalIndex));
+		}
+	}
+
+	private void compareToSingleThread( GrayU8 binary , LinearContourLabelChang2004_MT alg ) {
+		LinearContourLabelChang2004 expected = new LinearContourLabelChang2004(alg.getConnectRule());
+		expected.setMinContourSize(alg.getMinContourSize());
+		expected.setMaxContourSize(alg.getMaxContourSize());
+		expected.setSaveInternalContours(alg.isSaveInternalContours());
+
+		GrayU8 original = binary.clone();
+		GrayS32 labeledExpected = new GrayS32(binary.width, binary.height);
+		GrayS32 labeledFound = new GrayS32(binary.width, binary.height);
+		expected.process(binary, labeledExpected);
+		alg.process(binary, labeledFound);
+
+		// input should not be modified
+		BoofTesting.assertEquals(original, binary, 0);
+		BoofTesting.assertEquals(labeledExpected, labeledFound, 0);
+		assertEqualContours(expected, alg);
+	}
+
+	private static void assertEqualContours( LinearContourLabelChang2004 expected , LinearContourLabelChang2004 found ) {
+		assertEquals(expected.getContours().size, found.getContours().size);
+		assertEquals(expected.getPackedPoints().size(), found.getPackedPoints().size());
+
+		for (int i = 0; i < expected.getContours().size; i++) {
+			ContourPacked e = expected.getContours().get(i);
+			ContourPacked f = found.getContours().get(i);
+			assertEquals(e.id, f.id);
+			assertEquals(e.externalIndex, f.externalIndex);
+			assertEquals(e.internalIndexes.size, f.internalIndexes.size);
+			for (int j = 0; j < e.internalIndexes.size; j++) {
+				assertEquals(e.internalIndexes.get(j), f.internalIndexes.get(j));
+			}
+		}
+
+		for (int i = 0; i < expected.getPackedPoints().size(); i++) {
+			List<Point2D_I32> e = expected.getPackedPoints().getSet(i);
+			List<Point2D_I32> f = found.getPackedPoints().getSet(i);
+			assertEquals(e, f);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,6 +19,15 @@
 package boofcv.alg.filter.binary;
 
 import boofcv.alg.filter.binary.impl.CompareToImplThresholdImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayBinary;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
  * @author Peter Abeles
@@ -27,4 +36,33 @@ class TestThresholdImageOps extends CompareToImplThresholdImageOps {
 	TestThresholdImageOps() {
 		super(ThresholdImageOps.class);
 	}
+
+	@Test
+	void thresholdPacked() {
+		Random rand = new Random(234);
+		GrayU8 inputU8 = new GrayU8(70,20);
+		ImageMiscOps.fillUniform(inputU8,rand,0,200);
+		GrayF32 inputF32 = new GrayF32(70,20);
+		ImageMiscOps.fillUniform(inputF32,rand,0,200);
+
+		for( boolean down : new boolean[]{true,false}) {
+			GrayU8 expected = ThresholdImageOps.threshold(inputU8,(GrayU8)null,110,down);
+			GrayBinary found = ThresholdImageOps.thresholdPacked(inputU8,null,110,down);
+			checkPacked(expected, found);
+
+			expected = ThresholdImageOps.threshold(inputF32,(GrayU8)null,110,down);
+			found = ThresholdImageOps.thresholdPacked(inputF32,null,110,down);
+			checkPacked(expected, found);
+		}
+	}
+
+	private void checkPacked( GrayU8 expected , GrayBinary found ) {
+		assertEquals(expected.width, found.width);
+		assertEquals(expected.height, found.height);
+		for (int y = 0; y < expected.height; y++) {
+			for (int x = 0; x < expected.width; x++) {
+				assertEquals(expected.get(x,y), found.get(x,y));
+			}
+		}
+	}
 }
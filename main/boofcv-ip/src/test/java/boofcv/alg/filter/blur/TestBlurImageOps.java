@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,9 +18,11 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.alg.filter.blur.impl.ImplGaussianRecursive;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.filter.convolve.GConvolveImageOps;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.concurrency.IWorkArrays;
 import boofcv.concurrency.WorkArrays;
 import boofcv.core.image.GeneralizedImageOps;
@@ -133,6 +135,29 @@ public class TestBlurImageOps {
 		}
 	}
 
+	@Test
+	public void gaussianRecursive() {
+		GrayF32 inputF = new GrayF32(width,height);
+		GrayU8 inputU = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(inputF, rand, 0, 20);
+		GImageMiscOps.fillUniform(inputU, rand, 0, 20);
+
+		for( double sigma : new double[]{0.8,2.0,5.0} ) {
+			float[] coef = ImplGaussianRecursive.coefficients(sigma);
+
+			GrayF32 expectedF = inputF.createSameShape();
+			ImplGaussianRecursive.horizontal(inputF, expectedF, coef);
+			ImplGaussianRecursive.vertical(expectedF, coef);
+			BoofTesting.assertEquals(expectedF, BlurImageOps.gaussianRecursive(inputF, null, sigma), 1e-4);
+
+			GrayU8 expectedU = inputU.createSameShape();
+			GrayF32 storage = inputF.createSameShape();
+			ImplGaussianRecursive.horizontal(inputU, storage, coef);
+			ImplGaussianRecursive.vertical(storage, expectedU, coef);
+			BoofTesting.assertEquals(expectedU, BlurImageOps.gaussianRecursive(inputU, null, sigma, null), 0);
+		}
+	}
+
 	@Test
 	public void median() {
 		for( ImageType type : imageTypes ) {
@@ -169,4 +194,43 @@ public class TestBlurImageOps {
 			}
 		}
 	}
+
+	/**
+	 * Large radius will select a different algorithm for U8 images
+	 */
+	@Test
+	public void median_LargeRadius() {
+		GrayU8 input = new GrayU8(90,80);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+
+		for( int radius : new int[]{23,24,30} ) {
+			GrayU8 found = BlurImageOps.median(input, null, radius, null);
+			GrayU8 expected = input.createSameShape();
+			ImplMedianSortNaive.process(input, expected, radius, null);
+
+			BoofTesting.assertEquals(expected, found, 0);
+		}
+	}
+
+	/**
+	 * Images which are smaller than the kernel can't be processed by the optimized algorithms
+	 */
+	@Test
+	public void median_SmallImage() {
+		for( int[] shape : new int[][]{{1,5},{5,1},{4,4},{5,5}} ) {
+			for( int radius = 1; radius <= 2; radius++ ) {
+				GrayU8 inputU8 = new GrayU8(shape[0],shape[1]);
+				ImageMiscOps.fillUniform(inputU8, rand, 0, 256);
+				GrayU8 expectedU8 = inputU8.createSameShape();
+				ImplMedianSortNaive.process(inputU8, expectedU8, radius, null);
+				BoofTesting.assertEquals(expectedU8, BlurImageOps.median(inputU8, null, radius, null), 0);
+
+				GrayF32 inputF32 = new GrayF32(shape[0],shape[1]);
+				ImageMiscOps.fillUniform(inputF32, rand, 0, 256);
+				GrayF32 expectedF32 = inputF32.createSameShape();
+				ImplMedianSortNaive.process(inputF32, expectedF32, radius, null);
+				BoofTesting.assertEquals(expectedF32, BlurImageOps.median(inputF32, null, radius), 0);
+			}
+		}
+	}
 }
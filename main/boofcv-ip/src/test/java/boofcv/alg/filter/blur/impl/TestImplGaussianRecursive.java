@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplGaussianRecursive {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against FIR Gaussian blur away from the image border, where the two handle borders differently.
+	 * The input has some blur applied to it already, which is typical in scale-space, and prevents the
+	 * difference in shape from being magnified by pixel noise.
+	 */
+	@Test
+	void compareToFIR() {
+		GrayF32 noise = new GrayF32(200,190);
+		ImageMiscOps.fillUniform(noise, rand, 0, 100);
+		GrayF32 input = BlurImageOps.gaussian(noise, null, 1.5, -1, null);
+
+		for( double sigma : new double[]{1.0,2.0,4.0,12.0} ) {
+			GrayF32 expected = BlurImageOps.gaussian(input, null, sigma, -1, null);
+			GrayF32 found = applyRecursive(input, sigma);
+
+			int margin = (int)(5*sigma);
+			double maxError = 0;
+			for (int y = margin; y < input.height-margin; y++) {
+				for (int x = margin; x < input.width-margin; x++) {
+					maxError = Math.max(maxError, Math.abs(expected.get(x,y) - found.get(x,y)));
+				}
+			}
+			// less than 2% of the input's range
+			assertEquals(0, maxError, 2.0, "sigma = "+sigma);
+		}
+	}
+
+	/**
+	 * The response to an impulse should have a unit sum, be centered, and have a peak close to the Gaussian's
+	 */
+	@Test
+	void impulseResponse() {
+		for( double sigma : new double[]{2.0,5.0,15.0} ) {
+			int length = (int)(sigma*30)+1;
+			GrayF32 input = new GrayF32(length,1);
+			input.set(length/2,0,1);
+			GrayF32 found = input.createSameShape();
+			ImplGaussianRecursive.horizontal(input, found, ImplGaussianRecursive.coefficients(sigma));
+
+			double sum = 0, mean = 0;
+			for (int x = 0; x < length; x++) {
+				sum += found.get(x,0);
+				mean += x*found.get(x,0);
+			}
+			double peak = 1.0/(Math.sqrt(2*Math.PI)*sigma);
+			assertEquals(1.0, sum, 1e-4);
+			assertEquals(length/2, mean/sum, 1e-3);
+			assertEquals(peak, found.get(length/2,0), peak*0.06);
+		}
+	}
+
+	/**
+	 * A constant image should not be changed, including at the border
+	 */
+	@Test
+	void constantImage() {
+		GrayF32 image = new GrayF32(30,25);
+		ImageMiscOps.fill(image, 50);
+		GrayF32 found = applyRecursive(image, 6.0);
+		BoofTesting.assertEquals(image, found, 1e-3);
+	}
+
+	/**
+	 * U8 should be the same as F32 after rounding
+	 */
+	@Test
+	void compareU8toF32() {
+		GrayU8 input = new GrayU8(40,35);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+		BoofTesting.checkSubImage(this, "compareU8toF32", true, input, new GrayU8(40,35));
+	}
+
+	public void compareU8toF32( GrayU8 input , GrayU8 found ) {
+		GrayF32 inputF = new GrayF32(input.width,input.height);
+		for (int y = 0; y < input.height; y++) {
+			for (int x = 0; x < input.width; x++) {
+				inputF.set(x,y,input.get(x,y));
+			}
+		}
+		GrayF32 expected = applyRecursive(inputF, 3.0);
+
+		float[] coef = ImplGaussianRecursive.coefficients(3.0);
+		GrayF32 storage = inputF.createSameShape();
+		ImplGaussianRecursive.horizontal(input, storage, coef);
+		ImplGaussianRecursive.vertical(storage, found, coef);
+
+		for (int y = 0; y < input.height; y++) {
+			for (int x = 0; x < input.width; x++) {
+				assertEquals((int)(expected.get(x,y)+0.5f), found.get(x,y));
+			}
+		}
+	}
+
+	@Test
+	void badSigma() {
+		assertThrows(IllegalArgumentException.class, ()->ImplGaussianRecursive.coefficients(0.4));
+	}
+
+	private static GrayF32 applyRecursive( GrayF32 input , double sigma ) {
+		float[] coef = ImplGaussianRecursive.coefficients(sigma);
+		GrayF32 output = input.createSameShape();
+		ImplGaussianRecursive.horizontal(input, output, coef);
+		ImplGaussianRecursive.vertical(output, coef);
+		return output;
+	}
+}
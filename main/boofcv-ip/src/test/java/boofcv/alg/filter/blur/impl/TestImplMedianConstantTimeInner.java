@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianConstantTimeInner {
+	Random rand = new Random(234);
+
+	@Test
+	void compareToSort() {
+		GrayU8 input = new GrayU8(20,30);
+		ImageMiscOps.fillUniform(input,rand, 0, 100);
+
+		BoofTesting.checkSubImage(this, "compareToSort", true, input, input.createSameShape(), input.createSameShape());
+	}
+
+	public void compareToSort(GrayU8 image, GrayU8 found, GrayU8 expected) {
+		for( int radius = 1; radius <= 3; radius++ ) {
+			ImageMiscOps.fill(found,0);
+			ImageMiscOps.fill(expected,0);
+
+			ImplMedianConstantTimeInner.process(image,found,radius,null);
+			ImplMedianSortNaive.process(image,expected,radius,null);
+
+			BoofTesting.assertEqualsInner(expected,found,0,radius,radius,false);
+		}
+	}
+
+	/**
+	 * Large radii exercise the lazy updates of the fine histogram. Results should be identical to Huang's
+	 * algorithm, which is already validated against sorting.
+	 */
+	@Test
+	void compareToHistogram_LargeRadius() {
+		GrayU8 input = new GrayU8(120,90);
+		ImageMiscOps.fillUniform(input,rand, 0, 256);
+
+		for( int radius : new int[]{4,9,20,44} ) {
+			GrayU8 found = input.createSameShape();
+			GrayU8 expected = input.createSameShape();
+
+			ImplMedianConstantTimeInner.process(input,found,radius,null);
+			ImplMedianHistogramInner.process(input,expected,radius,null);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * Image which has a structure to it, causing the median to move gradually and hop between coarse bins
+	 */
+	@Test
+	void compareToHistogram_Gradient() {
+		GrayU8 input = new GrayU8(100,80);
+		for (int y = 0; y < input.height; y++) {
+			for (int x = 0; x < input.width; x++) {
+				input.set(x,y,(x*2+y+rand.nextInt(5))%256);
+			}
+		}
+
+		for( int radius : new int[]{5,15} ) {
+			GrayU8 found = input.createSameShape();
+			GrayU8 expected = input.createSameShape();
+
+			ImplMedianConstantTimeInner.process(input,found,radius,null);
+			ImplMedianHistogramInner.process(input,expected,radius,null);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianSortNetworkInner {
+	Random rand = new Random(234);
+
+	@Test
+	void compareToSort_U8() {
+		GrayU8 input = new GrayU8(20,30);
+		ImageMiscOps.fillUniform(input,rand, 0, 100);
+
+		BoofTesting.checkSubImage(this, "compareToSort_U8", true, input, input.createSameShape(), input.createSameShape());
+	}
+
+	public void compareToSort_U8(GrayU8 image, GrayU8 found, GrayU8 expected) {
+		for( int radius = 1; radius <= 2; radius++ ) {
+			ImageMiscOps.fill(found,0);
+			ImageMiscOps.fill(expected,0);
+
+			ImplMedianSortNetworkInner.process(image,found,radius);
+			ImplMedianSortNaive.process(image,expected,radius,null);
+
+			BoofTesting.assertEqualsInner(expected,found,0,radius,radius,false);
+		}
+	}
+
+	@Test
+	void compareToSort_F32() {
+		GrayF32 input = new GrayF32(20,30);
+		ImageMiscOps.fillUniform(input,rand, -50, 100);
+
+		BoofTesting.checkSubImage(this, "compareToSort_F32", true, input, input.createSameShape(), input.createSameShape());
+	}
+
+	public void compareToSort_F32(GrayF32 image, GrayF32 found, GrayF32 expected) {
+		for( int radius = 1; radius <= 2; radius++ ) {
+			ImageMiscOps.fill(found,0);
+			ImageMiscOps.fill(expected,0);
+
+			ImplMedianSortNetworkInner.process(image,found,radius);
+			ImplMedianSortNaive.process(image,expected,radius,null);
+
+			BoofTesting.assertEqualsInner(expected,found,0,radius,radius,false);
+		}
+	}
+
+	/**
+	 * Few distinct values means lots of ties, which is where a broken network is most likely to show up
+	 */
+	@Test
+	void manyTies() {
+		GrayU8 input = new GrayU8(40,35);
+		ImageMiscOps.fillUniform(input,rand, 0, 3);
+
+		for( int radius = 1; radius <= 2; radius++ ) {
+			GrayU8 found = input.createSameShape();
+			GrayU8 expected = input.createSameShape();
+			ImplMedianSortNetworkInner.process(input,found,radius);
+			ImplMedianSortNaive.process(input,expected,radius,null);
+
+			BoofTesting.assertEqualsInner(expected,found,0,radius,radius,false);
+		}
+	}
+
+	@Test
+	void unsupportedRadius() {
+		GrayU8 input = new GrayU8(20,30);
+		assertThrows(IllegalArgumentException.class,
+				()->ImplMedianSortNetworkInner.process(input,input.createSameShape(),3));
+		GrayF32 inputF = new GrayF32(20,30);
+		assertThrows(IllegalArgumentException.class,
+				()->ImplMedianSortNetworkInner.process(inputF,inputF.createSameShape(),0));
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianSortNetworkInner_MT {
+	Random rand = new Random(234);
+
+	@Test
+	void compareToSingle_U8() {
+		GrayU8 input = new GrayU8(200,210);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+
+		BoofTesting.checkSubImage(this, "compareToSingle_U8", true, input, input.createSameShape(), input.createSameShape());
+	}
+
+	public void compareToSingle_U8( GrayU8 input, GrayU8 found, GrayU8 expected ) {
+		for( int radius = 1; radius <= 2; radius++ ) {
+			ImplMedianSortNetworkInner.process(input,expected,radius);
+			ImplMedianSortNetworkInner_MT.process(input,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	@Test
+	void compareToSingle_F32() {
+		GrayF32 input = new GrayF32(200,210);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+
+		BoofTesting.checkSubImage(this, "compareToSingle_F32", true, input, input.createSameShape(), input.createSameShape());
+	}
+
+	public void compareToSingle_F32( GrayF32 input, GrayF32 found, GrayF32 expected ) {
+		for( int radius = 1; radius <= 2; radius++ ) {
+			ImplMedianSortNetworkInner.process(input,expected,radius);
+			ImplMedianSortNetworkInner_MT.process(input,found,radius);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.filter.convolve.border.ConvolveJustBorder_General_SB;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageFFT {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against direct convolution for different kernels and borders
+	 */
+	@Test
+	void compareToDirect() {
+		GrayF32 input = new GrayF32(45,38);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		for( BorderType type : new BorderType[]{BorderType.EXTENDED,BorderType.REFLECT,BorderType.ZERO,BorderType.WRAP}) {
+			for( int width : new int[]{1,3,8,21} ) {
+				Kernel2D_F32 kernel = new Kernel2D_F32(width);
+				for (int i = 0; i < kernel.data.length; i++) {
+					kernel.data[i] = rand.nextFloat()*2-1;
+				}
+				for( int offset : new int[]{0,width/2,width-1} ) {
+					kernel.offset = offset;
+					GrayF32 expected = direct(kernel, input, border(type));
+					GrayF32 found = input.createSameShape();
+					ConvolveImageFFT.convolve(kernel, input, found, border(type));
+					BoofTesting.assertEquals(expected, found, 1e-2);
+				}
+			}
+		}
+	}
+
+	@Test
+	void subimage() {
+		GrayF32 input = new GrayF32(40,35);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		BoofTesting.checkSubImage(this, "subimage", true, input, new GrayF32(40,35));
+	}
+
+	public void subimage( GrayF32 input, GrayF32 found ) {
+		Kernel2D_F32 kernel = new Kernel2D_F32(9);
+		for (int i = 0; i < kernel.data.length; i++) {
+			kernel.data[i] = rand.nextFloat();
+		}
+		GrayF32 expected = direct(kernel, input, border(BorderType.REFLECT));
+		ConvolveImageFFT.convolve(kernel, input, found, border(BorderType.REFLECT));
+		BoofTesting.assertEquals(expected, found, 1e-2);
+	}
+
+	/**
+	 * The same instance is used on images with different shapes
+	 */
+	@Test
+	void reuseInstance() {
+		ConvolveImageFFT alg = new ConvolveImageFFT();
+		Kernel2D_F32 kernel = new Kernel2D_F32(5);
+		for (int i = 0; i < kernel.data.length; i++) {
+			kernel.data[i] = rand.nextFloat();
+		}
+
+		for( int size : new int[]{30,20,30}) {
+			GrayF32 input = new GrayF32(size,size+3);
+			ImageMiscOps.fillUniform(input, rand, 0, 100);
+			GrayF32 found = input.createSameShape();
+			alg.process(kernel, input, found, border(BorderType.EXTENDED));
+			BoofTesting.assertEquals(direct(kernel, input, border(BorderType.EXTENDED)), found, 1e-2);
+		}
+	}
+
+	@Test
+	void isFaster() {
+		GrayF32 input = new GrayF32(80,70);
+		assertTrue(ConvolveImageFFT.isFaster(new Kernel2D_F32(ConvolveImageFFT.MIN_KERNEL_WIDTH), input));
+		assertFalse(ConvolveImageFFT.isFaster(new Kernel2D_F32(3), input));
+		assertFalse(ConvolveImageFFT.isFaster(new Kernel2D_F32(ConvolveImageFFT.MIN_KERNEL_WIDTH), new GrayF32(20,20)));
+	}
+
+	@Test
+	void fastSize() {
+		assertEquals(1, ConvolveImageFFT.fastSize(1));
+		assertEquals(8, ConvolveImageFFT.fastSize(7));
+		assertEquals(15, ConvolveImageFFT.fastSize(15));
+		assertEquals(32, ConvolveImageFFT.fastSize(31));
+		assertEquals(50, ConvolveImageFFT.fastSize(49));
+	}
+
+	private static ImageBorder_F32 border( BorderType type ) {
+		return (ImageBorder_F32)FactoryImageBorder.single(type, GrayF32.class);
+	}
+
+	private static GrayF32 direct( Kernel2D_F32 kernel, GrayF32 input, ImageBorder_F32 border ) {
+		GrayF32 output = new GrayF32(input.width, input.height);
+		border.setImage(input);
+		ConvolveImageNoBorder.convolve(kernel, input, output);
+		ConvolveJustBorder_General_SB.convolve(kernel, border, output);
+		return output;
+	}
+}
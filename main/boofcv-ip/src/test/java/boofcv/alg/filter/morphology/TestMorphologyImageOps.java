@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.morphology;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestMorphologyImageOps {
+	Random rand = new Random(234);
+
+	// sizes of the structuring element. Includes even, lines, and larger than the image
+	int[][] sizes = new int[][]{{1,1},{2,2},{3,3},{4,1},{1,5},{7,4},{9,11},{40,3},{3,40},{45,45}};
+
+	@AfterEach
+	void after() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
+	@Test
+	void erodeDilate_U8() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			GrayU8 input = new GrayU8(35,30);
+			ImageMiscOps.fillUniform(input, rand, 0, 255);
+
+			for( int[] s : sizes ) {
+				GrayU8 found = MorphologyImageOps.erode(input, s[0], s[1], null, null);
+				BoofTesting.assertEquals(bruteForce(input, s[0], s[1], false), found, 0);
+				found = MorphologyImageOps.dilate(input, s[0], s[1], null, null);
+				BoofTesting.assertEquals(bruteForce(input, s[0], s[1], true), found, 0);
+			}
+		}
+	}
+
+	@Test
+	void erodeDilate_F32() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			GrayF32 input = new GrayF32(35,30);
+			ImageMiscOps.fillUniform(input, rand, -100, 100);
+
+			for( int[] s : sizes ) {
+				GrayF32 found = MorphologyImageOps.erode(input, s[0], s[1], null, null);
+				BoofTesting.assertEquals(bruteForce(input, s[0], s[1], false), found, 0);
+				found = MorphologyImageOps.dilate(input, s[0], s[1], null, null);
+				BoofTesting.assertEquals(bruteForce(input, s[0], s[1], true), found, 0);
+			}
+		}
+	}
+
+	/**
+	 * Sub-images should produce the same results as regular images
+	 */
+	@Test
+	void subimage() {
+		GrayU8 input = new GrayU8(35,30);
+		ImageMiscOps.fillUniform(input, rand, 0, 255);
+		GrayU8 expected = MorphologyImageOps.dilate(input, 6, 5, null, null);
+
+		GrayU8 subInput = BoofTesting.createSubImageOf(input);
+		GrayU8 subOutput = BoofTesting.createSubImageOf(expected.createSameShape());
+		GrayU8 subStorage = BoofTesting.createSubImageOf(expected.createSameShape());
+		MorphologyImageOps.dilate(subInput, 6, 5, subOutput, subStorage);
+		BoofTesting.assertEquals(expected, subOutput, 0);
+	}
+
+	/**
+	 * Check the standard properties of opening and closing. Even sized elements are included to make sure
+	 * the reflected element is used for dilation
+	 */
+	@Test
+	void openClose() {
+		GrayF32 input = new GrayF32(35,30);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		for( int[] s : sizes ) {
+			GrayF32 opened = MorphologyImageOps.open(input, s[0], s[1], null, null);
+			GrayF32 closed = MorphologyImageOps.close(input, s[0], s[1], null, null);
+
+			// anti-extensive and extensive
+			for (int i = 0; i < input.data.length; i++) {
+				assertTrue(opened.data[i] <= input.data[i]);
+				assertTrue(closed.data[i] >= input.data[i]);
+			}
+
+			// idempotent
+			BoofTesting.assertEquals(opened, MorphologyImageOps.open(opened, s[0], s[1], null, null), 0);
+			BoofTesting.assertEquals(closed, MorphologyImageOps.close(closed, s[0], s[1], null, null), 0);
+		}
+	}
+
+	@Test
+	void badSize() {
+		GrayU8 input = new GrayU8(10,12);
+		assertThrows(IllegalArgumentException.class, ()->MorphologyImageOps.erode(input, 0, 2, null, null));
+		assertThrows(IllegalArgumentException.class, ()->MorphologyImageOps.dilate(input, 2, 0, null, null));
+	}
+
+	private static GrayU8 bruteForce( GrayU8 input , int width , int height , boolean dilate ) {
+		GrayU8 output = input.createSameShape();
+		int bx = dilate ? width-1-width/2 : width/2;
+		int by = dilate ? height-1-height/2 : height/2;
+		for (int y = 0; y < input.height; y++) {
+			for (int x = 0; x < input.width; x++) {
+				int best = dilate ? 0 : 255;
+				for (int i = 0; i < height; i++) {
+					for (int j = 0; j < width; j++) {
+						int xx = x-bx+j, yy = y-by+i;
+						if( !input.isInBounds(xx,yy) )
+							continue;
+						best = dilate ? Math.max(best,input.get(xx,yy)) : Math.min(best,input.get(xx,yy));
+					}
+				}
+				output.set(x,y,best);
+			}
+		}
+		return output;
+	}
+
+	private static GrayF32 bruteForce( GrayF32 input , int width , int height , boolean dilate ) {
+		GrayF32 output = input.createSameShape();
+		int bx = dilate ? width-1-width/2 : width/2;
+		int by = dilate ? height-1-height/2 : height/2;
+		for (int y = 0; y < input.height; y++) {
+			for (int x = 0; x < input.width; x++) {
+				float best = dilate ? -Float.MAX_VALUE : Float.MAX_VALUE;
+				for (int i = 0; i < height; i++) {
+					for (int j = 0; j < width; j++) {
+						int xx = x-bx+j, yy = y-by+i;
+						if( !input.isInBounds(xx,yy) )
+							continue;
+						best = dilate ? Math.max(best,input.get(xx,yy)) : Math.min(best,input.get(xx,yy));
+					}
+				}
+				output.set(x,y,best);
+			}
+		}
+		return output;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+
+/**
+ * @author Peter Abeles
+ */
+class TestGeneralPurposeFFT_F32_2D_MT {
+	Random rand = new Random(234);
+
+	// sizes which exercise power of two, mixed radix, Bluestein, and non-square
+	int[][] shapes = new int[][]{{32,32},{16,64},{30,42},{17,9},{223,4},{5,5}};
+
+	@Test
+	void complexForward() {
+		for( int[] s : shapes ) {
+			float[] expected = random(s[0]*s[1]*2);
+			float[] found = expected.clone();
+			new GeneralPurposeFFT_F32_2D(s[0],s[1]).complexForward(expected);
+			createConcurrent(s[0],s[1]).complexForward(found);
+			assertEquals(expected, found, s);
+		}
+	}
+
+	@Test
+	void complexInverse() {
+		for( boolean scale : new boolean[]{true,false}) {
+			for (int[] s : shapes) {
+				float[] expected = random(s[0]*s[1]*2);
+				float[] found = expected.clone();
+				new GeneralPurposeFFT_F32_2D(s[0], s[1]).complexInverse(expected, scale);
+				createConcurrent(s[0], s[1]).complexInverse(found, scale);
+				assertEquals(expected, found, s);
+			}
+		}
+	}
+
+	@Test
+	void realForwardFull() {
+		for( int[] s : shapes ) {
+			float[] expected = new float[s[0]*s[1]*2];
+			float[] real = random(s[0]*s[1]);
+			System.arraycopy(real,0,expected,0,real.length);
+			float[] found = expected.clone();
+			new GeneralPurposeFFT_F32_2D(s[0],s[1]).realForwardFull(expected);
+			createConcurrent(s[0],s[1]).realForwardFull(found);
+			assertEquals(expected, found, s);
+		}
+	}
+
+	@Test
+	void realInverseFull() {
+		for( boolean scale : new boolean[]{true,false}) {
+			for (int[] s : shapes) {
+				float[] expected = new float[s[0]*s[1]*2];
+				float[] real = random(s[0]*s[1]);
+				System.arraycopy(real, 0, expected, 0, real.length);
+				float[] found = expected.clone();
+				new GeneralPurposeFFT_F32_2D(s[0], s[1]).realInverseFull(expected, scale);
+				createConcurrent(s[0], s[1]).realInverseFull(found, scale);
+				assertEquals(expected, found, s);
+			}
+		}
+	}
+
+	/**
+	 * The same instance should produce the same results when called multiple times
+	 */
+	@Test
+	void multipleCalls() {
+		GeneralPurposeFFT_F32_2D_MT alg = createConcurrent(30,42);
+		float[] original = random(30*42*2);
+		float[] expected = original.clone();
+		alg.complexForward(expected);
+		for (int i = 0; i < 3; i++) {
+			float[] found = original.clone();
+			alg.complexForward(found);
+			assertEquals(expected, found, new int[]{30,42});
+		}
+	}
+
+	/**
+	 * Creates the concurrent transform and forces it to use threads on small images
+	 */
+	private static GeneralPurposeFFT_F32_2D_MT createConcurrent( int rows, int columns ) {
+		GeneralPurposeFFT_F32_2D_MT alg = new GeneralPurposeFFT_F32_2D_MT(rows, columns);
+		alg.setMinConcurrentPixels(0);
+		return alg;
+	}
+
+	private float[] random( int length ) {
+		float[] a = new float[length];
+		for (int i = 0; i < length; i++) {
+			a[i] = rand.nextFloat()*2-1;
+		}
+		return a;
+	}
+
+	private static void assertEquals( float[] expected, float[] found, int[] shape ) {
+		// the magnitude of the output grows with the number of elements
+		double tol = 1e-5*shape[0]*shape[1];
+		for (int i = 0; i < expected.length; i++) {
+			org.junit.jupiter.api.Assertions.assertEquals(expected[i], found[i], tol, shape[0]+"x"+shape[1]+" i="+i);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,7 +20,9 @@ package boofcv.alg.transform.pyramid;
 
 import boofcv.abst.distort.FDistort;
 import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.alg.filter.blur.BlurImageOps;
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.GImageMiscOps;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.misc.BoofMiscOps;
@@ -32,6 +34,7 @@ import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 /**
@@ -86,6 +89,27 @@ public class TestPyramidFloatGaussianScale extends GenericPyramidTests<GrayF32>
 		BoofTesting.assertEquals(expected,found, 1e-4);
 	}
 
+	/**
+	 * When enabled, the recursive Gaussian should be used to blur each layer
+	 */
+	@Test
+	public void recursiveBlur() {
+		GrayF32 img = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(img,rand,0,100);
+
+		InterpolatePixelS<GrayF32> interp = FactoryInterpolation.bilinearPixelS(img, BorderType.EXTENDED);
+		PyramidFloatGaussianScale<GrayF32> alg = new PyramidFloatGaussianScale<>(interp,scales,sigmas,imageType);
+		alg.setRecursiveBlur(true);
+		assertTrue(((PyramidFloatGaussianScale)alg.copyStructure()).isRecursiveBlur());
+		alg.process(img);
+
+		GrayF32 blurrImg = BlurImageOps.gaussianRecursive(img, null, sigmas[0]);
+		GrayF32 expected = new GrayF32((int)Math.ceil(width/3.0),(int)Math.ceil(height/3.0));
+		new FDistort(blurrImg,expected).scaleExt().apply();
+
+		BoofTesting.assertEquals(expected,alg.getLayer(0),1e-4);
+	}
+
 	@Override
 	protected ImagePyramid<GrayF32> createPyramid(int... scales) {
 		double a[] = BoofMiscOps.convertTo_F64(scales);
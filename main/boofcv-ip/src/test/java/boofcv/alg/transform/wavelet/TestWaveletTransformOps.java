@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,6 +19,7 @@
 package boofcv.alg.transform.wavelet;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.factory.transform.wavelet.FactoryWaveletDaub;
 import boofcv.struct.border.BorderType;
@@ -28,6 +29,7 @@ import boofcv.struct.image.ImageDimension;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.wavelet.WaveletDescription;
 import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Random;
@@ -118,10 +120,18 @@ public class TestWaveletTransformOps {
 	}
 
 
+	@AfterEach
+	void after() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
 	@Test
 	public void multipleLevel() {
-		for( Class<?> t : types ) {
-			testMultipleLevels(t);
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			for( Class<?> t : types ) {
+				testMultipleLevels(t);
+			}
 		}
 	}
 
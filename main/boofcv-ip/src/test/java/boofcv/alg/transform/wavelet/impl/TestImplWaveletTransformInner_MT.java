@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.wavelet.impl;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.transform.wavelet.FactoryWaveletDaub;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.wavelet.WaveletDescription;
+import boofcv.struct.wavelet.WlCoef_F32;
+import boofcv.testing.CompareIdenticalFunctions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+class TestImplWaveletTransformInner_MT extends CompareIdenticalFunctions {
+	Random rand = new Random(234);
+
+	TestImplWaveletTransformInner_MT() {
+		super(ImplWaveletTransformInner_MT.class, ImplWaveletTransformInner.class);
+	}
+
+	@Test
+	void performTests() {
+		performTests(8);
+	}
+
+	@Override
+	protected Object[][] createInputParam(Method candidate, Method validation) {
+		Class[] types = candidate.getParameterTypes();
+		WaveletDescription<?> desc = createDescription(types[0]);
+		boolean inverse = candidate.getName().endsWith("Inverse");
+		Object coef = inverse ? desc.getInverse().getInnerCoefficients() : desc.getForward();
+
+		// even and odd shaped images
+		return new Object[][]{
+				createImages(coef, types, 40, 36, 40, 36),
+				inverse ? createImages(coef, types, 42, 36, 41, 35) : createImages(coef, types, 41, 35, 42, 36)};
+	}
+
+	private Object[] createImages( Object coef , Class[] types , int inW , int inH , int outW , int outH ) {
+		ImageGray input = GeneralizedImageOps.createSingleBand(types[1], inW, inH);
+		ImageGray output = GeneralizedImageOps.createSingleBand(types[2], outW, outH);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+		GImageMiscOps.fillUniform(output, rand, 0, 100);
+		return new Object[]{coef, input, output};
+	}
+
+	/**
+	 * Selects the same wavelets as are used for image denoising
+	 */
+	static WaveletDescription<?> createDescription( Class coefType ) {
+		if( coefType == WlCoef_F32.class )
+			return FactoryWaveletDaub.daubJ_F32(4);
+		else
+			return FactoryWaveletDaub.biorthogonal_I32(5, BorderType.REFLECT);
+	}
+}
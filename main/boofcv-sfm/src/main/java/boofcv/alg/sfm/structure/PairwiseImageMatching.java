@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -50,7 +50,7 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 	implements Stoppable
 {
 	// Used to pre-maturely stop the scene estimation process
-	private volatile boolean stopRequested = false;
+	protected volatile boolean stopRequested = false;
 
 	protected double MIN_ASSOCIATE_FRACTION = 0.05;
 	protected int MIN_FEATURE_ASSOCIATED = 30;
@@ -215,8 +215,27 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 	protected boolean connectViews(PairwiseImageGraph.View viewA , PairwiseImageGraph.View viewB ,
 								   FastQueue<AssociatedIndex> matches) {
 
-		// Estimate fundamental/essential with RANSAC
 		PairwiseImageGraph.Motion edge = new PairwiseImageGraph.Motion();
+		if( !fitMotion(viewA, viewB, matches, ransacEssential, ransacFundamental, pairs, edge) )
+			return false;
+
+		addEdge(viewA, viewB, edge);
+		return true;
+	}
+
+	/**
+	 * Estimates the motion between the two views using fundamental/essential with RANSAC and decides if
+	 * they should be connected. The edge is not added to the graph.
+	 *
+	 * @param edge (Output) Storage for the found motion
+	 * @return true if the views should be connected by the edge
+	 */
+	protected boolean fitMotion(PairwiseImageGraph.View viewA , PairwiseImageGraph.View viewB ,
+								FastQueue<AssociatedIndex> matches ,
+								ModelMatcherMultiview<DMatrixRMaj,AssociatedPair> ransacEssential ,
+								ModelMatcher<DMatrixRMaj,AssociatedPair> ransacFundamental ,
+								FastQueue<AssociatedPair> pairs ,
+								PairwiseImageGraph.Motion edge ) {
 		int inliersEpipolar;
 
 		CameraPinhole pinhole0 = viewA.camera.pinhole;
@@ -227,7 +246,8 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 			ransacEssential.setIntrinsic(0,pinhole0);
 			ransacEssential.setIntrinsic(1,pinhole1);
 
-			if( !fitEpipolar(matches, viewA.observationNorm.toList(), viewB.observationNorm.toList(),ransacEssential,edge) ) {
+			if( !fitEpipolar(matches, viewA.observationNorm.toList(), viewB.observationNorm.toList(),
+					ransacEssential,pairs,edge) ) {
 				if( verbose != null && verboseLevel >= 1 ) {
 					verbose.println(" fit essential failed");
 				}
@@ -238,7 +258,7 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 			edge.F.set(ransacEssential.getModelParameters());
 		} else if( fitEpipolar(matches,
 					viewA.observationPixels.toList(), viewB.observationPixels.toList(),
-					ransacFundamental,edge) ) {
+					ransacFundamental,pairs,edge) ) {
 			// transform is only known up to a projective transform
 			edge.metric = false;
 			inliersEpipolar = ransacFundamental.getMatchSet().size();
@@ -262,9 +282,14 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 		double fractionA = inliersEpipolar/(double)viewA.descriptions.size;
 		double fractionB = inliersEpipolar/(double)viewB.descriptions.size;
 
-		if( fractionA < MIN_ASSOCIATE_FRACTION | fractionB < MIN_ASSOCIATE_FRACTION )
-			return false;
+		return !(fractionA < MIN_ASSOCIATE_FRACTION | fractionB < MIN_ASSOCIATE_FRACTION);
+	}
 
+	/**
+	 * Adds the edge to the graph and connects the two views with it
+	 */
+	protected void addEdge(PairwiseImageGraph.View viewA , PairwiseImageGraph.View viewB ,
+						   PairwiseImageGraph.Motion edge ) {
 		// If the geometry is good for triangulation this number will be lower
 		edge.viewSrc = viewA;
 		edge.viewDst = viewB;
@@ -272,8 +297,6 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 		viewA.connections.add(edge);
 		viewB.connections.add(edge);
 		graph.edges.add(edge);
-
-		return true;
 	}
 
 	/**
@@ -290,6 +313,19 @@ public class PairwiseImageMatching<T extends ImageBase<T>>
 						List<Point2D_F64> pointsA , List<Point2D_F64> pointsB ,
 						ModelMatcher<?,AssociatedPair> ransac ,
 						PairwiseImageGraph.Motion edge )
+	{
+		return fitEpipolar(matches, pointsA, pointsB, ransac, pairs, edge);
+	}
+
+	/**
+	 * Same as {@link #fitEpipolar(FastQueue, List, List, ModelMatcher, PairwiseImageGraph.Motion)} but with
+	 * the storage for feature pairs specified.
+	 */
+	boolean fitEpipolar(FastQueue<AssociatedIndex> matches ,
+						List<Point2D_F64> pointsA , List<Point2D_F64> pointsB ,
+						ModelMatcher<?,AssociatedPair> ransac ,
+						FastQueue<AssociatedPair> pairs ,
+						PairwiseImageGraph.Motion edge )
 	{
 		pairs.resize(matches.size);
 		for (int i = 0; i < matches.size; i++) {
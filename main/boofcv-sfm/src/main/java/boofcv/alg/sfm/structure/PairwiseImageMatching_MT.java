@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.structure;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.geo.ConfigRansac;
+import boofcv.factory.geo.FactoryMultiViewRobust;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.geo.AssociatedPair;
+import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Random;
+
+/**
+ * Concurrent implementation of {@link PairwiseImageMatching}. Association is done sequentially, since
+ * {@link AssociateDescription} isn't thread safe. Then the motion between a view and all the views after it
+ * is estimated in parallel. Edges are added to the graph in the same order as the single threaded version.
+ *
+ * Each candidate edge is given its own random seed and robust estimators, which makes the results independent
+ * of the number of threads. The results will differ from the single threaded version, where the state of the
+ * random number generator depends on all the previous edges.
+ *
+ * @author Peter Abeles
+ */
+public class PairwiseImageMatching_MT<T extends ImageBase<T>> extends PairwiseImageMatching<T> {
+
+	// Random seed for each edge is drawn from this
+	protected Random rand = new Random();
+
+	// Candidate edges for the current view
+	protected FastQueue<Candidate> candidates = new FastQueue<>(Candidate.class,true);
+
+	public PairwiseImageMatching_MT( DetectDescribePoint<T, TupleDesc> detDesc,
+									 AssociateDescription<TupleDesc> associate ) {
+		super(detDesc, associate);
+	}
+
+	protected PairwiseImageMatching_MT() {
+	}
+
+	@Override
+	public boolean process() {
+		if( graph.nodes.size() < 2 )
+			return false;
+		stopRequested = false;
+
+		declareModelFitting();
+		rand.setSeed(configRansac.randSeed);
+
+		for (int i = 0; i < graph.nodes.size(); i++) {
+			if( verbose != null )
+				verbose.print("Matching node "+i+" -> ");
+
+			// Find associations for all possible edges
+			candidates.reset();
+			associate.setSource(graph.nodes.get(i).descriptions);
+			for (int j = i+1; j < graph.nodes.size(); j++) {
+				associate.setDestination(graph.nodes.get(j).descriptions);
+				associate.associate();
+				if( associate.getMatches().size < MIN_FEATURE_ASSOCIATED )
+					continue;
+
+				Candidate c = candidates.grow();
+				c.viewB = graph.nodes.get(j);
+				c.randSeed = rand.nextLong();
+				c.matches.reset();
+				FastQueue<AssociatedIndex> matches = associate.getMatches();
+				for (int k = 0; k < matches.size; k++) {
+					c.matches.grow().set(matches.get(k));
+				}
+			}
+
+			if( stopRequested )
+				return false;
+
+			// Estimate the motion for each candidate in parallel
+			PairwiseImageGraph.View viewA = graph.nodes.get(i);
+			BoofConcurrency.loopFor(0, candidates.size, idx -> {
+				Candidate c = candidates.get(idx);
+				ConfigRansac config = new ConfigRansac();
+				config.setTo(configRansac);
+				config.randSeed = c.randSeed;
+				// threads are already being used to process edges in parallel
+				config.numThreads = 1;
+
+				c.edge = new PairwiseImageGraph.Motion();
+				c.connected = fitMotion(viewA, c.viewB, c.matches,
+						FactoryMultiViewRobust.essentialRansac(configEssential, config),
+						FactoryMultiViewRobust.fundamentalRansac(configFundamental, config),
+						c.pairs, c.edge);
+			});
+
+			// Add the edges in the same order as the single threaded version
+			for (int idx = 0; idx < candidates.size; idx++) {
+				Candidate c = candidates.get(idx);
+				if( c.connected )
+					addEdge(viewA, c.viewB, c.edge);
+				if( verbose != null )
+					verbose.print(c.connected ? "+" : "-");
+				c.edge = null;
+			}
+
+			if( stopRequested )
+				return false;
+			if( verbose != null ) {
+				verbose.println();
+			}
+		}
+		return graph.edges.size() >= 1;
+	}
+
+	/**
+	 * Pair of views which might be connected by an edge
+	 */
+	public static class Candidate {
+		PairwiseImageGraph.View viewB;
+		long randSeed;
+		FastQueue<AssociatedIndex> matches = new FastQueue<>(AssociatedIndex.class,true);
+		FastQueue<AssociatedPair> pairs = new FastQueue<>(AssociatedPair.class,true);
+
+		PairwiseImageGraph.Motion edge;
+		boolean connected;
+	}
+}
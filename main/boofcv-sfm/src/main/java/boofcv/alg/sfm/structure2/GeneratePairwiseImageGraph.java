@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -68,21 +68,38 @@ public class GeneratePairwiseImageGraph {
 	 * Configures and declares concensum matching algorithms
 	 */
 	public GeneratePairwiseImageGraph() {
+		long randSeed = new ConfigRansac().randSeed;
+		ransac3D = createRansac3D(randSeed);
+		ransacH = createRansacH(randSeed);
+	}
+
+	/**
+	 * Creates the robust estimator for 3D geometry
+	 */
+	protected ModelMatcher<DMatrixRMaj, AssociatedPair> createRansac3D( long randSeed ) {
 		ConfigRansac configRansacF = new ConfigRansac();
+		configRansacF.randSeed = randSeed;
 		configRansacF.maxIterations = 500;
 		configRansacF.inlierThreshold = 1;
 
+		ConfigFundamental configF = new ConfigFundamental();
+		configF.errorModel = ConfigFundamental.ErrorModel.GEOMETRIC;
+		configF.numResolve = 1;
+
+		return FactoryMultiViewRobust.fundamentalRansac(configF,configRansacF);
+	}
+
+	/**
+	 * Creates the robust estimator for homographies
+	 */
+	protected ModelMatcher<Homography2D_F64,AssociatedPair> createRansacH( long randSeed ) {
 		// F computes epipolar error, which isn't as strict as reprojection error for H, so give H a larger error tol
 		ConfigRansac configRansacH = new ConfigRansac();
+		configRansacH.randSeed = randSeed;
 		configRansacH.maxIterations = 500;
 		configRansacH.inlierThreshold = 2.0;
 
-		ConfigFundamental configF = new ConfigFundamental();
-		configF.errorModel = ConfigFundamental.ErrorModel.GEOMETRIC;
-		configF.numResolve = 1;
-
-		ransac3D = FactoryMultiViewRobust.fundamentalRansac(configF,configRansacF);
-		ransacH = FactoryMultiViewRobust.homographyRansac(null,configRansacH);
+		return FactoryMultiViewRobust.homographyRansac(null,configRansacH);
 	}
 
 	/**
@@ -154,6 +171,29 @@ public class GeneratePairwiseImageGraph {
 	 */
 	protected void createEdge( String src , String dst ,
 							   FastQueue<AssociatedPair> pairs , FastQueue<AssociatedIndex> matches ) {
+		PairwiseImageGraph2.Motion edge = graph.edges.grow();
+		if( !fitEdge(ransac3D, ransacH, pairs, matches, edge) ) {
+			graph.edges.removeTail();
+			return;
+		}
+		connectEdge(src, dst, edge);
+	}
+
+	/**
+	 * Fits 3D and homography models to the associated features and decides if the edge should be created. Only the
+	 * geometric information in the edge is filled in.
+	 *
+	 * @param ransac3D Robust estimator for 3D geometry
+	 * @param ransacH Robust estimator for a homography
+	 * @param pairs Associated features pixels
+	 * @param matches Associated features feature indexes
+	 * @param edge (Output) Storage for the found motion
+	 * @return true if there are enough inliers for an edge
+	 */
+	protected boolean fitEdge( ModelMatcher<DMatrixRMaj, AssociatedPair> ransac3D ,
+							   ModelMatcher<Homography2D_F64,AssociatedPair> ransacH ,
+							   FastQueue<AssociatedPair> pairs , FastQueue<AssociatedIndex> matches ,
+							   PairwiseImageGraph2.Motion edge ) {
 		// Fitting Essential/Fundamental works when the scene is not planar and not pure rotation
 		int countF = 0;
 		if( ransac3D.process(pairs.toList()) ) {
@@ -168,21 +208,15 @@ public class GeneratePairwiseImageGraph {
 
 		// fail if not enough features are remaining after RANSAC
 		if( Math.max(countF,countH) < minimumInliers )
-			return;
+			return false;
 
 		// The idea here is that if the number features for F is greater than H then it's a 3D scene.
 		// If they are similar then it might be a plane
 		boolean is3D = countF > countH*ratio3D;
 
-		PairwiseImageGraph2.Motion edge = graph.edges.grow();
 		edge.is3D = is3D;
 		edge.countF = countF;
 		edge.countH = countH;
-		edge.index = graph.edges.size-1;
-		edge.src = graph.lookupNode(src);
-		edge.dst = graph.lookupNode(dst);
-		edge.src.connections.add(edge);
-		edge.dst.connections.add(edge);
 
 		if( is3D ) {
 			saveInlierMatches(ransac3D, matches,edge);
@@ -192,6 +226,18 @@ public class GeneratePairwiseImageGraph {
 			Homography2D_F64 H = ransacH.getModelParameters();
 			ConvertDMatrixStruct.convert(H,edge.F);
 		}
+		return true;
+	}
+
+	/**
+	 * Connects the two views using the edge, which must be the last edge in the graph
+	 */
+	protected void connectEdge( String src , String dst , PairwiseImageGraph2.Motion edge ) {
+		edge.index = graph.edges.size-1;
+		edge.src = graph.lookupNode(src);
+		edge.dst = graph.lookupNode(dst);
+		edge.src.connections.add(edge);
+		edge.dst.connections.add(edge);
 	}
 
 	/**
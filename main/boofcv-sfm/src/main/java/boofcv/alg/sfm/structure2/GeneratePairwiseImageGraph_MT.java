@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.structure2;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.geo.ConfigRansac;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Concurrent implementation of {@link GeneratePairwiseImageGraph}. Features and associations are looked up
+ * sequentially since {@link LookupSimilarImages} isn't required to be thread safe. The robust model fitting for each
+ * candidate edge is then done in parallel, in batches. Edges are added to the graph in the same order as the
+ * single threaded version.
+ *
+ * Each candidate edge is given its own random seed and robust estimators, which makes the results independent
+ * of the number of threads. The results will differ from the single threaded version, where the state of the
+ * random number generator depends on all the previous edges.
+ *
+ * @author Peter Abeles
+ */
+public class GeneratePairwiseImageGraph_MT extends GeneratePairwiseImageGraph {
+
+	/**
+	 * Maximum number of candidate edges which are processed in parallel at once. Larger batches use more memory.
+	 */
+	public int batchSize = 200;
+
+	// Random seed for each edge is drawn from this
+	protected Random rand = new Random(new ConfigRansac().randSeed);
+
+	// Candidate edges in the current batch
+	protected FastQueue<Candidate> candidates = new FastQueue<>(Candidate.class,true);
+
+	@Override
+	public void process( LookupSimilarImages db ) {
+		List<String> imageIds = db.getImageIDs();
+		this.graph.reset();
+		this.rand.setSeed(new ConfigRansac().randSeed);
+
+		List<String> similar = new ArrayList<>();
+		FastQueue<Point2D_F64> srcFeats = new FastQueue<>(Point2D_F64.class,true);
+		FastQueue<Point2D_F64> dstFeats = new FastQueue<>(Point2D_F64.class,true);
+
+		// map to quickly look up the ID of a view
+		Map<String,Integer> imageToindex = new HashMap<>();
+
+		// Create a node in the graph for each image
+		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
+			imageToindex.put(imageIds.get(idxTgt),idxTgt);
+			graph.createNode(imageIds.get(idxTgt));
+		}
+
+		candidates.reset();
+		for (int idxTgt = 0; idxTgt < imageIds.size(); idxTgt++) {
+			String src = imageIds.get(idxTgt);
+
+			db.findSimilar(src,similar);
+			db.lookupPixelFeats(src,srcFeats);
+
+			graph.nodes.get(idxTgt).totalFeatures = srcFeats.size;
+
+			for (int idxSimilar = 0; idxSimilar < similar.size(); idxSimilar++) {
+				String dst = similar.get(idxSimilar);
+
+				// make sure it isn't considering the same motion twice
+				int dstIdx = imageToindex.get(dst);
+				if( dstIdx <= idxTgt )
+					continue;
+
+				// copy the features and associations so that they can be processed later on
+				Candidate c = candidates.grow();
+				c.src = src;
+				c.dst = dst;
+				c.randSeed = rand.nextLong();
+				db.lookupPixelFeats(dst,dstFeats);
+				db.lookupMatches(src,dst,c.matches);
+
+				c.pairs.reset();
+				for (int i = 0; i < c.matches.size; i++) {
+					AssociatedIndex m = c.matches.get(i);
+					c.pairs.grow().set(srcFeats.get(m.src),dstFeats.get(m.dst));
+				}
+
+				if( candidates.size >= batchSize )
+					processBatch();
+			}
+		}
+		processBatch();
+	}
+
+	/**
+	 * Fits models to all the candidates in parallel then adds the accepted edges to the graph in order
+	 */
+	protected void processBatch() {
+		BoofConcurrency.loopFor(0, candidates.size, idx -> {
+			Candidate c = candidates.get(idx);
+			c.edge.inliers.reset();
+			c.accepted = fitEdge(createRansac3D(c.randSeed), createRansacH(c.randSeed), c.pairs, c.matches, c.edge);
+		});
+
+		for (int i = 0; i < candidates.size; i++) {
+			Candidate c = candidates.get(i);
+			if( !c.accepted )
+				continue;
+
+			PairwiseImageGraph2.Motion edge = graph.edges.grow();
+			edge.is3D = c.edge.is3D;
+			edge.countF = c.edge.countF;
+			edge.countH = c.edge.countH;
+			edge.F.set(c.edge.F);
+			edge.inliers.reset();
+			for (int j = 0; j < c.edge.inliers.size; j++) {
+				edge.inliers.grow().set(c.edge.inliers.get(j));
+			}
+			connectEdge(c.src, c.dst, edge);
+		}
+		candidates.reset();
+	}
+
+	/**
+	 * Pair of views which might be connected by an edge
+	 */
+	public static class Candidate {
+		public String src, dst;
+		public long randSeed;
+		public FastQueue<AssociatedIndex> matches = new FastQueue<>(AssociatedIndex.class,true);
+		public FastQueue<AssociatedPair> pairs = new FastQueue<>(AssociatedPair.class,true);
+
+		// storage for the found motion. Not part of the graph
+		public PairwiseImageGraph2.Motion edge = new PairwiseImageGraph2.Motion();
+		public boolean accepted;
+	}
+}
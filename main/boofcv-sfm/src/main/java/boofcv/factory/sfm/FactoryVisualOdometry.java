@@ -390,7 +390,7 @@ public class FactoryVisualOdometry {
 		// TODO need a better way to keep track of what error is squared and not
 		AssociateDescription2D<Desc> assocSame;
 		if( maxDistanceF2F > 0 ) {
-			AssociateMaxDistanceNaive<Desc> a = new AssociateMaxDistanceNaive<>(scorer, true, maxAssociationError);
+			AssociateMaxDistanceNaive<Desc> a = FactoryAssociation.maxDistanceNaive(scorer, true, maxAssociationError);
 			a.setSquaredDistance(true);
 			a.setMaxDistance(maxDistanceF2F);
 			assocSame = a;
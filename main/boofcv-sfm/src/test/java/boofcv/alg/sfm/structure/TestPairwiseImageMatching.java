@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -79,7 +79,7 @@ public class TestPairwiseImageMatching extends GenericSceneStructureChecks {
 		}
 	}
 
-	private PairwiseImageGraph computeGraphScenario0(MockDetector detector, PairwiseImageMatching alg) {
+	PairwiseImageGraph computeGraphScenario0(MockDetector detector, PairwiseImageMatching alg) {
 		String cameraName = "camera";
 
 		Point2Transform2_F64 p2n = new LensDistortionBrown(intrinsic).undistort_F64(true,false);
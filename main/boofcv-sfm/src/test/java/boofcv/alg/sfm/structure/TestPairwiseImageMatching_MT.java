@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.structure;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs all the tests for the single threaded version against the concurrent version
+ *
+ * @author Peter Abeles
+ */
+public class TestPairwiseImageMatching_MT extends TestPairwiseImageMatching {
+
+	int originalThreads = BoofConcurrency.getMaxThreads();
+
+	@AfterEach
+	void restoreThreads() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * The found graph should be identical no matter how many threads are used
+	 */
+	@Test
+	void independentOfThreads() {
+		MockDetector detector = new MockDetector();
+
+		BoofConcurrency.setMaxThreads(2);
+		PairwiseImageMatching expectedAlg = create(detector);
+		expectedAlg.getConfigRansac().maxIterations = 100;
+		PairwiseImageGraph expected = computeGraphScenario0(detector, expectedAlg);
+
+		BoofConcurrency.setMaxThreads(5);
+		PairwiseImageMatching alg = create(detector);
+		alg.getConfigRansac().maxIterations = 100;
+		PairwiseImageGraph found = computeGraphScenario0(detector, alg);
+
+		assertEquals(expected.edges.size(), found.edges.size());
+		for (int i = 0; i < expected.edges.size(); i++) {
+			PairwiseImageGraph.Motion a = expected.edges.get(i);
+			PairwiseImageGraph.Motion b = found.edges.get(i);
+
+			assertEquals(a.index, b.index);
+			assertEquals(a.viewSrc.index, b.viewSrc.index);
+			assertEquals(a.viewDst.index, b.viewDst.index);
+			assertEquals(a.associated.size(), b.associated.size());
+			for (int j = 0; j < a.associated.size(); j++) {
+				AssociatedIndex ia = a.associated.get(j);
+				AssociatedIndex ib = b.associated.get(j);
+				assertEquals(ia.src, ib.src);
+				assertEquals(ia.dst, ib.dst);
+			}
+			for (int j = 0; j < 9; j++) {
+				assertEquals(a.F.data[j], b.F.data[j], 0.0);
+			}
+		}
+	}
+
+	@Override
+	public PairwiseImageMatching create( MockDetector detector ) {
+		ScoreAssociation scorer = FactoryAssociation.defaultScore(detector.getDescriptionType());
+		AssociateDescription<TupleDesc> associate =
+				FactoryAssociation.greedy(scorer, 0.5, true);
+		return new PairwiseImageMatching_MT(detector,associate);
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.structure2;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.AssociatedIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestGeneratePairwiseImageGraph_MT {
+
+	int originalThreads = BoofConcurrency.getMaxThreads();
+
+	@AfterEach
+	void restoreThreads() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Should produce the same graph structure as the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		MockLookupSimilarImages db = new MockLookupSimilarImages(5,123123);
+
+		GeneratePairwiseImageGraph expected = new GeneratePairwiseImageGraph();
+		expected.process(db);
+
+		GeneratePairwiseImageGraph_MT alg = new GeneratePairwiseImageGraph_MT();
+		alg.process(db);
+
+		PairwiseImageGraph2 a = expected.getGraph();
+		PairwiseImageGraph2 b = alg.getGraph();
+
+		assertEquals(a.nodes.size, b.nodes.size);
+		for (int i = 0; i < a.nodes.size; i++) {
+			assertEquals(a.nodes.get(i).id, b.nodes.get(i).id);
+			assertEquals(a.nodes.get(i).totalFeatures, b.nodes.get(i).totalFeatures);
+			assertEquals(a.nodes.get(i).connections.size, b.nodes.get(i).connections.size);
+		}
+		assertTrue(a.edges.size > 0);
+		assertEquals(a.edges.size, b.edges.size);
+		for (int i = 0; i < a.edges.size; i++) {
+			PairwiseImageGraph2.Motion ea = a.edges.get(i);
+			PairwiseImageGraph2.Motion eb = b.edges.get(i);
+			assertEquals(i, eb.index);
+			assertEquals(ea.src.id, eb.src.id);
+			assertEquals(ea.dst.id, eb.dst.id);
+			assertEquals(ea.is3D, eb.is3D);
+			assertSame(eb, b.lookupNode(eb.src.id).findMotion(eb.dst));
+		}
+	}
+
+	/**
+	 * The graph should be identical no matter how many threads are used or the size of the batches
+	 */
+	@Test
+	void independentOfThreadsAndBatch() {
+		MockLookupSimilarImages db = new MockLookupSimilarImages(5,123123);
+
+		BoofConcurrency.setMaxThreads(2);
+		GeneratePairwiseImageGraph_MT expected = new GeneratePairwiseImageGraph_MT();
+		expected.process(db);
+
+		BoofConcurrency.setMaxThreads(5);
+		GeneratePairwiseImageGraph_MT alg = new GeneratePairwiseImageGraph_MT();
+		alg.batchSize = 3;
+		// process twice to make sure the results don't depend on the previous call
+		alg.process(db);
+		alg.process(db);
+
+		PairwiseImageGraph2 a = expected.getGraph();
+		PairwiseImageGraph2 b = alg.getGraph();
+
+		assertEquals(a.edges.size, b.edges.size);
+		for (int i = 0; i < a.edges.size; i++) {
+			PairwiseImageGraph2.Motion ea = a.edges.get(i);
+			PairwiseImageGraph2.Motion eb = b.edges.get(i);
+			assertEquals(ea.src.id, eb.src.id);
+			assertEquals(ea.dst.id, eb.dst.id);
+			assertEquals(ea.is3D, eb.is3D);
+			assertEquals(ea.countF, eb.countF);
+			assertEquals(ea.countH, eb.countH);
+			assertEquals(ea.inliers.size, eb.inliers.size);
+			for (int j = 0; j < ea.inliers.size; j++) {
+				AssociatedIndex ia = ea.inliers.get(j);
+				AssociatedIndex ib = eb.inliers.get(j);
+				assertEquals(ia.src, ib.src);
+				assertEquals(ia.dst, ib.dst);
+			}
+			for (int j = 0; j < 9; j++) {
+				assertEquals(ea.F.data[j], eb.F.data[j], 0.0);
+			}
+		}
+	}
+}
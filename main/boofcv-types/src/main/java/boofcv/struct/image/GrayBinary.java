@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import java.io.Serializable;
+
+/**
+ * <p>
+ * Binary image where each pixel is stored as a single bit. Pixels in a row are packed into 64-bit words, with
+ * pixel 'x' stored in bit (x % 64) of word (x / 64). Each row starts at a new word, so a row uses
+ * {@link #stride} words. Compared to a {@link GrayU8} which stores one pixel per byte, this requires 1/8 the
+ * memory and allows binary operations to process 64 pixels at once.
+ * </p>
+ *
+ * <p>
+ * Bits in the last word of a row which are beyond the image's width must always be zero. Operations which
+ * write to a GrayBinary maintain this invariant and ones which read from it can assume it holds. Sub-images
+ * are not supported.
+ * </p>
+ *
+ * @see boofcv.alg.filter.binary.BinaryPackedOps
+ *
+ * @author Peter Abeles
+ */
+public class GrayBinary implements Serializable, Cloneable {
+	// serialization version
+	public static final long serialVersionUID = 1L;
+
+	/** Number of bits in each word */
+	public static final int BITS = 64;
+
+	/** Pixel data. Row 'y' starts at word y*stride */
+	public long[] data = new long[0];
+
+	/** Number of columns in the image */
+	public int width;
+	/** Number of rows in the image */
+	public int height;
+	/** Number of words in each row */
+	public int stride;
+
+	/**
+	 * Creates a new image with all pixels set to zero
+	 *
+	 * @param width number of columns in the image.
+	 * @param height number of rows in the image.
+	 */
+	public GrayBinary( int width , int height ) {
+		reshape(width,height);
+	}
+
+	public GrayBinary() {
+	}
+
+	/**
+	 * Changes the shape of the image. If the shape is unchanged then nothing is modified, otherwise all pixels
+	 * are set to zero. The data array is only declared again if it is too small.
+	 */
+	public void reshape( int width , int height ) {
+		if( width < 0 || height < 0 )
+			throw new IllegalArgumentException("Width and height must be positive");
+		if( this.width == width && this.height == height )
+			return;
+		this.width = width;
+		this.height = height;
+		this.stride = (width + BITS - 1)/BITS;
+
+		int length = stride*height;
+		if( data.length < length ) {
+			data = new long[length];
+		} else {
+			// the old pixels would be scrambled and bits outside the image must be zero
+			for (int i = 0; i < length; i++) {
+				data[i] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Returns the value of the specified pixel, 0 or 1
+	 */
+	public int get( int x , int y ) {
+		if( !isInBounds(x,y) )
+			throw new ImageAccessException("Requested pixel is out of bounds: "+x+" "+y);
+		return unsafe_get(x,y);
+	}
+
+	public int unsafe_get( int x , int y ) {
+		return (int)((data[y*stride + x/BITS] >>> (x%BITS)) & 1L);
+	}
+
+	/**
+	 * Sets the value of the specified pixel. Any non-zero value is treated as 1.
+	 */
+	public void set( int x , int y , int value ) {
+		if( !isInBounds(x,y) )
+			throw new ImageAccessException("Requested pixel is out of bounds: "+x+" "+y);
+		unsafe_set(x,y,value);
+	}
+
+	public void unsafe_set( int x , int y , int value ) {
+		int index = y*stride + x/BITS;
+		long bit = 1L << (x%BITS);
+		if( value != 0 )
+			data[index] |= bit;
+		else
+			data[index] &= ~bit;
+	}
+
+	public boolean isInBounds( int x , int y ) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * Mask for the bits in the last word of each row which are inside the image
+	 */
+	public long getLastWordMask() {
+		int remainder = width%BITS;
+		return remainder == 0 ? ~0L : (1L << remainder) - 1;
+	}
+
+	/**
+	 * Turns this image into a copy of 'orig'. Reshaped if needed.
+	 */
+	public void setTo( GrayBinary orig ) {
+		reshape(orig.width,orig.height);
+		System.arraycopy(orig.data,0,data,0,stride*height);
+	}
+
+	public GrayBinary createSameShape() {
+		return new GrayBinary(width,height);
+	}
+
+	@SuppressWarnings({"CloneDoesntDeclareCloneNotSupportedException", "MethodDoesntCallSuperMethod"})
+	@Override
+	public GrayBinary clone() {
+		GrayBinary ret = new GrayBinary();
+		ret.setTo(this);
+		return ret;
+	}
+
+	/**
+	 * Total number of pixels in the image
+	 */
+	public int totalPixels() {
+		return width*height;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getStride() {
+		return stride;
+	}
+}
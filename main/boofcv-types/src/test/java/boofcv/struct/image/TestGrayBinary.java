@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestGrayBinary {
+	@Test
+	void reshape() {
+		GrayBinary image = new GrayBinary(65,3);
+		assertEquals(2, image.stride);
+		assertEquals(6, image.data.length);
+
+		image.set(64,2,1);
+		image.reshape(10,4);
+		assertEquals(1, image.stride);
+		assertEquals(6, image.data.length);
+		// shape changed so all the pixels should be zero
+		for (int i = 0; i < image.stride*image.height; i++) {
+			assertEquals(0, image.data[i]);
+		}
+
+		image.reshape(200,4);
+		assertEquals(4, image.stride);
+		assertEquals(16, image.data.length);
+	}
+
+	@Test
+	void get_set() {
+		GrayBinary image = new GrayBinary(130,4);
+		image.set(0,0,1);
+		image.set(63,1,1);
+		image.set(64,2,5);
+		image.set(129,3,1);
+
+		assertEquals(1, image.get(0,0));
+		assertEquals(1, image.get(63,1));
+		assertEquals(1, image.get(64,2));
+		assertEquals(1, image.get(129,3));
+		assertEquals(0, image.get(1,0));
+		assertEquals(0, image.get(63,0));
+		assertEquals(1L, image.data[0]);
+		assertEquals(1L<<63, image.data[3]);
+		assertEquals(1L, image.data[7]);
+		assertEquals(1L<<1, image.data[11]);
+
+		image.set(63,1,0);
+		assertEquals(0, image.get(63,1));
+
+		assertThrows(ImageAccessException.class, ()->image.get(130,0));
+		assertThrows(ImageAccessException.class, ()->image.set(0,4,1));
+	}
+
+	@Test
+	void getLastWordMask() {
+		assertEquals(~0L, new GrayBinary(64,2).getLastWordMask());
+		assertEquals(~0L, new GrayBinary(128,2).getLastWordMask());
+		assertEquals(1L, new GrayBinary(1,2).getLastWordMask());
+		assertEquals(0x7L, new GrayBinary(67,2).getLastWordMask());
+	}
+
+	@Test
+	void setTo() {
+		GrayBinary a = new GrayBinary(70,3);
+		a.set(69,2,1);
+		a.set(3,1,1);
+
+		GrayBinary b = new GrayBinary(5,5);
+		b.setTo(a);
+		assertEquals(70, b.width);
+		assertEquals(3, b.height);
+		for (int i = 0; i < a.stride*a.height; i++) {
+			assertEquals(a.data[i], b.data[i]);
+		}
+
+		GrayBinary c = a.clone();
+		assertNotSame(a.data, c.data);
+		assertEquals(1, c.get(69,2));
+	}
+}